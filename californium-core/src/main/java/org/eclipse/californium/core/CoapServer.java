@@ -37,6 +37,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.californium.core.coap.CoAP.ResponseCode;
 import org.eclipse.californium.core.config.CoapConfig;
@@ -306,10 +307,18 @@ public class CoapServer implements ServerInterface, PersistentComponentProvider
 		if (executor == null) {
 			// sets the central thread pool for the protocol stage over all
 			// endpoints
-			setExecutors(ExecutorsUtil.newScheduledThreadPool(//
-					this.config.get(CoapConfig.PROTOCOL_STAGE_THREAD_COUNT),
-					new NamedThreadFactory("CoapServer(main)#")), //$NON-NLS-1$
-					ExecutorsUtil.newDefaultSecondaryScheduler("CoapServer(secondary)#"), false);
+			int threadCount = this.config.get(CoapConfig.PROTOCOL_STAGE_THREAD_COUNT);
+			long tick = this.config.get(CoapConfig.TIMER_WHEEL_TICK, TimeUnit.MILLISECONDS);
+			ScheduledExecutorService mainExecutor;
+			if (tick > 0) {
+				mainExecutor = ExecutorsUtil.newHashedWheelTimer(
+						ExecutorsUtil.newFixedThreadPool(threadCount, new NamedThreadFactory("CoapServer(main)#")), //$NON-NLS-1$
+						new NamedThreadFactory("CoapServer(timer)#"), tick, TimeUnit.MILLISECONDS); //$NON-NLS-1$
+			} else {
+				mainExecutor = ExecutorsUtil.newScheduledThreadPool(threadCount,
+						new NamedThreadFactory("CoapServer(main)#")); //$NON-NLS-1$
+			}
+			setExecutors(mainExecutor, ExecutorsUtil.newDefaultSecondaryScheduler("CoapServer(secondary)#"), false);
 		}
 
 		if (endpoints.isEmpty()) {
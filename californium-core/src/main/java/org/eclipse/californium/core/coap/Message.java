@@ -45,6 +45,8 @@ package org.eclipse.californium.core.coap;
 
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -135,9 +137,36 @@ public abstract class Message {
 	/** The set of options of this message. */
 	private OptionSet options;
 
-	/** The payload of this message. */
+	/**
+	 * The payload of this message.
+	 * 
+	 * {@code null}, if the payload is only available as slice of
+	 * {@link #payloadBuffer} and not copied yet.
+	 */
 	private byte[] payload = Bytes.EMPTY;
 
+	/**
+	 * Backing array of the payload. Either the {@link #payload} itself, or the
+	 * array, the payload is sliced from.
+	 * 
+	 * @since 3.8
+	 */
+	private byte[] payloadBuffer = Bytes.EMPTY;
+
+	/**
+	 * Offset of the payload in the {@link #payloadBuffer}.
+	 * 
+	 * @since 3.8
+	 */
+	private int payloadOffset;
+
+	/**
+	 * Size of the payload.
+	 * 
+	 * @since 3.8
+	 */
+	private int payloadSize;
+
 	/** Marks this message to have payload even if this is not intended */
 	private boolean unintendedPayload;
 
@@ -604,11 +633,15 @@ public abstract class Message {
 	 * @return the payload size
 	 */
 	public int getPayloadSize() {
-		return payload.length;
+		return payloadSize;
 	}
 
 	/**
 	 * Gets the raw payload.
+	 * 
+	 * If the payload was set as slice using
+	 * {@link #setPayload(byte[], int, int)}, the slice is copied on the first
+	 * call.
 	 *
 	 * @return the payload.
 	 * @throws IllegalStateException if message was {@link #offload}ed.
@@ -617,9 +650,32 @@ public abstract class Message {
 		if (offload != null) {
 			throw new IllegalStateException("message " + offload + " offloaded!");
 		}
+		byte[] payload = this.payload;
+		if (payload == null) {
+			payload = Arrays.copyOfRange(payloadBuffer, payloadOffset, payloadOffset + payloadSize);
+			this.payload = payload;
+		}
 		return payload;
 	}
 
+	/**
+	 * Gets the payload as read-only buffer.
+	 * 
+	 * The payload is not copied. The payload starts at the
+	 * {@link ByteBuffer#position()} and ends at the {@link ByteBuffer#limit()}
+	 * of the returned buffer.
+	 * 
+	 * @return read-only buffer with the payload.
+	 * @throws IllegalStateException if message was {@link #offload}ed.
+	 * @since 3.8
+	 */
+	public ByteBuffer getPayloadBuffer() {
+		if (offload != null) {
+			throw new IllegalStateException("message " + offload + " offloaded!");
+		}
+		return ByteBuffer.wrap(payloadBuffer, payloadOffset, payloadSize).asReadOnlyBuffer();
+	}
+
 	/**
 	 * Gets the payload in the form of a string. Returns an empty string if no
 	 * payload is defined.
@@ -631,14 +687,19 @@ public abstract class Message {
 		if (offload != null) {
 			throw new IllegalStateException("message " + offload + " offloaded!");
 		}
-		if (payload.length == 0) {
+		if (payloadSize == 0) {
 			return "";
 		} else {
-			return new String(payload, CoAP.UTF8_CHARSET);
+			return new String(payloadBuffer, payloadOffset, payloadSize, CoAP.UTF8_CHARSET);
 		}
 	}
 
 	protected String getPayloadTracingString() {
+		byte[] payload = this.payload;
+		if (payload == null) {
+			// don't keep the copy, tracing only
+			payload = Arrays.copyOfRange(payloadBuffer, payloadOffset, payloadOffset + payloadSize);
+		}
 		return StringUtil.toDisplayString(payload, 32);
 	}
 
@@ -659,7 +720,7 @@ public abstract class Message {
 	 */
 	public Message setPayload(String payload) {
 		if (payload == null || payload.isEmpty()) {
-			this.payload = Bytes.EMPTY;
+			clearPayload();
 		} else {
 			setPayload(payload.getBytes(CoAP.UTF8_CHARSET));
 		}
@@ -683,16 +744,79 @@ public abstract class Message {
 	 */
 	public Message setPayload(byte[] payload) {
 		if (payload == null || payload.length == 0) {
-			this.payload = Bytes.EMPTY;
+			clearPayload();
 		} else {
 			if (!isIntendedPayload() && !isUnintendedPayload()) {
 				throw new IllegalArgumentException("Message must not have payload!");
 			}
 			this.payload = payload;
+			this.payloadBuffer = payload;
+			this.payloadOffset = 0;
+			this.payloadSize = payload.length;
 		}
 		return this;
 	}
 
+	/**
+	 * Sets the payload as slice of a larger array.
+	 * 
+	 * The slice is not copied until {@link #getPayload()} is called.
+	 * {@link #getPayloadSize()}, {@link #getPayloadString()}, and
+	 * {@link #getPayloadBuffer()} use the slice directly. Intended to be used
+	 * by parsers, which keep the received message as backing array. The
+	 * content of the backing array must therefore not be changed afterwards.
+	 * 
+	 * Provides a fluent API to chain setters.
+	 * 
+	 * @param buffer backing array of the payload
+	 * @param offset offset of the payload within the backing array
+	 * @param length length of the payload. {@code 0} is not considered to be
+	 *            payload and therefore not cause an IllegalArgumentException,
+	 *            if this message must not have payload.
+	 * @return this Message
+	 * @throws NullPointerException if buffer is {@code null}
+	 * @throws IndexOutOfBoundsException if offset or length doesn't fit into
+	 *             the buffer
+	 * @throws IllegalArgumentException if this message must not have payload
+	 * @see #isIntendedPayload()
+	 * @see #isUnintendedPayload()
+	 * @see #setUnintendedPayload()
+	 * @since 3.8
+	 */
+	public Message setPayload(byte[] buffer, int offset, int length) {
+		if (buffer == null) {
+			throw new NullPointerException("Payload buffer must not be null!");
+		}
+		if (offset < 0 || length < 0 || offset > buffer.length - length) {
+			throw new IndexOutOfBoundsException(
+					"Payload " + offset + "+" + length + " exceeds buffer size " + buffer.length + "!");
+		}
+		if (length == 0) {
+			clearPayload();
+		} else {
+			if (!isIntendedPayload() && !isUnintendedPayload()) {
+				throw new IllegalArgumentException("Message must not have payload!");
+			}
+			this.payload = null;
+			this.payloadBuffer = buffer;
+			this.payloadOffset = offset;
+			this.payloadSize = length;
+		}
+		return this;
+	}
+
+	/**
+	 * Clear payload.
+	 * 
+	 * @since 3.8
+	 */
+	private void clearPayload() {
+		this.payload = Bytes.EMPTY;
+		this.payloadBuffer = Bytes.EMPTY;
+		this.payloadOffset = 0;
+		this.payloadSize = 0;
+	}
+
 	/**
 	 * Check, if the payload size matches the {@link BlockOption#getSize()}.
 	 * 
@@ -1297,7 +1421,7 @@ public abstract class Message {
 			synchronized (acknowledged) {
 				offload = mode;
 				if (mode != null) {
-					payload = Bytes.EMPTY;
+					clearPayload();
 					if (mode == OffloadMode.FULL) {
 						bytes = null;
 						if (options != null) {
@@ -24,6 +24,8 @@
  ******************************************************************************/
 package org.eclipse.californium.core.coap;
 
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -33,6 +35,7 @@ import java.util.List;
 
 import org.eclipse.californium.core.coap.OptionNumberRegistry.CustomOptionNumberRegistry;
 import org.eclipse.californium.elements.util.Bytes;
+import org.eclipse.californium.elements.util.DatagramWriter;
 
 /**
  * {@code OptionSet} is a collection of all options of a request or a response.
@@ -90,6 +93,28 @@ public final class OptionSet {
 	// Arbitrary options
 	private List<Option> others;
 
+	/**
+	 * Backing array of the encoded options. {@code null}, if not available or
+	 * the options are modified after {@link #setEncoded(byte[], int, int)}.
+	 * 
+	 * @since 3.8
+	 */
+	private byte[] encoded;
+
+	/**
+	 * Offset of the encoded options in {@link #encoded}.
+	 * 
+	 * @since 3.8
+	 */
+	private int encodedOffset;
+
+	/**
+	 * Length of the encoded options.
+	 * 
+	 * @since 3.8
+	 */
+	private int encodedLength;
+
 	/**
 	 * Creates an empty set of options.
 	 * <p>
@@ -157,12 +182,17 @@ public final class OptionSet {
 		}
 		no_response         = origin.no_response;
 		others              = copyList(origin.others);
+
+		encoded             = origin.encoded;
+		encodedOffset       = origin.encodedOffset;
+		encodedLength       = origin.encodedLength;
 	}
 
 	/**
 	 * Clears all options.
 	 */
 	public void clear() {
+		modified();
 		if (if_match_list != null)
 			if_match_list.clear();
 		uri_host = null;
@@ -213,11 +243,22 @@ public final class OptionSet {
 	/**
 	 * Gets the list of If-Match ETags.
 	 * <p>
-	 * The OptionSet uses lazy initialization for this list.
+	 * The OptionSet uses lazy initialization for this list. Since 3.8
+	 * modifications of the returned list drop the encoded options.
 	 * 
 	 * @return the list of If-Match ETags
 	 */
 	public List<byte[]> getIfMatch() {
+		return new OptionList<byte[]>() {
+
+			@Override
+			protected List<byte[]> getList(boolean create) {
+				return create ? getIfMatchInternal() : if_match_list;
+			}
+		};
+	}
+
+	private List<byte[]> getIfMatchInternal() {
 		synchronized (this) {
 			if (if_match_list == null)
 				if_match_list = new LinkedList<byte[]>();
@@ -231,7 +272,7 @@ public final class OptionSet {
 	 * @return the count
 	 */
 	public int getIfMatchCount() {
-		return getIfMatch().size();
+		return size(if_match_list);
 	}
 
 	/**
@@ -273,8 +314,9 @@ public final class OptionSet {
 	 * @throws IllegalArgumentException if the etag has more than 8 bytes.
 	 */
 	public OptionSet addIfMatch(byte[] etag) {
+		modified();
 		checkOptionValue(OptionNumberRegistry.IF_MATCH, etag);
-		getIfMatch().add(etag);
+		getIfMatchInternal().add(etag);
 		return this;
 	}
 
@@ -285,7 +327,8 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet removeIfMatch(byte[] etag) {
-		getIfMatch().remove(etag);
+		modified();
+		getIfMatchInternal().remove(etag);
 		return this;
 	}
 
@@ -295,7 +338,8 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet clearIfMatchs() {
-		getIfMatch().clear();
+		modified();
+		getIfMatchInternal().clear();
 		return this;
 	}
 
@@ -327,6 +371,7 @@ public final class OptionSet {
 	 *             255 bytes.
 	 */
 	public OptionSet setUriHost(String host) {
+		modified();
 		checkOptionValue(OptionNumberRegistry.URI_HOST, host);
 		this.uri_host = host;
 		return this;
@@ -338,6 +383,7 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet removeUriHost() {
+		modified();
 		this.uri_host = null;
 		return this;
 	}
@@ -348,11 +394,22 @@ public final class OptionSet {
 	 * In a response, there MUST only be one ETag that defines the payload or
 	 * the resource given through the Location-* options. In a request, there
 	 * can be multiple ETags for validation. The OptionSet uses lazy
-	 * initialization for this list.
+	 * initialization for this list. Since 3.8 modifications of the returned
+	 * list drop the encoded options.
 	 * 
 	 * @return the list of ETags
 	 */
 	public List<byte[]> getETags() {
+		return new OptionList<byte[]>() {
+
+			@Override
+			protected List<byte[]> getList(boolean create) {
+				return create ? getETagsInternal() : etag_list;
+			}
+		};
+	}
+
+	private List<byte[]> getETagsInternal() {
 		synchronized (this) {
 			if (etag_list == null)
 				etag_list = new LinkedList<byte[]>();
@@ -366,7 +423,7 @@ public final class OptionSet {
 	 * @return the count
 	 */
 	public int getETagCount() {
-		return getETags().size();
+		return size(etag_list);
 	}
 
 	/**
@@ -399,9 +456,10 @@ public final class OptionSet {
 	 *             8 bytes.
 	 */
 	public OptionSet addETag(byte[] etag) {
+		modified();
 		checkOptionValue(OptionNumberRegistry.ETAG, etag);
 		if (!containsETag(etag)) {
-			getETags().add(etag.clone());
+			getETagsInternal().add(etag.clone());
 		}
 		return this;
 	}
@@ -416,6 +474,7 @@ public final class OptionSet {
 	 *             8 bytes.
 	 */
 	public OptionSet removeETag(byte[] etag) {
+		modified();
 		checkOptionValue(OptionNumberRegistry.ETAG, etag);
 		if (etag_list != null) {
 			for (int index = 0; index < etag_list.size(); ++index) {
@@ -434,7 +493,8 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet clearETags() {
-		getETags().clear();
+		modified();
+		getETagsInternal().clear();
 		return this;
 	}
 
@@ -454,6 +514,7 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet setIfNoneMatch(boolean present) {
+		modified();
 		if_none_match = present;
 		return this;
 	}
@@ -484,6 +545,7 @@ public final class OptionSet {
 	 * @throws IllegalArgumentException if port is not in valid range
 	 */
 	public OptionSet setUriPort(int port) {
+		modified();
 		OptionNumberRegistry.assertValue(OptionNumberRegistry.URI_PORT, port);
 		this.uri_port = port;
 		return this;
@@ -495,6 +557,7 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet removeUriPort() {
+		modified();
 		uri_port = null;
 		return this;
 	}
@@ -502,11 +565,22 @@ public final class OptionSet {
 	/**
 	 * Gets the list of Location-Path segment strings.
 	 * <p>
-	 * The OptionSet uses lazy initialization for this list.
+	 * The OptionSet uses lazy initialization for this list. Since 3.8
+	 * modifications of the returned list drop the encoded options.
 	 * 
 	 * @return the list of Location-Path segments
 	 */
 	public List<String> getLocationPath() {
+		return new OptionList<String>() {
+
+			@Override
+			protected List<String> getList(boolean create) {
+				return create ? getLocationPathInternal() : location_path_list;
+			}
+		};
+	}
+
+	private List<String> getLocationPathInternal() {
 		synchronized (this) {
 			if (location_path_list == null)
 				location_path_list = new LinkedList<String>();
@@ -522,10 +596,10 @@ public final class OptionSet {
 	public String getLocationString() {
 		StringBuilder builder = new StringBuilder();
 		builder.append('/');
-		appendMultiOption(builder, getLocationPath(), '/');
+		appendMultiOption(builder, location_path_list, '/');
 		if (getLocationQueryCount() > 0) {
 			builder.append('?');
-			appendMultiOption(builder, getLocationQuery(), '&');
+			appendMultiOption(builder, location_query_list, '&');
 		}
 		return builder.toString();
 	}
@@ -536,7 +610,7 @@ public final class OptionSet {
 	 * @return the Location-Path as string
 	 */
 	public String getLocationPathString() {
-		return getMultiOptionString(getLocationPath(), '/');
+		return getMultiOptionString(location_path_list, '/');
 	}
 
 	/**
@@ -545,7 +619,7 @@ public final class OptionSet {
 	 * @return the count
 	 */
 	public int getLocationPathCount() {
-		return getLocationPath().size();
+		return size(location_path_list);
 	}
 
 	/**
@@ -557,8 +631,9 @@ public final class OptionSet {
 	 * @throws IllegalArgumentException if the segment has more than 255 bytes.
 	 */
 	public OptionSet addLocationPath(String segment) {
+		modified();
 		checkOptionValue(OptionNumberRegistry.LOCATION_PATH, segment);
-		getLocationPath().add(segment);
+		getLocationPathInternal().add(segment);
 		return this;
 	}
 
@@ -568,7 +643,8 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet clearLocationPath() {
-		getLocationPath().clear();
+		modified();
+		getLocationPathInternal().clear();
 		return this;
 	}
 
@@ -582,6 +658,7 @@ public final class OptionSet {
 	 *             than 255 bytes.
 	 */
 	public OptionSet setLocationPath(String path) {
+		modified();
 		final String slash = "/";
 
 		// remove leading slash
@@ -606,10 +683,10 @@ public final class OptionSet {
 	public String getUriString() {
 		StringBuilder builder = new StringBuilder();
 		builder.append('/');
-		appendMultiOption(builder, getUriPath(), '/');
+		appendMultiOption(builder, uri_path_list, '/');
 		if (getURIQueryCount() > 0) {
 			builder.append('?');
-			appendMultiOption(builder, getUriQuery(), '&');
+			appendMultiOption(builder, uri_query_list, '&');
 		}
 		return builder.toString();
 	}
@@ -617,11 +694,22 @@ public final class OptionSet {
 	/**
 	 * Gets the list of Uri-Path segment strings.
 	 * <p>
-	 * The OptionSet uses lazy initialization for this list.
+	 * The OptionSet uses lazy initialization for this list. Since 3.8
+	 * modifications of the returned list drop the encoded options.
 	 * 
 	 * @return the list of Uri-Path segments
 	 */
 	public List<String> getUriPath() {
+		return new OptionList<String>() {
+
+			@Override
+			protected List<String> getList(boolean create) {
+				return create ? getUriPathInternal() : uri_path_list;
+			}
+		};
+	}
+
+	private List<String> getUriPathInternal() {
 		synchronized (this) {
 			if (uri_path_list == null)
 				uri_path_list = new LinkedList<String>();
@@ -637,7 +725,7 @@ public final class OptionSet {
 	 * @return the Uri-Path as string
 	 */
 	public String getUriPathString() {
-		return getMultiOptionString(getUriPath(), '/');
+		return getMultiOptionString(uri_path_list, '/');
 	}
 
 	/**
@@ -646,7 +734,7 @@ public final class OptionSet {
 	 * @return the count
 	 */
 	public int getURIPathCount() {
-		return getUriPath().size();
+		return size(uri_path_list);
 	}
 
 	/**
@@ -659,6 +747,7 @@ public final class OptionSet {
 	 *             than 255 bytes.
 	 */
 	public OptionSet setUriPath(String path) {
+		modified();
 		final String slash = "/";
 
 		// remove leading slash
@@ -684,8 +773,9 @@ public final class OptionSet {
 	 * @throws IllegalArgumentException if the segment has more than 255 bytes.
 	 */
 	public OptionSet addUriPath(String segment) {
+		modified();
 		checkOptionValue(OptionNumberRegistry.URI_PATH, segment);
-		getUriPath().add(segment);
+		getUriPathInternal().add(segment);
 		return this;
 	}
 
@@ -695,7 +785,8 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet clearUriPath() {
-		getUriPath().clear();
+		modified();
+		getUriPathInternal().clear();
 		return this;
 	}
 
@@ -749,6 +840,7 @@ public final class OptionSet {
 	 * @see MediaTypeRegistry
 	 */
 	public OptionSet setContentFormat(int format) {
+		modified();
 		if (MediaTypeRegistry.UNDEFINED == format) {
 			content_format = null;
 		} else {
@@ -764,6 +856,7 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet removeContentFormat() {
+		modified();
 		content_format = null;
 		return this;
 	}
@@ -797,6 +890,7 @@ public final class OptionSet {
 	 * @throws IllegalArgumentException if the age has more than 4 bytes.
 	 */
 	public OptionSet setMaxAge(long age) {
+		modified();
 		OptionNumberRegistry.assertValue(OptionNumberRegistry.MAX_AGE, age);
 		max_age = age;
 		return this;
@@ -809,6 +903,7 @@ public final class OptionSet {
 	 * @return this Optionset
 	 */
 	public OptionSet removeMaxAge() {
+		modified();
 		max_age = null;
 		return this;
 	}
@@ -816,11 +911,22 @@ public final class OptionSet {
 	/**
 	 * Gets the list of Uri-Query arguments.
 	 * <p>
-	 * The OptionSet uses lazy initialization for this list.
+	 * The OptionSet uses lazy initialization for this list. Since 3.8
+	 * modifications of the returned list drop the encoded options.
 	 * 
 	 * @return the list of query arguments
 	 */
 	public List<String> getUriQuery() {
+		return new OptionList<String>() {
+
+			@Override
+			protected List<String> getList(boolean create) {
+				return create ? getUriQueryInternal() : uri_query_list;
+			}
+		};
+	}
+
+	private List<String> getUriQueryInternal() {
 		synchronized (this) {
 			if (uri_query_list == null)
 				uri_query_list = new LinkedList<String>();
@@ -834,7 +940,7 @@ public final class OptionSet {
 	 * @return the count
 	 */
 	public int getURIQueryCount() {
-		return getUriQuery().size();
+		return size(uri_query_list);
 	}
 
 	/**
@@ -843,7 +949,7 @@ public final class OptionSet {
 	 * @return the Uri-Query as string
 	 */
 	public String getUriQueryString() {
-		return getMultiOptionString(getUriQuery(), '&');
+		return getMultiOptionString(uri_query_list, '&');
 	}
 
 	/**
@@ -856,6 +962,7 @@ public final class OptionSet {
 	 *             than 255 bytes.
 	 */
 	public OptionSet setUriQuery(String query) {
+		modified();
 		while (query.startsWith("?"))
 			query = query.substring(1);
 
@@ -878,8 +985,9 @@ public final class OptionSet {
 	 * @throws IllegalArgumentException if the argument has more than 255 bytes.
 	 */
 	public OptionSet addUriQuery(String argument) {
+		modified();
 		checkOptionValue(OptionNumberRegistry.URI_QUERY, argument);
-		getUriQuery().add(argument);
+		getUriQueryInternal().add(argument);
 		return this;
 	}
 
@@ -890,7 +998,8 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet removeUriQuery(String argument) {
-		getUriQuery().remove(argument);
+		modified();
+		getUriQueryInternal().remove(argument);
 		return this;
 	}
 
@@ -900,7 +1009,8 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet clearUriQuery() {
-		getUriQuery().clear();
+		modified();
+		getUriQueryInternal().clear();
 		return this;
 	}
 
@@ -946,6 +1056,7 @@ public final class OptionSet {
 	 * @see MediaTypeRegistry
 	 */
 	public OptionSet setAccept(int format) {
+		modified();
 		OptionNumberRegistry.assertValue(OptionNumberRegistry.ACCEPT, format);
 		accept = format;
 		return this;
@@ -957,6 +1068,7 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet removeAccept() {
+		modified();
 		accept = null;
 		return this;
 	}
@@ -964,11 +1076,22 @@ public final class OptionSet {
 	/**
 	 * Gets the list of Location-Query arguments.
 	 * <p>
-	 * The OptionSet uses lazy initialization for this list.
+	 * The OptionSet uses lazy initialization for this list. Since 3.8
+	 * modifications of the returned list drop the encoded options.
 	 * 
 	 * @return the list of query arguments
 	 */
 	public List<String> getLocationQuery() {
+		return new OptionList<String>() {
+
+			@Override
+			protected List<String> getList(boolean create) {
+				return create ? getLocationQueryInternal() : location_query_list;
+			}
+		};
+	}
+
+	private List<String> getLocationQueryInternal() {
 		synchronized (this) {
 			if (location_query_list == null)
 				location_query_list = new LinkedList<String>();
@@ -982,7 +1105,7 @@ public final class OptionSet {
 	 * @return the count
 	 */
 	public int getLocationQueryCount() {
-		return getLocationQuery().size();
+		return size(location_query_list);
 	}
 
 	/**
@@ -991,7 +1114,7 @@ public final class OptionSet {
 	 * @return the Location-Query as string
 	 */
 	public String getLocationQueryString() {
-		return getMultiOptionString(getLocationQuery(), '&');
+		return getMultiOptionString(location_query_list, '&');
 	}
 
 	/**
@@ -1005,6 +1128,7 @@ public final class OptionSet {
 	 *             than 255 bytes.
 	 */
 	public OptionSet setLocationQuery(String query) {
+		modified();
 		while (query.startsWith("?"))
 			query = query.substring(1);
 
@@ -1027,8 +1151,9 @@ public final class OptionSet {
 	 * @throws IllegalArgumentException if the argument has more than 255 bytes.
 	 */
 	public OptionSet addLocationQuery(String argument) {
+		modified();
 		checkOptionValue(OptionNumberRegistry.LOCATION_QUERY, argument);
-		getLocationQuery().add(argument);
+		getLocationQueryInternal().add(argument);
 		return this;
 	}
 
@@ -1039,7 +1164,8 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet removeLocationQuery(String argument) {
-		getLocationQuery().remove(argument);
+		modified();
+		getLocationQueryInternal().remove(argument);
 		return this;
 	}
 
@@ -1049,7 +1175,8 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet clearLocationQuery() {
-		getLocationQuery().clear();
+		modified();
+		getLocationQueryInternal().clear();
 		return this;
 	}
 
@@ -1081,6 +1208,7 @@ public final class OptionSet {
 	 *             1034 bytes.
 	 */
 	public OptionSet setProxyUri(String uri) {
+		modified();
 		checkOptionValue(OptionNumberRegistry.PROXY_URI, uri);
 		proxy_uri = uri;
 		return this;
@@ -1092,6 +1220,7 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet removeProxyUri() {
+		modified();
 		proxy_uri = null;
 		return this;
 	}
@@ -1124,6 +1253,7 @@ public final class OptionSet {
 	 *             than 255 bytes.
 	 */
 	public OptionSet setProxyScheme(String scheme) {
+		modified();
 		checkOptionValue(OptionNumberRegistry.PROXY_SCHEME, scheme);
 		proxy_scheme = scheme;
 		return this;
@@ -1135,6 +1265,7 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet removeProxyScheme() {
+		modified();
 		proxy_scheme = null;
 		return this;
 	}
@@ -1166,6 +1297,7 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet setBlock1(int szx, boolean m, int num) {
+		modified();
 		this.block1 = new BlockOption(szx, m, num);
 		return this;
 	}
@@ -1177,6 +1309,7 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet setBlock1(byte[] value) {
+		modified();
 		this.block1 = new BlockOption(value);
 		return this;
 	}
@@ -1188,6 +1321,7 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet setBlock1(BlockOption block) {
+		modified();
 		this.block1 = block;
 		return this;
 	}
@@ -1198,6 +1332,7 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet removeBlock1() {
+		modified();
 		this.block1 = null;
 		return this;
 	}
@@ -1229,6 +1364,7 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet setBlock2(int szx, boolean m, int num) {
+		modified();
 		this.block2 = new BlockOption(szx, m, num);
 		return this;
 	}
@@ -1240,6 +1376,7 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet setBlock2(byte[] value) {
+		modified();
 		this.block2 = new BlockOption(value);
 		return this;
 	}
@@ -1251,6 +1388,7 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet setBlock2(BlockOption block) {
+		modified();
 		this.block2 = block;
 		return this;
 	}
@@ -1261,6 +1399,7 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet removeBlock2() {
+		modified();
 		this.block2 = null;
 		return this;
 	}
@@ -1290,6 +1429,7 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet setSize1(int size) {
+		modified();
 		this.size1 = size;
 		return this;
 	}
@@ -1300,6 +1440,7 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet removeSize1() {
+		modified();
 		this.size1 = null;
 		return this;
 	}
@@ -1329,6 +1470,7 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet setSize2(int size) {
+		modified();
 		this.size2 = size;
 		return this;
 	}
@@ -1339,6 +1481,7 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet removeSize2() {
+		modified();
 		this.size2 = null;
 		return this;
 	}
@@ -1370,6 +1513,7 @@ public final class OptionSet {
 	 *             2^24 - 1
 	 */
 	public OptionSet setObserve(final int seqnum) {
+		modified();
 		OptionNumberRegistry.assertValue(OptionNumberRegistry.OBSERVE, seqnum);
 		this.observe = seqnum;
 		return this;
@@ -1381,6 +1525,7 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet removeObserve() {
+		modified();
 		observe = null;
 		return this;
 	}
@@ -1423,6 +1568,7 @@ public final class OptionSet {
 	 * @throws IllegalArgumentException if the oscore has more than 255 bytes.
 	 */
 	public OptionSet setOscore(byte[] oscore) {
+		modified();
 		checkOptionValue(OptionNumberRegistry.OSCORE, oscore);
 		this.oscore = oscore.clone();
 		return this;
@@ -1434,6 +1580,7 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet removeOscore() {
+		modified();
 		oscore = null;
 		return this;
 	}
@@ -1466,6 +1613,7 @@ public final class OptionSet {
 	 * @since 3.0
 	 */
 	public OptionSet setNoResponse(int noResponse) {
+		modified();
 		this.no_response = new NoResponseOption(noResponse);
 		return this;
 	}
@@ -1478,6 +1626,7 @@ public final class OptionSet {
 	 * @since 3.0
 	 */
 	public OptionSet setNoResponse(NoResponseOption noResponse) {
+		modified();
 		this.no_response = noResponse;
 		return this;
 	}
@@ -1489,6 +1638,7 @@ public final class OptionSet {
 	 * @since 3.0
 	 */
 	public OptionSet removeNoResponse() {
+		modified();
 		this.no_response = null;
 		return this;
 	}
@@ -1587,6 +1737,7 @@ public final class OptionSet {
 	public List<Option> asSortedList() {
 		ArrayList<Option> options = new ArrayList<Option>();
 
+		// add the standard options ordered by their number
 		if (if_match_list != null)
 			for (byte[] value : if_match_list)
 				options.add(new Option(OptionNumberRegistry.IF_MATCH, value));
@@ -1597,11 +1748,15 @@ public final class OptionSet {
 				options.add(new Option(OptionNumberRegistry.ETAG, value));
 		if (hasIfNoneMatch())
 			options.add(new Option(OptionNumberRegistry.IF_NONE_MATCH, Bytes.EMPTY));
+		if (hasObserve())
+			options.add(new Option(OptionNumberRegistry.OBSERVE, getObserve()));
 		if (hasUriPort())
 			options.add(new Option(OptionNumberRegistry.URI_PORT, getUriPort()));
 		if (location_path_list != null)
 			for (String str : location_path_list)
 				options.add(new Option(OptionNumberRegistry.LOCATION_PATH, str));
+		if (hasOscore())
+			options.add(new Option(OptionNumberRegistry.OSCORE, getOscore()));
 		if (uri_path_list != null)
 			for (String str : uri_path_list)
 				options.add(new Option(OptionNumberRegistry.URI_PATH, str));
@@ -1617,34 +1772,119 @@ public final class OptionSet {
 		if (location_query_list != null)
 			for (String str : location_query_list)
 				options.add(new Option(OptionNumberRegistry.LOCATION_QUERY, str));
+		if (hasBlock2())
+			options.add(new Option(OptionNumberRegistry.BLOCK2, getBlock2().getValue()));
+		if (hasBlock1())
+			options.add(new Option(OptionNumberRegistry.BLOCK1, getBlock1().getValue()));
+		if (hasSize2())
+			options.add(new Option(OptionNumberRegistry.SIZE2, getSize2()));
 		if (hasProxyUri())
 			options.add(new Option(OptionNumberRegistry.PROXY_URI, getProxyUri()));
 		if (hasProxyScheme())
 			options.add(new Option(OptionNumberRegistry.PROXY_SCHEME, getProxyScheme()));
-
-		if (hasObserve())
-			options.add(new Option(OptionNumberRegistry.OBSERVE, getObserve()));
-
-		if (hasBlock1())
-			options.add(new Option(OptionNumberRegistry.BLOCK1, getBlock1().getValue()));
-		if (hasBlock2())
-			options.add(new Option(OptionNumberRegistry.BLOCK2, getBlock2().getValue()));
 		if (hasSize1())
 			options.add(new Option(OptionNumberRegistry.SIZE1, getSize1()));
-		if (hasSize2())
-			options.add(new Option(OptionNumberRegistry.SIZE2, getSize2()));
-		if (hasOscore())
-			options.add(new Option(OptionNumberRegistry.OSCORE, getOscore()));
 		if (hasNoResponse())
 			options.add(getNoResponse().toOption());
 
-		if (others != null)
+		// only other options require sorting
+		if (others != null && !others.isEmpty()) {
 			options.addAll(others);
-
-		Collections.sort(options);
+			Collections.sort(options);
+		}
 		return options;
 	}
 
+	/**
+	 * Sets the encoded options.
+	 * 
+	 * Intended to be used by parsers, which keep the received message. The
+	 * encoded options must match the options of this set. If this set is
+	 * serialized again without modification, the encoded options are written
+	 * directly instead of encoding the options again. Any modification of this
+	 * set, including access to the lists of multiple options, drops the
+	 * encoded options. Changing values of {@link Option}s, which are contained
+	 * in this set, is not detected.
+	 * 
+	 * @param buffer backing array of the encoded options. Must not be modified
+	 *            afterwards.
+	 * @param offset offset of the encoded options within the backing array
+	 * @param length length of the encoded options
+	 * @return this OptionSet for a fluent API.
+	 * @throws NullPointerException if buffer is {@code null}
+	 * @throws IndexOutOfBoundsException if offset or length doesn't fit into
+	 *             the buffer
+	 * @since 3.8
+	 */
+	public OptionSet setEncoded(byte[] buffer, int offset, int length) {
+		if (buffer == null) {
+			throw new NullPointerException("Encoded options must not be null!");
+		}
+		if (offset < 0 || length < 0 || offset > buffer.length - length) {
+			throw new IndexOutOfBoundsException(
+					"Options " + offset + "+" + length + " exceeds buffer size " + buffer.length + "!");
+		}
+		encoded = buffer;
+		encodedOffset = offset;
+		encodedLength = length;
+		return this;
+	}
+
+	/**
+	 * Checks, if the encoded options are available.
+	 * 
+	 * @return {@code true}, if the encoded options are available,
+	 *         {@code false}, if not available or this set was modified.
+	 * @see #setEncoded(byte[], int, int)
+	 * @since 3.8
+	 */
+	public boolean hasEncoded() {
+		return encoded != null;
+	}
+
+	/**
+	 * Writes the encoded options.
+	 * 
+	 * @param writer writer to write the encoded options
+	 * @return {@code true}, if the encoded options are written, {@code false},
+	 *         if not available or this set was modified.
+	 * @see #setEncoded(byte[], int, int)
+	 * @since 3.8
+	 */
+	public boolean writeEncoded(DatagramWriter writer) {
+		byte[] encoded = this.encoded;
+		if (encoded == null) {
+			return false;
+		}
+		writer.writeBytes(encoded, encodedOffset, encodedLength);
+		return true;
+	}
+
+	/**
+	 * Gets the encoded options.
+	 * 
+	 * @return read-only buffer with the encoded options, or {@code null}, if
+	 *         not available or this set was modified.
+	 * @see #setEncoded(byte[], int, int)
+	 * @since 3.8
+	 */
+	public ByteBuffer getEncoded() {
+		byte[] encoded = this.encoded;
+		if (encoded == null) {
+			return null;
+		}
+		return ByteBuffer.wrap(encoded, encodedOffset, encodedLength).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Drops the encoded options on modifications.
+	 * 
+	 * @since 3.8
+	 */
+	private void modified() {
+		encoded = null;
+	}
+
 	/**
 	 * Add options.
 	 * 
@@ -1653,6 +1893,7 @@ public final class OptionSet {
 	 * @since 3.0
 	 */
 	public OptionSet addOptions(Option... options) {
+		modified();
 		if (options != null) {
 			for (Option option : options) {
 				addOption(option);
@@ -1669,6 +1910,7 @@ public final class OptionSet {
 	 * @since 3.0
 	 */
 	public OptionSet addOptions(List<Option> options) {
+		modified();
 		if (options != null) {
 			for (Option option : options) {
 				addOption(option);
@@ -1686,6 +1928,7 @@ public final class OptionSet {
 	 * @return this OptionSet for a fluent API.
 	 */
 	public OptionSet addOption(Option option) {
+		modified();
 		switch (option.getNumber()) {
 		case OptionNumberRegistry.IF_MATCH:
 			addIfMatch(option.getValue());
@@ -1775,6 +2018,7 @@ public final class OptionSet {
 	 * @since 3.7 (throws NullPointerException)
 	 */
 	public OptionSet addOtherOption(Option option) {
+		modified();
 		if (option == null) {
 			throw new NullPointerException("Option must not be null!");
 		}
@@ -1809,6 +2053,7 @@ public final class OptionSet {
 	 * @since 3.7
 	 */
 	public OptionSet clearOtherOption(Option option) {
+		modified();
 		if (option == null) {
 			throw new NullPointerException("Option must not be null!");
 		}
@@ -1834,6 +2079,7 @@ public final class OptionSet {
 	 * @since 3.7
 	 */
 	public OptionSet clearOtherOption(int number) {
+		modified();
 		Iterator<Option> iterator = getOthersInternal().iterator();
 		while (iterator.hasNext()) {
 			Option currentOption = iterator.next();
@@ -1906,7 +2152,7 @@ public final class OptionSet {
 	 * @param separator separator for options
 	 */
 	private void appendMultiOption(StringBuilder builder, List<String> multiOption, char separator) {
-		if (!multiOption.isEmpty()) {
+		if (multiOption != null && !multiOption.isEmpty()) {
 			for (String optionText : multiOption) {
 				builder.append(optionText).append(separator);
 			}
@@ -1914,6 +2160,17 @@ public final class OptionSet {
 		}
 	}
 
+	/**
+	 * Gets size of multiple option.
+	 * 
+	 * @param multiOption multiple option as list. May be {@code null}.
+	 * @return size of multiple option, {@code 0}, if {@code null}.
+	 * @since 3.8
+	 */
+	private static int size(List<?> multiOption) {
+		return multiOption == null ? 0 : multiOption.size();
+	}
+
 	/**
 	 * Check option value.
 	 * 
@@ -1945,4 +2202,61 @@ public final class OptionSet {
 		}
 		OptionNumberRegistry.assertValueLength(optionNumber, value.length);
 	}
+	/**
+	 * List view of a multiple option.
+	 * 
+	 * Read access doesn't create the backing list nor drops the encoded
+	 * options. Modifications create the backing list on demand and drop the
+	 * encoded options.
+	 * 
+	 * @param <T> type of option values
+	 * @since 3.8
+	 */
+	private abstract class OptionList<T> extends AbstractList<T> {
+
+		/**
+		 * Get backing list.
+		 * 
+		 * @param create {@code true}, to create the backing list, if not
+		 *            available.
+		 * @return backing list. May be {@code null}, if not available and
+		 *         {@code create} is {@code false}.
+		 */
+		protected abstract List<T> getList(boolean create);
+
+		@Override
+		public T get(int index) {
+			List<T> list = getList(false);
+			if (list == null) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: 0");
+			}
+			return list.get(index);
+		}
+
+		@Override
+		public int size() {
+			return OptionSet.size(getList(false));
+		}
+
+		@Override
+		public T set(int index, T element) {
+			modified();
+			return getList(true).set(index, element);
+		}
+
+		@Override
+		public void add(int index, T element) {
+			modified();
+			getList(true).add(index, element);
+			++modCount;
+		}
+
+		@Override
+		public T remove(int index) {
+			modified();
+			T element = getList(true).remove(index);
+			++modCount;
+			return element;
+		}
+	}
 }
@@ -30,8 +30,10 @@ import org.eclipse.californium.core.network.deduplication.CropRotation;
 import org.eclipse.californium.core.network.deduplication.NoDeduplicator;
 import org.eclipse.californium.core.network.deduplication.SweepDeduplicator;
 import org.eclipse.californium.core.network.deduplication.SweepPerPeerDeduplicator;
+import org.eclipse.californium.core.network.serialization.UdpDataParser;
 import org.eclipse.californium.core.network.stack.KeyUri;
 import org.eclipse.californium.core.observe.ObserveRelation;
+import org.eclipse.californium.core.server.ServerMessageDeliverer;
 import org.eclipse.californium.elements.config.BooleanDefinition;
 import org.eclipse.californium.elements.config.Configuration;
 import org.eclipse.californium.elements.config.Configuration.ModuleDefinitionsProvider;
@@ -41,6 +43,7 @@ import org.eclipse.californium.elements.config.IntegerDefinition;
 import org.eclipse.californium.elements.config.StringSetDefinition;
 import org.eclipse.californium.elements.config.SystemConfig;
 import org.eclipse.californium.elements.config.TimeDefinition;
+import org.eclipse.californium.elements.util.ExecutorsUtil;
 
 /**
  * Configuration definitions for CoAP.
@@ -750,6 +753,53 @@ public final class CoapConfig {
 			"Process empty messages strictly according RFC7252, 4.1 as format error. Disable to ignore additional data as tokens or options.",
 			true);
 
+	/**
+	 * Use slices of the received UDP messages as payload.
+	 * 
+	 * The payload is only copied, if {@link Message#getPayload()} is called.
+	 * The encoded options are also kept to be used for the
+	 * serialization, if the options are not modified.
+	 * 
+	 * @see UdpDataParser#UdpDataParser(boolean, int[], boolean)
+	 * @since 3.8
+	 */
+	public static final BooleanDefinition UDP_PARSER_PAYLOAD_SLICES = new BooleanDefinition(
+			MODULE + "UDP_PARSER_PAYLOAD_SLICES",
+			"Use slices of the received UDP messages as payload and keep the encoded options. Copy the payload only on demand.",
+			false);
+
+	/**
+	 * Use virtual threads to handle requests of resources without own
+	 * executor.
+	 * 
+	 * Requires java 21 or newer. If virtual threads are not supported, the
+	 * requests are handled by the threads of the protocol stage.
+	 * 
+	 * @see ServerMessageDeliverer
+	 * @see ExecutorsUtil#isVirtualThreadSupported()
+	 * @since 3.8
+	 */
+	public static final BooleanDefinition RESOURCE_VIRTUAL_THREADS = new BooleanDefinition(
+			MODULE + "RESOURCE_VIRTUAL_THREADS",
+			"Use virtual threads to handle requests of resources without own executor. Requires java 21.", false);
+
+	/**
+	 * Tick of the hashed wheel timer used for the protocol stage.
+	 * 
+	 * If larger than {@code 0}, the internal executors of {@link CoapServer}
+	 * and {@link org.eclipse.californium.core.network.CoapEndpoint} use a
+	 * hashed wheel timer for the retransmissions, response timeouts and
+	 * observe relation timers. That schedules and cancels tasks in
+	 * {@code O(1)}, but executes them with the precision of the tick only.
+	 * {@code 0} to use a scheduled thread pool executor.
+	 * 
+	 * @see ExecutorsUtil#newHashedWheelTimer
+	 * @since 3.8
+	 */
+	public static final TimeDefinition TIMER_WHEEL_TICK = new TimeDefinition(MODULE + "TIMER_WHEEL_TICK",
+			"Hashed wheel timer tick for the protocol stage. 0 to use a scheduled thread pool executor.", 0L,
+			TimeUnit.MILLISECONDS);
+
 	public static final ModuleDefinitionsProvider DEFINITIONS = new ModuleDefinitionsProvider() {
 
 		@Override
@@ -813,6 +863,9 @@ public final class CoapConfig {
 
 			config.set(MULTICAST_BASE_MID, DEFAULT_MULTICAST_BASE_MID);
 			config.set(STRICT_EMPTY_MESSAGE_FORMAT, true);
+			config.set(UDP_PARSER_PAYLOAD_SLICES, false);
+			config.set(RESOURCE_VIRTUAL_THREADS, false);
+			config.set(TIMER_WHEEL_TICK, 0, TimeUnit.MILLISECONDS);
 
 			config.set(MAX_SERVER_OBSERVES, DEFAULT_MAX_SERVER_OBSERVES);
 		}
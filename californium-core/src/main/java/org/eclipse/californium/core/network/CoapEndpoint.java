@@ -86,6 +86,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.californium.core.coap.CoAP;
@@ -470,8 +471,15 @@ public class CoapEndpoint implements Endpoint, Executor {
 
 			// in production environments the executor should be set to a multi
 			// threaded version in order to utilize all cores of the processor
-			final ScheduledExecutorService executorService = ExecutorsUtil
-					.newSingleThreadScheduledExecutor(new DaemonThreadFactory(":CoapEndpoint-" + connector + '#')); //$NON-NLS-1$
+			final ScheduledExecutorService executorService;
+			long tick = config.get(CoapConfig.TIMER_WHEEL_TICK, TimeUnit.MILLISECONDS);
+			if (tick > 0) {
+				executorService = ExecutorsUtil.newHashedWheelTimer(null,
+						new DaemonThreadFactory(":CoapEndpoint-" + connector + '#'), tick, TimeUnit.MILLISECONDS); //$NON-NLS-1$
+			} else {
+				executorService = ExecutorsUtil
+						.newSingleThreadScheduledExecutor(new DaemonThreadFactory(":CoapEndpoint-" + connector + '#')); //$NON-NLS-1$
+			}
 			setExecutors(executorService, executorService);
 			addObserver(new EndpointObserver() {
 
@@ -1756,7 +1764,8 @@ public class CoapEndpoint implements Endpoint, Executor {
 					parser = new TcpDataParser(criticalCustomOptions);
 				} else {
 					boolean strictEmptyMessageFormat = config.get(CoapConfig.STRICT_EMPTY_MESSAGE_FORMAT);
-					parser = new UdpDataParser(strictEmptyMessageFormat, criticalCustomOptions);
+					boolean payloadSlices = config.get(CoapConfig.UDP_PARSER_PAYLOAD_SLICES);
+					parser = new UdpDataParser(strictEmptyMessageFormat, criticalCustomOptions, payloadSlices);
 				}
 			}
 			return new CoapEndpoint(connector, config, tokenGenerator, observationStore, exchangeStore,
@@ -62,6 +62,14 @@ public abstract class DataParser {
 	 */
 	private final int[] criticalCustomOptions;
 
+	/**
+	 * Use slices of the received message as payload.
+	 * 
+	 * @see Message#setPayload(byte[], int, int)
+	 * @since 3.8
+	 */
+	private final boolean payloadSlices;
+
 	/**
 	 * Create data parser.
 	 * 
@@ -73,6 +81,7 @@ public abstract class DataParser {
 	 */
 	protected DataParser() {
 		criticalCustomOptions = null;
+		payloadSlices = false;
 	}
 
 	/**
@@ -87,6 +96,36 @@ public abstract class DataParser {
 	 *        default.
 	 */
 	protected DataParser(int[] criticalCustomOptions) {
+		this(criticalCustomOptions, false);
+	}
+
+	/**
+	 * Create data parser with support for critical custom options and payload
+	 * slices.
+	 * 
+	 * With payload slices, {@link #parseMessage(byte[])} doesn't copy the
+	 * received message and the payload is set as slice of that message using
+	 * {@link Message#setPayload(byte[], int, int)}. The payload is only copied,
+	 * if {@link Message#getPayload()} is called. That saves the allocation of
+	 * the payload array, if the payload is only used by
+	 * {@link Message#getPayloadString()}, {@link Message#getPayloadSize()}, or
+	 * {@link Message#getPayloadBuffer()}. The encoded options are also kept
+	 * using {@link OptionSet#setEncoded(byte[], int, int)}, which saves the
+	 * encoding of the options, if the message is serialized again without
+	 * modifications (e.g. forwarded). Requires, that the received message is
+	 * not modified after parsing.
+	 * 
+	 * @param criticalCustomOptions Array of critical custom options. Empty to
+	 *            fail on custom critical options. {@code null} to use
+	 *            {@link OptionNumberRegistry#getCriticalCustomOptions()} as
+	 *            default to check for critical custom options.
+	 * @param payloadSlices {@code true}, to use slices of the received message
+	 *            as payload, {@code false}, to copy the payload.
+	 * @see OptionNumberRegistry#getCriticalCustomOptions()
+	 * @since 3.8
+	 */
+	protected DataParser(int[] criticalCustomOptions, boolean payloadSlices) {
+		this.payloadSlices = payloadSlices;
 		if (criticalCustomOptions == null) {
 			criticalCustomOptions = OptionNumberRegistry.getCriticalCustomOptions();
 		}
@@ -137,20 +176,27 @@ public abstract class DataParser {
 	public final Message parseMessage(final byte[] msg) {
 
 		String errorMsg = "illegal message code";
-		DatagramReader reader = new DatagramReader(msg);
+		// the reader doesn't modify the message, payload slices therefore
+		// don't require a copy
+		DatagramReader reader = new DatagramReader(msg, !payloadSlices);
 		MessageHeader header = parseHeader(reader);
 		try {
 			Message message = null;
 			if (CoAP.isRequest(header.getCode())) {
-				message = parseMessage(reader, header, new Request(CoAP.Code.valueOf(header.getCode())));
+				message = new Request(CoAP.Code.valueOf(header.getCode()));
 			} else if (CoAP.isResponse(header.getCode())) {
-				message = parseMessage(reader, header, new Response(CoAP.ResponseCode.valueOf(header.getCode())));
+				message = new Response(CoAP.ResponseCode.valueOf(header.getCode()));
 			} else if (CoAP.isEmptyMessage(header.getCode())) {
-				message = parseMessage(reader, header, new EmptyMessage(header.getType()));
+				message = new EmptyMessage(header.getType());
 			}
 
 			// Set the message's bytes and return the message
 			if (message != null) {
+				if (payloadSlices) {
+					message = parseMessage(reader, header, message, msg);
+				} else {
+					message = parseMessage(reader, header, message);
+				}
 				message.setBytes(msg);
 				return message;
 			}
@@ -172,14 +218,31 @@ public abstract class DataParser {
 	 * @param target target message.
 	 * @return read and completed message.
 	 * @see #parseOptionsAndPayload(DatagramReader, Message)
-	 * @since 2.6
+	 * @since 2.6 (since 3.8 not used, if the parser is created with payload
+	 *        slices)
 	 */
 	protected Message parseMessage(DatagramReader reader, MessageHeader header, Message target) {
+		return parseMessage(reader, header, target, null);
+	}
+
+	/**
+	 * Parse message after header.
+	 * 
+	 * @param reader for reading the byte array to parse.
+	 * @param header already read message header
+	 * @param target target message.
+	 * @param source source array of the reader to be used as backing array
+	 *            for payload slices and encoded options. {@code null}, to
+	 *            copy the payload.
+	 * @return read and completed message.
+	 * @since 3.8
+	 */
+	private Message parseMessage(DatagramReader reader, MessageHeader header, Message target, byte[] source) {
 		target.setMID(header.getMID());
 		target.setType(header.getType());
 		target.setToken(header.getToken());
 
-		parseOptionsAndPayload(reader, target);
+		parseOptionsAndPayload(reader, target, source);
 		return target;
 	}
 
@@ -231,6 +294,21 @@ public abstract class DataParser {
 	 *        validate the options according the protocol flavor.
 	 */
 	public void parseOptionsAndPayload(DatagramReader reader, Message message) {
+		parseOptionsAndPayload(reader, message, null);
+	}
+
+	/**
+	 * Parse options and payload from reader.
+	 * 
+	 * @param reader reader that contains the bytes to parse
+	 * @param message message to set parsed options and payload
+	 * @param source source array of the reader to be used as backing array
+	 *            for payload slices and encoded options. {@code null}, to
+	 *            copy the payload.
+	 * @throws NullPointerException if reader or message is {@code null}
+	 * @since 3.8
+	 */
+	private void parseOptionsAndPayload(DatagramReader reader, Message message, byte[] source) {
 		if (reader == null) {
 			throw new NullPointerException("reader must not be null!");
 		}
@@ -240,6 +318,9 @@ public abstract class DataParser {
 		int currentOptionNumber = 0;
 		byte nextByte = 0;
 		OptionSet optionSet = message.getOptions();
+		// keep the encoded options, if all options are added
+		boolean encoded = source != null;
+		int optionsOffset = encoded ? source.length - reader.bitsLeft() / Byte.SIZE : 0;
 
 		while (reader.bytesAvailable()) {
 			nextByte = reader.readNextByte();
@@ -261,6 +342,8 @@ public abstract class DataParser {
 					Option option = createOption(currentOptionNumber, value);
 					if (option != null) {
 						optionSet.addOption(option);
+					} else {
+						encoded = false;
 					}
 				} else {
 					String msg = String.format(
@@ -282,6 +365,13 @@ public abstract class DataParser {
 			throw new CoAPMessageFormatException(ex.getMessage(), message.getToken(), message.getMID(),
 					message.getRawCode(), message.isConfirmable(), ResponseCode.BAD_REQUEST);
 		}
+		if (encoded) {
+			int optionsEnd = source.length - reader.bitsLeft() / Byte.SIZE;
+			if (nextByte == PAYLOAD_MARKER) {
+				--optionsEnd;
+			}
+			optionSet.setEncoded(source, optionsOffset, optionsEnd - optionsOffset);
+		}
 		if (nextByte == PAYLOAD_MARKER) {
 			// the presence of a marker followed by a zero-length payload must
 			// be processed as a message format error
@@ -293,7 +383,15 @@ public abstract class DataParser {
 				if (!message.isIntendedPayload()) {
 					message.setUnintendedPayload();
 				}
-				message.setPayload(reader.readBytesLeft());
+				int length = reader.bitsLeft() / Byte.SIZE;
+				if (source != null && length <= source.length) {
+					// payload is at the end of the message
+					message.setPayload(source, source.length - length, length);
+					// consume the payload
+					reader.close();
+				} else {
+					message.setPayload(reader.readBytesLeft());
+				}
 				message.assertPayloadMatchsBlocksize();
 			}
 		} else {
@@ -29,6 +29,9 @@
  ******************************************************************************/
 package org.eclipse.californium.core.network.serialization;
 
+import java.nio.ByteBuffer;
+import java.util.List;
+
 import org.eclipse.californium.core.coap.*;
 import org.eclipse.californium.core.coap.CoAP.Type;
 import org.eclipse.californium.elements.MessageCallback;
@@ -42,6 +45,13 @@ import static org.eclipse.californium.core.coap.CoAP.MessageFormat.*;
  */
 public abstract class DataSerializer {
 
+	/**
+	 * Initial size of pooled writers.
+	 * 
+	 * @see DatagramWriter#DatagramWriter(int, boolean, boolean)
+	 */
+	private static final int DEFAULT_POOLED_SIZE = 64;
+
 	/**
 	 * Serializes a message to the wire format.
 	 * <p>
@@ -54,9 +64,29 @@ public abstract class DataSerializer {
 	 * @throws IllegalArgumentException if a NON empty-message is provided, or a
 	 *             empty-message uses a none-empty-token.
 	 * @see #serializeEmpytMessage(DatagramWriter, Message)
-	 * @see #serializeMessage(DatagramWriter, Message)
+	 * @see #serializeMessage(Message)
 	 */
 	public final byte[] getByteArray(final Message message) {
+		assertValidMessage(message);
+		if (message.getRawCode() == 0) {
+			DatagramWriter messageWriter = new DatagramWriter(4);
+			serializeEmpytMessage(messageWriter, message);
+			return messageWriter.toByteArray();
+		} else {
+			return serializeMessage(message);
+		}
+	}
+
+	/**
+	 * Assert, that the message is valid to be serialized.
+	 * 
+	 * @param message The message to serialize.
+	 * @throws NullPointerException if message is {@code null}
+	 * @throws IllegalArgumentException if a NON empty-message is provided, or a
+	 *             empty-message uses a none-empty-token.
+	 * @since 3.8
+	 */
+	private void assertValidMessage(final Message message) {
 		if (message == null) {
 			throw new NullPointerException("message must not be null!");
 		}
@@ -72,13 +102,6 @@ public abstract class DataSerializer {
 			} else if (message.getPayloadSize() > 0) {
 				throw new IllegalArgumentException("Empty messages must not contain payload!");
 			}
-			DatagramWriter messageWriter = new DatagramWriter(4);
-			serializeEmpytMessage(messageWriter, message);
-			return messageWriter.toByteArray();
-		} else {
-			DatagramWriter messageWriter = new DatagramWriter();
-			serializeMessage(messageWriter, message);
-			return messageWriter.toByteArray();
 		}
 	}
 
@@ -224,16 +247,40 @@ public abstract class DataSerializer {
 	 * @since 2.6
 	 */
 	protected void serializeMessage(DatagramWriter writer, Message message) {
-		DatagramWriter optionsAndPayloadWriter = new DatagramWriter();
-		serializeOptionsAndPayload(optionsAndPayloadWriter, message.getOptions(), message.getPayload());
-		optionsAndPayloadWriter.writeCurrentByte();
+		DatagramWriter optionsAndPayloadWriter = new DatagramWriter(DEFAULT_POOLED_SIZE, false, true);
+		try {
+			serializeOptionsAndPayload(optionsAndPayloadWriter, message.getOptions(), message.getPayload());
+			optionsAndPayloadWriter.writeCurrentByte();
 
-		MessageHeader header = new MessageHeader(CoAP.VERSION, message.getType(), message.getToken(),
-				message.getRawCode(), message.getMID(), optionsAndPayloadWriter.size());
+			MessageHeader header = new MessageHeader(CoAP.VERSION, message.getType(), message.getToken(),
+					message.getRawCode(), message.getMID(), optionsAndPayloadWriter.size());
 
-		serializeHeader(writer, header);
-		writer.writeCurrentByte();
-		writer.write(optionsAndPayloadWriter);
+			serializeHeader(writer, header);
+			writer.writeCurrentByte();
+			writer.write(optionsAndPayloadWriter);
+		} finally {
+			optionsAndPayloadWriter.close();
+		}
+	}
+
+	/**
+	 * Serialize message into a new byte array.
+	 * 
+	 * Used to serialize non empty messages. The default implementation uses
+	 * {@link #serializeMessage(DatagramWriter, Message)}.
+	 * 
+	 * @param message the message to serialize.
+	 * @return the encoded message.
+	 * @since 3.8
+	 */
+	protected byte[] serializeMessage(Message message) {
+		DatagramWriter messageWriter = new DatagramWriter(DEFAULT_POOLED_SIZE, false, true);
+		try {
+			serializeMessage(messageWriter, message);
+			return messageWriter.toByteArray();
+		} finally {
+			messageWriter.close();
+		}
 	}
 
 	/**
@@ -260,11 +307,15 @@ public abstract class DataSerializer {
 	 * Serialize options and payload. Append the serialized options and payload
 	 * to the writer.
 	 * 
+	 * If the option set provides still the encoded options of a received
+	 * message, these are written without encoding the options again.
+	 * 
 	 * @param writer writer to append the data
 	 * @param optionSet option set to be serialized
 	 * @param payload payload to be serialized. Maybe {@code null} for no
 	 *            payload.
 	 * @throws NullPointerException if either writer or options is {@code null}
+	 * @see OptionSet#writeEncoded(DatagramWriter)
 	 */
 	public static void serializeOptionsAndPayload(DatagramWriter writer, final OptionSet optionSet,
 			final byte[] payload) {
@@ -275,48 +326,142 @@ public abstract class DataSerializer {
 			throw new NullPointerException("option-set must not be null!");
 		}
 
+		if (!optionSet.writeEncoded(writer)) {
+			writeOptions(writer, optionSet.asSortedList());
+		}
+
+		if (payload != null && payload.length > 0) {
+			// if payload is present and of non-zero length, it is prefixed by
+			// an one-byte Payload Marker (0xFF) which indicates the end of
+			// options and the start of the payload
+			writer.writeByte(PAYLOAD_MARKER);
+			writer.writeBytes(payload);
+		}
+	}
+
+	/**
+	 * Gets the size of the encoded options.
+	 * 
+	 * @param options sorted list of options
+	 * @return size of the encoded options in bytes
+	 * @throws IllegalArgumentException if an option number delta or value
+	 *             length exceeds 65535 + 269.
+	 * @since 3.8
+	 */
+	static int getOptionsSize(final List<Option> options) {
+		int size = 0;
 		int lastOptionNumber = 0;
-		for (Option option : optionSet.asSortedList()) {
-			byte[] value = option.getValue();
+		for (Option option : options) {
+			int optionNumber = option.getNumber();
+			int optionLength = option.getLength();
+			size += 1 + getOptionExtendedSize(optionNumber - lastOptionNumber) + getOptionExtendedSize(optionLength)
+					+ optionLength;
+			lastOptionNumber = optionNumber;
+		}
+		return size;
+	}
 
-			// write 4-bit option delta
+	/**
+	 * Writes the encoded options into the buffer.
+	 * 
+	 * @param buffer buffer to write the encoded options
+	 * @param options sorted list of options
+	 * @throws IllegalArgumentException if an option number delta or value
+	 *             length exceeds 65535 + 269.
+	 * @since 3.8
+	 */
+	static void writeOptions(final ByteBuffer buffer, final List<Option> options) {
+		int lastOptionNumber = 0;
+		for (Option option : options) {
+			byte[] value = option.getValue();
 			int optionNumber = option.getNumber();
 			int optionDelta = optionNumber - lastOptionNumber;
 			int optionDeltaNibble = getOptionNibble(optionDelta);
-			writer.write(optionDeltaNibble, OPTION_DELTA_BITS);
+			int optionLength = value.length;
+			int optionLengthNibble = getOptionNibble(optionLength);
+			buffer.put((byte) ((optionDeltaNibble << OPTION_LENGTH_BITS) | optionLengthNibble));
+			writeOptionExtended(buffer, optionDeltaNibble, optionDelta);
+			writeOptionExtended(buffer, optionLengthNibble, optionLength);
+			buffer.put(value);
+			lastOptionNumber = optionNumber;
+		}
+	}
 
-			// write 4-bit option length
+	/**
+	 * Writes the encoded options into the writer.
+	 * 
+	 * @param writer writer to write the encoded options
+	 * @param options sorted list of options
+	 * @throws IllegalArgumentException if an option number delta or value
+	 *             length exceeds 65535 + 269.
+	 * @since 3.8
+	 */
+	static void writeOptions(final DatagramWriter writer, final List<Option> options) {
+		int lastOptionNumber = 0;
+		for (Option option : options) {
+			byte[] value = option.getValue();
+			int optionNumber = option.getNumber();
+			int optionDelta = optionNumber - lastOptionNumber;
+			int optionDeltaNibble = getOptionNibble(optionDelta);
 			int optionLength = value.length;
 			int optionLengthNibble = getOptionNibble(optionLength);
+			writer.write(optionDeltaNibble, OPTION_DELTA_BITS);
 			writer.write(optionLengthNibble, OPTION_LENGTH_BITS);
-
-			// write extended option delta field (0 - 2 bytes)
-			if (optionDeltaNibble == 13) {
-				writer.write(optionDelta - 13, Byte.SIZE);
-			} else if (optionDeltaNibble == 14) {
-				writer.write(optionDelta - 269, 2 * Byte.SIZE);
-			}
-
-			// write extended option length field (0 - 2 bytes)
-			if (optionLengthNibble == 13) {
-				writer.write(optionLength - 13, Byte.SIZE);
-			} else if (optionLengthNibble == 14) {
-				writer.write(optionLength - 269, 2 * Byte.SIZE);
-			}
-
-			// write option value
+			writeOptionExtended(writer, optionDeltaNibble, optionDelta);
+			writeOptionExtended(writer, optionLengthNibble, optionLength);
 			writer.writeBytes(value);
-
-			// update last option number
 			lastOptionNumber = optionNumber;
 		}
+	}
 
-		if (payload != null && payload.length > 0) {
-			// if payload is present and of non-zero length, it is prefixed by
-			// an one-byte Payload Marker (0xFF) which indicates the end of
-			// options and the start of the payload
-			writer.writeByte(PAYLOAD_MARKER);
-			writer.writeBytes(payload);
+	/**
+	 * Writes extended option delta or length.
+	 * 
+	 * @param writer writer to write the extended option delta or length
+	 * @param nibble 4-bit option header value
+	 * @param optionValue option delta or length
+	 * @since 3.8
+	 */
+	private static void writeOptionExtended(final DatagramWriter writer, final int nibble, final int optionValue) {
+		if (nibble == 13) {
+			writer.write(optionValue - 13, Byte.SIZE);
+		} else if (nibble == 14) {
+			writer.write(optionValue - 269, 2 * Byte.SIZE);
+		}
+	}
+
+	/**
+	 * Writes extended option delta or length.
+	 * 
+	 * @param buffer buffer to write the extended option delta or length
+	 * @param nibble 4-bit option header value
+	 * @param optionValue option delta or length
+	 * @since 3.8
+	 */
+	private static void writeOptionExtended(final ByteBuffer buffer, final int nibble, final int optionValue) {
+		if (nibble == 13) {
+			buffer.put((byte) (optionValue - 13));
+		} else if (nibble == 14) {
+			buffer.putShort((short) (optionValue - 269));
+		}
+	}
+
+	/**
+	 * Returns the size of the extended option delta or length.
+	 * 
+	 * @param optionValue the option value (delta or length) to be encoded.
+	 * @return the size of the extended field in bytes.
+	 * @throws IllegalArgumentException if the option value is &gt; 65535 + 269.
+	 * @since 3.8
+	 */
+	private static int getOptionExtendedSize(final int optionValue) {
+		int nibble = getOptionNibble(optionValue);
+		if (nibble == 13) {
+			return 1;
+		} else if (nibble == 14) {
+			return 2;
+		} else {
+			return 0;
 		}
 	}
 
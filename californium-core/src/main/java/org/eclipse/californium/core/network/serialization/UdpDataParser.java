@@ -96,7 +96,28 @@ public class UdpDataParser extends DataParser {
 	 *        default.
 	 */
 	public UdpDataParser(boolean strictEmptyMessageFormat, int[] criticalCustomOptions) {
-		super(criticalCustomOptions);
+		this(strictEmptyMessageFormat, criticalCustomOptions, false);
+	}
+
+	/**
+	 * Create UDP data parser with support for critical custom options,
+	 * provided strictness for empty message format, and payload slices.
+	 * 
+	 * @param strictEmptyMessageFormat {@code true}, to process messages with
+	 *            code {@code 0} strictly according RFC7252, 4.1.,
+	 *            {@code false}, to relax the MUST in a not compliant way!
+	 * @param criticalCustomOptions Array of critical custom options. Empty to
+	 *            fail on custom critical options. {@code null} to use
+	 *            {@link OptionNumberRegistry#getCriticalCustomOptions()} as
+	 *            default to check for critical custom options.
+	 * @param payloadSlices {@code true}, to use slices of the received message
+	 *            as payload, {@code false}, to copy the payload.
+	 * @see UdpDataParser#UdpDataParser(boolean, int[])
+	 * @see DataParser#DataParser(int[], boolean)
+	 * @since 3.8
+	 */
+	public UdpDataParser(boolean strictEmptyMessageFormat, int[] criticalCustomOptions, boolean payloadSlices) {
+		super(criticalCustomOptions, payloadSlices);
 		this.strictEmptyMessageFormat = strictEmptyMessageFormat;
 	}
 
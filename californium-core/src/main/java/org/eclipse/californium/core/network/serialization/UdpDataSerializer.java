@@ -24,9 +24,14 @@ package org.eclipse.californium.core.network.serialization;
 
 import static org.eclipse.californium.core.coap.CoAP.MessageFormat.*;
 
+import java.nio.ByteBuffer;
+import java.util.List;
+
 import org.eclipse.californium.core.coap.CoAP;
 import org.eclipse.californium.core.coap.Message;
+import org.eclipse.californium.core.coap.Option;
 import org.eclipse.californium.core.coap.OptionSet;
+import org.eclipse.californium.core.coap.Token;
 import org.eclipse.californium.elements.util.DatagramWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -61,6 +66,56 @@ public final class UdpDataSerializer extends DataSerializer {
 		serializeOptionsAndPayload(writer, message.getOptions(), message.getPayload());
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Calculates the size of the encoded message ahead and writes it into a
+	 * byte array of that size. That avoids to enlarge and copy the buffer
+	 * while writing.
+	 * 
+	 * @since 3.8
+	 */
+	@Override
+	protected byte[] serializeMessage(Message message) {
+		int mid = message.getMID();
+		if (mid == Message.NONE) {
+			IllegalArgumentException ex = new IllegalArgumentException("MID required for UDP serialization!");
+			LOGGER.warn("UDP, {}:", message, ex);
+			throw ex;
+		}
+		Token token = message.getToken();
+		OptionSet optionSet = message.getOptions();
+		ByteBuffer encodedOptions = optionSet.getEncoded();
+		List<Option> options = null;
+		ByteBuffer payload = message.getPayloadBuffer();
+		int size = 4 + token.length();
+		if (encodedOptions != null) {
+			size += encodedOptions.remaining();
+		} else {
+			options = optionSet.asSortedList();
+			size += getOptionsSize(options);
+		}
+		if (payload.hasRemaining()) {
+			size += 1 + payload.remaining();
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		buffer.put((byte) ((VERSION << (TYPE_BITS + TOKEN_LENGTH_BITS)) | (message.getType().value << TOKEN_LENGTH_BITS)
+				| token.length()));
+		buffer.put((byte) message.getRawCode());
+		buffer.putShort((short) mid);
+		buffer.put(token.getBytes());
+		if (encodedOptions != null) {
+			buffer.put(encodedOptions);
+		} else {
+			writeOptions(buffer, options);
+		}
+		if (payload.hasRemaining()) {
+			buffer.put(PAYLOAD_MARKER);
+			buffer.put(payload);
+		}
+		return buffer.array();
+	}
+
 	@Override 
 	protected void serializeHeader(final DatagramWriter writer, final MessageHeader header) {
 		writer.write(VERSION, VERSION_BITS);
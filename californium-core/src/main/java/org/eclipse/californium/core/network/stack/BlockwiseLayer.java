@@ -82,6 +82,7 @@ import org.eclipse.californium.elements.EndpointContextMatcher;
 import org.eclipse.californium.elements.config.Configuration;
 import org.eclipse.californium.elements.config.SystemConfig;
 import org.eclipse.californium.elements.util.LeastRecentlyUsedCache;
+import org.eclipse.californium.elements.util.StripedLeastRecentlyUsedCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -131,7 +132,8 @@ import org.slf4j.LoggerFactory;
  * Synchronization: The blockwise-layer uses synchronization to prevent from
  * failures caused by race-conditions. All blockwise-status are kept in
  * {@link #block1Transfers} or {@link #block1Transfers}. Add, get, remove a
- * blockwise-status are executed synchronized on these collection.
+ * blockwise-status are executed synchronized on the lock of the key in these
+ * collections, see {@link StripedLeastRecentlyUsedCache#getLock(Object)}.
  * <ul>
  * <li>{@link #getOutboundBlock1Status(KeyUri, Exchange, Request, boolean)}</li>
  * <li>{@link #getInboundBlock1Status(KeyUri, Exchange, Request, boolean)}</li>
@@ -211,8 +213,8 @@ public class BlockwiseLayer extends AbstractLayer {
 		}
 
 	};
-	private final LeastRecentlyUsedCache<KeyUri, Block1BlockwiseStatus> block1Transfers;
-	private final LeastRecentlyUsedCache<KeyUri, Block2BlockwiseStatus> block2Transfers;
+	private final StripedLeastRecentlyUsedCache<KeyUri, Block1BlockwiseStatus> block1Transfers;
+	private final StripedLeastRecentlyUsedCache<KeyUri, Block2BlockwiseStatus> block2Transfers;
 	private final AtomicInteger ignoredBlock2 = new AtomicInteger();
 	private final String tag;
 	private volatile boolean enableStatus;
@@ -344,7 +346,7 @@ public class BlockwiseLayer extends AbstractLayer {
 		blockInterval = config.getTimeAsInt(CoapConfig.BLOCKWISE_STATUS_INTERVAL,TimeUnit.MILLISECONDS);
 		maxResourceBodySize = config.get(CoapConfig.MAX_RESOURCE_BODY_SIZE);
 		int maxActivePeers = config.get(CoapConfig.MAX_ACTIVE_PEERS);
-		block1Transfers = new LeastRecentlyUsedCache<>(maxActivePeers / 10, maxActivePeers, blockTimeout,
+		block1Transfers = new StripedLeastRecentlyUsedCache<>(maxActivePeers / 10, maxActivePeers, blockTimeout,
 				TimeUnit.MILLISECONDS);
 		block1Transfers.setEvictingOnReadAccess(false);
 		block1Transfers.addEvictionListener(new LeastRecentlyUsedCache.EvictionListener<Block1BlockwiseStatus>() {
@@ -357,7 +359,7 @@ public class BlockwiseLayer extends AbstractLayer {
 				}
 			}
 		});
-		block2Transfers = new LeastRecentlyUsedCache<>(maxActivePeers / 10, maxActivePeers, blockTimeout,
+		block2Transfers = new StripedLeastRecentlyUsedCache<>(maxActivePeers / 10, maxActivePeers, blockTimeout,
 				TimeUnit.MILLISECONDS);
 		block2Transfers.setEvictingOnReadAccess(false);
 		block2Transfers.addEvictionListener(new LeastRecentlyUsedCache.EvictionListener<Block2BlockwiseStatus>() {
@@ -885,7 +887,7 @@ public class BlockwiseLayer extends AbstractLayer {
 							&& block1.getSize() < initialRequest.getPayloadSize();
 
 					Block1BlockwiseStatus status;
-					synchronized (block1Transfers) {
+					synchronized (block1Transfers.getLock(key)) {
 						status = getBlock1Status(key);
 						if (status == null && start) {
 							// We sent a request without using block1 and
@@ -937,7 +939,7 @@ public class BlockwiseLayer extends AbstractLayer {
 						maxSize = initialRequest.getPayloadSize() - 1;
 					}
 					if (maxSize != null) {
-						synchronized (block1Transfers) {
+						synchronized (block1Transfers.getLock(key)) {
 							if (getBlock1Status(key) == null) {
 								// Start blockwise if we guess a correct size
 								int blockszx = BlockOption.size2Szx(maxSize);
@@ -1172,7 +1174,7 @@ public class BlockwiseLayer extends AbstractLayer {
 			upper().receiveResponse(exchange, response);
 		} else {
 			Block2BlockwiseStatus status;
-			synchronized (block2Transfers) {
+			synchronized (block2Transfers.getLock(key)) {
 				status = getBlock2Status(key);
 				if (discardBlock2(key, status, exchange, response)) {
 					return;
@@ -1285,7 +1287,7 @@ public class BlockwiseLayer extends AbstractLayer {
 	 * 
 	 * If not available, create new block1status,
 	 * 
-	 * Synchronized on {@link #block1Transfers}.
+	 * Synchronized on the lock of the key in {@link #block1Transfers}.
 	 * 
 	 * @param key uri-key
 	 * @param exchange blockwise exchange.
@@ -1299,10 +1301,10 @@ public class BlockwiseLayer extends AbstractLayer {
 	private Block1BlockwiseStatus getOutboundBlock1Status(KeyUri key, Exchange exchange, Request request,
 			boolean reset) {
 
-		Integer size = null;
+		boolean created = false;
 		Block1BlockwiseStatus previousStatus = null;
 		Block1BlockwiseStatus status = null;
-		synchronized (block1Transfers) {
+		synchronized (block1Transfers.getLock(key)) {
 			if (reset) {
 				previousStatus = block1Transfers.remove(key);
 			} else {
@@ -1313,15 +1315,15 @@ public class BlockwiseLayer extends AbstractLayer {
 						maxTcpBertBulkBlocks);
 				block1Transfers.put(key, status);
 				enableStatus = true;
-				size = block1Transfers.size();
+				created = true;
 			}
 		}
 		if (previousStatus != null && previousStatus.cancelRequest()) {
 			LOGGER.debug("{}stop previous block1 transfer {} {} for new {}", tag, key, previousStatus, request);
 		}
-		if (size != null) {
+		if (created) {
 			LOGGER.debug("{}created tracker for outbound block1 transfer {}, transfers in progress: {}", tag, status,
-					size);
+					block1Transfers.size());
 		} else {
 			LOGGER.debug("{}block1 transfer {} for {}", tag, key, request);
 		}
@@ -1334,7 +1336,7 @@ public class BlockwiseLayer extends AbstractLayer {
 	 * If {@code true} is provided for {@code reset}, remove and complete the
 	 * previous block1status. If not available, create new block1status.
 	 * 
-	 * Synchronized on {@link #block1Transfers}.
+	 * Synchronized on the lock of the key in {@link #block1Transfers}.
 	 * 
 	 * @param key uri-key
 	 * @param exchange blockwise exchange.
@@ -1349,11 +1351,11 @@ public class BlockwiseLayer extends AbstractLayer {
 			boolean reset) {
 
 		boolean check = !reset;
-		Integer size = null;
+		boolean created = false;
 		Block1BlockwiseStatus previousStatus = null;
 		Block1BlockwiseStatus status = null;
 		int maxPayloadSize = getMaxResourceBodySize(request);
-		synchronized (block1Transfers) {
+		synchronized (block1Transfers.getLock(key)) {
 			if (reset) {
 				previousStatus = block1Transfers.remove(key);
 			} else {
@@ -1365,7 +1367,7 @@ public class BlockwiseLayer extends AbstractLayer {
 						maxTcpBertBulkBlocks);
 				block1Transfers.put(key, status);
 				enableStatus = true;
-				size = block1Transfers.size();
+				created = true;
 			}
 		}
 		if (previousStatus != null && previousStatus.complete()) {
@@ -1380,9 +1382,9 @@ public class BlockwiseLayer extends AbstractLayer {
 				return getInboundBlock1Status(key, exchange, request, true);
 			}
 		}
-		if (size != null) {
+		if (created) {
 			LOGGER.debug("{}created tracker for inbound block1 transfer {}, transfers in progress: {}", tag, status,
-					size);
+					block1Transfers.size());
 		} else {
 			LOGGER.debug("{}block1 transfer {} for {}", tag, key, request);
 		}
@@ -1397,7 +1399,7 @@ public class BlockwiseLayer extends AbstractLayer {
 	 * If {@code true} is provided for {@code reset}, remove and complete the
 	 * previous block2status. If not available, create new block2status.
 	 * 
-	 * Synchronized on {@link #block2Transfers}.
+	 * Synchronized on the lock of the key in {@link #block2Transfers}.
 	 * 
 	 * @param key uri-key
 	 * @param exchange blockwise exchange.
@@ -1411,10 +1413,10 @@ public class BlockwiseLayer extends AbstractLayer {
 	private Block2BlockwiseStatus getOutboundBlock2Status(KeyUri key, Exchange exchange, Response response,
 			boolean reset) {
 
-		Integer size = null;
+		boolean created = false;
 		Block2BlockwiseStatus previousStatus = null;
 		Block2BlockwiseStatus status = null;
-		synchronized (block2Transfers) {
+		synchronized (block2Transfers.getLock(key)) {
 			if (reset) {
 				previousStatus = block2Transfers.remove(key);
 			} else {
@@ -1425,15 +1427,15 @@ public class BlockwiseLayer extends AbstractLayer {
 						maxTcpBertBulkBlocks);
 				block2Transfers.put(key, status);
 				enableStatus = true;
-				size = block2Transfers.size();
+				created = true;
 			}
 		}
 		if (previousStatus != null && previousStatus.completeResponse()) {
 			LOGGER.debug("{}stop previous block2 transfer {} {} for new {}", tag, key, previousStatus, response);
 		}
-		if (size != null) {
+		if (created) {
 			LOGGER.debug("{}created tracker for outbound block2 transfer {}, transfers in progress: {}", tag, status,
-					size);
+					block2Transfers.size());
 		} else {
 			LOGGER.debug("{}block2 transfer {} for {}", tag, key, response);
 		}
@@ -1445,7 +1447,7 @@ public class BlockwiseLayer extends AbstractLayer {
 	 * 
 	 * If not available, create new block2status,
 	 * 
-	 * Synchronized on {@link #block2Transfers}.
+	 * Synchronized on the lock of the key in {@link #block2Transfers}.
 	 * 
 	 * @param key uri-key
 	 * @param exchange blockwise exchange.
@@ -1454,22 +1456,22 @@ public class BlockwiseLayer extends AbstractLayer {
 	 */
 	private Block2BlockwiseStatus getInboundBlock2Status(final KeyUri key, final Exchange exchange,
 			final Response response) {
-		Integer size = null;
+		boolean created = false;
 		int maxPayloadSize = getMaxResourceBodySize(response);
 		Block2BlockwiseStatus status;
-		synchronized (block2Transfers) {
+		synchronized (block2Transfers.getLock(key)) {
 			status = block2Transfers.get(key);
 			if (status == null) {
 				status = Block2BlockwiseStatus.forInboundResponse(key, removeHandler, exchange, response,
 						maxPayloadSize, maxTcpBertBulkBlocks);
 				block2Transfers.put(key, status);
 				enableStatus = true;
-				size = block2Transfers.size();
+				created = true;
 			}
 		}
-		if (size != null) {
+		if (created) {
 			LOGGER.debug("{}created tracker for {} inbound block2 transfer {}, transfers in progress: {}, {}", tag, key,
-					status, size, response);
+					status, block2Transfers.size(), response);
 		}
 		return status;
 	}
@@ -1477,31 +1479,25 @@ public class BlockwiseLayer extends AbstractLayer {
 	/**
 	 * Get block1status.
 	 * 
-	 * Synchronized on {@link #block1Transfers}.
+	 * Thread safe access to {@link #block1Transfers}.
 	 * 
 	 * @param key uri-key
 	 * @return block1status, or {@code null}, if not available.
 	 */
 	private Block1BlockwiseStatus getBlock1Status(final KeyUri key) {
-
-		synchronized (block1Transfers) {
-			return block1Transfers.get(key);
-		}
+		return block1Transfers.get(key);
 	}
 
 	/**
 	 * Get block2status.
 	 * 
-	 * Synchronized on {@link #block2Transfers}.
+	 * Thread safe access to {@link #block2Transfers}.
 	 * 
 	 * @param key uri-key
 	 * @return block2status, or {@code null}, if not available.
 	 */
 	private Block2BlockwiseStatus getBlock2Status(final KeyUri key) {
-
-		synchronized (block2Transfers) {
-			return block2Transfers.get(key);
-		}
+		return block2Transfers.get(key);
 	}
 
 	/**
@@ -1513,12 +1509,8 @@ public class BlockwiseLayer extends AbstractLayer {
 	 */
 	private void cleanupExpiredBlockStatus(boolean dump) {
 		int count = 0;
-		synchronized (block1Transfers) {
-			count += block1Transfers.removeExpiredEntries(128);
-		}
-		synchronized (block2Transfers) {
-			count += block2Transfers.removeExpiredEntries(128);
-		}
+		count += block1Transfers.removeExpiredEntries(128);
+		count += block2Transfers.removeExpiredEntries(128);
 		if (dump) {
 			HEALTH_LOGGER.debug("{}cleaned up {} block transfers!", tag, count);
 		} else if (enableStatus && count > 0) {
@@ -1529,22 +1521,20 @@ public class BlockwiseLayer extends AbstractLayer {
 	/**
 	 * Clear block1status.
 	 * 
-	 * Synchronized on {@link #block1Transfers}.
+	 * Synchronized on the lock of the key in {@link #block1Transfers}.
 	 * 
 	 * @param status status to remove
 	 * @return removed status, or {@code null}, if status is not a current
 	 *         transfer.
 	 */
 	private Block1BlockwiseStatus clearBlock1Status(Block1BlockwiseStatus status) {
-		int size;
 		Block1BlockwiseStatus removedTracker;
-		synchronized (block1Transfers) {
+		synchronized (block1Transfers.getLock(status.getKeyUri())) {
 			removedTracker = block1Transfers.remove(status.getKeyUri(), status);
-			size = block1Transfers.size();
 		}
 		if (removedTracker != null && removedTracker.complete()) {
 			LOGGER.debug("{}removing block1 tracker [{}], block1 transfers still in progress: {}", tag,
-					status.getKeyUri(), size);
+					status.getKeyUri(), block1Transfers.size());
 		}
 		return removedTracker;
 	}
@@ -1552,22 +1542,20 @@ public class BlockwiseLayer extends AbstractLayer {
 	/**
 	 * Clear block2status.
 	 * 
-	 * Synchronized on {@link #block2Transfers}.
+	 * Synchronized on the lock of the key in {@link #block2Transfers}.
 	 * 
 	 * @param status status to remove
 	 * @return removed status, or {@code null}, if status is not a current
 	 *         transfer.
 	 */
 	private Block2BlockwiseStatus clearBlock2Status(Block2BlockwiseStatus status) {
-		int size;
 		Block2BlockwiseStatus removedTracker;
-		synchronized (block2Transfers) {
+		synchronized (block2Transfers.getLock(status.getKeyUri())) {
 			removedTracker = block2Transfers.remove(status.getKeyUri(), status);
-			size = block2Transfers.size();
 		}
 		if (removedTracker != null && removedTracker.complete()) {
 			LOGGER.debug("{}removing block2 tracker [{}], block2 transfers still in progress: {}", tag,
-					status.getKeyUri(), size);
+					status.getKeyUri(), block2Transfers.size());
 		}
 		return removedTracker;
 	}
@@ -30,12 +30,14 @@ import org.eclipse.californium.core.coap.CoAP;
 import org.eclipse.californium.core.coap.CoAP.ResponseCode;
 import org.eclipse.californium.core.coap.Request;
 import org.eclipse.californium.core.coap.Response;
+import org.eclipse.californium.core.config.CoapConfig;
 import org.eclipse.californium.core.network.Exchange;
 import org.eclipse.californium.core.observe.ObserveHealth;
 import org.eclipse.californium.core.observe.ObserveManager;
 import org.eclipse.californium.core.server.resources.ObservableResource;
 import org.eclipse.californium.core.server.resources.Resource;
 import org.eclipse.californium.elements.config.Configuration;
+import org.eclipse.californium.elements.util.ExecutorsUtil;
 import org.eclipse.californium.elements.util.StringUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,6 +56,15 @@ public class ServerMessageDeliverer implements MessageDeliverer {
 	/* The manager of the observe mechanism for this server */
 	private final ObserveManager observeManager;
 
+	/**
+	 * Executor using virtual threads for resources without own executor.
+	 * {@code null}, if not used or not supported.
+	 * 
+	 * @see CoapConfig#RESOURCE_VIRTUAL_THREADS
+	 * @since 3.8
+	 */
+	private final Executor virtualThreadExecutor;
+
 	/**
 	 * Constructs a default message deliverer that delivers requests to the
 	 * resources rooted at the specified root.
@@ -78,6 +89,16 @@ public class ServerMessageDeliverer implements MessageDeliverer {
 	public ServerMessageDeliverer(Resource root, Configuration config) {
 		this.root = root;
 		this.observeManager = new ObserveManager(config);
+		Executor executor = null;
+		if (config != null && config.get(CoapConfig.RESOURCE_VIRTUAL_THREADS)) {
+			// the executor creates a new thread for each task and doesn't
+			// require to be shutdown
+			executor = ExecutorsUtil.newVirtualThreadPerTaskExecutor();
+			if (executor == null) {
+				LOGGER.warn("Virtual threads are not supported, using protocol stage threads instead");
+			}
+		}
+		this.virtualThreadExecutor = executor;
 	}
 
 	/**
@@ -122,6 +143,9 @@ public class ServerMessageDeliverer implements MessageDeliverer {
 
 					// Get the executor and let it process the request
 					Executor executor = resource.getExecutor();
+					if (executor == null) {
+						executor = virtualThreadExecutor;
+					}
 					if (executor != null) {
 						executor.execute(new Runnable() {
 
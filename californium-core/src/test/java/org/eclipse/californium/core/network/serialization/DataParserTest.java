@@ -23,20 +23,26 @@
  ******************************************************************************/
 package org.eclipse.californium.core.network.serialization;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import org.eclipse.californium.core.coap.CoAP;
 import org.eclipse.californium.core.coap.CoAP.Code;
 import org.eclipse.californium.core.coap.CoAP.ResponseCode;
 import org.eclipse.californium.core.coap.CoAP.Type;
 import org.eclipse.californium.core.coap.CoAPMessageFormatException;
+import org.eclipse.californium.core.coap.MediaTypeRegistry;
 import org.eclipse.californium.core.coap.Message;
 import org.eclipse.californium.core.coap.MessageFormatException;
 import org.eclipse.californium.core.coap.Option;
@@ -73,6 +79,8 @@ public class DataParserTest {
 	private static final int CUSTOM_OPTION_2 = 19205;
 	private static final int[] CRITICAL_CUSTOM_OPTIONS = { CUSTOM_OPTION_1, CUSTOM_OPTION_2 };
 
+	private static DataParser payloadSlicesParser;
+
 	@Rule
 	public CoapThreadsRule cleanup = new CoapThreadsRule();
 
@@ -159,6 +167,8 @@ public class DataParserTest {
 		parameters.add(new Object[] { new UdpDataSerializer(), new CustomUdpDataParser(true, CRITICAL_CUSTOM_OPTIONS), false });
 		parameters.add(new Object[] { new TcpDataSerializer(), new CustomTcpDataParser(CRITICAL_CUSTOM_OPTIONS), true });
 		parameters.add(new Object[] { new UdpDataSerializer(), new CustomUdpDataParser(true, null), false });
+		payloadSlicesParser = new CustomUdpDataParser(true, null, true);
+		parameters.add(new Object[] { new UdpDataSerializer(), payloadSlicesParser, false });
 		return parameters;
 	}
 
@@ -397,6 +407,64 @@ public class DataParserTest {
 		assertEquals(response.getMID(), result.getMID());
 	}
 
+	@Test public void testPayload() {
+		byte[] payload = "payload of response".getBytes(CoAP.UTF8_CHARSET);
+		Response response = new Response(ResponseCode.CONTENT);
+		response.setDestinationContext(ENDPOINT_CONTEXT);
+		response.setType(Type.NON);
+		response.setMID(expectedMid);
+		response.setToken(Token.EMPTY);
+		response.getOptions().setContentFormat(MediaTypeRegistry.TEXT_PLAIN);
+		response.setPayload(payload);
+
+		RawData rawData = serializer.serializeResponse(response);
+		rawData = receive(rawData, CONNECTOR);
+
+		Response result = (Response) parser.parseMessage(rawData);
+		assertEquals(payload.length, result.getPayloadSize());
+		assertEquals("payload of response", result.getPayloadString());
+		ByteBuffer buffer = result.getPayloadBuffer();
+		assertTrue(buffer.isReadOnly());
+		assertEquals(ByteBuffer.wrap(payload), buffer);
+		assertArrayEquals(payload, result.getPayload());
+		assertSame(result.getPayload(), result.getPayload());
+	}
+
+	@Test public void testEncodedOptions() {
+		Request request = new Request(Code.POST);
+		request.setDestinationContext(ENDPOINT_CONTEXT);
+		request.setType(Type.CON);
+		request.setMID(expectedMid);
+		request.setToken(new byte[] { 11, 82, -91, 77, 3 });
+		request.getOptions().setUriPath("test/options").setUriQuery("a=1").setContentFormat(40)
+				.addOption(new Option(CUSTOM_OPTION_2, "custom"));
+		request.setPayload("payload");
+
+		byte[] data = serializer.getByteArray(request);
+		RawData rawData = receive(serializer.serializeRequest(request), CONNECTOR);
+		Request result = (Request) parser.parseMessage(rawData);
+		assertEquals(parser == payloadSlicesParser, result.getOptions().hasEncoded());
+		assertArrayEquals(data, serializer.getByteArray(result));
+
+		assertEquals(Arrays.asList("test", "options"), result.getOptions().getUriPath());
+		assertEquals(parser == payloadSlicesParser, result.getOptions().hasEncoded());
+
+		result.getOptions().addUriQuery("b=2");
+		assertFalse(result.getOptions().hasEncoded());
+		Request result2 = (Request) parser.parseMessage(serializer.getByteArray(result));
+		assertEquals("a=1&b=2", result2.getOptions().getUriQueryString());
+
+		result2.getOptions().getUriQuery().add("c=3");
+		assertFalse(result2.getOptions().hasEncoded());
+		result2 = (Request) parser.parseMessage(serializer.getByteArray(result2));
+		assertEquals("a=1&b=2&c=3", result2.getOptions().getUriQueryString());
+		assertEquals(0, result2.getOptions().getLocationPath().size());
+		result2.getOptions().getLocationPath().add("location");
+		assertEquals("location", result2.getOptions().getLocationPathString());
+		assertEquals(request.getOptions().getUriPathString(), result2.getOptions().getUriPathString());
+		assertEquals(request.getOptions().getOthers(), result2.getOptions().getOthers());
+	}
+
 	private static RawData receive(RawData data, InetSocketAddress connector) {
 		return RawData.inbound(data.getBytes(), data.getEndpointContext(), data.isMulticast(),
 				data.getReceiveNanoTimestamp(), connector);
@@ -412,6 +480,9 @@ public class DataParserTest {
 		public CustomUdpDataParser(boolean strictEmptyMessageFormat, int[] criticalCustomOptions) {
 			super(strictEmptyMessageFormat, criticalCustomOptions);
 		}
+		public CustomUdpDataParser(boolean strictEmptyMessageFormat, int[] criticalCustomOptions, boolean payloadSlices) {
+			super(strictEmptyMessageFormat, criticalCustomOptions, payloadSlices);
+		}
 		@Override
 		public void setIgnoreOptionError(boolean ignore) {
 			this.ignoreOptionError = ignore;
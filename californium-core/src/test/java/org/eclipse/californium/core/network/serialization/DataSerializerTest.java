@@ -29,6 +29,7 @@ import static org.junit.Assert.assertNull;
 
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.util.Arrays;
 
 import org.eclipse.californium.core.coap.CoAP;
 import org.eclipse.californium.core.coap.CoAP.ResponseCode;
@@ -36,6 +37,7 @@ import org.eclipse.californium.core.coap.CoAP.Type;
 import org.eclipse.californium.core.coap.EmptyMessage;
 import org.eclipse.californium.core.coap.Request;
 import org.eclipse.californium.core.coap.Response;
+import org.eclipse.californium.core.coap.TestOption.TestDataSerializer;
 import org.eclipse.californium.core.coap.Token;
 import org.eclipse.californium.elements.AddressEndpointContext;
 import org.eclipse.californium.elements.DtlsEndpointContext;
@@ -214,4 +216,21 @@ public class DataSerializerTest {
 		serializer.serializeRequest(request);
 	}
 
+	@Test
+	public void testSerializeExactSize() {
+		Request request = Request.newPost();
+		request.setToken(new byte[] { 0x01, 0x02 });
+		request.setMID(1);
+		request.getOptions().setUriPath("test/serialize").setContentFormat(0).setSize1(200).setNoResponse(2);
+		char[] proxy = new char[300];
+		Arrays.fill(proxy, 'p');
+		request.getOptions().setProxyUri("coap://" + new String(proxy));
+		request.setPayload("payload");
+
+		byte[] data = serializer.getByteArray(request);
+		if (serializer instanceof UdpDataSerializer) {
+			// compare with serialization using the DatagramWriter
+			assertThat(new TestDataSerializer().getByteArray(request), is(data));
+		}
+	}
 }
@@ -17,13 +17,19 @@ package org.eclipse.californium.cluster;
 
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.californium.cluster.config.DtlsClusterManagerConfig;
 import org.eclipse.californium.elements.AddressEndpointContext;
@@ -38,9 +44,17 @@ import org.eclipse.californium.elements.RawData;
 import org.eclipse.californium.elements.RawDataChannel;
 import org.eclipse.californium.elements.UdpEndpointContextMatcher;
 import org.eclipse.californium.elements.config.Configuration;
+import org.eclipse.californium.elements.util.Bytes;
 import org.eclipse.californium.elements.util.ClockUtil;
+import org.eclipse.californium.scandium.DTLSConnector;
 import org.eclipse.californium.scandium.DtlsClusterConnector.ClusterNodesProvider;
+import org.eclipse.californium.scandium.DtlsClusterConnector.ConnectionMigrationHandler;
 import org.eclipse.californium.scandium.DtlsManagedClusterConnector;
+import org.eclipse.californium.scandium.dtls.ClusterSessionStore;
+import org.eclipse.californium.scandium.dtls.ClusterSessionStore.SessionReplicator;
+import org.eclipse.californium.scandium.dtls.ConnectionId;
+import org.eclipse.californium.scandium.dtls.ConsistentHashConnectionIdGenerator;
+import org.eclipse.californium.scandium.dtls.SessionId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,6 +72,16 @@ import org.slf4j.LoggerFactory;
  * refreshed and the receiving node will not send a ping message to refresh that
  * node until the refresh interval expires.
  * 
+ * Since 3.8 the manager also replicates the sessions of a
+ * {@link ClusterSessionStore} to the other nodes, if the cluster management
+ * connector uses DTLS. See {@link #setSessionStore(ClusterSessionStore)}.
+ * 
+ * Since 3.8 the manager also updates the nodes of a
+ * {@link ConsistentHashConnectionIdGenerator} and migrates the connections to
+ * their new owners, if the nodes of the cluster changes. The connections are
+ * only migrated, if the cluster management connector uses DTLS, because the
+ * migrated connections contains the keys.
+ * 
  * @since 2.5
  */
 public class DtlsClusterManager implements Readiness {
@@ -72,10 +96,41 @@ public class DtlsClusterManager implements Readiness {
 	 * Type of cluster management node-id response.
 	 */
 	private static final byte MAGIC_ID_PONG = (byte) 60;
+	/**
+	 * Type of cluster management session replication.
+	 * 
+	 * @since 3.8
+	 */
+	private static final byte MAGIC_SESSION = (byte) 59;
+	/**
+	 * Type of cluster management session removal replication.
+	 * 
+	 * @since 3.8
+	 */
+	private static final byte MAGIC_SESSION_REMOVAL = (byte) 58;
+	/**
+	 * Type of cluster management connection migration.
+	 * 
+	 * @since 3.8
+	 */
+	private static final byte MAGIC_CONNECTION = (byte) 56;
+	/**
+	 * Type of cluster management connection migration acknowledge.
+	 * 
+	 * @since 3.8
+	 */
+	private static final byte MAGIC_CONNECTION_ACK = (byte) 55;
 	/**
 	 * Size of ping/pong message.
 	 */
 	private static final int PING_PONG_MESSAGE_SIZE = 6;
+	/**
+	 * Size of header of session replication and connection migration
+	 * messages. Type and node-id.
+	 * 
+	 * @since 3.8
+	 */
+	private static final int SESSION_HEADER_SIZE = 5;
 	/**
 	 * Protocol for cluster management.
 	 */
@@ -150,6 +205,26 @@ public class DtlsClusterManager implements Readiness {
 
 	private volatile boolean ready;
 
+	/**
+	 * Session store to replicate.
+	 * 
+	 * @since 3.8
+	 */
+	private volatile ClusterSessionStore sessionStore;
+
+	/**
+	 * Handler to migrate connections to other nodes.
+	 * 
+	 * @since 3.8
+	 */
+	private final ConnectionMigrationHandler migrationHandler = new ConnectionMigrationHandler() {
+
+		@Override
+		public boolean migrate(int nodeId, byte[] connection) {
+			return sendConnectionMessage(nodeId, connection);
+		}
+	};
+
 	/**
 	 * Schedule for cluster management timer.
 	 */
@@ -191,6 +266,164 @@ public class DtlsClusterManager implements Readiness {
 		clusterConnector.setEndpointContextMatcher(this.matcher);
 	}
 
+	/**
+	 * Set session store to replicate the sessions to the other cluster nodes.
+	 * 
+	 * The sessions are only replicated, if the cluster management connector
+	 * uses DTLS, because the replicated sessions contains the master secrets.
+	 * 
+	 * @param sessionStore session store. {@code null} to stop replicating
+	 *            sessions.
+	 * @since 3.8
+	 */
+	public void setSessionStore(ClusterSessionStore sessionStore) {
+		ClusterSessionStore previous = this.sessionStore;
+		if (previous != null && previous != sessionStore) {
+			previous.setSessionReplicator(null);
+		}
+		if (sessionStore != null && !secure) {
+			LOGGER.warn("cluster-node {}: session replication requires secure cluster management!", tag);
+			sessionStore = null;
+		}
+		this.sessionStore = sessionStore;
+		if (sessionStore != null) {
+			sessionStore.setSessionReplicator(new SessionReplicator() {
+
+				@Override
+				public void replicate(SessionId id, byte[] session) {
+					sendSessionMessage(nodesDiscoverer.nodesById.values(), MAGIC_SESSION, session);
+				}
+
+				@Override
+				public void replicateRemoval(SessionId id) {
+					sendSessionMessage(nodesDiscoverer.nodesById.values(), MAGIC_SESSION_REMOVAL, id.getBytes());
+				}
+			});
+		}
+	}
+
+	/**
+	 * Replicate all sessions to a discovered, joined, or restarted cluster
+	 * node.
+	 * 
+	 * @param node cluster node
+	 * @since 3.8
+	 */
+	private void replicateSessions(final Node node) {
+		final ClusterSessionStore store = sessionStore;
+		if (store != null) {
+			timer.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					final Collection<Node> nodes = Collections.singletonList(node);
+					int count = store.replicateAll(new SessionReplicator() {
+
+						@Override
+						public void replicate(SessionId id, byte[] session) {
+							sendSessionMessage(nodes, MAGIC_SESSION, session);
+						}
+
+						@Override
+						public void replicateRemoval(SessionId id) {
+							// not used for initial replication
+						}
+					});
+					LOGGER.info("cluster-node {}: replicated {} sessions to node {}", tag, count, node.nodeId);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Send session replication message to cluster nodes.
+	 * 
+	 * Messages exceeding the datagram size of a node are not sent to that
+	 * node. The message is cleared, when it is sent to all nodes.
+	 * 
+	 * @param nodes cluster nodes to send the message to
+	 * @param type {@link #MAGIC_SESSION} or {@link #MAGIC_SESSION_REMOVAL}
+	 * @param payload serialized session or session id
+	 * @since 3.8
+	 */
+	private void sendSessionMessage(Collection<Node> nodes, byte type, byte[] payload) {
+		Connector clusterManagementConnector = clusterConnector.getClusterManagementConnector();
+		if (!clusterManagementConnector.isRunning()) {
+			return;
+		}
+		int length = SESSION_HEADER_SIZE + payload.length;
+		List<EndpointContext> destinations = new ArrayList<>(nodes.size());
+		for (Node node : nodes) {
+			if (node.nodeId != nodeId) {
+				EndpointContext context = node.getContext();
+				if (length > ((DTLSConnector) clusterManagementConnector)
+						.getMaximumFragmentLength(context.getPeerAddress())) {
+					LOGGER.info("cluster-node {}: session with {} bytes exceeds datagram of node {}!", tag, length,
+							node.nodeId);
+				} else {
+					destinations.add(context);
+				}
+			}
+		}
+		if (destinations.isEmpty()) {
+			return;
+		}
+		byte[] data = new byte[length];
+		encodeSessionHeader(data, type, nodeId);
+		System.arraycopy(payload, 0, data, SESSION_HEADER_SIZE, payload.length);
+		MessageCallback callback = new ClearingMessageCallback(data, destinations.size());
+		for (EndpointContext context : destinations) {
+			RawData outbound = RawData.outbound(data, context, callback, false);
+			clusterManagementConnector.send(outbound);
+		}
+	}
+
+	/**
+	 * Send connection migration message to other cluster node.
+	 * 
+	 * @param foreignNodeId node-id of new owner
+	 * @param connection serialized connection
+	 * @return {@code true}, if the message is sent, {@code false}, if the node
+	 *         is not available or the message exceeds the datagram size.
+	 * @since 3.8
+	 */
+	private boolean sendConnectionMessage(int foreignNodeId, byte[] connection) {
+		Connector clusterManagementConnector = clusterConnector.getClusterManagementConnector();
+		Node node = nodesDiscoverer.nodesById.get(foreignNodeId);
+		if (node == null || !clusterManagementConnector.isRunning()) {
+			return false;
+		}
+		EndpointContext context = node.getContext();
+		int length = SESSION_HEADER_SIZE + connection.length;
+		if (length > ((DTLSConnector) clusterManagementConnector).getMaximumFragmentLength(context.getPeerAddress())) {
+			LOGGER.debug("cluster-node {}: connection with {} bytes exceeds datagram!", tag, length);
+			return false;
+		}
+		byte[] data = new byte[length];
+		encodeSessionHeader(data, MAGIC_CONNECTION, nodeId);
+		System.arraycopy(connection, 0, data, SESSION_HEADER_SIZE, connection.length);
+		RawData outbound = RawData.outbound(data, context, new ClearingMessageCallback(data, 1), false);
+		clusterManagementConnector.send(outbound);
+		return true;
+	}
+
+	/**
+	 * Update the nodes of the {@link ConsistentHashConnectionIdGenerator}.
+	 * 
+	 * If the nodes have changed, migrate the connections to their new owners.
+	 * 
+	 * @since 3.8
+	 */
+	private synchronized void updateClusterNodes() {
+		if (clusterConnector.setClusterNodeIds(nodesDiscoverer.getNodeIds())) {
+			if (secure) {
+				clusterConnector.startConnectionMigration(migrationHandler);
+			} else {
+				LOGGER.warn("cluster-node {}: connection migration requires secure cluster management!", tag);
+			}
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -275,6 +508,16 @@ public class DtlsClusterManager implements Readiness {
 			// nothing to do
 			return;
 		}
+		if (type == MAGIC_SESSION || type == MAGIC_SESSION_REMOVAL) {
+			processSessionMessage(type, data);
+			return;
+		} else if (type == MAGIC_CONNECTION) {
+			processConnectionMessage(data, clusterData.getEndpointContext());
+			return;
+		} else if (type == MAGIC_CONNECTION_ACK) {
+			processConnectionAckMessage(data);
+			return;
+		}
 		int count = 0;
 		ClusterState state = ClusterState.START;
 		InetSocketAddress router = (InetSocketAddress) clusterData.getInetSocketAddress();
@@ -301,6 +544,9 @@ public class DtlsClusterManager implements Readiness {
 			state = checkState(count + 1, foreignState);
 			LOGGER.info("cluster-node {}: <update node {}/{} to {}", tag, foreignNodeId, foreignState, router);
 		}
+		if (count > 0) {
+			updateClusterNodes();
+		}
 		if (!ready && state.isUp()) {
 			count = nodesDiscoverer.up() + 1;
 			int nodes = discoverScope.getInitialClusterNodes();
@@ -314,10 +560,95 @@ public class DtlsClusterManager implements Readiness {
 		}
 	}
 
+	/**
+	 * Process session replication message.
+	 * 
+	 * @param type {@link #MAGIC_SESSION} or {@link #MAGIC_SESSION_REMOVAL}
+	 * @param data received cluster management data
+	 * @since 3.8
+	 */
+	private void processSessionMessage(byte type, byte[] data) {
+		ClusterSessionStore store = sessionStore;
+		if (store == null) {
+			LOGGER.debug("cluster-node {}: session replication not enabled, ignored!", tag);
+			return;
+		}
+		int foreignNodeId = decodePingPong(data);
+		if (nodeId == foreignNodeId) {
+			LOGGER.info("cluster-node {}: session replication from self, ignored!", tag);
+			return;
+		}
+		byte[] payload = Arrays.copyOfRange(data, SESSION_HEADER_SIZE, data.length);
+		if (type == MAGIC_SESSION) {
+			Bytes.clear(data);
+			if (store.putReplica(payload)) {
+				LOGGER.trace("cluster-node {}: >session from node {}", tag, foreignNodeId);
+			} else {
+				LOGGER.info("cluster-node {}: >broken session from node {}, ignored!", tag, foreignNodeId);
+			}
+			Bytes.clear(payload);
+		} else {
+			store.removeReplica(new SessionId(payload));
+			LOGGER.trace("cluster-node {}: >session removal from node {}", tag, foreignNodeId);
+		}
+	}
+
+	/**
+	 * Process connection migration message.
+	 * 
+	 * Acknowledges restored connections with a {@link #MAGIC_CONNECTION_ACK}
+	 * message.
+	 * 
+	 * @param data received cluster management data
+	 * @param context endpoint context of the other node
+	 * @since 3.8
+	 */
+	private void processConnectionMessage(byte[] data, EndpointContext context) {
+		if (!secure) {
+			LOGGER.debug("cluster-node {}: connection migration requires secure cluster management, ignored!", tag);
+			return;
+		}
+		int foreignNodeId = decodePingPong(data);
+		byte[] payload = Arrays.copyOfRange(data, SESSION_HEADER_SIZE, data.length);
+		Bytes.clear(data);
+		ConnectionId cid = clusterConnector.restoreMigratedConnection(payload);
+		Bytes.clear(payload);
+		if (cid != null) {
+			LOGGER.trace("cluster-node {}: >connection from node {}", tag, foreignNodeId);
+			byte[] ack = new byte[SESSION_HEADER_SIZE + cid.length()];
+			encodeSessionHeader(ack, MAGIC_CONNECTION_ACK, nodeId);
+			System.arraycopy(cid.getBytes(), 0, ack, SESSION_HEADER_SIZE, cid.length());
+			RawData outbound = RawData.outbound(ack, context, messageLoggingCallback, false);
+			clusterConnector.getClusterManagementConnector().send(outbound);
+		} else {
+			LOGGER.info("cluster-node {}: >connection from node {} not restored!", tag, foreignNodeId);
+		}
+	}
+
+	/**
+	 * Process connection migration acknowledge message.
+	 * 
+	 * @param data received cluster management data
+	 * @since 3.8
+	 */
+	private void processConnectionAckMessage(byte[] data) {
+		int foreignNodeId = decodePingPong(data);
+		ConnectionId cid = new ConnectionId(Arrays.copyOfRange(data, SESSION_HEADER_SIZE, data.length));
+		if (clusterConnector.completeConnectionMigration(cid)) {
+			LOGGER.trace("cluster-node {}: >connection {} migrated to node {}", tag, cid, foreignNodeId);
+		} else {
+			LOGGER.debug("cluster-node {}: >connection {} not migrating to node {}!", tag, cid, foreignNodeId);
+		}
+	}
+
 	/**
 	 * Decode node-id from {@link #MAGIC_ID_PING} or {@link #MAGIC_ID_PING}
 	 * messages.
 	 * 
+	 * Since 3.8 also used for {@link #MAGIC_SESSION},
+	 * {@link #MAGIC_SESSION_REMOVAL}, {@link #MAGIC_CONNECTION}, and
+	 * {@link #MAGIC_CONNECTION_ACK} messages.
+	 * 
 	 * @param data received cluster management data
 	 * @return node-id
 	 */
@@ -363,6 +694,24 @@ public class DtlsClusterManager implements Readiness {
 		data[5] = (byte) state.ordinal();
 	}
 
+	/**
+	 * Encode type and node-id of session replication and connection migration
+	 * messages.
+	 * 
+	 * @param data cluster management data to send
+	 * @param type {@link #MAGIC_SESSION}, {@link #MAGIC_SESSION_REMOVAL},
+	 *            {@link #MAGIC_CONNECTION}, or {@link #MAGIC_CONNECTION_ACK}
+	 * @param nodeId node-id
+	 * @since 3.8
+	 */
+	private static void encodeSessionHeader(byte[] data, byte type, int nodeId) {
+		data[0] = type;
+		data[1] = (byte) (nodeId);
+		data[2] = (byte) (nodeId >> 8);
+		data[3] = (byte) (nodeId >> 16);
+		data[4] = (byte) (nodeId >> 24);
+	}
+
 	/**
 	 * Interface to get cluster nodes scope.
 	 */
@@ -450,7 +799,9 @@ public class DtlsClusterManager implements Readiness {
 				iNode = new Node(nodeId);
 				nodesById.put(nodeId, iNode);
 			}
-			iNode.update(address, context, matcher, state);
+			if (iNode.update(address, context, matcher, state)) {
+				replicateSessions(iNode);
+			}
 			Node aNode = nodesByAddress.put(address, iNode);
 			if (aNode != null && aNode != iNode) {
 				nodesById.remove(nodeId, aNode);
@@ -458,6 +809,18 @@ public class DtlsClusterManager implements Readiness {
 			return nodesById.size();
 		}
 
+		/**
+		 * Get node-ids of the cluster.
+		 * 
+		 * @return node-ids of the cluster, including the own node-id.
+		 * @since 3.8
+		 */
+		public synchronized Set<Integer> getNodeIds() {
+			Set<Integer> nodeIds = new TreeSet<>(nodesById.keySet());
+			nodeIds.add(nodeId);
+			return nodeIds;
+		}
+
 		public synchronized int up() {
 			int count = 0;
 			for (Node node : nodesById.values()) {
@@ -491,6 +854,7 @@ public class DtlsClusterManager implements Readiness {
 					encodePingPong(discoverBuffer, MAGIC_ID_PING, nodeId, state);
 					boolean discover = refresh(now, clusterManagementConnector) || nodesById.isEmpty()
 							|| nextDiscover - now <= 0;
+					updateClusterNodes();
 					if (discover && clusterManagementConnector.isRunning()) {
 						discover(clusterManagementConnector);
 						nextDiscover = ClockUtil.nanoRealtime()
@@ -603,6 +967,69 @@ public class DtlsClusterManager implements Readiness {
 		}
 	}
 
+	/**
+	 * Callback, which clears the data of session replication messages.
+	 * 
+	 * The data is cleared, when the message is sent to all nodes.
+	 * 
+	 * @since 3.8
+	 */
+	private class ClearingMessageCallback implements MessageCallback {
+
+		/**
+		 * Data of the message. Contains the master secret.
+		 */
+		private final byte[] data;
+		/**
+		 * Number of pending messages.
+		 */
+		private final AtomicInteger pending;
+
+		/**
+		 * Create callback.
+		 * 
+		 * @param data data of the message
+		 * @param pending number of messages using the data
+		 */
+		private ClearingMessageCallback(byte[] data, int pending) {
+			this.data = data;
+			this.pending = new AtomicInteger(pending);
+		}
+
+		@Override
+		public void onConnecting() {
+			messageLoggingCallback.onConnecting();
+		}
+
+		@Override
+		public void onDtlsRetransmission(int flight) {
+			messageLoggingCallback.onDtlsRetransmission(flight);
+		}
+
+		@Override
+		public void onContextEstablished(EndpointContext context) {
+			messageLoggingCallback.onContextEstablished(context);
+		}
+
+		@Override
+		public void onSent() {
+			messageLoggingCallback.onSent();
+			done();
+		}
+
+		@Override
+		public void onError(Throwable error) {
+			messageLoggingCallback.onError(error);
+			done();
+		}
+
+		private void done() {
+			if (pending.decrementAndGet() == 0) {
+				Bytes.clear(data);
+			}
+		}
+	}
+
 	/**
 	 * Cluster node.
 	 */
@@ -626,6 +1053,12 @@ public class DtlsClusterManager implements Readiness {
 		private EndpointContext context;
 
 		private ClusterState state;
+		/**
+		 * DTLS session id of the cluster management connection.
+		 * 
+		 * @since 3.8
+		 */
+		private Bytes sessionId;
 
 		/**
 		 * Create node.
@@ -639,13 +1072,20 @@ public class DtlsClusterManager implements Readiness {
 		/**
 		 * Update address and usage time.
 		 * 
+		 * Since 3.8 reports new nodes and nodes with a new DTLS session of
+		 * the cluster management connection, e.g. after a restart of the node.
+		 * 
 		 * @param address cluster management interface address
 		 * @param context endpoint context of response
 		 * @param matcher endpoint context matcher
 		 * @param state new state
+		 * @return {@code true}, if the node is new or uses a new DTLS session,
+		 *         {@code false}, otherwise.
 		 */
-		private synchronized void update(InetSocketAddress address, EndpointContext context,
+		private synchronized boolean update(InetSocketAddress address, EndpointContext context,
 				EndpointContextMatcher matcher, ClusterState state) {
+			Bytes sessionId = context.get(DtlsEndpointContext.KEY_SESSION_ID);
+			boolean changed = this.context == null || (sessionId != null && !sessionId.equals(this.sessionId));
 			this.address = address;
 			if (this.context == null) {
 				this.context = context;
@@ -654,6 +1094,8 @@ public class DtlsClusterManager implements Readiness {
 			}
 			this.time = ClockUtil.nanoRealtime();
 			this.state = state;
+			this.sessionId = sessionId;
+			return changed;
 		}
 
 		/**
@@ -670,6 +1112,16 @@ public class DtlsClusterManager implements Readiness {
 		private ClusterState getState() {
 			return state;
 		}
+
+		/**
+		 * Get endpoint context for internal management messages.
+		 * 
+		 * @return endpoint context
+		 * @since 3.8
+		 */
+		private synchronized EndpointContext getContext() {
+			return context;
+		}
 	}
 
 	enum ClusterState {
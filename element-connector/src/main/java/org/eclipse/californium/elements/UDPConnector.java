@@ -48,6 +48,7 @@ import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.californium.elements.UdpMulticastConnector.Builder;
 import org.eclipse.californium.elements.config.Configuration;
@@ -55,6 +56,7 @@ import org.eclipse.californium.elements.config.UdpConfig;
 import org.eclipse.californium.elements.exception.EndpointMismatchException;
 import org.eclipse.californium.elements.util.Bytes;
 import org.eclipse.californium.elements.util.ClockUtil;
+import org.eclipse.californium.elements.util.ReusePortUtil;
 import org.eclipse.californium.elements.util.StringUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -117,9 +119,38 @@ public class UDPConnector implements Connector {
 	 */
 	private final List<UdpMulticastConnector> multicastReceivers = new CopyOnWriteArrayList<>();
 
+	/**
+	 * Additional sockets bound with {@code SO_REUSEPORT}.
+	 * 
+	 * @see UdpConfig#UDP_RECEIVER_REUSE_PORT
+	 * @since 3.8
+	 */
+	private final List<DatagramSocket> reusePortSockets = new ArrayList<>();
+
 	private final int senderCount;
 	private final int receiverCount;
 	private final int receiverPacketSize;
+	/**
+	 * Maximum number of messages sent by a sender thread in one batch.
+	 * 
+	 * @see UdpConfig#UDP_SENDER_BATCH_SIZE
+	 * @since 3.8
+	 */
+	private final int senderBatchSize;
+	/**
+	 * Linger time in nanoseconds to collect more messages for a batch.
+	 * 
+	 * @see UdpConfig#UDP_SENDER_BATCH_LINGER
+	 * @since 3.8
+	 */
+	private final long senderBatchLingerNanos;
+	/**
+	 * Use a socket with {@code SO_REUSEPORT} per receiver thread.
+	 * 
+	 * @see UdpConfig#UDP_RECEIVER_REUSE_PORT
+	 * @since 3.8
+	 */
+	private final boolean reusePort;
 	private final Integer configReceiveBufferSize;
 	private final Integer configSendBufferSize;
 
@@ -187,6 +218,9 @@ public class UDPConnector implements Connector {
 		this.receiverCount = configuration.get(UdpConfig.UDP_RECEIVER_THREAD_COUNT);
 		this.senderCount = configuration.get(UdpConfig.UDP_SENDER_THREAD_COUNT);
 		this.receiverPacketSize = configuration.get(UdpConfig.UDP_DATAGRAM_SIZE);
+		this.senderBatchSize = configuration.get(UdpConfig.UDP_SENDER_BATCH_SIZE);
+		this.senderBatchLingerNanos = configuration.get(UdpConfig.UDP_SENDER_BATCH_LINGER, TimeUnit.NANOSECONDS);
+		this.reusePort = configuration.get(UdpConfig.UDP_RECEIVER_REUSE_PORT);
 		this.configReceiveBufferSize = configuration.get(UdpConfig.UDP_RECEIVE_BUFFER_SIZE);
 		this.configSendBufferSize = configuration.get(UdpConfig.UDP_SEND_BUFFER_SIZE);
 		this.receiveBufferSize = configReceiveBufferSize;
@@ -209,10 +243,29 @@ public class UDPConnector implements Connector {
 			multicastReceiver.start();
 		}
 
+		init(createSocket(localAddr));
+	}
+
+	/**
+	 * Create datagram socket bound to the provided address.
+	 * 
+	 * If {@link UdpConfig#UDP_RECEIVER_REUSE_PORT} is enabled and supported,
+	 * the socket is created with {@code SO_REUSEPORT}.
+	 * 
+	 * @param bindAddress address to bind the socket
+	 * @return bound datagram socket
+	 * @throws IOException if there is an error in the datagram socket calls.
+	 * @see ReusePortUtil
+	 * @since 3.8
+	 */
+	protected DatagramSocket createSocket(InetSocketAddress bindAddress) throws IOException {
+		if (reusePort && ReusePortUtil.isSupported()) {
+			return ReusePortUtil.openSocket(bindAddress, reuseAddress);
+		}
 		DatagramSocket socket = new DatagramSocket(null);
 		socket.setReuseAddress(reuseAddress);
-		socket.bind(localAddr);
-		init(socket);
+		socket.bind(bindAddress);
+		return socket;
 	}
 
 	/**
@@ -235,6 +288,31 @@ public class UDPConnector implements Connector {
 		}
 		sendBufferSize = socket.getSendBufferSize();
 
+		List<DatagramSocket> receiverSockets = new ArrayList<>(receiverCount);
+		receiverSockets.add(socket);
+		if (reusePort && !multicast && receiverCount > 1) {
+			if (ReusePortUtil.isEnabled(socket)) {
+				try {
+					for (int i = 1; i < receiverCount; i++) {
+						DatagramSocket shard = createSocket(effectiveAddr);
+						reusePortSockets.add(shard);
+						receiverSockets.add(shard);
+						if (configReceiveBufferSize != null) {
+							shard.setReceiveBufferSize(configReceiveBufferSize);
+						}
+					}
+				} catch (IOException ex) {
+					closeReusePortSockets();
+					socket.close();
+					this.socket = null;
+					throw ex;
+				}
+			} else {
+				LOGGER.warn("UDPConnector SO_REUSEPORT not available, using one socket for {} receiver threads",
+						receiverCount);
+			}
+		}
+
 		// running only, if the socket could be opened
 		running = true;
 
@@ -242,7 +320,8 @@ public class UDPConnector implements Connector {
 		LOGGER.info("UDPConnector starts up {} sender threads and {} receiver threads", senderCount, receiverCount);
 
 		for (int i = 0; i < receiverCount; i++) {
-			receiverThreads.add(new Receiver("UDP-Receiver-" + localAddr + "[" + i + "]"));
+			DatagramSocket receiverSocket = receiverSockets.get(i % receiverSockets.size());
+			receiverThreads.add(createReceiver("UDP-Receiver-" + localAddr + "[" + i + "]", receiverSocket));
 		}
 
 		if (!multicast) {
@@ -295,6 +374,7 @@ public class UDPConnector implements Connector {
 				socket.close();
 				socket = null;
 			}
+			closeReusePortSockets();
 			// stop all threads
 			for (Thread t : senderThreads) {
 				t.interrupt();
@@ -344,19 +424,13 @@ public class UDPConnector implements Connector {
 			return;
 		}
 
-		// move onError callback out of synchronized block
-		boolean running;
-		boolean added = false;
-		synchronized (this) {
-			running = this.running;
-			if (running) {
-				added = outgoing.offer(msg);
-			}
-		}
 		if (!running) {
 			notifyMsgAsInterrupted(msg);
-		} else if (!added) {
+		} else if (!outgoing.offer(msg)) {
 			msg.onError(new InterruptedIOException("Connector overloaded."));
+		} else if (!running && outgoing.remove(msg)) {
+			// stop() has already drained the pending messages
+			notifyMsgAsInterrupted(msg);
 		}
 	}
 
@@ -368,6 +442,16 @@ public class UDPConnector implements Connector {
 		}
 	}
 
+	/**
+	 * Get receiver of incoming messages.
+	 * 
+	 * @return receiver of incoming messages. May be {@code null}.
+	 * @since 3.8
+	 */
+	protected RawDataChannel getRawDataReceiver() {
+		return receiver;
+	}
+
 	@Override
 	public void setEndpointContextMatcher(EndpointContextMatcher matcher) {
 		this.endpointContextMatcher = matcher;
@@ -423,7 +507,39 @@ public class UDPConnector implements Connector {
 		msg.onError(new InterruptedIOException("Connector is not running."));
 	}
 
-	private abstract class NetworkStageThread extends Thread {
+	/**
+	 * Close additional sockets of {@link UdpConfig#UDP_RECEIVER_REUSE_PORT}.
+	 * 
+	 * @since 3.8
+	 */
+	private void closeReusePortSockets() {
+		for (DatagramSocket shard : reusePortSockets) {
+			shard.close();
+		}
+		reusePortSockets.clear();
+	}
+
+	/**
+	 * Create receiver thread.
+	 * 
+	 * @param name name of the thread
+	 * @param socket socket to receive datagrams. Several sockets are used, if
+	 *            {@link UdpConfig#UDP_RECEIVER_REUSE_PORT} is enabled.
+	 * @return receiver thread
+	 * @since 3.8
+	 */
+	protected NetworkStageThread createReceiver(String name, DatagramSocket socket) {
+		return new Receiver(name, socket);
+	}
+
+	/**
+	 * Network stage thread.
+	 * 
+	 * Calls {@link #work()} until the connector is stopped.
+	 * 
+	 * @since 3.8 (protected, was private before)
+	 */
+	protected abstract class NetworkStageThread extends Thread {
 
 		/**
 		 * Instantiates a new worker.
@@ -469,10 +585,12 @@ public class UDPConnector implements Connector {
 	private class Receiver extends NetworkStageThread {
 
 		private final DatagramPacket datagram;
+		private final DatagramSocket receiverSocket;
 		private final int size;
 
-		private Receiver(String name) {
+		private Receiver(String name, DatagramSocket receiverSocket) {
 			super(name);
+			this.receiverSocket = receiverSocket;
 			// we add one byte to be able to detect potential truncation.
 			this.size = receiverPacketSize + 1;
 			this.datagram = new DatagramPacket(new byte[size], size);
@@ -480,25 +598,58 @@ public class UDPConnector implements Connector {
 
 		protected void work() throws IOException {
 			datagram.setLength(size);
-			DatagramSocket currentSocket = socket;
-			if (currentSocket != null) {
-				currentSocket.receive(datagram);
-				processDatagram(datagram);
-			}
+			receiverSocket.receive(datagram);
+			processDatagram(datagram);
 		}
 	}
 
 	private class Sender extends NetworkStageThread {
 
 		private final DatagramPacket datagram;
+		/**
+		 * Batch of messages. {@code null}, if batching is disabled.
+		 * 
+		 * @since 3.8
+		 */
+		private final List<RawData> batch;
 
 		private Sender(String name) {
 			super(name);
 			this.datagram = new DatagramPacket(Bytes.EMPTY, 0);
+			this.batch = senderBatchSize > 1 ? new ArrayList<RawData>(senderBatchSize) : null;
 		}
 
 		protected void work() throws InterruptedException {
 			RawData raw = outgoing.take(); // Blocking
+			if (batch == null) {
+				send(raw);
+				return;
+			}
+			batch.add(raw);
+			outgoing.drainTo(batch, senderBatchSize - 1);
+			if (batch.size() < senderBatchSize && senderBatchLingerNanos > 0) {
+				try {
+					raw = outgoing.poll(senderBatchLingerNanos, TimeUnit.NANOSECONDS);
+					if (raw != null) {
+						batch.add(raw);
+						outgoing.drainTo(batch, senderBatchSize - batch.size());
+					}
+				} catch (InterruptedException ex) {
+					// send or fail the already collected messages
+					Thread.currentThread().interrupt();
+				}
+			}
+			LOGGER.trace("UDPConnector ({}) sends batch of {} messages", effectiveAddr, batch.size());
+			try {
+				for (RawData message : batch) {
+					send(message);
+				}
+			} finally {
+				batch.clear();
+			}
+		}
+
+		private void send(RawData raw) {
 			/*
 			 * check, if message should be sent with the "none endpoint context"
 			 * of UDP connector
@@ -508,7 +659,7 @@ public class UDPConnector implements Connector {
 			EndpointContext connectionContext = new UdpEndpointContext(destinationAddress);
 			EndpointContextMatcher endpointMatcher = UDPConnector.this.endpointContextMatcher;
 			if (endpointMatcher != null && !endpointMatcher.isToBeSent(destination, connectionContext)) {
-				LOGGER.warn("UDPConnector ({}) drops {} bytes to {}", effectiveAddr, datagram.getLength(),
+				LOGGER.warn("UDPConnector ({}) drops {} bytes to {}", effectiveAddr, raw.getSize(),
 						StringUtil.toLog(destinationAddress));
 				raw.onError(new EndpointMismatchException("UDP sending"));
 				return;
@@ -606,6 +757,19 @@ public class UDPConnector implements Connector {
 		this.reuseAddress = enable;
 	}
 
+	/**
+	 * Get reuse port.
+	 * 
+	 * @return {@code true}, if connector uses a socket with
+	 *         {@code SO_REUSEPORT} per receiver thread, {@code false}
+	 *         otherwise.
+	 * @see UdpConfig#UDP_RECEIVER_REUSE_PORT
+	 * @since 3.8
+	 */
+	public boolean getReusePort() {
+		return reusePort;
+	}
+
 	public Integer getReceiveBufferSize() {
 		return receiveBufferSize;
 	}
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.elements;
+
+import java.io.IOException;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+import org.eclipse.californium.elements.config.Configuration;
+import org.eclipse.californium.elements.config.UdpConfig;
+import org.eclipse.californium.elements.util.ByteBufferPool;
+import org.eclipse.californium.elements.util.ClockUtil;
+import org.eclipse.californium.elements.util.ReusePortUtil;
+import org.eclipse.californium.elements.util.StringUtil;
+
+/**
+ * A {@link UDPConnector} using a {@link DatagramChannel}.
+ * 
+ * The receiver threads read the datagrams into direct buffers of a
+ * {@link ByteBufferPool}. The message is copied into a {@link RawData} and the
+ * buffer is released immediately. The parsed CoAP messages keep references to
+ * that copy (e.g. payload slices), therefore the copy is not avoided.
+ * 
+ * The maximum number of idle buffers is configured by
+ * {@link UdpConfig#UDP_RECEIVE_BUFFER_POOL_SIZE}.
+ * 
+ * @since 3.8
+ */
+public class UdpChannelConnector extends UDPConnector {
+
+	/**
+	 * Pool of receive buffers.
+	 */
+	private final ByteBufferPool receiveBufferPool;
+
+	/**
+	 * Creates a connector bound to a given IP address and port.
+	 * 
+	 * @param address the IP address and port, if {@code null} the connector is
+	 *            bound to an ephemeral port on the wildcard address
+	 * @param configuration configuration with {@link UdpConfig} definitions.
+	 */
+	public UdpChannelConnector(InetSocketAddress address, Configuration configuration) {
+		super(address, configuration);
+		// we add one byte to be able to detect potential truncation.
+		this.receiveBufferPool = new ByteBufferPool(getReceiverPacketSize() + 1,
+				configuration.get(UdpConfig.UDP_RECEIVE_BUFFER_POOL_SIZE), true);
+	}
+
+	@Override
+	protected DatagramSocket createSocket(InetSocketAddress bindAddress) throws IOException {
+		DatagramChannel channel = DatagramChannel.open();
+		try {
+			if (getReusePort() && ReusePortUtil.isSupported()) {
+				ReusePortUtil.enable(channel);
+			}
+			DatagramSocket socket = channel.socket();
+			socket.setReuseAddress(getReuseAddress());
+			socket.bind(bindAddress);
+			return socket;
+		} catch (IOException ex) {
+			channel.close();
+			throw ex;
+		}
+	}
+
+	@Override
+	protected NetworkStageThread createReceiver(String name, DatagramSocket socket) {
+		return new ChannelReceiver(name, socket.getChannel());
+	}
+
+	/**
+	 * Get pool of receive buffers.
+	 * 
+	 * @return pool of receive buffers
+	 */
+	public ByteBufferPool getReceiveBufferPool() {
+		return receiveBufferPool;
+	}
+
+	private class ChannelReceiver extends NetworkStageThread {
+
+		private final DatagramChannel channel;
+
+		private ChannelReceiver(String name, DatagramChannel channel) {
+			super(name);
+			this.channel = channel;
+		}
+
+		@Override
+		protected void work() throws IOException {
+			ByteBuffer buffer = receiveBufferPool.acquire();
+			try {
+				InetSocketAddress source = (InetSocketAddress) channel.receive(buffer);
+				if (source != null) {
+					((Buffer) buffer).flip();
+					processBuffer(buffer, source);
+				}
+			} finally {
+				receiveBufferPool.release(buffer);
+			}
+		}
+	}
+
+	/**
+	 * Process received datagram.
+	 * 
+	 * Convert the buffer into {@link RawData} and pass that to the
+	 * {@link RawDataChannel}. The buffer is released by the caller.
+	 * 
+	 * @param buffer received datagram
+	 * @param source source address of the datagram
+	 */
+	protected void processBuffer(ByteBuffer buffer, InetSocketAddress source) {
+		InetSocketAddress connector = effectiveAddr;
+		RawDataChannel dataReceiver = getRawDataReceiver();
+		int length = buffer.remaining();
+		if (source.getPort() == 0) {
+			// RFC 768, see UDPConnector.processDatagram
+			LOGGER.trace("Discarding message with {} bytes from [{}] without source-port", length,
+					StringUtil.toLog(source));
+		} else if (length > getReceiverPacketSize()) {
+			// too large datagram for our buffer! data could have been
+			// truncated, so we discard it.
+			LOGGER.debug(
+					"UDPConnector ({}) received truncated UDP datagram from {}. Maximum size allowed {}. Discarding ...",
+					connector, StringUtil.toLog(source), getReceiverPacketSize());
+		} else if (dataReceiver == null) {
+			LOGGER.debug("UDPConnector ({}) received UDP datagram from {} without receiver. Discarding ...", connector,
+					StringUtil.toLog(source));
+		} else {
+			long timestamp = ClockUtil.nanoRealtime();
+			LOGGER.debug("UDPConnector ({}) received {} bytes from {}", connector, length, StringUtil.toLog(source));
+			EndpointContext context = new UdpEndpointContext(source);
+			byte[] bytes = new byte[length];
+			buffer.get(bytes);
+			RawData msg = RawData.inbound(bytes, context, multicast, timestamp, connector);
+			dataReceiver.receiveData(msg);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return getProtocol() + "-NIO-" + StringUtil.toString(getAddress());
+	}
+}
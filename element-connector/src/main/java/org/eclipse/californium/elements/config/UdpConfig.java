@@ -17,8 +17,10 @@ package org.eclipse.californium.elements.config;
 
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.californium.elements.UDPConnector;
+import org.eclipse.californium.elements.UdpChannelConnector;
 import org.eclipse.californium.elements.config.Configuration.ModuleDefinitionsProvider;
 
 /**
@@ -66,6 +68,50 @@ public final class UdpConfig {
 	public static final IntegerDefinition UDP_CONNECTOR_OUT_CAPACITY = new IntegerDefinition(
 			MODULE + "CONNECTOR_OUT_CAPACITY", "Maximum number of pending outgoing messages.", Integer.MAX_VALUE, 32);
 
+	/**
+	 * Maximum number of idle receive buffers kept in the pool of the
+	 * {@link UdpChannelConnector}.
+	 * 
+	 * @since 3.8
+	 */
+	public static final IntegerDefinition UDP_RECEIVE_BUFFER_POOL_SIZE = new IntegerDefinition(
+			MODULE + "RECEIVE_BUFFER_POOL_SIZE", "Maximum number of idle pooled UDP receive-buffers.", 64, 0);
+
+	/**
+	 * Maximum number of outbound messages sent by a sender thread in one
+	 * batch. {@code 1} to disable batching.
+	 * 
+	 * @since 3.8
+	 */
+	public static final IntegerDefinition UDP_SENDER_BATCH_SIZE = new IntegerDefinition(MODULE + "SENDER_BATCH_SIZE",
+			"Maximum number of outgoing messages sent in one batch. 1 to disable batching.", 1, 1);
+	/**
+	 * Linger time to collect more outbound messages for a batch. Only used, if
+	 * {@link #UDP_SENDER_BATCH_SIZE} is larger than {@code 1}. {@code 0} to
+	 * send the available messages without waiting.
+	 * 
+	 * @since 3.8
+	 */
+	public static final TimeDefinition UDP_SENDER_BATCH_LINGER = new TimeDefinition(
+			MODULE + "SENDER_BATCH_LINGER",
+			"Linger time to collect more outgoing messages for a batch. 0 to send available messages without waiting.",
+			0L, TimeUnit.MILLISECONDS);
+
+	/**
+	 * Use a separate socket bound with {@code SO_REUSEPORT} for each receiver
+	 * thread of the {@link UDPConnector}.
+	 * 
+	 * The kernel distributes the received datagrams by the hash of the
+	 * addresses and ports over the sockets. That keeps the order of the
+	 * datagrams of a peer. Requires java 9 or newer and a supporting platform,
+	 * otherwise a single socket is used.
+	 * 
+	 * @since 3.8
+	 */
+	public static final BooleanDefinition UDP_RECEIVER_REUSE_PORT = new BooleanDefinition(
+			MODULE + "RECEIVER_REUSE_PORT", "Use a separate SO_REUSEPORT socket for each UDP receiver thread.",
+			false);
+
 	public static final ModuleDefinitionsProvider DEFINITIONS = new ModuleDefinitionsProvider() {
 
 		@Override
@@ -84,6 +130,10 @@ public final class UdpConfig {
 			config.set(UDP_RECEIVE_BUFFER_SIZE, null);
 			config.set(UDP_SEND_BUFFER_SIZE, null);
 			config.set(UDP_CONNECTOR_OUT_CAPACITY, Integer.MAX_VALUE);
+			config.set(UDP_RECEIVE_BUFFER_POOL_SIZE, 64);
+			config.set(UDP_SENDER_BATCH_SIZE, 1);
+			config.set(UDP_SENDER_BATCH_LINGER, 0L, TimeUnit.MILLISECONDS);
+			config.set(UDP_RECEIVER_REUSE_PORT, false);
 		}
 	};
 
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.elements.util;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of {@link ByteBuffer} with fixed capacity.
+ * 
+ * Buffers are acquired with {@link #acquire()} and must be returned with
+ * {@link #release(ByteBuffer)}, when they are not longer used. Buffers, which
+ * are not released, are simply garbage collected. If more buffers are
+ * released than the pool is able to keep, the additional buffers are dropped.
+ * 
+ * The pool keeps track of the number of hits (reused buffers) and misses
+ * (newly allocated buffers).
+ * 
+ * @since 3.8
+ */
+public class ByteBufferPool {
+
+	/**
+	 * Capacity of the pooled buffers.
+	 */
+	private final int bufferSize;
+	/**
+	 * Maximum number of idle buffers kept in the pool.
+	 */
+	private final int maxIdleBuffers;
+	/**
+	 * {@code true}, to use direct buffers, {@code false}, for heap buffers.
+	 */
+	private final boolean direct;
+	/**
+	 * Idle buffers.
+	 */
+	private final Queue<ByteBuffer> idle = new ConcurrentLinkedQueue<>();
+	/**
+	 * Number of idle buffers. {@link ConcurrentLinkedQueue#size()} is not a
+	 * constant-time operation.
+	 */
+	private final AtomicInteger idleCounter = new AtomicInteger();
+	/**
+	 * Number of acquired buffers, which are reused from the pool.
+	 */
+	private final AtomicLong hits = new AtomicLong();
+	/**
+	 * Number of acquired buffers, which are allocated.
+	 */
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Create pool of buffers.
+	 * 
+	 * @param bufferSize capacity of the buffers.
+	 * @param maxIdleBuffers maximum number of idle buffers kept in the pool.
+	 * @param direct {@code true}, to use direct buffers, {@code false}, for
+	 *            heap buffers.
+	 * @throws IllegalArgumentException if buffer size is less than {@code 1},
+	 *             or the maximum number of idle buffers is negative.
+	 */
+	public ByteBufferPool(int bufferSize, int maxIdleBuffers, boolean direct) {
+		if (bufferSize < 1) {
+			throw new IllegalArgumentException("Buffer size " + bufferSize + " must be at least 1!");
+		}
+		if (maxIdleBuffers < 0) {
+			throw new IllegalArgumentException("Idle buffers " + maxIdleBuffers + " must not be negative!");
+		}
+		this.bufferSize = bufferSize;
+		this.maxIdleBuffers = maxIdleBuffers;
+		this.direct = direct;
+	}
+
+	/**
+	 * Acquire buffer.
+	 * 
+	 * Reuses an idle buffer, or allocates a new one, if the pool is empty.
+	 * 
+	 * @return cleared buffer with the capacity of {@link #getBufferSize()}.
+	 */
+	public ByteBuffer acquire() {
+		ByteBuffer buffer = idle.poll();
+		if (buffer == null) {
+			misses.incrementAndGet();
+			buffer = direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+		} else {
+			idleCounter.decrementAndGet();
+			hits.incrementAndGet();
+			((Buffer) buffer).clear();
+		}
+		return buffer;
+	}
+
+	/**
+	 * Release buffer.
+	 * 
+	 * The buffer must not be used after it has been released.
+	 * 
+	 * @param buffer buffer acquired from this pool. {@code null} or buffers
+	 *            with a different capacity are ignored.
+	 */
+	public void release(ByteBuffer buffer) {
+		if (buffer != null && buffer.capacity() == bufferSize && buffer.isDirect() == direct) {
+			if (idleCounter.incrementAndGet() <= maxIdleBuffers) {
+				idle.offer(buffer);
+			} else {
+				idleCounter.decrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Get capacity of the buffers.
+	 * 
+	 * @return capacity of the buffers
+	 */
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	/**
+	 * Get number of idle buffers.
+	 * 
+	 * @return number of idle buffers
+	 */
+	public int getIdleBuffers() {
+		return idleCounter.get();
+	}
+
+	/**
+	 * Get number of acquired buffers, which are reused from the pool.
+	 * 
+	 * @return number of hits
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Get number of acquired buffers, which are allocated.
+	 * 
+	 * @return number of misses
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	@Override
+	public String toString() {
+		return "pool[" + bufferSize + "," + (direct ? "direct" : "heap") + "] idle " + getIdleBuffers() + ", hits "
+				+ getHits() + ", misses " + getMisses();
+	}
+}
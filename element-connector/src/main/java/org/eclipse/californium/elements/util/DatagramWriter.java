@@ -26,6 +26,11 @@ import java.util.concurrent.atomic.AtomicLong;
 /**
  * This class describes the functionality to write raw network-ordered datagrams
  * on bit-level.
+ * 
+ * Since 3.8 the writer supports to use pooled internal buffers, see
+ * {@link #DatagramWriter(int, boolean, boolean)}. Such writers must be
+ * {@link #close()}d after usage in order to return the internal buffer to the
+ * {@link ThreadLocalByteArrayPool}.
  */
 public final class DatagramWriter {
 
@@ -42,6 +47,7 @@ public final class DatagramWriter {
 	private byte currentByte;
 	private int currentBitIndex;
 	private final boolean secureClose;
+	private final boolean pooled;
 
 	// Constructors ////////////////////////////////////////////////////////////
 
@@ -79,9 +85,30 @@ public final class DatagramWriter {
 	 *            {@link #close()}, {@code false}, don't clear internal buffer.
 	 */
 	public DatagramWriter(int size, boolean secureClose) {
+		this(size, secureClose, false);
+	}
+
+	/**
+	 * Creates a new empty writer with provided initial size.
+	 * 
+	 * Pooled writers acquire the internal buffers from the
+	 * {@link ThreadLocalByteArrayPool} and release them on enlarging and on
+	 * {@link #close()}. Such writers must therefore be closed by the same
+	 * thread, which uses them, and should not be used with a too large initial
+	 * size, because such buffers are not pooled.
+	 * 
+	 * @param size initial size
+	 * @param secureClose {@code true}, clear internal buffer on
+	 *            {@link #close()}, {@code false}, don't clear internal buffer.
+	 * @param pooled {@code true}, use pooled internal buffers, {@code false},
+	 *            allocate internal buffers.
+	 * @since 3.8
+	 */
+	public DatagramWriter(int size, boolean secureClose, boolean pooled) {
 		// initialize underlying byte stream
 		this.secureClose = secureClose;
-		buffer = new byte[size];
+		this.pooled = pooled;
+		buffer = pooled ? ThreadLocalByteArrayPool.acquire(size) : new byte[size];
 		// initialize bit buffer
 		resetCurrentByte();
 	}
@@ -479,10 +506,14 @@ public final class DatagramWriter {
 	/**
 	 * Close writer, release resources. If {@link #DatagramWriter(boolean)}
 	 * secure close is enabled, clear the related byte array before releasing
-	 * it.
+	 * it. If {@link #DatagramWriter(int, boolean, boolean)} pooled buffers are
+	 * enabled, return the byte array to the {@link ThreadLocalByteArrayPool}.
 	 */
 	public void close() {
 		reset();
+		if (pooled) {
+			ThreadLocalByteArrayPool.release(buffer);
+		}
 		buffer = Bytes.EMPTY;
 	}
 
@@ -568,11 +599,14 @@ public final class DatagramWriter {
 	 * @since 3.0
 	 */
 	private final void setBufferSize(int size) {
-		byte[] newBuffer = new byte[size];
+		byte[] newBuffer = pooled ? ThreadLocalByteArrayPool.acquire(size) : new byte[size];
 		System.arraycopy(buffer, 0, newBuffer, 0, count);
 		if (secureClose) {
 			Arrays.fill(buffer, 0, count, (byte) 0);
 		}
+		if (pooled) {
+			ThreadLocalByteArrayPool.release(buffer);
+		}
 		buffer = newBuffer;
 	}
 
@@ -23,6 +23,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.Executor;
 
 import javax.crypto.CipherInputStream;
 import javax.crypto.CipherOutputStream;
@@ -42,6 +43,10 @@ import org.slf4j.LoggerFactory;
  * {@link #loadAndRegisterShutdown(String, char[], long, Runnable)} before
  * starting them.
  * 
+ * Since 3.8 the components may be saved in the chunked format of the
+ * {@link EncryptedStreamUtil}, see {@link #setChunked(int, Executor)}. Loading
+ * detects the format.
+ * 
  * @since 3.4
  */
 public class EncryptedPersistentComponentUtil extends PersistentComponentUtil {
@@ -70,6 +75,21 @@ public class EncryptedPersistentComponentUtil extends PersistentComponentUtil {
 
 	private final EncryptedStreamUtil encryptionUtility = new EncryptedStreamUtil();
 
+	/**
+	 * Chunk size for saving. {@code 0} to save in the stream format.
+	 * 
+	 * @since 3.8
+	 */
+	private volatile int chunkSize;
+
+	/**
+	 * Executor to encrypt and decrypt the chunks in parallel. {@code null} to
+	 * process them in the calling thread.
+	 * 
+	 * @since 3.8
+	 */
+	private volatile Executor executor;
+
 	/**
 	 * Create encrypted serialization utility with
 	 * {@link EncryptedStreamUtil#DEFAULT_CIPHER_ALGORITHM} and
@@ -100,6 +120,32 @@ public class EncryptedPersistentComponentUtil extends PersistentComponentUtil {
 		encryptionUtility.setCipher(cipherAlgorithm, keySizeBits);
 	}
 
+	/**
+	 * Set chunked format.
+	 * 
+	 * The chunked format splits the data into chunks, which are encrypted and
+	 * authenticated independently. With an executor, e.g. a
+	 * {@code ForkJoinPool}, the chunks are encrypted on saving and decrypted
+	 * on loading in parallel.
+	 * 
+	 * @param chunkSize chunk size in bytes for saving.
+	 *            {@link EncryptedStreamUtil#DEFAULT_CHUNK_SIZE} is a good
+	 *            choice. {@code 0} to save in the stream format.
+	 * @param executor executor to encrypt and decrypt the chunks in parallel.
+	 *            {@code null} to process them in the calling thread.
+	 * @throws IllegalArgumentException if chunk size is negative or larger
+	 *             than {@link EncryptedStreamUtil#MAX_CHUNK_SIZE}
+	 * @since 3.8
+	 */
+	public void setChunked(int chunkSize, Executor executor) {
+		if (chunkSize < 0 || chunkSize > EncryptedStreamUtil.MAX_CHUNK_SIZE) {
+			throw new IllegalArgumentException("Chunk size " + chunkSize + " must be in range [0..."
+					+ EncryptedStreamUtil.MAX_CHUNK_SIZE + "]!");
+		}
+		this.chunkSize = chunkSize;
+		this.executor = executor;
+	}
+
 	/**
 	 * Prepare input stream.
 	 * 
@@ -114,7 +160,7 @@ public class EncryptedPersistentComponentUtil extends PersistentComponentUtil {
 	 *         empty input stream is returned and no items are loaded.
 	 */
 	public InputStream prepare(InputStream in, SecretKey password) {
-		return encryptionUtility.prepare(in, password);
+		return encryptionUtility.prepare(in, password, executor);
 	}
 
 	/**
@@ -138,11 +184,16 @@ public class EncryptedPersistentComponentUtil extends PersistentComponentUtil {
 	 * @param out output stream to write data to
 	 * @param password password for encryption. If {@code null}, the output
 	 *            stream is not encrypted.
-	 * @return prepared output stream, {@link CipherOutputStream}, if a password
-	 *         is provided.
+	 * @return prepared output stream, {@link CipherOutputStream} or a stream
+	 *         encrypting chunks, if a password is provided.
 	 * @throws IOException if an i/o-error occurred
+	 * @see #setChunked(int, Executor)
 	 */
 	public OutputStream prepare(OutputStream out, SecretKey password) throws IOException {
+		int chunkSize = this.chunkSize;
+		if (chunkSize > 0) {
+			return encryptionUtility.prepare(out, password, chunkSize, executor);
+		}
 		return encryptionUtility.prepare(out, password);
 	}
 
@@ -165,7 +216,7 @@ public class EncryptedPersistentComponentUtil extends PersistentComponentUtil {
 		OutputStream serversOut = prepare(out, password);
 		saveComponents(serversOut, staleThresholdInSeconds);
 		if (serversOut != out) {
-			// close CipherOutputStream to append padding
+			// close CipherOutputStream to append padding, or the last chunk
 			serversOut.close();
 		}
 	}
@@ -18,10 +18,20 @@ import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 import java.security.SecureRandom;
 import java.security.spec.AlgorithmParameterSpec;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import javax.crypto.Cipher;
 import javax.crypto.CipherInputStream;
@@ -37,6 +47,14 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Utility for encrypted streams.
+ * <p>
+ * Supports two formats. The stream format encrypts the whole data with a
+ * single cipher stream. The chunked format (since 3.8) splits the data into
+ * chunks, which are encrypted and authenticated independently. That enables
+ * to encrypt and decrypt the chunks in parallel using a provided
+ * {@link Executor}, e.g. a {@code ForkJoinPool}. The format is detected on
+ * {@link #prepare(InputStream, SecretKey, Executor)}.
+ * </p>
  * 
  * @since 3.7
  */
@@ -54,6 +72,18 @@ public class EncryptedStreamUtil {
 	 * Default key size in bits.
 	 */
 	public static final int DEFAULT_KEY_SIZE_BITS = 128;
+	/**
+	 * Default chunk size in bytes for the chunked format.
+	 * 
+	 * @since 3.8
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+	/**
+	 * Maximum chunk size in bytes for the chunked format.
+	 * 
+	 * @since 3.8
+	 */
+	public static final int MAX_CHUNK_SIZE = 16 * 1024 * 1024;
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(EncryptedStreamUtil.class);
 
@@ -65,6 +95,50 @@ public class EncryptedStreamUtil {
 	 * Label to generate AES key out of the password.
 	 */
 	private static final byte[] EXPANSION_LABEL = "key expansion".getBytes();
+	/**
+	 * Label to generate AES and MAC key for the chunked format out of the
+	 * password.
+	 */
+	private static final byte[] CHUNK_EXPANSION_LABEL = "chunk key expansion".getBytes();
+	/**
+	 * Size of seed in bytes.
+	 */
+	private static final int SEED_SIZE = 16;
+	/**
+	 * Size of initial vector in bytes.
+	 */
+	private static final int IV_SIZE = 16;
+	/**
+	 * Size of MAC key in bytes for the chunked format.
+	 */
+	private static final int MAC_KEY_SIZE = 32;
+	/**
+	 * Chunked format.
+	 * 
+	 * The header of the chunked format is this format byte followed by the
+	 * seed. The header of the stream format is the seed only.
+	 */
+	private static final byte CHUNKED_FORMAT = 1;
+	/**
+	 * Size of the header of the chunked format.
+	 */
+	private static final int CHUNKED_HEADER_SIZE = 1 + SEED_SIZE;
+	/**
+	 * Flag for chunks followed by other chunks.
+	 */
+	private static final int CHUNK_MORE = 0;
+	/**
+	 * Flag for the last chunk.
+	 */
+	private static final int CHUNK_LAST = 1;
+	/**
+	 * Maximum overhead of an encoded chunk. Initial vector, padding and MAC.
+	 */
+	private static final int MAX_CHUNK_OVERHEAD = IV_SIZE + 16 + 32;
+	/**
+	 * Number of chunks in process per available processor.
+	 */
+	private static final int CHUNKS_PER_PROCESSOR = 2;
 
 	/**
 	 * Cipher algorithm.
@@ -120,11 +194,10 @@ public class EncryptedStreamUtil {
 		try {
 			Mac hmac = Mac.getInstance(HMAC_ALGORITHM);
 			hmac.init(password);
-			int ivSize = 16;
 			int keySizeBytes = (keySizeBits + Byte.SIZE - 1) / Byte.SIZE;
-			byte[] data = doExpansion(hmac, EXPANSION_LABEL, seed, keySizeBytes + ivSize);
+			byte[] data = doExpansion(hmac, EXPANSION_LABEL, seed, keySizeBytes + IV_SIZE);
 			SecretKey key = new SecretKeySpec(data, 0, keySizeBytes, "AES");
-			AlgorithmParameterSpec parameterSpec = new IvParameterSpec(data, keySizeBytes, ivSize);
+			AlgorithmParameterSpec parameterSpec = new IvParameterSpec(data, keySizeBytes, IV_SIZE);
 			Bytes.clear(data);
 			Cipher cipher = Cipher.getInstance(cipherAlgorithm);
 			cipher.init(mode, key, parameterSpec);
@@ -135,6 +208,33 @@ public class EncryptedStreamUtil {
 		}
 	}
 
+	/**
+	 * Initialize chunk cipher.
+	 * 
+	 * @param password password
+	 * @param seed seed. Either randomly generated when saving, or read from
+	 *            persistence, when loading.
+	 * @return initialized chunk cipher
+	 */
+	private ChunkCipher initChunks(SecretKey password, byte[] seed) {
+		try {
+			Mac hmac = Mac.getInstance(HMAC_ALGORITHM);
+			hmac.init(password);
+			int keySizeBytes = (keySizeBits + Byte.SIZE - 1) / Byte.SIZE;
+			byte[] data = doExpansion(hmac, CHUNK_EXPANSION_LABEL, seed, keySizeBytes + MAC_KEY_SIZE);
+			SecretKey key = new SecretKeySpec(data, 0, keySizeBytes, "AES");
+			SecretKey macKey = new SecretKeySpec(data, keySizeBytes, MAC_KEY_SIZE, HMAC_ALGORITHM);
+			Bytes.clear(data);
+			ChunkCipher cipher = new ChunkCipher(cipherAlgorithm, key, macKey);
+			// check, if cipher is supported
+			cipher.getCipher(Cipher.ENCRYPT_MODE, new byte[IV_SIZE]);
+			return cipher;
+		} catch (GeneralSecurityException ex) {
+			LOGGER.warn("encryption error:", ex);
+			return null;
+		}
+	}
+
 	/**
 	 * Prepare input stream.
 	 * 
@@ -149,6 +249,30 @@ public class EncryptedStreamUtil {
 	 *         empty input stream is returned and no items are loaded.
 	 */
 	public InputStream prepare(InputStream in, SecretKey password) {
+		return prepare(in, password, null);
+	}
+
+	/**
+	 * Prepare input stream.
+	 * 
+	 * Detects the stream and the chunked format.
+	 * 
+	 * @param in input stream to read data from
+	 * @param password password for decryption. If {@code null}, the input
+	 *            stream must not be encrypted.
+	 * @param executor executor to decrypt chunks of the chunked format in
+	 *            parallel. If {@code null}, the chunks are decrypted by the
+	 *            reading thread.
+	 * @return prepared input stream. If a "seed" is found at the head and
+	 *         password is provided, a {@link CipherInputStream} or a stream
+	 *         decrypting the chunks. If that doesn't
+	 *         {@link InputStream#markSupported()}, wrapped with a
+	 *         {@link BufferedInputStream}. If a "seed" is found, but the
+	 *         password is missing or the cipher algorithm isn't supported, a
+	 *         empty input stream is returned and no items are loaded.
+	 * @since 3.8
+	 */
+	public InputStream prepare(InputStream in, SecretKey password, Executor executor) {
 		DataStreamReader reader = new DataStreamReader(in);
 		byte[] seed = reader.readVarBytes(Byte.SIZE);
 		if (seed != null && seed.length > 0) {
@@ -156,12 +280,21 @@ public class EncryptedStreamUtil {
 				LOGGER.warn("missing password!");
 				return new ByteArrayInputStream(Bytes.EMPTY);
 			}
-			Cipher cipher = init(Cipher.DECRYPT_MODE, password, seed);
-			if (cipher == null) {
-				LOGGER.warn("crypto error!");
-				return new ByteArrayInputStream(Bytes.EMPTY);
+			if (seed.length == CHUNKED_HEADER_SIZE && seed[0] == CHUNKED_FORMAT) {
+				ChunkCipher cipher = initChunks(password, Arrays.copyOfRange(seed, 1, CHUNKED_HEADER_SIZE));
+				if (cipher == null) {
+					LOGGER.warn("crypto error!");
+					return new ByteArrayInputStream(Bytes.EMPTY);
+				}
+				in = new ChunkInputStream(reader, cipher, executor);
+			} else {
+				Cipher cipher = init(Cipher.DECRYPT_MODE, password, seed);
+				if (cipher == null) {
+					LOGGER.warn("crypto error!");
+					return new ByteArrayInputStream(Bytes.EMPTY);
+				}
+				in = new CipherInputStream(in, cipher);
 			}
-			in = new CipherInputStream(in, cipher);
 			if (!in.markSupported()) {
 				in = new BufferedInputStream(in);
 			}
@@ -184,7 +317,7 @@ public class EncryptedStreamUtil {
 	public OutputStream prepare(OutputStream out, SecretKey password) throws IOException {
 		DatagramWriter writer = new DatagramWriter();
 		if (password != null) {
-			byte[] seed = new byte[16];
+			byte[] seed = new byte[SEED_SIZE];
 			new SecureRandom().nextBytes(seed);
 			Cipher cipher = init(Cipher.ENCRYPT_MODE, password, seed);
 			if (cipher != null) {
@@ -203,6 +336,56 @@ public class EncryptedStreamUtil {
 		return out;
 	}
 
+	/**
+	 * Prepare output stream for the chunked format.
+	 * 
+	 * Writes format and random seed or {@link Bytes#EMPTY}, if no password is
+	 * provided. The returned stream must be closed in order to write the last
+	 * chunk.
+	 * 
+	 * @param out output stream to write data to
+	 * @param password password for encryption. If {@code null}, the output
+	 *            stream is not encrypted.
+	 * @param chunkSize size of chunks in bytes
+	 * @param executor executor to encrypt the chunks in parallel. If
+	 *            {@code null}, the chunks are encrypted by the writing thread.
+	 * @return prepared output stream, a stream encrypting the chunks, if a
+	 *         password is provided.
+	 * @throws IOException if an i/o-error occurred
+	 * @throws IllegalArgumentException if chunk size is less than {@code 1}
+	 *             or larger than {@link #MAX_CHUNK_SIZE}
+	 * @since 3.8
+	 */
+	public OutputStream prepare(OutputStream out, SecretKey password, int chunkSize, Executor executor)
+			throws IOException {
+		if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+			throw new IllegalArgumentException(
+					"Chunk size " + chunkSize + " must be in range [1..." + MAX_CHUNK_SIZE + "]!");
+		}
+		DatagramWriter writer = new DatagramWriter();
+		if (password != null) {
+			byte[] seed = new byte[SEED_SIZE];
+			new SecureRandom().nextBytes(seed);
+			ChunkCipher cipher = initChunks(password, seed);
+			if (cipher != null) {
+				byte[] header = new byte[CHUNKED_HEADER_SIZE];
+				header[0] = CHUNKED_FORMAT;
+				System.arraycopy(seed, 0, header, 1, SEED_SIZE);
+				writer.writeVarBytes(header, Byte.SIZE);
+				writer.writeTo(out);
+				out = new ChunkOutputStream(out, cipher, chunkSize, executor);
+			} else {
+				LOGGER.warn("crypto error!");
+				password = null;
+			}
+		}
+		if (password == null) {
+			writer.writeVarBytes(Bytes.EMPTY, Byte.SIZE);
+			writer.writeTo(out);
+		}
+		return out;
+	}
+
 	/**
 	 * Performs the secret expansion as described in
 	 * <a href="https://tools.ietf.org/html/rfc5246#section-5" target=
@@ -272,4 +455,389 @@ public class EncryptedStreamUtil {
 		return expansion;
 	}
 
+	/**
+	 * Get result of chunk processing.
+	 * 
+	 * @param chunk future of chunk processing
+	 * @return processed chunk
+	 * @throws IOException if processing failed or the thread was interrupted
+	 */
+	private static byte[] get(Future<byte[]> chunk) throws IOException {
+		try {
+			return chunk.get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("chunk processing interrupted!");
+		} catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new IOException("chunk processing failed!", cause);
+		}
+	}
+
+	/**
+	 * Start processing of chunk.
+	 * 
+	 * @param chunk chunk processing
+	 * @param executor executor to process chunk. If {@code null}, the chunk is
+	 *            processed by the calling thread.
+	 * @return future of chunk processing
+	 */
+	private static Future<byte[]> start(Callable<byte[]> chunk, Executor executor) {
+		FutureTask<byte[]> task = new FutureTask<byte[]>(chunk);
+		if (executor == null) {
+			task.run();
+		} else {
+			executor.execute(task);
+		}
+		return task;
+	}
+
+	/**
+	 * Get number of chunks in process.
+	 * 
+	 * @param executor executor to process chunks
+	 * @return number of chunks in process
+	 */
+	private static int getWindow(Executor executor) {
+		if (executor == null) {
+			return 1;
+		}
+		return Runtime.getRuntime().availableProcessors() * CHUNKS_PER_PROCESSOR;
+	}
+
+	/**
+	 * Encrypts and decrypts chunks.
+	 * 
+	 * Each chunk is encrypted with a random initial vector and authenticated
+	 * with a MAC over the chunk index, the chunk flag, the initial vector, and
+	 * the encrypted data. The MAC is verified before decryption. Thread-safe,
+	 * the {@link Cipher} and the {@link Mac} are created for each chunk.
+	 */
+	private static class ChunkCipher {
+
+		private final SecureRandom random = new SecureRandom();
+		private final String cipherAlgorithm;
+		private final SecretKey key;
+		private final SecretKey macKey;
+
+		private ChunkCipher(String cipherAlgorithm, SecretKey key, SecretKey macKey) {
+			this.cipherAlgorithm = cipherAlgorithm;
+			this.key = key;
+			this.macKey = macKey;
+		}
+
+		private Cipher getCipher(int mode, byte[] iv) throws GeneralSecurityException {
+			Cipher cipher = Cipher.getInstance(cipherAlgorithm);
+			cipher.init(mode, key, new IvParameterSpec(iv));
+			return cipher;
+		}
+
+		private byte[] mac(int index, int flag, byte[] iv, byte[] data, int offset, int length)
+				throws GeneralSecurityException {
+			Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+			mac.init(macKey);
+			mac.update(new byte[] { (byte) (index >> 24), (byte) (index >> 16), (byte) (index >> 8), (byte) index,
+					(byte) flag });
+			mac.update(iv);
+			mac.update(data, offset, length);
+			return mac.doFinal();
+		}
+
+		/**
+		 * Encrypt chunk.
+		 * 
+		 * @param index index of chunk
+		 * @param flag {@link EncryptedStreamUtil#CHUNK_MORE} or
+		 *            {@link EncryptedStreamUtil#CHUNK_LAST}
+		 * @param data data of chunk
+		 * @param length length of data of chunk
+		 * @return encoded chunk
+		 * @throws GeneralSecurityException if encryption failed
+		 */
+		private byte[] encrypt(int index, int flag, byte[] data, int length) throws GeneralSecurityException {
+			byte[] iv = new byte[IV_SIZE];
+			random.nextBytes(iv);
+			byte[] encrypted = getCipher(Cipher.ENCRYPT_MODE, iv).doFinal(data, 0, length);
+			byte[] mac = mac(index, flag, iv, encrypted, 0, encrypted.length);
+			DatagramWriter writer = new DatagramWriter(1 + 4 + IV_SIZE + encrypted.length + mac.length);
+			writer.write(flag, Byte.SIZE);
+			writer.write(IV_SIZE + encrypted.length + mac.length, Integer.SIZE);
+			writer.writeBytes(iv);
+			writer.writeBytes(encrypted);
+			writer.writeBytes(mac);
+			return writer.toByteArray();
+		}
+
+		/**
+		 * Verify and decrypt chunk.
+		 * 
+		 * @param index index of chunk
+		 * @param flag {@link EncryptedStreamUtil#CHUNK_MORE} or
+		 *            {@link EncryptedStreamUtil#CHUNK_LAST}
+		 * @param chunk initial vector, encrypted data and MAC of chunk
+		 * @return decrypted data of chunk
+		 * @throws GeneralSecurityException if verification or decryption
+		 *             failed
+		 */
+		private byte[] decrypt(int index, int flag, byte[] chunk) throws GeneralSecurityException {
+			int macLength = Mac.getInstance(HMAC_ALGORITHM).getMacLength();
+			int length = chunk.length - IV_SIZE - macLength;
+			if (length < 0) {
+				throw new GeneralSecurityException("chunk " + index + " too short!");
+			}
+			byte[] iv = Arrays.copyOf(chunk, IV_SIZE);
+			byte[] mac = mac(index, flag, iv, chunk, IV_SIZE, length);
+			byte[] chunkMac = Arrays.copyOfRange(chunk, IV_SIZE + length, chunk.length);
+			if (!MessageDigest.isEqual(mac, chunkMac)) {
+				throw new GeneralSecurityException("chunk " + index + " MAC mismatch!");
+			}
+			return getCipher(Cipher.DECRYPT_MODE, iv).doFinal(chunk, IV_SIZE, length);
+		}
+	}
+
+	/**
+	 * Output stream for the chunked format.
+	 * 
+	 * Splits the data into chunks, encrypts them in parallel and writes them
+	 * in order.
+	 */
+	private static class ChunkOutputStream extends OutputStream {
+
+		private final OutputStream out;
+		private final ChunkCipher cipher;
+		private final Executor executor;
+		private final int chunkSize;
+		private final int window;
+		private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+		private byte[] chunk;
+		private int position;
+		private int index;
+		private boolean closed;
+
+		private ChunkOutputStream(OutputStream out, ChunkCipher cipher, int chunkSize, Executor executor) {
+			this.out = out;
+			this.cipher = cipher;
+			this.executor = executor;
+			this.chunkSize = chunkSize;
+			this.window = getWindow(executor);
+			this.chunk = new byte[chunkSize];
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			if (closed) {
+				throw new IOException("stream closed!");
+			}
+			chunk[position++] = (byte) b;
+			if (position == chunkSize) {
+				submit(CHUNK_MORE);
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (closed) {
+				throw new IOException("stream closed!");
+			}
+			while (len > 0) {
+				int length = Math.min(len, chunkSize - position);
+				System.arraycopy(b, off, chunk, position, length);
+				position += length;
+				off += length;
+				len -= length;
+				if (position == chunkSize) {
+					submit(CHUNK_MORE);
+				}
+			}
+		}
+
+		/**
+		 * Submit current chunk for encryption.
+		 * 
+		 * Writes the already encrypted chunks, if the number of pending chunks
+		 * exceeds the window.
+		 * 
+		 * @param flag {@link EncryptedStreamUtil#CHUNK_MORE} or
+		 *            {@link EncryptedStreamUtil#CHUNK_LAST}
+		 * @throws IOException if an i/o-error occurred
+		 */
+		private void submit(final int flag) throws IOException {
+			final byte[] data = chunk;
+			final int length = position;
+			final int chunkIndex = index++;
+			chunk = flag == CHUNK_LAST ? null : new byte[chunkSize];
+			position = 0;
+			pending.add(start(new Callable<byte[]>() {
+
+				@Override
+				public byte[] call() throws GeneralSecurityException {
+					try {
+						return cipher.encrypt(chunkIndex, flag, data, length);
+					} finally {
+						Bytes.clear(data);
+					}
+				}
+			}, executor));
+			while (pending.size() > window) {
+				writeChunk();
+			}
+		}
+
+		private void writeChunk() throws IOException {
+			out.write(get(pending.removeFirst()));
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 * Flushes the written chunks. The current chunk is not flushed until it
+		 * is full or the stream is closed.
+		 */
+		@Override
+		public void flush() throws IOException {
+			out.flush();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 * Writes the last chunk and closes the underlying output stream.
+		 */
+		@Override
+		public void close() throws IOException {
+			if (!closed) {
+				closed = true;
+				try {
+					submit(CHUNK_LAST);
+					while (!pending.isEmpty()) {
+						writeChunk();
+					}
+					out.flush();
+				} finally {
+					out.close();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Input stream for the chunked format.
+	 * 
+	 * Reads ahead the chunks, verifies and decrypts them in parallel and
+	 * provides the data in order.
+	 */
+	private static class ChunkInputStream extends InputStream {
+
+		private final DataStreamReader reader;
+		private final ChunkCipher cipher;
+		private final Executor executor;
+		private final int window;
+		private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+		private byte[] chunk = Bytes.EMPTY;
+		private int position;
+		private int index;
+		private boolean last;
+
+		private ChunkInputStream(DataStreamReader reader, ChunkCipher cipher, Executor executor) {
+			this.reader = reader;
+			this.cipher = cipher;
+			this.executor = executor;
+			this.window = getWindow(executor);
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (!fill()) {
+				return -1;
+			}
+			return chunk[position++] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (!fill()) {
+				return -1;
+			}
+			int length = Math.min(len, chunk.length - position);
+			System.arraycopy(chunk, position, b, off, length);
+			position += length;
+			return length;
+		}
+
+		@Override
+		public int available() {
+			return chunk.length - position;
+		}
+
+		@Override
+		public void close() throws IOException {
+			Bytes.clear(chunk);
+			chunk = Bytes.EMPTY;
+			position = 0;
+			reader.close();
+		}
+
+		/**
+		 * Fill current chunk.
+		 * 
+		 * @return {@code true}, if data is available, {@code false}, if the
+		 *         last chunk is consumed.
+		 * @throws IOException if an i/o-error occurred, or a chunk could not
+		 *             be verified
+		 */
+		private boolean fill() throws IOException {
+			while (position == chunk.length) {
+				readAhead();
+				if (pending.isEmpty()) {
+					return false;
+				}
+				Bytes.clear(chunk);
+				chunk = get(pending.removeFirst());
+				position = 0;
+			}
+			return true;
+		}
+
+		/**
+		 * Read chunks and start verification and decryption.
+		 * 
+		 * @throws IOException if an i/o-error occurred, or the chunks are
+		 *             truncated.
+		 */
+		private void readAhead() throws IOException {
+			while (!last && pending.size() < window) {
+				final int flag;
+				final byte[] data;
+				try {
+					flag = reader.read(Byte.SIZE);
+					int length = reader.read(Integer.SIZE);
+					if (length < 0 || length > MAX_CHUNK_SIZE + MAX_CHUNK_OVERHEAD) {
+						throw new IOException("chunk " + index + " length " + length + " exceeds limit!");
+					}
+					data = reader.readBytes(length);
+				} catch (IllegalArgumentException ex) {
+					throw new IOException("chunk " + index + " truncated!", ex);
+				}
+				final int chunkIndex = index++;
+				last = flag != CHUNK_MORE;
+				pending.add(start(new Callable<byte[]>() {
+
+					@Override
+					public byte[] call() throws GeneralSecurityException {
+						try {
+							return cipher.decrypt(chunkIndex, flag, data);
+						} finally {
+							Bytes.clear(data);
+						}
+					}
+				}, executor));
+			}
+		}
+	}
 }
@@ -15,6 +15,7 @@
  ******************************************************************************/
 package org.eclipse.californium.elements.util;
 
+import java.lang.reflect.Method;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
@@ -105,8 +106,47 @@ public class ExecutorsUtil {
 			}
 		}
 		REMOVE_ON_CANCEL = remove;
+		Method factory = null;
+		try {
+			// java 21 or newer, java 19 and 20 fails without preview
+			factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			ExecutorService executor = (ExecutorService) factory.invoke(null);
+			executor.shutdown();
+		} catch (Throwable t) {
+			factory = null;
+		}
+		VIRTUAL_THREAD_PER_TASK_EXECUTOR = factory;
+		Method isVirtual = null;
+		if (factory != null) {
+			try {
+				isVirtual = Thread.class.getMethod("isVirtual");
+			} catch (Throwable t) {
+				isVirtual = null;
+			}
+		}
+		IS_VIRTUAL = isVirtual;
 	}
 
+	/**
+	 * Factory method to create an executor using a new virtual thread per
+	 * task. Only available for java 21 or newer. {@code null}, if not
+	 * available.
+	 * 
+	 * Access via reflection to keep the compatibility with older java
+	 * versions.
+	 * 
+	 * @since 3.8
+	 */
+	private static final Method VIRTUAL_THREAD_PER_TASK_EXECUTOR;
+
+	/**
+	 * Method to check, if a thread is a virtual thread. Only available for
+	 * java 21 or newer. {@code null}, if not available.
+	 * 
+	 * @since 3.8
+	 */
+	private static final Method IS_VIRTUAL;
+
 	/**
 	 * Create a scheduled thread pool executor service.
 	 * 
@@ -147,6 +187,63 @@ public class ExecutorsUtil {
 		return executor;
 	}
 
+	/**
+	 * Check, if virtual threads are supported.
+	 * 
+	 * @return {@code true}, if virtual threads are supported (java 21 or
+	 *         newer), {@code false}, otherwise.
+	 * @since 3.8
+	 */
+	public static boolean isVirtualThreadSupported() {
+		return VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+	}
+
+	/**
+	 * Check, if the current thread is a virtual thread.
+	 * 
+	 * @return {@code true}, if the current thread is a virtual thread,
+	 *         {@code false}, otherwise.
+	 * @since 3.8
+	 */
+	public static boolean isVirtualThread() {
+		if (IS_VIRTUAL != null) {
+			try {
+				return (Boolean) IS_VIRTUAL.invoke(Thread.currentThread());
+			} catch (Exception e) {
+				// intended to be empty
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Create an executor service using a new virtual thread for each task.
+	 * 
+	 * Requires java 21 or newer.
+	 * 
+	 * <b>Note:</b> each task is executed by a new virtual thread. Values of
+	 * {@link ThreadLocal}s are therefore not reused across tasks. Thread local
+	 * caches, e.g. of cryptographic functions, are initialized for each task
+	 * again. The {@link ThreadLocalByteArrayPool} is bypassed on virtual
+	 * threads.
+	 * 
+	 * @return executor service using virtual threads, or {@code null}, if
+	 *         virtual threads are not supported.
+	 * @see #isVirtualThreadSupported()
+	 * @since 3.8
+	 */
+	public static ExecutorService newVirtualThreadPerTaskExecutor() {
+		if (VIRTUAL_THREAD_PER_TASK_EXECUTOR != null) {
+			try {
+				LOGGER.trace("create virtual thread per task executor");
+				return (ExecutorService) VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+			} catch (Exception e) {
+				LOGGER.warn("virtual threads are not available!", e);
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Create a single threaded scheduled executor service.
 	 * 
@@ -161,6 +258,27 @@ public class ExecutorsUtil {
 		return executor;
 	}
 
+	/**
+	 * Create a hashed wheel timer.
+	 * 
+	 * The scheduled tasks are executed by the provided executor, or by the
+	 * thread of the wheel, if no executor is provided.
+	 * 
+	 * @param executor executor to execute the tasks. May be {@code null}.
+	 * @param threadFactory thread factory for the thread of the wheel
+	 * @param tick duration of a tick
+	 * @param unit time unit of the tick
+	 * @return hashed wheel timer
+	 * @see HashedWheelTimer
+	 * @since 3.8
+	 */
+	public static ScheduledExecutorService newHashedWheelTimer(ExecutorService executor, ThreadFactory threadFactory,
+			long tick, TimeUnit unit) {
+		LOGGER.trace("create hashed wheel timer, tick {} {}", tick, unit);
+		return new HashedWheelTimer(executor, executor != null, threadFactory, tick, unit,
+				HashedWheelTimer.DEFAULT_WHEEL_SIZE);
+	}
+
 	/**
 	 * Create a scheduler with 2 threads in pools.
 	 * 
@@ -0,0 +1,572 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.elements.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scheduled executor service based on a hashed wheel timer.
+ * <p>
+ * A {@link java.util.concurrent.ScheduledThreadPoolExecutor} keeps the
+ * scheduled tasks in a heap, which requires {@code O(log n)} for each insert
+ * and remove. With many
+ * outstanding timers, e.g. for the retransmission of many CON messages, that
+ * heap gets large and busy. The hashed wheel timer keeps the scheduled tasks
+ * in the buckets of a wheel, which is turned with a coarse tick. Inserting a
+ * task is {@code O(1)}, canceling a task only marks it as cancelled, it is
+ * dropped, when the wheel reaches its bucket. The scheduled tasks are
+ * therefore executed with the precision of the tick, but never before their
+ * delay.
+ * </p>
+ * <p>
+ * The wheel is turned by a dedicated thread. The tasks are either executed by
+ * the provided executor, or, if no executor is provided, by the thread of the
+ * wheel. Tasks passed to {@link #execute(Runnable)} are executed without
+ * delay.
+ * </p>
+ * <p>
+ * Delayed tasks are not executed after {@link #shutdown()}.
+ * </p>
+ * 
+ * @since 3.8
+ */
+public class HashedWheelTimer extends AbstractExecutorService implements ScheduledExecutorService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+	/**
+	 * Default number of buckets of the wheel.
+	 */
+	public static final int DEFAULT_WHEEL_SIZE = 512;
+
+	/**
+	 * Maximum number of new scheduled tasks transferred to the wheel per tick.
+	 */
+	private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+	/**
+	 * Executor to execute the tasks. {@code null} to execute the tasks with
+	 * the thread of the wheel.
+	 */
+	private final Executor executor;
+	/**
+	 * {@code true} to shutdown the {@link #executor} on {@link #shutdown()}.
+	 */
+	private final boolean shutdownExecutor;
+	/**
+	 * Duration of a tick in nanoseconds.
+	 */
+	private final long tickNanos;
+	/**
+	 * Buckets of the wheel. Only accessed by the thread of the wheel.
+	 */
+	private final Bucket[] wheel;
+	/**
+	 * Mask for the index of the buckets.
+	 */
+	private final int mask;
+	/**
+	 * Scheduled tasks to be transferred to the wheel.
+	 */
+	private final Queue<WheelTask<?>> scheduledTasks = new ConcurrentLinkedQueue<>();
+	/**
+	 * Tasks to be executed by the thread of the wheel without delay. Only used
+	 * without {@link #executor}.
+	 */
+	private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+	/**
+	 * Latch for termination of the thread of the wheel.
+	 */
+	private final CountDownLatch terminated = new CountDownLatch(1);
+	/**
+	 * Thread of the wheel.
+	 */
+	private final Thread worker;
+	/**
+	 * Nano-realtime of the start of the wheel.
+	 */
+	private final long startNanos;
+	/**
+	 * Indicates shutdown.
+	 */
+	private volatile boolean shutdown;
+
+	/**
+	 * Create hashed wheel timer.
+	 * 
+	 * @param executor executor to execute the tasks. {@code null} to execute
+	 *            the tasks with the thread of the wheel.
+	 * @param shutdownExecutor {@code true} to shutdown the executor with this
+	 *            timer, {@code false}, to keep it running. Only used, if the
+	 *            executor is a {@link ExecutorService}.
+	 * @param threadFactory thread factory to create the thread of the wheel
+	 * @param tick duration of a tick
+	 * @param unit time unit of the tick
+	 * @param wheelSize number of buckets of the wheel. Rounded up to a power
+	 *            of two.
+	 * @throws NullPointerException if thread factory or unit is {@code null}
+	 * @throws IllegalArgumentException if tick or wheel size is less than
+	 *             {@code 1}
+	 */
+	public HashedWheelTimer(Executor executor, boolean shutdownExecutor, ThreadFactory threadFactory, long tick,
+			TimeUnit unit, int wheelSize) {
+		if (threadFactory == null) {
+			throw new NullPointerException("Thread factory must not be null!");
+		}
+		if (unit == null) {
+			throw new NullPointerException("Time unit must not be null!");
+		}
+		if (tick < 1) {
+			throw new IllegalArgumentException("Tick " + tick + " must be at least 1!");
+		}
+		if (wheelSize < 1 || wheelSize > (1 << 30)) {
+			throw new IllegalArgumentException("Wheel size " + wheelSize + " must be in range [1...2^30]!");
+		}
+		int size = 1;
+		while (size < wheelSize) {
+			size <<= 1;
+		}
+		this.executor = executor;
+		this.shutdownExecutor = shutdownExecutor;
+		this.tickNanos = unit.toNanos(tick);
+		this.wheel = new Bucket[size];
+		for (int index = 0; index < size; ++index) {
+			this.wheel[index] = new Bucket();
+		}
+		this.mask = size - 1;
+		this.startNanos = ClockUtil.nanoRealtime();
+		this.worker = threadFactory.newThread(new Worker());
+		this.worker.start();
+	}
+
+	/**
+	 * Get duration of a tick.
+	 * 
+	 * @param unit time unit
+	 * @return duration of a tick in the provided time unit
+	 */
+	public long getTick(TimeUnit unit) {
+		return unit.convert(tickNanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		if (command == null) {
+			throw new NullPointerException("Command must not be null!");
+		}
+		if (shutdown) {
+			throw new RejectedExecutionException("Timer already shutdown!");
+		}
+		if (executor != null) {
+			executor.execute(command);
+		} else {
+			tasks.offer(command);
+			LockSupport.unpark(worker);
+		}
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+		if (command == null) {
+			throw new NullPointerException("Command must not be null!");
+		}
+		return schedule(new WheelTask<Void>(command, null, deadline(delay, unit), 0));
+	}
+
+	@Override
+	public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+		if (callable == null) {
+			throw new NullPointerException("Callable must not be null!");
+		}
+		return schedule(new WheelTask<V>(callable, deadline(delay, unit)));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+		if (command == null) {
+			throw new NullPointerException("Command must not be null!");
+		}
+		if (period <= 0) {
+			throw new IllegalArgumentException("Period " + period + " must be positive!");
+		}
+		return schedule(new WheelTask<Void>(command, null, deadline(initialDelay, unit), unit.toNanos(period)));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay,
+			TimeUnit unit) {
+		if (command == null) {
+			throw new NullPointerException("Command must not be null!");
+		}
+		if (delay <= 0) {
+			throw new IllegalArgumentException("Delay " + delay + " must be positive!");
+		}
+		return schedule(new WheelTask<Void>(command, null, deadline(initialDelay, unit), -unit.toNanos(delay)));
+	}
+
+	/**
+	 * Shutdown the timer.
+	 * 
+	 * Tasks passed to {@link #execute(Runnable)} are still executed, delayed
+	 * tasks are cancelled. Shutdown the executor, if that was requested on
+	 * creation.
+	 */
+	@Override
+	public void shutdown() {
+		shutdown = true;
+		LockSupport.unpark(worker);
+		if (shutdownExecutor && executor instanceof ExecutorService) {
+			((ExecutorService) executor).shutdown();
+		}
+	}
+
+	/**
+	 * Shutdown the timer.
+	 * 
+	 * Delayed tasks are cancelled. Shutdown the executor, if that was
+	 * requested on creation.
+	 * 
+	 * @return list of tasks passed to {@link #execute(Runnable)}, but not
+	 *         executed, and the delayed tasks, which are not transferred to the
+	 *         wheel yet.
+	 */
+	@Override
+	public List<Runnable> shutdownNow() {
+		shutdown = true;
+		List<Runnable> pending = new ArrayList<>();
+		Runnable job;
+		while ((job = tasks.poll()) != null) {
+			pending.add(job);
+		}
+		while ((job = scheduledTasks.poll()) != null) {
+			pending.add(job);
+		}
+		LockSupport.unpark(worker);
+		if (shutdownExecutor && executor instanceof ExecutorService) {
+			pending.addAll(((ExecutorService) executor).shutdownNow());
+		}
+		return pending;
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return shutdown;
+	}
+
+	@Override
+	public boolean isTerminated() {
+		if (terminated.getCount() > 0) {
+			return false;
+		}
+		if (shutdownExecutor && executor instanceof ExecutorService) {
+			return ((ExecutorService) executor).isTerminated();
+		}
+		return true;
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		long end = ClockUtil.nanoRealtime() + unit.toNanos(timeout);
+		if (!terminated.await(timeout, unit)) {
+			return false;
+		}
+		if (shutdownExecutor && executor instanceof ExecutorService) {
+			long left = end - ClockUtil.nanoRealtime();
+			return ((ExecutorService) executor).awaitTermination(left, TimeUnit.NANOSECONDS);
+		}
+		return true;
+	}
+
+	/**
+	 * Calculate deadline relative to the start of the wheel.
+	 * 
+	 * @param delay delay
+	 * @param unit time unit of the delay
+	 * @return deadline in nanoseconds relative to the start of the wheel.
+	 */
+	private long deadline(long delay, TimeUnit unit) {
+		return ClockUtil.nanoRealtime() - startNanos + Math.max(0, unit.toNanos(delay));
+	}
+
+	/**
+	 * Schedule task.
+	 * 
+	 * @param <V> type of result
+	 * @param task task to schedule
+	 * @return the task
+	 * @throws RejectedExecutionException if the timer is shutdown
+	 */
+	private <V> WheelTask<V> schedule(WheelTask<V> task) {
+		if (shutdown) {
+			throw new RejectedExecutionException("Timer already shutdown!");
+		}
+		scheduledTasks.offer(task);
+		return task;
+	}
+
+	/**
+	 * Execute task.
+	 * 
+	 * Uses the {@link #executor}, or the current thread, if no executor is
+	 * available.
+	 * 
+	 * @param task task to execute
+	 */
+	private void executeTask(Runnable task) {
+		if (executor != null) {
+			try {
+				executor.execute(task);
+			} catch (RejectedExecutionException ex) {
+				LOGGER.debug("shutdown?", ex);
+			}
+		} else {
+			runTask(task);
+		}
+	}
+
+	/**
+	 * Run task and catch all errors.
+	 * 
+	 * @param task task to run
+	 */
+	private static void runTask(Runnable task) {
+		try {
+			task.run();
+		} catch (Throwable t) {
+			LOGGER.error("unexpected error occurred:", t);
+		}
+	}
+
+	/**
+	 * Thread of the wheel.
+	 */
+	private class Worker implements Runnable {
+
+		/**
+		 * Current tick.
+		 */
+		private long tick;
+
+		@Override
+		public void run() {
+			while (!shutdown) {
+				runTasks();
+				long deadline = (tick + 1) * tickNanos;
+				long sleep = deadline - (ClockUtil.nanoRealtime() - startNanos);
+				if (sleep > 0) {
+					LockSupport.parkNanos(this, sleep);
+					continue;
+				}
+				transferScheduledTasks();
+				wheel[(int) (tick & mask)].expire(deadline);
+				++tick;
+			}
+			runTasks();
+			for (Bucket bucket : wheel) {
+				bucket.cancel();
+			}
+			WheelTask<?> task;
+			while ((task = scheduledTasks.poll()) != null) {
+				task.cancel(false);
+			}
+			terminated.countDown();
+		}
+
+		/**
+		 * Run the tasks passed to {@link HashedWheelTimer#execute(Runnable)}.
+		 */
+		private void runTasks() {
+			Runnable task;
+			while ((task = tasks.poll()) != null) {
+				runTask(task);
+			}
+		}
+
+		/**
+		 * Transfer the new scheduled tasks into the buckets of the wheel.
+		 */
+		private void transferScheduledTasks() {
+			for (int count = 0; count < MAX_TRANSFERS_PER_TICK; ++count) {
+				WheelTask<?> task = scheduledTasks.poll();
+				if (task == null) {
+					break;
+				}
+				if (task.isCancelled()) {
+					continue;
+				}
+				long ticks = task.deadline / tickNanos;
+				task.remainingRounds = (ticks - tick) / wheel.length;
+				// ensure, that past deadlines are expired with the next tick
+				ticks = Math.max(ticks, tick);
+				wheel[(int) (ticks & mask)].add(task);
+			}
+		}
+	}
+
+	/**
+	 * Bucket of the wheel.
+	 * 
+	 * Only accessed by the thread of the wheel.
+	 */
+	private class Bucket {
+
+		/**
+		 * Tasks of this bucket.
+		 */
+		private final List<WheelTask<?>> tasks = new ArrayList<>();
+
+		/**
+		 * Add task.
+		 * 
+		 * @param task task to add
+		 */
+		private void add(WheelTask<?> task) {
+			tasks.add(task);
+		}
+
+		/**
+		 * Expire the tasks of this bucket.
+		 * 
+		 * Removes the cancelled tasks and executes the tasks of the current
+		 * round.
+		 * 
+		 * @param deadline deadline of the current tick
+		 */
+		private void expire(long deadline) {
+			int index = 0;
+			while (index < tasks.size()) {
+				WheelTask<?> task = tasks.get(index);
+				if (task.isCancelled()) {
+					remove(index);
+				} else if (task.remainingRounds <= 0) {
+					remove(index);
+					if (task.deadline > deadline) {
+						LOGGER.warn("task expired too early {} > {}!", task.deadline, deadline);
+					}
+					executeTask(task);
+				} else {
+					--task.remainingRounds;
+					++index;
+				}
+			}
+		}
+
+		/**
+		 * Cancel all tasks of this bucket.
+		 */
+		private void cancel() {
+			for (WheelTask<?> task : tasks) {
+				task.cancel(false);
+			}
+			tasks.clear();
+		}
+
+		/**
+		 * Remove task without changing the order of the other tasks.
+		 * 
+		 * Replaces the task by the last task.
+		 * 
+		 * @param index index of task to remove
+		 */
+		private void remove(int index) {
+			int last = tasks.size() - 1;
+			WheelTask<?> task = tasks.remove(last);
+			if (index < last) {
+				tasks.set(index, task);
+			}
+		}
+	}
+
+	/**
+	 * Scheduled task of the wheel.
+	 * 
+	 * @param <V> type of result
+	 */
+	private class WheelTask<V> extends FutureTask<V> implements ScheduledFuture<V> {
+
+		/**
+		 * Period in nanoseconds. {@code 0} for one-shot tasks, positive for
+		 * fixed rate, and negative for fixed delay.
+		 */
+		private final long period;
+		/**
+		 * Deadline in nanoseconds relative to the start of the wheel.
+		 */
+		private long deadline;
+		/**
+		 * Remaining rounds of the wheel. Only accessed by the thread of the
+		 * wheel.
+		 */
+		private long remainingRounds;
+
+		private WheelTask(Runnable command, V result, long deadline, long period) {
+			super(command, result);
+			this.deadline = deadline;
+			this.period = period;
+		}
+
+		private WheelTask(Callable<V> callable, long deadline) {
+			super(callable);
+			this.deadline = deadline;
+			this.period = 0;
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(startNanos + deadline - ClockUtil.nanoRealtime(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			if (other == this) {
+				return 0;
+			}
+			long diff = getDelay(TimeUnit.NANOSECONDS) - other.getDelay(TimeUnit.NANOSECONDS);
+			return diff < 0 ? -1 : (diff > 0 ? 1 : 0);
+		}
+
+		@Override
+		public void run() {
+			if (period == 0) {
+				super.run();
+			} else if (runAndReset() && !shutdown) {
+				if (period > 0) {
+					deadline += period;
+				} else {
+					deadline = ClockUtil.nanoRealtime() - startNanos - period;
+				}
+				scheduledTasks.offer(this);
+			}
+		}
+	}
+}
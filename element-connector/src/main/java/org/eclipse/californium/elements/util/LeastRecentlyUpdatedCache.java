@@ -24,6 +24,7 @@ import java.util.NoSuchElementException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
@@ -79,6 +80,13 @@ public class LeastRecentlyUpdatedCache<K, V> {
 	 * The cache's default maximum capacity.
 	 */
 	public static final int DEFAULT_CAPACITY = 150000;
+	/**
+	 * Maximum number of touched entries to reorder on eviction.
+	 * 
+	 * @see #touch(Object)
+	 * @since 3.8
+	 */
+	private static final int MAX_REORDERS_PER_EVICTION = 16;
 
 	/**
 	 * ReadWrite lock to protect access to map and queue.
@@ -327,7 +335,7 @@ public class LeastRecentlyUpdatedCache<K, V> {
 					add(key, value);
 					return true;
 				} else {
-					CacheEntry<K, V> eldest = header.after;
+					CacheEntry<K, V> eldest = getEldestEntry();
 					if (eldest.isStale(expirationThresholdNanos)) {
 						eldest.remove();
 						cache.remove(eldest.getKey());
@@ -397,7 +405,7 @@ public class LeastRecentlyUpdatedCache<K, V> {
 					add(key, value, lastUpdate);
 					return true;
 				} else {
-					CacheEntry<K, V> eldest = header.after;
+					CacheEntry<K, V> eldest = getEldestEntry();
 					if (eldest.isStale(expirationThresholdNanos) && (lastUpdate - eldest.lastUpdate) >= 0) {
 						eldest.remove();
 						cache.remove(eldest.getKey());
@@ -429,19 +437,64 @@ public class LeastRecentlyUpdatedCache<K, V> {
 	private final void add(K key, V value, long lastUpdate) {
 		CacheEntry<K, V> entry = new CacheEntry<>(key, value, lastUpdate);
 		cache.put(key, entry);
-		if (header.before == header) {
-			// first entry
-			entry.addBefore(header);
-		} else {
-			CacheEntry<K, V> position = header;
-			while ((lastUpdate - position.before.lastUpdate) < 0) {
-				position = position.before;
-				if (position == header) {
-					break;
-				}
+		addOrdered(entry, lastUpdate);
+	}
+
+	/**
+	 * Add entry to the doubly-linked list according the provided timestamp.
+	 * 
+	 * Searches the position starting with the most recent entry.
+	 * 
+	 * Must be called with the write-lock acquired.
+	 * 
+	 * @param entry entry to add
+	 * @param lastUpdate the last-update timestamp
+	 * @since 3.8
+	 */
+	private final void addOrdered(CacheEntry<K, V> entry, long lastUpdate) {
+		CacheEntry<K, V> position = header;
+		while (position.before != header && (lastUpdate - position.before.position) < 0) {
+			position = position.before;
+		}
+		entry.addBefore(position);
+	}
+
+	/**
+	 * Gets the eldest entry of the doubly-linked list.
+	 * 
+	 * Entries, which are {@link #touch(Object)}ed, are moved to their position
+	 * according the last-update timestamp, until a eldest entry is found,
+	 * which is either stale, or not touched. At most
+	 * {@link #MAX_REORDERS_PER_EVICTION} are moved.
+	 * 
+	 * Must be called with the write-lock acquired.
+	 * 
+	 * @return eldest entry, or the header, if the cache is empty.
+	 * @since 3.8
+	 */
+	private final CacheEntry<K, V> getEldestEntry() {
+		CacheEntry<K, V> eldest = header.after;
+		for (int reorders = 0; reorders < MAX_REORDERS_PER_EVICTION; ++reorders) {
+			if (eldest == header || eldest.isStale(expirationThresholdNanos) || !eldest.isTouched()) {
+				break;
 			}
-			entry.addBefore(position);
+			reorder(eldest);
+			eldest = header.after;
 		}
+		return eldest;
+	}
+
+	/**
+	 * Move touched entry to the position according its last-update timestamp.
+	 * 
+	 * Must be called with the write-lock acquired.
+	 * 
+	 * @param entry touched entry
+	 * @since 3.8
+	 */
+	private final void reorder(CacheEntry<K, V> entry) {
+		entry.unlink();
+		addOrdered(entry, entry.lastUpdate);
 	}
 
 	/**
@@ -531,6 +584,29 @@ public class LeastRecentlyUpdatedCache<K, V> {
 		return null;
 	}
 
+	/**
+	 * Touch the last-update time.
+	 * 
+	 * In difference to {@link #update(Object)}, this function doesn't acquire
+	 * any lock. It only records the new last-update time in the entry, the
+	 * entry is moved lazily within the doubly-linked list, when that entry is
+	 * considered for eviction. Therefore the order of the
+	 * {@link #ascendingIterator()} and {@link #timestampedIterator()} is only
+	 * approximately by last-update time, if entries are touched. <em>O(1)</em>
+	 * 
+	 * @param key the key to update the last-update time.
+	 * @return the value, if the key has been found in the cache, {@code null},
+	 *         otherwise
+	 * @since 3.8
+	 */
+	public V touch(K key) {
+		CacheEntry<K, V> entry = getEntry(key);
+		if (entry != null && entry.touch()) {
+			return entry.getValue();
+		}
+		return null;
+	}
+
 	/**
 	 * Removes an entry from the cache.
 	 * 
@@ -603,9 +679,23 @@ public class LeastRecentlyUpdatedCache<K, V> {
 		int counter = 0;
 		while (maxEntries == 0 || counter < maxEntries) {
 			CacheEntry<K, V> eldest = nextCacheEntry(header);
-			if (header == eldest || !eldest.isStale(expirationThresholdNanos)) {
+			if (header == eldest) {
 				break;
 			}
+			if (!eldest.isStale(expirationThresholdNanos)) {
+				if (!eldest.isTouched()) {
+					break;
+				}
+				lock.writeLock().lock();
+				try {
+					if (eldest == header.after) {
+						reorder(eldest);
+					}
+				} finally {
+					lock.writeLock().unlock();
+				}
+				continue;
+			}
 			V evict = null;
 			try {
 				lock.writeLock().lock();
@@ -957,9 +1047,19 @@ public class LeastRecentlyUpdatedCache<K, V> {
 
 		private static long REMOVED = -1;
 
+		@SuppressWarnings("rawtypes")
+		private static final AtomicLongFieldUpdater<CacheEntry> LAST_UPDATE = AtomicLongFieldUpdater
+				.newUpdater(CacheEntry.class, "lastUpdate");
+
 		private final K key;
 		private final V value;
 		private volatile long lastUpdate;
+		/**
+		 * Last-update time according the position in the doubly-linked list.
+		 * 
+		 * Differs from {@link #lastUpdate}, if the entry is touched.
+		 */
+		private long position;
 		private CacheEntry<K, V> after;
 		private CacheEntry<K, V> before;
 
@@ -967,6 +1067,7 @@ public class LeastRecentlyUpdatedCache<K, V> {
 			this.key = null;
 			this.value = null;
 			this.lastUpdate = REMOVED;
+			this.position = REMOVED;
 			this.after = this;
 			this.before = this;
 		}
@@ -998,7 +1099,9 @@ public class LeastRecentlyUpdatedCache<K, V> {
 		}
 
 		private final boolean recordAccess(CacheEntry<K, V> header) {
-			if (remove()) {
+			if (before != null && after != null) {
+				// don't mark as removed for concurrent touch
+				unlink();
 				lastUpdate = ClockUtil.nanoRealtime();
 				addBefore(header);
 				return true;
@@ -1008,17 +1111,37 @@ public class LeastRecentlyUpdatedCache<K, V> {
 		}
 
 		private final void addBefore(CacheEntry<K, V> existingEntry) {
+			position = lastUpdate;
 			after = existingEntry;
 			before = existingEntry.before;
 			before.after = this;
 			after.before = this;
 		}
 
+		private final boolean touch() {
+			long current = lastUpdate;
+			while (current != REMOVED) {
+				if (LAST_UPDATE.compareAndSet(this, current, ClockUtil.nanoRealtime())) {
+					return true;
+				}
+				current = lastUpdate;
+			}
+			return false;
+		}
+
+		private final boolean isTouched() {
+			return position != lastUpdate;
+		}
+
+		private final void unlink() {
+			before.after = after;
+			after.before = before;
+		}
+
 		private final boolean remove() {
 			if (before != null && after != null) {
 				lastUpdate = REMOVED;
-				before.after = after;
-				after.before = before;
+				unlink();
 				before = null;
 				// keep after, in the case that a
 				// ascending iterator is using it
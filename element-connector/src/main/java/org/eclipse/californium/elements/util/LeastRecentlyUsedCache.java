@@ -539,6 +539,21 @@ public class LeastRecentlyUsedCache<K, V> {
 		return access(entry, null);
 	}
 
+	/**
+	 * Checks, if the cache contains an entry for the key.
+	 * 
+	 * Doesn't apply {@link #evictOnReadAccess} nor
+	 * {@link #updateOnReadAccess}.
+	 * 
+	 * @param key the key to look up in the cache
+	 * @return {@code true}, if the cache contains an entry for the key,
+	 *         {@code false}, otherwise.
+	 * @since 3.8
+	 */
+	final boolean containsKey(K key) {
+		return key != null && cache.containsKey(key);
+	}
+
 	/**
 	 * Gets a timestamped value from the cache.
 	 * 
@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.elements.util;
+
+import java.io.IOException;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketOption;
+import java.nio.channels.DatagramChannel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Utility for the socket option {@code SO_REUSEPORT}.
+ * 
+ * {@code SO_REUSEPORT} allows to bind several sockets to the same address and
+ * port. The kernel distributes the received datagrams by a hash of the
+ * source and destination addresses and ports over these sockets. That keeps
+ * the order of the datagrams of a peer, while using several sockets with own
+ * receive queues in parallel.
+ * 
+ * The {@link java.net.StandardSocketOptions#SO_REUSEPORT} is only available
+ * for java 9 and newer. Therefore this utility looks up the socket option by
+ * its name using the {@link DatagramChannel#supportedOptions()}. It is also
+ * not supported on all platforms.
+ * 
+ * @since 3.8
+ */
+@NotForAndroid
+public final class ReusePortUtil {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReusePortUtil.class);
+
+	/**
+	 * Name of the socket option.
+	 */
+	private static final String SO_REUSEPORT_NAME = "SO_REUSEPORT";
+
+	/**
+	 * Socket option {@code SO_REUSEPORT}. {@code null}, if not supported.
+	 * 
+	 * Kept as {@link Object} to prevent references to {@link SocketOption} in
+	 * the static initializer for android.
+	 */
+	private static final Object SO_REUSEPORT = find();
+
+	private ReusePortUtil() {
+		// utility class
+	}
+
+	/**
+	 * Find socket option {@code SO_REUSEPORT}.
+	 * 
+	 * @return socket option, or {@code null}, if not supported.
+	 */
+	@NotForAndroid
+	private static Object find() {
+		try (DatagramChannel channel = DatagramChannel.open()) {
+			for (SocketOption<?> option : channel.supportedOptions()) {
+				if (SO_REUSEPORT_NAME.equals(option.name()) && Boolean.class.equals(option.type())) {
+					return option;
+				}
+			}
+		} catch (IOException ex) {
+			LOGGER.debug("{} not available!", SO_REUSEPORT_NAME, ex);
+		}
+		return null;
+	}
+
+	/**
+	 * Checks, if {@code SO_REUSEPORT} is supported.
+	 * 
+	 * @return {@code true}, if supported, {@code false}, otherwise.
+	 */
+	@NotForAndroid
+	public static boolean isSupported() {
+		return SO_REUSEPORT != null;
+	}
+
+	/**
+	 * Checks, if {@code SO_REUSEPORT} is enabled for the provided socket.
+	 * 
+	 * @param socket socket to check.
+	 * @return {@code true}, if the socket is based on a
+	 *         {@link DatagramChannel} and {@code SO_REUSEPORT} is enabled,
+	 *         {@code false}, otherwise.
+	 */
+	@NotForAndroid
+	public static boolean isEnabled(DatagramSocket socket) {
+		DatagramChannel channel = socket.getChannel();
+		if (SO_REUSEPORT != null && channel != null) {
+			try {
+				return channel.getOption(getOption());
+			} catch (IOException ex) {
+				LOGGER.debug("{} not readable!", SO_REUSEPORT_NAME, ex);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Enable {@code SO_REUSEPORT} for the provided channel.
+	 * 
+	 * Must be called before the channel is bound.
+	 * 
+	 * @param channel channel to enable the option.
+	 * @throws IOException if an i/o error occurred
+	 * @throws UnsupportedOperationException if {@code SO_REUSEPORT} is not
+	 *             supported.
+	 */
+	@NotForAndroid
+	public static void enable(DatagramChannel channel) throws IOException {
+		if (SO_REUSEPORT == null) {
+			throw new UnsupportedOperationException(SO_REUSEPORT_NAME + " not supported!");
+		}
+		channel.setOption(getOption(), Boolean.TRUE);
+	}
+
+	/**
+	 * Get socket option {@code SO_REUSEPORT}.
+	 * 
+	 * @return socket option
+	 */
+	@NotForAndroid
+	@SuppressWarnings("unchecked")
+	private static SocketOption<Boolean> getOption() {
+		return (SocketOption<Boolean>) SO_REUSEPORT;
+	}
+
+	/**
+	 * Open unbound socket with {@code SO_REUSEPORT} enabled.
+	 * 
+	 * @return unbound socket based on a {@link DatagramChannel}.
+	 * @throws IOException if an i/o error occurred
+	 * @throws UnsupportedOperationException if {@code SO_REUSEPORT} is not
+	 *             supported.
+	 */
+	@NotForAndroid
+	public static DatagramSocket openSocket() throws IOException {
+		DatagramChannel channel = DatagramChannel.open();
+		try {
+			enable(channel);
+			return channel.socket();
+		} catch (IOException ex) {
+			channel.close();
+			throw ex;
+		} catch (RuntimeException ex) {
+			channel.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Open socket with {@code SO_REUSEPORT} enabled and bind it.
+	 * 
+	 * @param bindAddress address to bind the socket
+	 * @param reuseAddress {@code true}, to enable
+	 *            {@link DatagramSocket#setReuseAddress(boolean)} as well,
+	 *            {@code false}, otherwise.
+	 * @return bound socket based on a {@link DatagramChannel}.
+	 * @throws IOException if an i/o error occurred
+	 * @throws UnsupportedOperationException if {@code SO_REUSEPORT} is not
+	 *             supported.
+	 */
+	@NotForAndroid
+	public static DatagramSocket openSocket(InetSocketAddress bindAddress, boolean reuseAddress) throws IOException {
+		DatagramSocket socket = openSocket();
+		try {
+			socket.setReuseAddress(reuseAddress);
+			socket.bind(bindAddress);
+			return socket;
+		} catch (IOException ex) {
+			socket.close();
+			throw ex;
+		}
+	}
+}
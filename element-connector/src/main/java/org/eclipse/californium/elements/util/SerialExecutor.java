@@ -19,15 +19,14 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.AbstractExecutorService;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.ReentrantLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +35,10 @@ import org.slf4j.LoggerFactory;
  * Serial executor.
  * 
  * Serialize job execution before passing the jobs to a provided executor.
+ * 
+ * Since 3.8 the implementation is lock-free. The jobs are queued in a
+ * non-blocking queue and an atomic {@link #scheduled} flag ensures, that only
+ * one job is passed to the target executor at a time.
  */
 public class SerialExecutor extends AbstractExecutorService {
 
@@ -47,7 +50,7 @@ public class SerialExecutor extends AbstractExecutorService {
 	private final Executor executor;
 
 	/**
-	 * Owner thread, which currently executes the {@link #currentlyExecutedJob}.
+	 * Owner thread, which currently executes the current job.
 	 */
 	private final AtomicReference<Thread> owner = new AtomicReference<Thread>();
 
@@ -62,28 +65,81 @@ public class SerialExecutor extends AbstractExecutorService {
 
 	/**
 	 * Queue for serialized jobs.
+	 * 
+	 * Multiple producers, single consumer.
+	 * 
+	 * @since 3.8 (was a blocking queue)
 	 */
-	private final BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+	private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
 
 	/**
-	 * Lock to protected simultaneous access.
+	 * Indicates, that the {@link #runner} is passed to the target executor.
+	 * 
+	 * @since 3.8
 	 */
-	private final ReentrantLock lock = new ReentrantLock();
+	private final AtomicBoolean scheduled = new AtomicBoolean();
 
 	/**
-	 * Condition from {@link #lock} to wait for termination.
+	 * Monitor to wait for termination.
+	 * 
+	 * @since 3.8 (was a condition of a lock)
 	 */
-	private final Condition terminated = lock.newCondition();
+	private final Object terminated = new Object();
 
 	/**
-	 * Currently executed job.
+	 * Runner to execute the next job.
+	 * 
+	 * Reused for all jobs, executes one job and schedules itself again, if
+	 * more jobs are pending.
+	 * 
+	 * @since 3.8
 	 */
-	private Runnable currentlyExecutedJob;
+	private final Runnable runner = new Runnable() {
+
+		@Override
+		public void run() {
+			try {
+				Runnable command = tasks.poll();
+				if (command != null) {
+					runJob(command);
+				}
+			} finally {
+				scheduled.set(false);
+				try {
+					scheduleNextJob();
+				} catch (RejectedExecutionException ex) {
+					LOGGER.debug("shutdown?", ex);
+				}
+			}
+		}
+
+		private void runJob(Runnable command) {
+			setOwner();
+			ExecutionListener current = listener.get();
+			try {
+				if (current != null) {
+					current.beforeExecution();
+				}
+				command.run();
+			} catch (Throwable t) {
+				LOGGER.error("unexpected error occurred:", t);
+			} finally {
+				try {
+					if (current != null) {
+						current.afterExecution();
+					}
+				} catch (Throwable t) {
+					LOGGER.error("unexpected error occurred after execution:", t);
+				}
+				clearOwner();
+			}
+		}
+	};
 
 	/**
 	 * Indicate shutdown.
 	 */
-	private boolean shutdown;
+	private volatile boolean shutdown;
 
 	/**
 	 * Create serial executor
@@ -104,26 +160,27 @@ public class SerialExecutor extends AbstractExecutorService {
 
 	@Override
 	public void execute(final Runnable command) {
-		lock.lock();
+		if (shutdown) {
+			throw new RejectedExecutionException("SerialExecutor already shutdown!");
+		}
+		tasks.offer(command);
+		if (shutdown && tasks.remove(command)) {
+			// concurrent shutdown
+			throw new RejectedExecutionException("SerialExecutor already shutdown!");
+		}
 		try {
-			if (shutdown) {
-				throw new RejectedExecutionException("SerialExecutor already shutdown!");
-			}
-			tasks.offer(command);
-			if (currentlyExecutedJob == null) {
-				scheduleNextJob();
-			}
-		} finally {
-			lock.unlock();
+			scheduleNextJob();
+		} catch (RejectedExecutionException ex) {
+			tasks.remove(command);
+			throw ex;
 		}
 	}
 
 	/**
-	 * Assert, that the current thread executes the
-	 * {@link #currentlyExecutedJob}.
+	 * Assert, that the current thread executes the current job.
 	 * 
 	 * @throws ConcurrentModificationException if current thread doesn't execute
-	 *             the {@link #currentlyExecutedJob}.
+	 *             the current job.
 	 */
 	public void assertOwner() {
 		final Thread me = Thread.currentThread();
@@ -138,17 +195,17 @@ public class SerialExecutor extends AbstractExecutorService {
 	}
 
 	/**
-	 * Check, if current thread executes the {@link #currentlyExecutedJob}.
+	 * Check, if current thread executes the current job.
 	 * 
-	 * @return {@code true}, if current thread executes the
-	 *         {@link #currentlyExecutedJob}, {@code false}, otherwise.
+	 * @return {@code true}, if current thread executes the current job,
+	 *         {@code false}, otherwise.
 	 */
 	public boolean checkOwner() {
 		return owner.get() == Thread.currentThread();
 	}
 
 	/**
-	 * Set current thread executing the {@link #currentlyExecutedJob}.
+	 * Set current thread executing the current job.
 	 * 
 	 * @throws ConcurrentModificationException if thread is already set.
 	 */
@@ -164,10 +221,10 @@ public class SerialExecutor extends AbstractExecutorService {
 	}
 
 	/**
-	 * Remove current thread executing the {@link #currentlyExecutedJob}.
+	 * Remove current thread executing the current job.
 	 * 
 	 * @throws ConcurrentModificationException if the current thread is not
-	 *             executing the {@link #currentlyExecutedJob}.
+	 *             executing the current job.
 	 */
 	private void clearOwner() {
 		if (!owner.compareAndSet(Thread.currentThread(), null)) {
@@ -187,12 +244,8 @@ public class SerialExecutor extends AbstractExecutorService {
 	 */
 	@Override
 	public void shutdown() {
-		lock.lock();
-		try {
-			shutdown = true;
-		} finally {
-			lock.unlock();
-		}
+		shutdown = true;
+		signalTermination();
 	}
 
 	/**
@@ -204,14 +257,9 @@ public class SerialExecutor extends AbstractExecutorService {
 	 */
 	@Override
 	public List<Runnable> shutdownNow() {
-		lock.lock();
-		try {
-			List<Runnable> pending = new ArrayList<>(tasks.size());
-			shutdownNow(pending);
-			return pending;
-		} finally {
-			lock.unlock();
-		}
+		List<Runnable> pending = new ArrayList<>();
+		shutdownNow(pending);
+		return pending;
 	}
 
 	/**
@@ -223,100 +271,80 @@ public class SerialExecutor extends AbstractExecutorService {
 	 * @see #shutdownNow()
 	 */
 	public int shutdownNow(final Collection<Runnable> jobs) {
-		lock.lock();
-		try {
-			shutdown();
-			return tasks.drainTo(jobs);
-		} finally {
-			lock.unlock();
+		shutdown();
+		int count = 0;
+		Runnable job;
+		while ((job = tasks.poll()) != null) {
+			jobs.add(job);
+			++count;
 		}
+		return count;
 	}
 
 	@Override
 	public boolean isShutdown() {
-		lock.lock();
-		try {
-			return shutdown;
-		} finally {
-			lock.unlock();
-		}
+		return shutdown;
 	}
 
 	@Override
 	public boolean isTerminated() {
-		lock.lock();
-		try {
-			return shutdown && currentlyExecutedJob == null;
-		} finally {
-			lock.unlock();
-		}
+		return shutdown && !scheduled.get() && tasks.isEmpty();
 	}
 
 	@Override
 	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
-		lock.lock();
-		try {
-			long nanosTimeout = unit.toNanos(timeout);
-			while (!shutdown || currentlyExecutedJob != null) {
-				nanosTimeout = terminated.awaitNanos(nanosTimeout);
-				if (nanosTimeout <= 0) {
-					break;
-				}
+		long nanosTimeout = unit.toNanos(timeout);
+		long end = ClockUtil.nanoRealtime() + nanosTimeout;
+		synchronized (terminated) {
+			while (!isTerminated() && nanosTimeout > 0) {
+				TimeUnit.NANOSECONDS.timedWait(terminated, nanosTimeout);
+				nanosTimeout = end - ClockUtil.nanoRealtime();
 			}
-			return shutdown && currentlyExecutedJob == null;
-		} finally {
-			lock.unlock();
 		}
+		return isTerminated();
 	}
 
 	/**
 	 * Schedule next job from {@link #tasks}. {@link #setOwner()} and
 	 * {@link #clearOwner()} before and after executing the job.
+	 * 
+	 * Passes the {@link #runner} to the target executor, if jobs are pending
+	 * and the runner is not already scheduled.
+	 * 
+	 * @throws RejectedExecutionException if the target executor rejects the
+	 *             execution
 	 */
 	private final void scheduleNextJob() {
-		lock.lock();
-		try {
-			currentlyExecutedJob = tasks.poll();
-			if (currentlyExecutedJob != null) {
-				final Runnable command = currentlyExecutedJob;
-				executor.execute(new Runnable() {
-
-					@Override
-					public void run() {
-						try {
-							setOwner();
-							ExecutionListener current = listener.get();
-							try {
-								if (current != null) {
-									current.beforeExecution();
-								}
-								command.run();
-							} catch (Throwable t) {
-								LOGGER.error("unexpected error occurred:", t);
-							} finally {
-								try {
-									if (current != null) {
-										current.afterExecution();
-									}
-								} catch (Throwable t) {
-									LOGGER.error("unexpected error occurred after execution:", t);
-								}
-								clearOwner();
-							}
-						} finally {
-							try {
-								scheduleNextJob();
-							} catch (RejectedExecutionException ex) {
-								LOGGER.debug("shutdown?", ex);
-							}
-						}
-					}
-				});
-			} else if (shutdown) {
-				terminated.signalAll();
+		while (!tasks.isEmpty()) {
+			if (!scheduled.compareAndSet(false, true)) {
+				// the scheduled runner will pick up the job
+				return;
+			}
+			if (!tasks.isEmpty()) {
+				try {
+					executor.execute(runner);
+				} catch (RejectedExecutionException ex) {
+					scheduled.set(false);
+					throw ex;
+				}
+				return;
+			}
+			// job taken by shutdownNow
+			scheduled.set(false);
+		}
+		signalTermination();
+	}
+
+	/**
+	 * Signal termination, if this executor is shutdown and terminated.
+	 * 
+	 * @since 3.8
+	 */
+	private void signalTermination() {
+		if (isTerminated()) {
+			synchronized (terminated) {
+				terminated.notifyAll();
 			}
-		} finally {
-			lock.unlock();
 		}
 	}
 
@@ -0,0 +1,763 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.elements.util;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.californium.elements.util.LeastRecentlyUsedCache.EvictionListener;
+import org.eclipse.californium.elements.util.LeastRecentlyUsedCache.Predicate;
+import org.eclipse.californium.elements.util.LeastRecentlyUsedCache.Timestamped;
+
+/**
+ * A thread safe, lock-striped in-memory cache with a maximum capacity and
+ * support for evicting stale entries based on an LRU policy.
+ * <p>
+ * The cache is split into segments, each a {@link LeastRecentlyUsedCache}
+ * guarded by its own monitor. The segment of an entry is selected by the hash
+ * of the key. Therefore access to entries of different segments is not
+ * serialized and scales with the number of segments.
+ * </p>
+ * <p>
+ * The access order is kept per segment. The eviction is therefore only
+ * approximately global: if the cache has reached its capacity, a put evicts
+ * the eldest entry of the key's segment, if that is stale. If the eldest
+ * entry of that segment is not stale, the eldest stale entry of an other
+ * segment is evicted. A put therefore only fails, if no segment has a stale
+ * eldest entry. But the evicted entry is not necessarily the globally eldest
+ * one. The capacity is also only checked approximately, concurrent puts into
+ * different segments may exceed it by up to the number of segments.
+ * </p>
+ * <p>
+ * Single operations are thread safe. For compound operations, which must be
+ * atomic for a key, use {@code synchronized} on {@link #getLock(Object)}.
+ * </p>
+ * 
+ * Note: if the <em>expiration threshold</em> is {@code 0}, "stale" is not
+ * applied in {@link #get(Object)} (otherwise that get would never return
+ * something).
+ * 
+ * @param <K> The type of the keys used in the cache.
+ * @param <V> The type of the values used in the cache.
+ * @since 3.8
+ */
+public class StripedLeastRecentlyUsedCache<K, V> {
+
+	/**
+	 * The default number of segments.
+	 * 
+	 * Four times the number of available processors, rounded up to the next
+	 * power of two, but at most {@link #MAX_SEGMENTS}.
+	 */
+	public static final int DEFAULT_SEGMENTS = getSegments(Runtime.getRuntime().availableProcessors() * 4);
+	/**
+	 * The maximum number of segments.
+	 */
+	public static final int MAX_SEGMENTS = 256;
+
+	/**
+	 * Segments.
+	 */
+	private final LeastRecentlyUsedCache<K, V>[] segments;
+	/**
+	 * Bit mask to select the segment.
+	 */
+	private final int mask;
+	/**
+	 * Maximum number of entries.
+	 */
+	private volatile int capacity;
+	/**
+	 * Number of entries of all segments.
+	 * 
+	 * Adjusted by the changes of the segments sizes, always synchronized on
+	 * the changed segment. Avoids summing up all segments on each put.
+	 */
+	private final AtomicInteger count = new AtomicInteger();
+	private Collection<V> values;
+
+	/**
+	 * Creates a cache based on given configuration parameters using
+	 * {@link #DEFAULT_SEGMENTS}.
+	 * 
+	 * @param initialCapacity The initial number of entries the cache will be
+	 *            initialized to support.
+	 * @param maxCapacity The maximum number of entries the cache can manage
+	 * @param threshold The period of time of inactivity after which an entry is
+	 *            considered stale and can be evicted from the cache if a new
+	 *            entry is to be added to the cache
+	 * @param unit TimeUnit for threshold
+	 * @throws IllegalArgumentException if initial capacity is larger than the
+	 *             maximum capacity
+	 */
+	public StripedLeastRecentlyUsedCache(int initialCapacity, int maxCapacity, long threshold, TimeUnit unit) {
+		this(initialCapacity, maxCapacity, threshold, unit, DEFAULT_SEGMENTS);
+	}
+
+	/**
+	 * Creates a cache based on given configuration parameters.
+	 * 
+	 * @param initialCapacity The initial number of entries the cache will be
+	 *            initialized to support.
+	 * @param maxCapacity The maximum number of entries the cache can manage
+	 * @param threshold The period of time of inactivity after which an entry is
+	 *            considered stale and can be evicted from the cache if a new
+	 *            entry is to be added to the cache
+	 * @param unit TimeUnit for threshold
+	 * @param segments number of segments. Rounded up to the next power of two,
+	 *            but at most {@link #MAX_SEGMENTS}.
+	 * @throws IllegalArgumentException if initial capacity is larger than the
+	 *             maximum capacity, or the number of segments is less than
+	 *             {@code 1}.
+	 */
+	@SuppressWarnings("unchecked")
+	public StripedLeastRecentlyUsedCache(int initialCapacity, int maxCapacity, long threshold, TimeUnit unit,
+			int segments) {
+		if (initialCapacity > maxCapacity) {
+			throw new IllegalArgumentException("initial capacity must be <= max capacity");
+		}
+		if (segments < 1) {
+			throw new IllegalArgumentException("segments " + segments + " must be at least 1!");
+		}
+		segments = getSegments(segments);
+		int initialSegmentCapacity = (initialCapacity + segments - 1) / segments;
+		this.capacity = maxCapacity;
+		this.mask = segments - 1;
+		this.segments = new LeastRecentlyUsedCache[segments];
+		for (int index = 0; index < segments; ++index) {
+			// the segments are limited by the capacity check of this cache
+			this.segments[index] = new LeastRecentlyUsedCache<>(Math.min(initialSegmentCapacity, maxCapacity),
+					maxCapacity, threshold, unit);
+		}
+	}
+
+	/**
+	 * Round number of segments up to the next power of two.
+	 * 
+	 * @param segments number of segments
+	 * @return rounded number of segments, at most {@link #MAX_SEGMENTS}.
+	 */
+	private static int getSegments(int segments) {
+		if (segments >= MAX_SEGMENTS) {
+			return MAX_SEGMENTS;
+		} else if (segments <= 1) {
+			return 1;
+		}
+		return Integer.highestOneBit(segments - 1) << 1;
+	}
+
+	/**
+	 * Gets the segment of the key.
+	 * 
+	 * @param key key
+	 * @return segment of the key
+	 */
+	private LeastRecentlyUsedCache<K, V> getSegment(Object key) {
+		int hash = key == null ? 0 : key.hashCode();
+		hash ^= (hash >>> 16);
+		return segments[hash & mask];
+	}
+
+	/**
+	 * Gets the lock of the segment of the key.
+	 * 
+	 * Intended to be used for compound operations, which must be atomic for
+	 * the key. All single operations on the key synchronize on the same lock.
+	 * 
+	 * @param key key
+	 * @return lock of the segment
+	 */
+	public Object getLock(K key) {
+		return getSegment(key);
+	}
+
+	/**
+	 * Gets the number of segments.
+	 * 
+	 * @return number of segments
+	 */
+	public int getSegments() {
+		return segments.length;
+	}
+
+	/**
+	 * Registers a listener to be notified about (stale) entries being evicted
+	 * from the cache.
+	 * 
+	 * Must be called before using the cache.
+	 * 
+	 * @param listener the listener
+	 */
+	public void addEvictionListener(EvictionListener<V> listener) {
+		for (LeastRecentlyUsedCache<K, V> segment : segments) {
+			synchronized (segment) {
+				segment.addEvictionListener(listener);
+			}
+		}
+	}
+
+	/**
+	 * Get evict mode on read access.
+	 * 
+	 * @return {@code true}, if entries are evicted on read access, when
+	 *         expired, {@code false}, if not.
+	 * @see LeastRecentlyUsedCache#isEvictingOnReadAccess()
+	 */
+	public boolean isEvictingOnReadAccess() {
+		return segments[0].isEvictingOnReadAccess();
+	}
+
+	/**
+	 * Set evict mode on read access.
+	 * 
+	 * @param evict {@code true}, if entries are evicted on read access, when
+	 *            expired, {@code false}, if not.
+	 * @see LeastRecentlyUsedCache#setEvictingOnReadAccess(boolean)
+	 */
+	public void setEvictingOnReadAccess(boolean evict) {
+		for (LeastRecentlyUsedCache<K, V> segment : segments) {
+			segment.setEvictingOnReadAccess(evict);
+		}
+	}
+
+	/**
+	 * Get update last-access time mode on read access.
+	 * 
+	 * @return {@code true}, if the last-access time is updated on read access,
+	 *         {@code false}, if not.
+	 * @see LeastRecentlyUsedCache#isUpdatingOnReadAccess()
+	 */
+	public boolean isUpdatingOnReadAccess() {
+		return segments[0].isUpdatingOnReadAccess();
+	}
+
+	/**
+	 * Set update last-access time mode on read access.
+	 * 
+	 * @param update {@code true}, if the last-access time is updated on read
+	 *            access, {@code false}, if not.
+	 * @see LeastRecentlyUsedCache#setUpdatingOnReadAccess(boolean)
+	 */
+	public void setUpdatingOnReadAccess(boolean update) {
+		for (LeastRecentlyUsedCache<K, V> segment : segments) {
+			segment.setUpdatingOnReadAccess(update);
+		}
+	}
+
+	/**
+	 * Gets the period of time after which an entry is considered <em>stale</em>
+	 * if it hasn't be accessed.
+	 * 
+	 * @return the threshold in seconds
+	 */
+	public final long getExpirationThreshold() {
+		return segments[0].getExpirationThreshold();
+	}
+
+	/**
+	 * Sets the period of time after which an entry is to be considered stale if
+	 * it hasn't be accessed.
+	 * 
+	 * @param newThreshold the threshold
+	 * @param unit TimeUnit for threshold
+	 * @see LeastRecentlyUsedCache#setExpirationThreshold(long, TimeUnit)
+	 */
+	public final void setExpirationThreshold(long newThreshold, TimeUnit unit) {
+		for (LeastRecentlyUsedCache<K, V> segment : segments) {
+			segment.setExpirationThreshold(newThreshold, unit);
+		}
+	}
+
+	/**
+	 * Gets the maximum number of entries this cache can manage.
+	 * 
+	 * @return the number of entries
+	 */
+	public final int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Sets the maximum number of entries this cache can manage.
+	 * 
+	 * @param capacity the maximum number of entries the cache can manage
+	 * @see LeastRecentlyUsedCache#setCapacity(int)
+	 */
+	public final void setCapacity(int capacity) {
+		this.capacity = capacity;
+		for (LeastRecentlyUsedCache<K, V> segment : segments) {
+			segment.setCapacity(capacity);
+		}
+	}
+
+	/**
+	 * Gets the cache's current number of entries.
+	 * 
+	 * @return the size
+	 */
+	public final int size() {
+		return count.get();
+	}
+
+	/**
+	 * Adjust the number of entries by the change of the segment's size.
+	 * 
+	 * Must be called synchronized on the segment.
+	 * 
+	 * @param segment changed segment
+	 * @param size size of the segment before the change
+	 */
+	private void adjustCount(LeastRecentlyUsedCache<K, V> segment, int size) {
+		int delta = segment.size() - size;
+		if (delta != 0) {
+			count.addAndGet(delta);
+		}
+	}
+
+	/**
+	 * Gets the number of entries that can be added to this cache without the
+	 * need for removing stale entries.
+	 * 
+	 * @return The number of entries.
+	 */
+	public final int remainingCapacity() {
+		return Math.max(0, capacity - size());
+	}
+
+	/**
+	 * Removes all entries from the cache.
+	 */
+	public final void clear() {
+		for (LeastRecentlyUsedCache<K, V> segment : segments) {
+			synchronized (segment) {
+				int size = segment.size();
+				segment.clear();
+				adjustCount(segment, size);
+			}
+		}
+	}
+
+	/**
+	 * Puts an entry to the cache.
+	 * 
+	 * If the cache has reached its capacity, the eldest entry of the key's
+	 * segment is evicted, if that is stale. Otherwise the eldest stale entry
+	 * of an other segment is evicted.
+	 * 
+	 * @param key the key to store the value under
+	 * @param value the value to store
+	 * @return {@code true}, if the entry could be added to the cache,
+	 *         {@code false}, otherwise
+	 * @see LeastRecentlyUsedCache#put(Object, Object)
+	 */
+	public final boolean put(K key, V value) {
+		if (value != null) {
+			LeastRecentlyUsedCache<K, V> segment = getSegment(key);
+			do {
+				synchronized (segment) {
+					int size = segment.size();
+					boolean available = ensureCapacity(segment, key);
+					boolean added = available && segment.put(key, value);
+					adjustCount(segment, size);
+					if (available) {
+						return added;
+					}
+				}
+			} while (evictStaleEntry(segment));
+		}
+		return false;
+	}
+
+	/**
+	 * Puts an entry with last-update-timestamp to the cache.
+	 * 
+	 * If the cache has reached its capacity, the eldest entry of the key's
+	 * segment is evicted, if that is stale. Otherwise the eldest stale entry
+	 * of an other segment is evicted.
+	 * 
+	 * @param key the key to store the value under
+	 * @param value the value to store
+	 * @param lastUpdate the last-update timestamp to store
+	 * @return {@code true}, if the entry could be added to the cache,
+	 *         {@code false}, otherwise.
+	 * @see LeastRecentlyUsedCache#put(Object, Object, long)
+	 */
+	public final boolean put(K key, V value, long lastUpdate) {
+		if (value != null) {
+			LeastRecentlyUsedCache<K, V> segment = getSegment(key);
+			do {
+				synchronized (segment) {
+					int size = segment.size();
+					boolean available = ensureCapacity(segment, key);
+					boolean added = available && segment.put(key, value, lastUpdate);
+					adjustCount(segment, size);
+					if (available) {
+						return added;
+					}
+				}
+			} while (evictStaleEntry(segment));
+		}
+		return false;
+	}
+
+	/**
+	 * Ensure capacity for key.
+	 * 
+	 * Must be called synchronized on the segment.
+	 * 
+	 * @param segment segment of the key
+	 * @param key key to add
+	 * @return {@code true}, if the key is already contained, or the capacity is
+	 *         not reached, or the eldest stale entry of the segment is
+	 *         evicted, {@code false}, otherwise.
+	 */
+	private boolean ensureCapacity(LeastRecentlyUsedCache<K, V> segment, K key) {
+		return segment.containsKey(key) || count.get() < capacity || segment.removeExpiredEntries(1) == 1;
+	}
+
+	/**
+	 * Evict the eldest stale entry of an other segment.
+	 * 
+	 * Must not be called synchronized on a segment.
+	 * 
+	 * @param exclude segment to exclude
+	 * @return {@code true}, if a stale entry is evicted, {@code false}, if no
+	 *         other segment has a stale eldest entry.
+	 */
+	private boolean evictStaleEntry(LeastRecentlyUsedCache<K, V> exclude) {
+		for (LeastRecentlyUsedCache<K, V> segment : segments) {
+			if (segment != exclude) {
+				synchronized (segment) {
+					int size = segment.size();
+					int removed = segment.removeExpiredEntries(1);
+					adjustCount(segment, size);
+					if (removed > 0) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Gets a value from the cache.
+	 * 
+	 * @param key the key to look up in the cache
+	 * @return the value, if the key has been found in the cache and the value
+	 *         is not stale, {@code null}, otherwise
+	 * @see LeastRecentlyUsedCache#get(Object)
+	 */
+	public final V get(K key) {
+		if (key == null) {
+			return null;
+		}
+		LeastRecentlyUsedCache<K, V> segment = getSegment(key);
+		synchronized (segment) {
+			int size = segment.size();
+			V result = segment.get(key);
+			adjustCount(segment, size);
+			return result;
+		}
+	}
+
+	/**
+	 * Gets a timestamped value from the cache.
+	 * 
+	 * @param key the key to look up in the cache
+	 * @return the timestamped value, if the key has been found in the cache and
+	 *         the value is not stale, {@code null}, otherwise
+	 * @see LeastRecentlyUsedCache#getTimestamped(Object)
+	 */
+	public final Timestamped<V> getTimestamped(K key) {
+		if (key == null) {
+			return null;
+		}
+		LeastRecentlyUsedCache<K, V> segment = getSegment(key);
+		synchronized (segment) {
+			int size = segment.size();
+			Timestamped<V> result = segment.getTimestamped(key);
+			adjustCount(segment, size);
+			return result;
+		}
+	}
+
+	/**
+	 * Update the last-access time.
+	 * 
+	 * @param key the key to update the last-access time.
+	 * @return {@code true}, if updated, {@code false}, otherwise.
+	 * @see LeastRecentlyUsedCache#update(Object)
+	 */
+	public final boolean update(K key) {
+		if (key == null) {
+			return false;
+		}
+		LeastRecentlyUsedCache<K, V> segment = getSegment(key);
+		synchronized (segment) {
+			int size = segment.size();
+			boolean result = segment.update(key);
+			adjustCount(segment, size);
+			return result;
+		}
+	}
+
+	/**
+	 * Removes an entry from the cache.
+	 * 
+	 * Doesn't call {@code EvictionListeners}.
+	 * 
+	 * @param key the key of the entry to remove
+	 * @return the removed value or {@code null}, if the cache does not contain
+	 *         the key
+	 */
+	public final V remove(K key) {
+		if (key == null) {
+			return null;
+		}
+		LeastRecentlyUsedCache<K, V> segment = getSegment(key);
+		synchronized (segment) {
+			int size = segment.size();
+			V result = segment.remove(key);
+			adjustCount(segment, size);
+			return result;
+		}
+	}
+
+	/**
+	 * Removes provided entry from the cache.
+	 * 
+	 * Doesn't call {@code EvictionListeners}.
+	 * 
+	 * @param key the key of the entry to remove
+	 * @param value value of the entry to remove
+	 * @return the removed value or {@code null}, if the cache does not contain
+	 *         the key or entry
+	 */
+	public final V remove(K key, V value) {
+		if (key == null) {
+			return null;
+		}
+		LeastRecentlyUsedCache<K, V> segment = getSegment(key);
+		synchronized (segment) {
+			int size = segment.size();
+			V result = segment.remove(key, value);
+			adjustCount(segment, size);
+			return result;
+		}
+	}
+
+	/**
+	 * Remove expired entries.
+	 * 
+	 * The entries are removed segment by segment.
+	 * 
+	 * @param maxEntries maximum expired entries to remove. {@code 0} for
+	 *            unlimited.
+	 * @return number of removed expired entries.
+	 */
+	public final int removeExpiredEntries(int maxEntries) {
+		int counter = 0;
+		for (LeastRecentlyUsedCache<K, V> segment : segments) {
+			int max = 0;
+			if (maxEntries > 0) {
+				max = maxEntries - counter;
+				if (max <= 0) {
+					break;
+				}
+			}
+			synchronized (segment) {
+				int size = segment.size();
+				counter += segment.removeExpiredEntries(max);
+				adjustCount(segment, size);
+			}
+		}
+		return counter;
+	}
+
+	/**
+	 * Finds a value based on a predicate.
+	 * 
+	 * @param predicate the condition to match. Assumed to match entries in a
+	 *            unique manner.
+	 * @return the first value from the cache that matches according to the
+	 *         given predicate, or {@code null}, if no value matches
+	 * @see LeastRecentlyUsedCache#find(Predicate)
+	 */
+	public final V find(Predicate<V> predicate) {
+		return find(predicate, true);
+	}
+
+	/**
+	 * Finds a value based on a predicate.
+	 * 
+	 * @param predicate the condition to match
+	 * @param unique {@code true}, if the predicate matches entries in a unique
+	 *            manner and stops, even if that entry gets evicted on the read
+	 *            access. {@code false}, if more entries may be matched and so
+	 *            continue to search, if a matching entry gets evicted on the
+	 *            read access.
+	 * @return the first value from the cache that matches according to the
+	 *         given predicate, or {@code null}, if no value matches
+	 * @see LeastRecentlyUsedCache#find(Predicate, boolean)
+	 */
+	public final V find(Predicate<V> predicate, boolean unique) {
+		if (predicate != null) {
+			for (LeastRecentlyUsedCache<K, V> segment : segments) {
+				V value;
+				synchronized (segment) {
+					int size = segment.size();
+					value = segment.find(predicate, unique);
+					adjustCount(segment, size);
+				}
+				if (value != null) {
+					return value;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets iterator over all values contained in this cache.
+	 * 
+	 * The iterator walks through the segments. It is "weakly consistent" and
+	 * will never throw {@link java.util.ConcurrentModificationException}.
+	 * Removal of values from the iterator is unsupported.
+	 * 
+	 * @return an iterator over all values.
+	 * @see LeastRecentlyUsedCache#valuesIterator()
+	 */
+	public final Iterator<V> valuesIterator() {
+		return valuesIterator(true);
+	}
+
+	/**
+	 * Gets iterator over all values contained in this cache.
+	 * 
+	 * The iterator walks through the segments. It is "weakly consistent" and
+	 * will never throw {@link java.util.ConcurrentModificationException}.
+	 * Removal of values from the iterator is unsupported.
+	 * 
+	 * @param readAccess {@code true} to enable read access while iterating.
+	 * @return an iterator over all values.
+	 * @see LeastRecentlyUsedCache#valuesIterator(boolean)
+	 */
+	public final Iterator<V> valuesIterator(final boolean readAccess) {
+		return new Iterator<V>() {
+
+			private int index;
+			private Iterator<V> current = segments[0].valuesIterator(readAccess);
+
+			@Override
+			public boolean hasNext() {
+				while (index < segments.length) {
+					if (hasNext(segments[index])) {
+						return true;
+					}
+					if (++index < segments.length) {
+						current = segments[index].valuesIterator(readAccess);
+					}
+				}
+				return false;
+			}
+
+			private boolean hasNext(LeastRecentlyUsedCache<K, V> segment) {
+				if (readAccess) {
+					// read access may evict expired entries
+					synchronized (segment) {
+						int size = segment.size();
+						boolean next = current.hasNext();
+						adjustCount(segment, size);
+						return next;
+					}
+				} else {
+					return current.hasNext();
+				}
+			}
+
+			@Override
+			public V next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return current.next();
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/**
+	 * Gets all values contained in this cache.
+	 * 
+	 * The returned collection is intended to be used as read access, therefore
+	 * the modifying methods will throw a {@link UnsupportedOperationException}.
+	 * 
+	 * @return an collection of all values backed by the segments.
+	 * @see LeastRecentlyUsedCache#values()
+	 */
+	public final Collection<V> values() {
+		Collection<V> vs = values;
+		if (vs == null) {
+			vs = new AbstractCollection<V>() {
+
+				@Override
+				public final int size() {
+					return StripedLeastRecentlyUsedCache.this.size();
+				}
+
+				@Override
+				public final boolean contains(final Object o) {
+					return null != find(new Predicate<V>() {
+
+						@Override
+						public boolean accept(final V value) {
+							return value.equals(o);
+						}
+					}, false);
+				}
+
+				@Override
+				public final Iterator<V> iterator() {
+					return valuesIterator();
+				}
+
+				@Override
+				public final boolean add(Object o) {
+					throw new UnsupportedOperationException();
+				}
+
+				@Override
+				public final boolean remove(Object o) {
+					throw new UnsupportedOperationException();
+				}
+
+				@Override
+				public final void clear() {
+					throw new UnsupportedOperationException();
+				}
+			};
+			values = vs;
+		}
+		return vs;
+	}
+}
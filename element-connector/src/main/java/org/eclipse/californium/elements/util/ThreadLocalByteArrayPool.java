@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.elements.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread local pool of byte arrays with size classes.
+ * 
+ * The size classes are powers of two from {@link #MIN_SIZE} to
+ * {@link #MAX_SIZE}. An acquired array has the size of the smallest size
+ * class, which fits the requested size. Larger arrays are not pooled. Each
+ * thread keeps up to {@link #MAX_IDLE_ARRAYS} idle arrays per size class.
+ * Released arrays are kept by the releasing thread.
+ * 
+ * The released arrays are not cleared. Users, which write sensitive data into
+ * the arrays, must clear that before releasing them.
+ * 
+ * Virtual threads are usually created for each task and so don't reuse their
+ * idle arrays. On virtual threads the pool is therefore bypassed, arrays are
+ * created with the requested size and released arrays are dropped.
+ * 
+ * @see DatagramWriter#DatagramWriter(int, boolean, boolean)
+ * @since 3.8
+ */
+public final class ThreadLocalByteArrayPool {
+
+	/**
+	 * Number of bits of the minimum size.
+	 */
+	private static final int MIN_SIZE_BITS = 6;
+	/**
+	 * Number of bits of the maximum size.
+	 */
+	private static final int MAX_SIZE_BITS = 14;
+	/**
+	 * Minimum size of pooled arrays.
+	 */
+	public static final int MIN_SIZE = 1 << MIN_SIZE_BITS;
+	/**
+	 * Maximum size of pooled arrays.
+	 */
+	public static final int MAX_SIZE = 1 << MAX_SIZE_BITS;
+	/**
+	 * Maximum number of idle arrays per size class and thread.
+	 */
+	public static final int MAX_IDLE_ARRAYS = 4;
+
+	/**
+	 * Number of size classes.
+	 */
+	private static final int SIZE_CLASSES = MAX_SIZE_BITS - MIN_SIZE_BITS + 1;
+
+	/**
+	 * Number of acquired arrays, which are reused from the pool.
+	 */
+	private static final AtomicLong HITS = new AtomicLong();
+	/**
+	 * Number of acquired arrays, which are created new.
+	 */
+	private static final AtomicLong MISSES = new AtomicLong();
+
+	/**
+	 * Idle arrays of the current thread.
+	 */
+	private static final ThreadLocal<IdleArrays> IDLE_ARRAYS = new ThreadLocal<IdleArrays>() {
+
+		@Override
+		protected IdleArrays initialValue() {
+			return ExecutorsUtil.isVirtualThread() ? BYPASS : new IdleArrays();
+		}
+	};
+
+	/**
+	 * Idle arrays of virtual threads. Keeps no arrays.
+	 */
+	private static final IdleArrays BYPASS = new IdleArrays(0);
+
+	private ThreadLocalByteArrayPool() {
+		// utility class
+	}
+
+	/**
+	 * Acquire array.
+	 * 
+	 * @param size minimum size of the array
+	 * @return array with at least the provided size. The content is not
+	 *         cleared.
+	 * @throws IllegalArgumentException if size is negative
+	 */
+	public static byte[] acquire(int size) {
+		if (size < 0) {
+			throw new IllegalArgumentException("Size " + size + " must not be negative!");
+		}
+		int sizeClass = getSizeClass(size);
+		if (sizeClass >= 0) {
+			IdleArrays idle = IDLE_ARRAYS.get();
+			if (idle == BYPASS) {
+				MISSES.incrementAndGet();
+				return new byte[size];
+			}
+			byte[] array = idle.poll(sizeClass);
+			if (array != null) {
+				HITS.incrementAndGet();
+				return array;
+			}
+			size = MIN_SIZE << sizeClass;
+		}
+		MISSES.incrementAndGet();
+		return new byte[size];
+	}
+
+	/**
+	 * Release array.
+	 * 
+	 * Arrays, which don't match a size class, arrays exceeding the
+	 * {@link #MAX_IDLE_ARRAYS}, and arrays released by virtual threads are
+	 * dropped.
+	 * 
+	 * @param array array to release. May be {@code null}.
+	 */
+	public static void release(byte[] array) {
+		if (array != null) {
+			int sizeClass = getSizeClass(array.length);
+			if (sizeClass >= 0 && (MIN_SIZE << sizeClass) == array.length) {
+				IDLE_ARRAYS.get().offer(sizeClass, array);
+			}
+		}
+	}
+
+	/**
+	 * Get number of acquired arrays, which are reused from the pool.
+	 * 
+	 * @return number of reused arrays
+	 */
+	public static long getHits() {
+		return HITS.get();
+	}
+
+	/**
+	 * Get number of acquired arrays, which are created new.
+	 * 
+	 * @return number of created arrays
+	 */
+	public static long getMisses() {
+		return MISSES.get();
+	}
+
+	/**
+	 * Get statistic of the pool.
+	 * 
+	 * @return statistic with hits, misses and hit ratio in percent.
+	 */
+	public static String getStatistic() {
+		long hits = HITS.get();
+		long misses = MISSES.get();
+		long all = hits + misses;
+		long ratio = all == 0 ? 0 : (hits * 100) / all;
+		return "byte-array-pool: " + hits + " hits, " + misses + " misses, " + ratio + "% hit ratio";
+	}
+
+	/**
+	 * Get size class.
+	 * 
+	 * @param size size
+	 * @return size class, or {@code -1}, if size exceeds {@link #MAX_SIZE}.
+	 */
+	private static int getSizeClass(int size) {
+		if (size <= MIN_SIZE) {
+			return 0;
+		} else if (size > MAX_SIZE) {
+			return -1;
+		} else {
+			return Integer.SIZE - Integer.numberOfLeadingZeros(size - 1) - MIN_SIZE_BITS;
+		}
+	}
+
+	/**
+	 * Idle arrays of one thread.
+	 */
+	private static class IdleArrays {
+
+		private final byte[][][] arrays;
+		private final int[] counts = new int[SIZE_CLASSES];
+		private final int maxIdleArrays;
+
+		private IdleArrays() {
+			this(MAX_IDLE_ARRAYS);
+		}
+
+		private IdleArrays(int maxIdleArrays) {
+			this.arrays = new byte[SIZE_CLASSES][maxIdleArrays][];
+			this.maxIdleArrays = maxIdleArrays;
+		}
+
+		private byte[] poll(int sizeClass) {
+			int count = counts[sizeClass];
+			if (count > 0) {
+				--count;
+				byte[] array = arrays[sizeClass][count];
+				arrays[sizeClass][count] = null;
+				counts[sizeClass] = count;
+				return array;
+			}
+			return null;
+		}
+
+		private void offer(int sizeClass, byte[] array) {
+			int count = counts[sizeClass];
+			if (count < maxIdleArrays) {
+				arrays[sizeClass][count] = array;
+				counts[sizeClass] = count + 1;
+			}
+		}
+	}
+}
@@ -35,6 +35,8 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.eclipse.californium.elements.config.Configuration;
+import org.eclipse.californium.elements.config.UdpConfig;
 import org.eclipse.californium.elements.rule.NetworkRule;
 import org.eclipse.californium.elements.rule.ThreadsRule;
 import org.eclipse.californium.elements.util.SimpleMessageCallback;
@@ -166,6 +168,30 @@ public class UDPConnectorTest {
 		assertThat("bytes received:", receivedData.bytes, is(equalTo(data)));
 	}
 
+	@Test
+	public void testBatchSending() throws InterruptedException, IOException {
+		Configuration config = network.createStandardTestConfig();
+		config.set(UdpConfig.UDP_SENDER_BATCH_SIZE, 8);
+		config.set(UdpConfig.UDP_SENDER_BATCH_LINGER, 10, TimeUnit.MILLISECONDS);
+		connector.destroy();
+		connector = new UDPConnector(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), config);
+		connector.start();
+
+		int count = 20;
+		InetSocketAddress dest = destination.getAddress();
+		SimpleMessageCallback callback = new SimpleMessageCallback(count, false);
+		for (int i = 0; i < count; ++i) {
+			byte[] data = { (byte) i };
+			connector.send(RawData.outbound(data, new UdpEndpointContext(dest), callback, false));
+		}
+		assertThat(callback.toString(), callback.await(2000), is(true));
+
+		for (int i = 0; i < count; ++i) {
+			RawData receivedData = channel.poll(1, TimeUnit.SECONDS);
+			assertThat("received data " + i + ":", receivedData, is(notNullValue()));
+		}
+	}
+
 	@Test
 	public void testMessageCallbackOnError() throws InterruptedException {
 		byte[] data = { 0, 1, 2 };
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.elements;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.californium.elements.category.NativeDatagramSocketImplRequired;
+import org.eclipse.californium.elements.config.Configuration;
+import org.eclipse.californium.elements.config.UdpConfig;
+import org.eclipse.californium.elements.rule.NetworkRule;
+import org.eclipse.californium.elements.rule.ThreadsRule;
+import org.eclipse.californium.elements.util.ByteBufferPool;
+import org.eclipse.californium.elements.util.ReusePortUtil;
+import org.eclipse.californium.elements.util.SimpleRawDataChannel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Test for the {@link UdpChannelConnector}.
+ * 
+ * A {@link java.nio.channels.DatagramChannel} doesn't use the
+ * {@link java.net.DatagramSocketImplFactory}, therefore the test requires the
+ * native network.
+ */
+@Category(NativeDatagramSocketImplRequired.class)
+public class UdpChannelConnectorTest {
+
+	@ClassRule
+	public static NetworkRule network = new NetworkRule(NetworkRule.Mode.NATIVE);
+
+	@Rule
+	public ThreadsRule cleanup = new ThreadsRule();
+
+	UDPConnector connector;
+	UdpChannelConnector destination;
+
+	@Before
+	public void setup() throws IOException {
+		connector = new UDPConnector(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+				network.getStandardTestConfig());
+		connector.start();
+		destination = new UdpChannelConnector(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+				network.getStandardTestConfig());
+		destination.start();
+	}
+
+	@After
+	public void stop() {
+		connector.destroy();
+		destination.destroy();
+	}
+
+	@Test
+	public void testReceiveRawData() throws InterruptedException {
+		SimpleRawDataChannel channel = new SimpleRawDataChannel(1);
+		destination.setRawDataReceiver(channel);
+
+		byte[] data = { 0, 1, 2 };
+		connector.send(RawData.outbound(data, new UdpEndpointContext(destination.getAddress()), null, false));
+
+		RawData receivedData = channel.poll(2, TimeUnit.SECONDS);
+		assertThat("received data:", receivedData, is(notNullValue()));
+		assertThat("bytes received:", receivedData.bytes, is(equalTo(data)));
+		assertThat(receivedData.getInetSocketAddress(), is(connector.getAddress()));
+	}
+
+	@Test
+	public void testReceiveBuffersAreReused() throws InterruptedException {
+		SimpleRawDataChannel channel = new SimpleRawDataChannel(1);
+		destination.setRawDataReceiver(channel);
+
+		InetSocketAddress dest = destination.getAddress();
+		for (int i = 0; i < 4; ++i) {
+			byte[] data = new byte[i + 1];
+			Arrays.fill(data, (byte) i);
+			connector.send(RawData.outbound(data, new UdpEndpointContext(dest), null, false));
+
+			RawData receivedData = channel.poll(2, TimeUnit.SECONDS);
+			assertThat("received data:", receivedData, is(notNullValue()));
+			assertThat("bytes received:", receivedData.bytes, is(equalTo(data)));
+		}
+		ByteBufferPool pool = destination.getReceiveBufferPool();
+		assertThat(pool.getHits(), is(greaterThan(0L)));
+	}
+
+	@Test
+	public void testTooLargeDatagramIsDropped() throws InterruptedException {
+		SimpleRawDataChannel channel = new SimpleRawDataChannel(1);
+		destination.setRawDataReceiver(channel);
+
+		byte[] data = new byte[destination.getReceiverPacketSize() + 1];
+		Arrays.fill(data, (byte) 1);
+		InetSocketAddress dest = destination.getAddress();
+		connector.send(RawData.outbound(data, new UdpEndpointContext(dest), null, false));
+
+		RawData receivedData = channel.poll(100, TimeUnit.MILLISECONDS);
+		assertThat("first received data:", receivedData, is(nullValue()));
+
+		data = new byte[destination.getReceiverPacketSize()];
+		Arrays.fill(data, (byte) 2);
+		connector.send(RawData.outbound(data, new UdpEndpointContext(dest), null, false));
+
+		receivedData = channel.poll(2, TimeUnit.SECONDS);
+		assertThat("second received data:", receivedData, is(notNullValue()));
+		assertThat("bytes received:", receivedData.bytes, is(equalTo(data)));
+	}
+
+	@Test
+	public void testReusePort() throws InterruptedException, IOException {
+		assumeTrue("SO_REUSEPORT not supported", ReusePortUtil.isSupported());
+		Configuration config = network.createStandardTestConfig();
+		config.set(UdpConfig.UDP_RECEIVER_REUSE_PORT, true);
+		config.set(UdpConfig.UDP_RECEIVER_THREAD_COUNT, 2);
+		destination.destroy();
+		destination = new UdpChannelConnector(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), config);
+		destination.start();
+		UDPConnector other = new UDPConnector(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), config);
+		other.start();
+		try {
+			int count = 10;
+			SimpleRawDataChannel channel = new SimpleRawDataChannel(count * 2);
+			destination.setRawDataReceiver(channel);
+			InetSocketAddress dest = destination.getAddress();
+			for (int i = 0; i < count; ++i) {
+				byte[] data = { (byte) i };
+				connector.send(RawData.outbound(data, new UdpEndpointContext(dest), null, false));
+				other.send(RawData.outbound(data, new UdpEndpointContext(dest), null, false));
+			}
+			assertThat(channel.await(2000), is(true));
+		} finally {
+			other.destroy();
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.elements.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.nio.ByteBuffer;
+
+import org.eclipse.californium.elements.category.Small;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(Small.class)
+public class ByteBufferPoolTest {
+
+	@Test
+	public void testReuseReleasedBuffer() {
+		ByteBufferPool pool = new ByteBufferPool(64, 2, true);
+		ByteBuffer buffer = pool.acquire();
+		assertThat(buffer.isDirect(), is(true));
+		assertThat(buffer.capacity(), is(64));
+		assertThat(pool.getMisses(), is(1L));
+		buffer.put((byte) 1);
+		pool.release(buffer);
+		assertThat(pool.getIdleBuffers(), is(1));
+
+		ByteBuffer reused = pool.acquire();
+		assertThat(reused, is(sameInstance(buffer)));
+		assertThat(reused.position(), is(0));
+		assertThat(reused.remaining(), is(64));
+		assertThat(pool.getHits(), is(1L));
+		assertThat(pool.getIdleBuffers(), is(0));
+	}
+
+	@Test
+	public void testLimitIdleBuffers() {
+		ByteBufferPool pool = new ByteBufferPool(64, 2, false);
+		ByteBuffer buffer1 = pool.acquire();
+		ByteBuffer buffer2 = pool.acquire();
+		ByteBuffer buffer3 = pool.acquire();
+		pool.release(buffer1);
+		pool.release(buffer2);
+		pool.release(buffer3);
+		assertThat(pool.getIdleBuffers(), is(2));
+		assertThat(pool.getMisses(), is(3L));
+	}
+
+	@Test
+	public void testIgnoreForeignBuffer() {
+		ByteBufferPool pool = new ByteBufferPool(64, 2, false);
+		pool.release(ByteBuffer.allocate(32));
+		pool.release(ByteBuffer.allocateDirect(64));
+		pool.release(null);
+		assertThat(pool.getIdleBuffers(), is(0));
+		assertThat(pool.acquire().capacity(), is(not(32)));
+	}
+}
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.elements.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.californium.elements.category.Small;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(Small.class)
+public class ExecutorsUtilTest {
+
+	@Test
+	public void testVirtualThreadPerTaskExecutor() throws Exception {
+		ExecutorService executor = ExecutorsUtil.newVirtualThreadPerTaskExecutor();
+		if (ExecutorsUtil.isVirtualThreadSupported()) {
+			assertThat(executor, is(notNullValue()));
+			final CountDownLatch latch = new CountDownLatch(2);
+			Runnable job = new Runnable() {
+
+				@Override
+				public void run() {
+					latch.countDown();
+				}
+			};
+			executor.execute(job);
+			executor.execute(job);
+			assertThat(latch.await(1, TimeUnit.SECONDS), is(true));
+			executor.shutdown();
+		} else {
+			assertThat(executor, is(nullValue()));
+		}
+	}
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.elements.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.californium.elements.category.Medium;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(Medium.class)
+public class HashedWheelTimerTest {
+
+	private static final long TICK_MILLIS = 10;
+
+	private HashedWheelTimer timer;
+
+	@Before
+	public void setUp() {
+		timer = new HashedWheelTimer(null, false, new TestThreadFactory("wheel-"), TICK_MILLIS,
+				TimeUnit.MILLISECONDS, 8);
+	}
+
+	@After
+	public void tearDown() {
+		ExecutorsUtil.shutdownExecutorGracefully(100, timer);
+	}
+
+	@Test
+	public void testScheduledTaskIsNotExecutedEarly() throws Exception {
+		final long start = ClockUtil.nanoRealtime();
+		// more than one round of the wheel
+		ScheduledFuture<Long> future = timer.schedule(new Callable<Long>() {
+
+			@Override
+			public Long call() throws Exception {
+				return ClockUtil.nanoRealtime() - start;
+			}
+		}, 150, TimeUnit.MILLISECONDS);
+		long time = future.get(2, TimeUnit.SECONDS);
+		assertThat(TimeUnit.NANOSECONDS.toMillis(time), is(greaterThanOrEqualTo(150L)));
+	}
+
+	@Test
+	public void testCancelledTaskIsNotExecuted() throws Exception {
+		final AtomicInteger counter = new AtomicInteger();
+		ScheduledFuture<?> future = timer.schedule(new Runnable() {
+
+			@Override
+			public void run() {
+				counter.incrementAndGet();
+			}
+		}, 50, TimeUnit.MILLISECONDS);
+		assertThat(future.cancel(false), is(true));
+		final CountDownLatch latch = new CountDownLatch(1);
+		timer.schedule(new Runnable() {
+
+			@Override
+			public void run() {
+				latch.countDown();
+			}
+		}, 100, TimeUnit.MILLISECONDS);
+		assertThat(latch.await(2, TimeUnit.SECONDS), is(true));
+		assertThat(counter.get(), is(0));
+		assertThat(future.isCancelled(), is(true));
+	}
+
+	@Test
+	public void testPeriodicTask() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(5);
+		ScheduledFuture<?> future = timer.scheduleAtFixedRate(new Runnable() {
+
+			@Override
+			public void run() {
+				latch.countDown();
+			}
+		}, 0, 20, TimeUnit.MILLISECONDS);
+		assertThat(latch.await(2, TimeUnit.SECONDS), is(true));
+		future.cancel(false);
+		assertThat(future.isDone(), is(true));
+	}
+
+	@Test
+	public void testExecuteWithExecutor() throws Exception {
+		ExecutorService executor = ExecutorsUtil.newFixedThreadPool(2, new TestThreadFactory("wheel-exec-"));
+		HashedWheelTimer timer = new HashedWheelTimer(executor, true, new TestThreadFactory("wheel-"),
+				TICK_MILLIS, TimeUnit.MILLISECONDS, HashedWheelTimer.DEFAULT_WHEEL_SIZE);
+		try {
+			final CountDownLatch latch = new CountDownLatch(2);
+			Runnable job = new Runnable() {
+
+				@Override
+				public void run() {
+					latch.countDown();
+				}
+			};
+			timer.execute(job);
+			timer.schedule(job, 30, TimeUnit.MILLISECONDS);
+			assertThat(latch.await(2, TimeUnit.SECONDS), is(true));
+		} finally {
+			timer.shutdown();
+		}
+		assertThat(timer.awaitTermination(1, TimeUnit.SECONDS), is(true));
+		assertThat(executor.isShutdown(), is(true));
+	}
+
+	@Test(expected = RejectedExecutionException.class)
+	public void testScheduleAfterShutdownIsRejected() {
+		timer.shutdown();
+		timer.schedule(new Runnable() {
+
+			@Override
+			public void run() {
+			}
+		}, 10, TimeUnit.MILLISECONDS);
+	}
+}
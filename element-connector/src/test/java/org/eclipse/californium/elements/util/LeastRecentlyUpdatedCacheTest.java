@@ -17,6 +17,7 @@ package org.eclipse.californium.elements.util;
 
 import static org.eclipse.californium.elements.util.TestConditionTools.inRange;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 
@@ -92,6 +93,33 @@ public class LeastRecentlyUpdatedCacheTest {
 		assertOrder(cache, false);
 	}
 
+	@Test
+	public void testTouchPreventsEviction() {
+		givenACacheWithEntries(3, THRESHOLD_MILLIS, 3);
+		time.setTestTimeShift(THRESHOLD_MILLIS + 100, TimeUnit.MILLISECONDS);
+		assertThat(cache.touch(0), is("0"));
+		assertThat(cache.touch(10), is(nullValue()));
+
+		assertThat(cache.put(3, "3"), is(true));
+		assertThat(cache.get(0), is("0"));
+		assertThat(cache.get(1), is(nullValue()));
+		assertThat(cache.isStale(0), is(false));
+		assertOrder(cache, false);
+
+		assertThat(cache.removeExpiredEntries(0), is(1));
+		assertThat(cache.get(2), is(nullValue()));
+		assertThat(cache.size(), is(2));
+		assertOrder(cache, false);
+	}
+
+	@Test
+	public void testTouchAfterRemove() {
+		givenACacheWithEntries(3, THRESHOLD_MILLIS, 3);
+		cache.remove(1);
+		assertThat(cache.touch(1), is(nullValue()));
+		assertThat(cache.touch(2), is("2"));
+	}
+
 	private void execute(int numberOfThreads, Runnable... jobs) {
 		if (numberOfThreads == 0) {
 			numberOfThreads = jobs.length;
@@ -25,6 +25,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
@@ -32,6 +36,7 @@ import javax.crypto.spec.SecretKeySpec;
 import org.eclipse.californium.elements.PersistentComponent;
 import org.eclipse.californium.elements.category.Medium;
 import org.eclipse.californium.elements.rule.LoggingRule;
+import org.junit.After;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -53,6 +58,16 @@ public class PersistentComponentUtilTest {
 	private DummyComponent connector3 = new DummyComponent("5884");
 	private DummyComponent connector4 = new DummyComponent("5984");
 
+	private ExecutorService executor;
+
+	@After
+	public void tearDown() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
 	private EncryptedPersistentComponentUtil setup(PersistentComponent... connectors) {
 		EncryptedPersistentComponentUtil util = new EncryptedPersistentComponentUtil();
 		for (PersistentComponent connector : connectors) {
@@ -199,6 +214,139 @@ public class PersistentComponentUtilTest {
 		assertArrayEquals(connector4.mark, connector4.data);
 	}
 
+	@Test
+	public void testChunkedSaveAndLoad() throws IOException {
+		executor = ExecutorsUtil.newFixedThreadPool(2, new TestThreadFactory("chunk-"));
+		EncryptedPersistentComponentUtil util = setup(connector1, connector2, connector3);
+		util.setChunked(16, executor);
+		SecretKey key = new SecretKeySpec("1234567".getBytes(), "PW");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		util.saveComponents(out, key, 1000);
+		ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+		util = setup(connector1, connector3);
+		util.setChunked(16, executor);
+		util.loadComponents(in, key);
+		assertArrayEquals(connector1.mark, connector1.data);
+		assertThat(connector2.data, is(nullValue()));
+		assertArrayEquals(connector3.mark, connector3.data);
+	}
+
+	@Test
+	public void testChunkedSaveAndLoadWithoutExecutor() throws IOException {
+		EncryptedPersistentComponentUtil util = setup(connector1, connector2);
+		util.setChunked(EncryptedStreamUtil.DEFAULT_CHUNK_SIZE, null);
+		SecretKey key = new SecretKeySpec("1234567".getBytes(), "PW");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		util.saveComponents(out, key, 1000);
+		ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+		// format is detected
+		util = setup(connector1, connector2);
+		util.loadComponents(in, key);
+		assertArrayEquals(connector1.mark, connector1.data);
+		assertArrayEquals(connector2.mark, connector2.data);
+	}
+
+	@Test
+	public void testChunkedSaveAndLoadWrongKey() throws IOException {
+		EncryptedPersistentComponentUtil util = setup(connector1, connector2);
+		util.setChunked(16, null);
+		SecretKey key = new SecretKeySpec("1234567".getBytes(), "PW");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		util.saveComponents(out, key, 1000);
+		ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+		key = new SecretKeySpec("01234567".getBytes(), "PW");
+		logging.setLoggingLevel("ERROR", PersistentComponentUtil.class);
+		util.loadComponents(in, key);
+		assertThat(connector1.data, is(nullValue()));
+		assertThat(connector2.data, is(nullValue()));
+	}
+
+	@Test
+	public void testChunkedSaveAndLoadModifiedChunk() throws IOException {
+		EncryptedPersistentComponentUtil util = setup(connector1, connector2);
+		util.setChunked(16, null);
+		SecretKey key = new SecretKeySpec("1234567".getBytes(), "PW");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		util.saveComponents(out, key, 1000);
+		byte[] data = out.toByteArray();
+		// modify encrypted data of first chunk, after header, chunk flag,
+		// chunk length, and iv
+		data[18 + 5 + 16] ^= 0x55;
+		ByteArrayInputStream in = new ByteArrayInputStream(data);
+		logging.setLoggingLevel("ERROR", PersistentComponentUtil.class);
+		util.loadComponents(in, key);
+		assertThat(connector1.data, is(nullValue()));
+		assertThat(connector2.data, is(nullValue()));
+	}
+
+	@Test
+	public void testChunkedSaveAndLoadDroppedLastChunk() throws IOException {
+		EncryptedPersistentComponentUtil util = setup(connector1, connector2, connector3);
+		util.setChunked(16, null);
+		SecretKey key = new SecretKeySpec("1234567".getBytes(), "PW");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		util.saveComponents(out, key, 1000);
+		List<byte[]> chunks = splitChunks(out.toByteArray());
+		// drop last chunk
+		chunks.remove(chunks.size() - 1);
+		ByteArrayInputStream in = new ByteArrayInputStream(joinChunks(chunks));
+		logging.setLoggingLevel("ERROR", PersistentComponentUtil.class);
+		util.loadComponents(in, key);
+		assertArrayEquals(connector1.mark, connector1.data);
+		assertThat(connector3.data, is(nullValue()));
+	}
+
+	@Test
+	public void testChunkedSaveAndLoadSwappedChunks() throws IOException {
+		EncryptedPersistentComponentUtil util = setup(connector1, connector2, connector3);
+		util.setChunked(16, null);
+		SecretKey key = new SecretKeySpec("1234567".getBytes(), "PW");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		util.saveComponents(out, key, 1000);
+		List<byte[]> chunks = splitChunks(out.toByteArray());
+		// swap the two chunks before the last chunk
+		int index = chunks.size() - 3;
+		chunks.add(index, chunks.remove(index + 1));
+		ByteArrayInputStream in = new ByteArrayInputStream(joinChunks(chunks));
+		logging.setLoggingLevel("ERROR", PersistentComponentUtil.class);
+		util.loadComponents(in, key);
+		assertArrayEquals(connector1.mark, connector1.data);
+		assertThat(connector3.data, is(nullValue()));
+	}
+
+	/**
+	 * Split chunked format into header and encoded chunks.
+	 * 
+	 * @param data chunked format
+	 * @return list with header and the encoded chunks, each with chunk flag and
+	 *         chunk length.
+	 */
+	private static List<byte[]> splitChunks(byte[] data) {
+		List<byte[]> chunks = new ArrayList<>();
+		DatagramReader reader = new DatagramReader(data);
+		int headerLength = reader.readNextByte() & 0xff;
+		chunks.add(Arrays.copyOf(data, headerLength + 1));
+		reader.skip((long) headerLength * Byte.SIZE);
+		int position = headerLength + 1;
+		while (reader.bytesAvailable()) {
+			reader.skip(Byte.SIZE);
+			int length = reader.read(Integer.SIZE);
+			reader.skip((long) length * Byte.SIZE);
+			int end = position + 1 + Integer.SIZE / Byte.SIZE + length;
+			chunks.add(Arrays.copyOfRange(data, position, end));
+			position = end;
+		}
+		return chunks;
+	}
+
+	private static byte[] joinChunks(List<byte[]> chunks) {
+		DatagramWriter writer = new DatagramWriter();
+		for (byte[] chunk : chunks) {
+			writer.writeBytes(chunk);
+		}
+		return writer.toByteArray();
+	}
+
 	private static class DummyComponent implements PersistentComponent {
 
 		private String label;
@@ -240,13 +388,15 @@ public class PersistentComponentUtilTest {
 		public int load(InputStream in, long delta) throws IOException {
 			DataStreamReader reader = new DataStreamReader(in);
 			SerializationUtil.readStartItem(reader, 1, Short.SIZE);
-			data = reader.readVarBytes(Byte.SIZE);
+			byte[] data = reader.readVarBytes(Byte.SIZE);
 			int len = SerializationUtil.readStartItem(reader, 1, Short.SIZE);
 			SerializationUtil.skipBits(reader, len * Byte.SIZE);
 			len = SerializationUtil.readStartItem(reader, 1, Short.SIZE);
 			SerializationUtil.skipBits(reader, len * Byte.SIZE);
 			int version = reader.readNextByte() & 0xff;
 			assertThat(version, is(SerializationUtil.NO_VERSION));
+			// apply data only, if all items are read
+			this.data = data;
 			return 3;
 		}
 
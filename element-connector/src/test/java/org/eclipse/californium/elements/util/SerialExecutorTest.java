@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.elements.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.californium.elements.category.Medium;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(Medium.class)
+public class SerialExecutorTest {
+
+	private static final int PRODUCERS = 4;
+	private static final int JOBS = 10000;
+
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() {
+		executor = ExecutorsUtil.newFixedThreadPool(PRODUCERS, new TestThreadFactory("serial-"));
+	}
+
+	@After
+	public void tearDown() {
+		ExecutorsUtil.shutdownExecutorGracefully(100, executor);
+	}
+
+	@Test
+	public void testSerialExecutionOfConcurrentProducers() throws Exception {
+		final SerialExecutor serialExecutor = new SerialExecutor(executor);
+		final AtomicInteger active = new AtomicInteger();
+		final AtomicInteger overlaps = new AtomicInteger();
+		final AtomicInteger outOfOrder = new AtomicInteger();
+		final int[] last = new int[PRODUCERS];
+		final CountDownLatch done = new CountDownLatch(PRODUCERS * JOBS);
+		Thread[] producers = new Thread[PRODUCERS];
+		for (int producer = 0; producer < PRODUCERS; ++producer) {
+			final int id = producer;
+			last[id] = -1;
+			producers[producer] = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					for (int job = 0; job < JOBS; ++job) {
+						final int number = job;
+						serialExecutor.execute(new Runnable() {
+
+							@Override
+							public void run() {
+								if (active.incrementAndGet() != 1) {
+									overlaps.incrementAndGet();
+								}
+								serialExecutor.assertOwner();
+								if (last[id] + 1 != number) {
+									outOfOrder.incrementAndGet();
+								}
+								last[id] = number;
+								active.decrementAndGet();
+								done.countDown();
+							}
+						});
+					}
+				}
+			});
+		}
+		for (Thread producer : producers) {
+			producer.start();
+		}
+		assertThat(done.await(10, TimeUnit.SECONDS), is(true));
+		assertThat(overlaps.get(), is(0));
+		assertThat(outOfOrder.get(), is(0));
+		serialExecutor.shutdown();
+		assertThat(serialExecutor.awaitTermination(1, TimeUnit.SECONDS), is(true));
+	}
+
+	@Test
+	public void testShutdownNowReturnsPendingJobs() throws Exception {
+		final SerialExecutor serialExecutor = new SerialExecutor(executor);
+		final CountDownLatch block = new CountDownLatch(1);
+		final CountDownLatch started = new CountDownLatch(1);
+		serialExecutor.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				started.countDown();
+				try {
+					block.await(1, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+				}
+			}
+		});
+		assertThat(started.await(1, TimeUnit.SECONDS), is(true));
+		for (int job = 0; job < 3; ++job) {
+			serialExecutor.execute(new Runnable() {
+
+				@Override
+				public void run() {
+				}
+			});
+		}
+		List<Runnable> pending = serialExecutor.shutdownNow();
+		assertThat(pending.size(), is(3));
+		assertThat(serialExecutor.isShutdown(), is(true));
+		assertThat(serialExecutor.isTerminated(), is(false));
+		block.countDown();
+		assertThat(serialExecutor.awaitTermination(1, TimeUnit.SECONDS), is(true));
+	}
+
+	@Test(expected = RejectedExecutionException.class)
+	public void testExecuteAfterShutdownIsRejected() {
+		SerialExecutor serialExecutor = new SerialExecutor(executor);
+		serialExecutor.shutdown();
+		serialExecutor.execute(new Runnable() {
+
+			@Override
+			public void run() {
+			}
+		});
+	}
+}
@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.elements.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.californium.elements.rule.TestTimeRule;
+import org.eclipse.californium.elements.util.LeastRecentlyUsedCache.EvictionListener;
+import org.eclipse.californium.elements.util.LeastRecentlyUsedCache.Predicate;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Verifies behavior of {@code StripedLeastRecentlyUsedCache}.
+ */
+public class StripedLeastRecentlyUsedCacheTest {
+
+	private static final long THRESHOLD_MILLIS = 300;
+
+	@Rule
+	public TestTimeRule time = new TestTimeRule();
+
+	StripedLeastRecentlyUsedCache<Integer, String> cache;
+
+	@Test
+	public void testSegments() {
+		cache = new StripedLeastRecentlyUsedCache<>(0, 10, THRESHOLD_MILLIS, TimeUnit.MILLISECONDS, 5);
+		assertThat(cache.getSegments(), is(8));
+		cache = new StripedLeastRecentlyUsedCache<>(0, 10, THRESHOLD_MILLIS, TimeUnit.MILLISECONDS, 1);
+		assertThat(cache.getSegments(), is(1));
+		cache = new StripedLeastRecentlyUsedCache<>(0, 10, THRESHOLD_MILLIS, TimeUnit.MILLISECONDS, 1000);
+		assertThat(cache.getSegments(), is(StripedLeastRecentlyUsedCache.MAX_SEGMENTS));
+	}
+
+	@Test
+	public void testPutGetRemove() {
+		givenACacheWithEntries(20, 10);
+		assertThat(cache.size(), is(10));
+		assertThat(cache.remainingCapacity(), is(10));
+		for (int index = 0; index < 10; ++index) {
+			assertThat(cache.get(index), is(Integer.toString(index)));
+		}
+		assertThat(cache.remove(3), is("3"));
+		assertThat(cache.remove(4, "5"), is(nullValue()));
+		assertThat(cache.remove(4, cache.get(4)), is("4"));
+		assertThat(cache.get(3), is(nullValue()));
+		assertThat(cache.size(), is(8));
+		cache.clear();
+		assertThat(cache.size(), is(0));
+	}
+
+	@Test
+	public void testPutFailsWhenFull() {
+		givenACacheWithEntries(10, 10);
+		assertThat(cache.put(100, "100"), is(false));
+		// replace existing entry
+		assertThat(cache.put(5, "five"), is(true));
+		assertThat(cache.get(5), is("five"));
+		assertThat(cache.size(), is(10));
+	}
+
+	@Test
+	public void testPutEvictsStaleEntryWhenFull() {
+		givenACacheWithEntries(10, 10);
+		final AtomicInteger evicted = new AtomicInteger();
+		cache.addEvictionListener(new EvictionListener<String>() {
+
+			@Override
+			public void onEviction(String evictedValue) {
+				evicted.incrementAndGet();
+			}
+		});
+		time.setTestTimeShift(THRESHOLD_MILLIS + 100, TimeUnit.MILLISECONDS);
+		assertThat(cache.put(100, "100"), is(true));
+		assertThat(cache.get(100), is("100"));
+		assertThat(evicted.get(), is(1));
+		assertThat(cache.size(), is(10));
+	}
+
+	@Test
+	public void testRemoveExpiredEntries() {
+		givenACacheWithEntries(20, 10);
+		time.setTestTimeShift(THRESHOLD_MILLIS + 100, TimeUnit.MILLISECONDS);
+		assertThat(cache.removeExpiredEntries(4), is(4));
+		assertThat(cache.size(), is(6));
+		assertThat(cache.removeExpiredEntries(0), is(6));
+		assertThat(cache.size(), is(0));
+	}
+
+	@Test
+	public void testSizeWithEvictionOnReadAccess() {
+		givenACacheWithEntries(20, 10);
+		cache.setEvictingOnReadAccess(true);
+		time.setTestTimeShift(THRESHOLD_MILLIS + 100, TimeUnit.MILLISECONDS);
+		assertThat(cache.get(1), is(nullValue()));
+		assertThat(cache.getTimestamped(2), is(nullValue()));
+		assertThat(cache.size(), is(8));
+		assertThat(cache.remainingCapacity(), is(12));
+		assertThat(cache.put(1, "one"), is(true));
+		assertThat(cache.size(), is(9));
+	}
+
+	@Test
+	public void testFind() {
+		givenACacheWithEntries(20, 10);
+		String value = cache.find(new Predicate<String>() {
+
+			@Override
+			public boolean accept(String value) {
+				return "7".equals(value);
+			}
+		});
+		assertThat(value, is("7"));
+		value = cache.find(new Predicate<String>() {
+
+			@Override
+			public boolean accept(String value) {
+				return "70".equals(value);
+			}
+		});
+		assertThat(value, is(nullValue()));
+		assertThat(cache.values().contains("3"), is(true));
+	}
+
+	@Test
+	public void testValuesIterator() {
+		givenACacheWithEntries(20, 10);
+		Set<String> values = new HashSet<>();
+		Iterator<String> iterator = cache.valuesIterator(false);
+		while (iterator.hasNext()) {
+			values.add(iterator.next());
+		}
+		assertThat(values.size(), is(10));
+		for (int index = 0; index < 10; ++index) {
+			assertThat(values.contains(Integer.toString(index)), is(true));
+		}
+	}
+
+	@Test
+	public void testValuesIteratorWithEvictionOnReadAccess() {
+		givenACacheWithEntries(20, 10);
+		cache.setEvictingOnReadAccess(true);
+		time.setTestTimeShift(THRESHOLD_MILLIS + 100, TimeUnit.MILLISECONDS);
+		Iterator<String> iterator = cache.valuesIterator(true);
+		assertThat(iterator.hasNext(), is(false));
+		assertThat(iterator.hasNext(), is(false));
+		assertThat(cache.size(), is(0));
+		assertThat(cache.remainingCapacity(), is(20));
+	}
+
+	@Test
+	public void testPutEvictsStaleEntryOfOtherSegmentWhenFull() {
+		// 4 segments, the keys 0, 4, 8, 12 are all in the same segment
+		cache = new StripedLeastRecentlyUsedCache<>(0, 4, THRESHOLD_MILLIS, TimeUnit.MILLISECONDS, 4);
+		cache.setEvictingOnReadAccess(false);
+		for (int index = 0; index < 4; ++index) {
+			cache.put(index * 4, Integer.toString(index * 4));
+		}
+		assertThat(cache.put(1, "1"), is(false));
+		time.setTestTimeShift(THRESHOLD_MILLIS + 100, TimeUnit.MILLISECONDS);
+		assertThat(cache.put(1, "1"), is(true));
+		assertThat(cache.size(), is(4));
+		assertThat(cache.get(0), is(nullValue()));
+		assertThat(cache.get(1), is("1"));
+	}
+
+	@Test
+	public void testConcurrentAccess() throws InterruptedException {
+		final int threads = 4;
+		final int entries = 1000;
+		cache = new StripedLeastRecentlyUsedCache<>(0, threads * entries, THRESHOLD_MILLIS, TimeUnit.MILLISECONDS,
+				8);
+		final CountDownLatch ready = new CountDownLatch(threads);
+		for (int thread = 0; thread < threads; ++thread) {
+			final int offset = thread * entries;
+			new Thread() {
+
+				@Override
+				public void run() {
+					for (int index = offset; index < offset + entries; ++index) {
+						cache.put(index, Integer.toString(index));
+						cache.get(index - 1);
+					}
+					ready.countDown();
+				}
+			}.start();
+		}
+		assertThat(ready.await(2000, TimeUnit.MILLISECONDS), is(true));
+		assertThat(cache.size(), is(threads * entries));
+		for (int index = 0; index < threads * entries; ++index) {
+			assertThat(cache.get(index), is(notNullValue()));
+		}
+	}
+
+	private void givenACacheWithEntries(int capacity, int numberOfEntries) {
+		cache = new StripedLeastRecentlyUsedCache<>(0, capacity, THRESHOLD_MILLIS, TimeUnit.MILLISECONDS, 4);
+		cache.setEvictingOnReadAccess(false);
+		for (int index = 0; index < numberOfEntries; ++index) {
+			cache.put(index, Integer.toString(index));
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.elements.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.eclipse.californium.elements.category.Small;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(Small.class)
+public class ThreadLocalByteArrayPoolTest {
+
+	@Test
+	public void testSizeClasses() {
+		assertThat(ThreadLocalByteArrayPool.acquire(0).length, is(ThreadLocalByteArrayPool.MIN_SIZE));
+		assertThat(ThreadLocalByteArrayPool.acquire(64).length, is(64));
+		assertThat(ThreadLocalByteArrayPool.acquire(65).length, is(128));
+		assertThat(ThreadLocalByteArrayPool.acquire(1500).length, is(2048));
+		assertThat(ThreadLocalByteArrayPool.acquire(ThreadLocalByteArrayPool.MAX_SIZE).length,
+				is(ThreadLocalByteArrayPool.MAX_SIZE));
+		assertThat(ThreadLocalByteArrayPool.acquire(ThreadLocalByteArrayPool.MAX_SIZE + 1).length,
+				is(ThreadLocalByteArrayPool.MAX_SIZE + 1));
+	}
+
+	@Test
+	public void testReuse() {
+		byte[] array = ThreadLocalByteArrayPool.acquire(100);
+		ThreadLocalByteArrayPool.release(array);
+		long hits = ThreadLocalByteArrayPool.getHits();
+		assertThat(ThreadLocalByteArrayPool.acquire(120), is(sameInstance(array)));
+		assertThat(ThreadLocalByteArrayPool.getHits(), is(hits + 1));
+		assertThat(ThreadLocalByteArrayPool.acquire(120), is(not(sameInstance(array))));
+	}
+
+	@Test
+	public void testReleaseNoneSizeClass() {
+		byte[] array = new byte[100];
+		ThreadLocalByteArrayPool.release(array);
+		assertThat(ThreadLocalByteArrayPool.acquire(100), is(not(sameInstance(array))));
+	}
+
+	@Test
+	public void testReuseOtherThread() throws InterruptedException {
+		final byte[] array = ThreadLocalByteArrayPool.acquire(200);
+		final byte[][] result = new byte[1][];
+		Thread thread = new Thread() {
+
+			@Override
+			public void run() {
+				ThreadLocalByteArrayPool.release(array);
+				result[0] = ThreadLocalByteArrayPool.acquire(200);
+			}
+		};
+		thread.start();
+		thread.join();
+		assertThat(result[0], is(sameInstance(array)));
+		assertThat(ThreadLocalByteArrayPool.acquire(200), is(not(sameInstance(array))));
+	}
+
+	@Test
+	public void testPooledDatagramWriter() {
+		DatagramWriter writer = new DatagramWriter(100, false, true);
+		writer.writeBytes(new byte[80]);
+		byte[] data = writer.toByteArray();
+		assertThat(data.length, is(80));
+		writer.writeBytes(new byte[200]);
+		data = writer.toByteArray();
+		assertThat(data.length, is(200));
+		writer.close();
+		long hits = ThreadLocalByteArrayPool.getHits();
+		byte[] array = ThreadLocalByteArrayPool.acquire(256);
+		assertThat(ThreadLocalByteArrayPool.getHits(), is(hits + 1));
+		ThreadLocalByteArrayPool.release(array);
+	}
+}
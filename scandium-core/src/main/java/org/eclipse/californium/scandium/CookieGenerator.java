@@ -26,11 +26,12 @@ import java.net.InetSocketAddress;
 import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 
+import org.eclipse.californium.elements.util.Bytes;
 import org.eclipse.californium.elements.util.ClockUtil;
 import org.eclipse.californium.scandium.dtls.ClientHello;
 import org.eclipse.californium.scandium.dtls.cipher.CipherSuite;
@@ -49,7 +50,8 @@ import org.eclipse.californium.scandium.util.SecretUtil;
  * <a href="https://tools.ietf.org/html/rfc6347#section-4.2.1" target="_blank">here</a>.
  *
  * Note: redesigned in 2.3 to use {@link ThreadLocalMac} instead of
- * {@link Mac#clone()}.
+ * {@link Mac#clone()}. Since 3.8 the secrets are swapped atomically without
+ * lock.
  */
 public class CookieGenerator {
 
@@ -67,81 +69,117 @@ public class CookieGenerator {
 	public static final long COOKIE_LIFETIME_NANOS = TimeUnit.SECONDS.toNanos(60);
 
 	/**
-	 * Nanos of next key generation.
-	 */
-	private long nextKeyGenerationNanos;
-	/**
-	 * Current secret key.
-	 */
-	private SecretKey currentSecretKey;
-	/**
-	 * Past secret key.
+	 * Current secrets.
+	 *
+	 * Replaced atomically on key generation.
+	 *
+	 * @since 3.8 (replaces the read-write-lock)
 	 */
-	private SecretKey pastSecretKey;
+	private final AtomicReference<Secrets> secrets = new AtomicReference<>();
 	/**
-	 * Lock to protect access to {@link #currentSecretKey},
-	 * {@link #pastSecretKey}, {@link #randomBytes} and
-	 * {@link #randomGenerator}.
+	 * Thread local buffer for cookie verification.
+	 *
+	 * @since 3.8
 	 */
-	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final ThreadLocal<byte[]> cookieBuffer = new ThreadLocal<byte[]>() {
+
+		@Override
+		protected byte[] initialValue() {
+			return new byte[CipherSuite.TLS_PSK_WITH_AES_128_CBC_SHA256.getMacLength()];
+		}
+	};
 
 	// attributes used for random byte generation
 	private final SecureRandom randomGenerator = new SecureRandom();
-	private final byte[] randomBytes = new byte[32];
 
 	/**
-	 * Return the secret key for cookie generation.
+	 * Return the secrets for cookie generation.
 	 * 
 	 * Secret key is refreshed every {@link #COOKIE_LIFETIME_NANOS} nanoseconds.
+	 * If multiple threads detect the expiration concurrently, only one of the
+	 * new secrets is used.
 	 * 
-	 * @return secret key
-	 * @since 2.3
+	 * @return secrets
+	 * @since 3.8
 	 */
-	private SecretKey getSecretKey() {
-
-		lock.readLock().lock();
+	private Secrets getSecrets() {
 		long now = ClockUtil.nanoRealtime();
-		try {
-			// check, if a secret key is already created and not expired
-			if (currentSecretKey != null && (now - nextKeyGenerationNanos) < 0) {
-				return currentSecretKey;
-			}
-		} finally {
-			lock.readLock().unlock();
-		}
-
-		// if key expired or secret key not initialized;
-		lock.writeLock().lock();
-		try {
-			// re-check, if a secret key is already created and not expired
-			if (currentSecretKey != null && (now - nextKeyGenerationNanos) < 0) {
-				return currentSecretKey;
-			}
+		Secrets current = secrets.get();
+		// check, if a secret key is already created and not expired
+		while (current == null || (now - current.nextKeyGenerationNanos) >= 0) {
+			byte[] randomBytes = new byte[32];
 			randomGenerator.nextBytes(randomBytes);
-			nextKeyGenerationNanos = now + COOKIE_LIFETIME_NANOS;
+			SecretKey secretKey = SecretUtil.create(randomBytes, "MAC");
+			Bytes.clear(randomBytes);
 			// shift secret keys
-			pastSecretKey = currentSecretKey;
-			currentSecretKey = SecretUtil.create(randomBytes, "MAC");
-			return currentSecretKey;
-		} finally {
-			lock.writeLock().unlock();
+			Secrets next = new Secrets(secretKey, current == null ? null : current.currentSecretKey,
+					now + COOKIE_LIFETIME_NANOS);
+			if (secrets.compareAndSet(current, next)) {
+				return next;
+			}
+			SecretUtil.destroy(secretKey);
+			current = secrets.get();
 		}
+		return current;
 	}
 
 	/**
-	 * Return the secret key of the past period.
+	 * Calculate HMAC of cookie.
 	 * 
-	 * @return past secret key
-	 * @since 2.3
+	 * <pre>
+	 * Cookie = HMAC(Secret, Client - IP, Client - Parameters)
+	 * </pre>
+	 *
+	 * @param peer address of the peer
+	 * @param clientHello received client hello to generate a cookie for
+	 * @param secretKey to generate a cookie for
+	 * @return initialized and updated hmac, ready for the final step.
+	 * @throws GeneralSecurityException if the cookie cannot be computed
+	 * @since 3.8
 	 */
-	private SecretKey getPastSecretKey() {
+	private Mac calculateCookie(InetSocketAddress peer, ClientHello clientHello, SecretKey secretKey)
+			throws GeneralSecurityException {
+		// Cookie = HMAC(Secret, Client-IP, Client-Parameters)
+		final Mac hmac = CipherSuite.TLS_PSK_WITH_AES_128_CBC_SHA256.getThreadLocalMac();
+		hmac.init(secretKey);
+		// Client-IP
+		hmac.update(peer.getAddress().getAddress());
+		int port = peer.getPort();
+		hmac.update((byte) (port >>> 8));
+		hmac.update((byte) port);
+		// Client-Parameters
+		clientHello.updateForCookie(hmac);
+		return hmac;
+	}
 
-		lock.readLock().lock();
-		try {
-			return pastSecretKey;
-		} finally {
-			lock.readLock().unlock();
+	/**
+	 * Check, if the provided cookie matches the cookie calculated with the
+	 * secret key.
+	 *
+	 * Uses a thread local buffer for the calculated cookie and compares in
+	 * constant time.
+	 *
+	 * @param peer address of the peer
+	 * @param clientHello received client hello with cookie
+	 * @param secretKey to calculate the cookie
+	 * @return {@code true}, if the cookie matches, {@code false}, otherwise.
+	 * @throws GeneralSecurityException if the cookie cannot be computed
+	 * @since 3.8
+	 */
+	private boolean matchCookie(InetSocketAddress peer, ClientHello clientHello, SecretKey secretKey)
+			throws GeneralSecurityException {
+		byte[] providedCookie = clientHello.getCookie();
+		byte[] buffer = cookieBuffer.get();
+		if (providedCookie.length != buffer.length) {
+			return false;
+		}
+		Mac hmac = calculateCookie(peer, clientHello, secretKey);
+		hmac.doFinal(buffer, 0);
+		int diff = 0;
+		for (int index = 0; index < buffer.length; ++index) {
+			diff |= buffer[index] ^ providedCookie[index];
 		}
+		return diff == 0;
 	}
 
 	/**
@@ -163,17 +201,7 @@ public class CookieGenerator {
 	 * @since 2.3
 	 */
 	private byte[] generateCookie(InetSocketAddress peer, ClientHello clientHello, SecretKey secretKey) throws GeneralSecurityException {
-		// Cookie = HMAC(Secret, Client-IP, Client-Parameters)
-		final Mac hmac = CipherSuite.TLS_PSK_WITH_AES_128_CBC_SHA256.getThreadLocalMac();
-		hmac.init(secretKey);
-		// Client-IP
-		hmac.update(peer.getAddress().getAddress());
-		int port = peer.getPort();
-		hmac.update((byte) (port >>> 8));
-		hmac.update((byte) port);
-		// Client-Parameters
-		clientHello.updateForCookie(hmac);
-		return hmac.doFinal();
+		return calculateCookie(peer, clientHello, secretKey).doFinal();
 	}
 
 	/**
@@ -193,7 +221,7 @@ public class CookieGenerator {
 	 * @throws GeneralSecurityException if the cookie cannot be computed
 	 */
 	public byte[] generateCookie(InetSocketAddress peer, ClientHello clientHello) throws GeneralSecurityException {
-		return generateCookie(peer, clientHello, getSecretKey());
+		return generateCookie(peer, clientHello, getSecrets().currentSecretKey);
 	}
 
 	/**
@@ -207,11 +235,65 @@ public class CookieGenerator {
 	 * @since 2.3
 	 */
 	public byte[] generatePastCookie(InetSocketAddress peer, ClientHello clientHello) throws GeneralSecurityException {
-		SecretKey secretKey = getPastSecretKey();
+		SecretKey secretKey = getSecrets().pastSecretKey;
 		if (secretKey != null) {
 			return generateCookie(peer, clientHello, secretKey);
 		} else {
 			return null;
 		}
 	}
+
+	/**
+	 * Verify the cookie of the client hello.
+	 *
+	 * Checks the cookie against the cookie of the current period and, if not
+	 * matching, against the cookie of the past period. Doesn't allocate
+	 * cookies and therefore processes a flood of CLIENT_HELLOs more
+	 * efficiently than comparing the results of
+	 * {@link #generateCookie(InetSocketAddress, ClientHello)} and
+	 * {@link #generatePastCookie(InetSocketAddress, ClientHello)}.
+	 *
+	 * @param peer address of the peer
+	 * @param clientHello received client hello with cookie to verify
+	 * @return {@code true}, if the cookie matches, {@code false}, otherwise.
+	 * @throws GeneralSecurityException if the cookie cannot be computed
+	 * @since 3.8
+	 */
+	public boolean verifyCookie(InetSocketAddress peer, ClientHello clientHello) throws GeneralSecurityException {
+		if (!clientHello.hasCookie()) {
+			return false;
+		}
+		Secrets secrets = getSecrets();
+		if (matchCookie(peer, clientHello, secrets.currentSecretKey)) {
+			return true;
+		}
+		return secrets.pastSecretKey != null && matchCookie(peer, clientHello, secrets.pastSecretKey);
+	}
+
+	/**
+	 * Secrets for cookie generation.
+	 *
+	 * @since 3.8
+	 */
+	private static class Secrets {
+
+		/**
+		 * Current secret key.
+		 */
+		private final SecretKey currentSecretKey;
+		/**
+		 * Past secret key.
+		 */
+		private final SecretKey pastSecretKey;
+		/**
+		 * Nanos of next key generation.
+		 */
+		private final long nextKeyGenerationNanos;
+
+		private Secrets(SecretKey currentSecretKey, SecretKey pastSecretKey, long nextKeyGenerationNanos) {
+			this.currentSecretKey = currentSecretKey;
+			this.pastSecretKey = pastSecretKey;
+			this.nextKeyGenerationNanos = nextKeyGenerationNanos;
+		}
+	}
 }
@@ -119,6 +119,7 @@
  ******************************************************************************/
 package org.eclipse.californium.scandium;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InterruptedIOException;
@@ -133,7 +134,6 @@ import java.net.PortUnreachableException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.security.GeneralSecurityException;
-import java.security.MessageDigest;
 import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -150,6 +150,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -184,6 +185,7 @@ import org.eclipse.californium.elements.util.LimitedRunnable;
 import org.eclipse.californium.elements.util.NamedThreadFactory;
 import org.eclipse.californium.elements.util.NetworkInterfacesUtil;
 import org.eclipse.californium.elements.util.NoPublicAPI;
+import org.eclipse.californium.elements.util.ReusePortUtil;
 import org.eclipse.californium.elements.util.SerialExecutor;
 import org.eclipse.californium.elements.util.StringUtil;
 import org.eclipse.californium.scandium.config.DtlsConnectorConfig;
@@ -194,6 +196,7 @@ import org.eclipse.californium.scandium.dtls.AlertMessage;
 import org.eclipse.californium.scandium.dtls.AlertMessage.AlertDescription;
 import org.eclipse.californium.scandium.dtls.AlertMessage.AlertLevel;
 import org.eclipse.californium.scandium.dtls.ApplicationMessage;
+import org.eclipse.californium.scandium.dtls.CertificateEncodingCache;
 import org.eclipse.californium.scandium.dtls.ClientHandshaker;
 import org.eclipse.californium.scandium.dtls.ClientHello;
 import org.eclipse.californium.scandium.dtls.Connection;
@@ -217,6 +220,9 @@ import org.eclipse.californium.scandium.dtls.HelloVerifyRequest;
 import org.eclipse.californium.scandium.dtls.InMemoryConnectionStore;
 import org.eclipse.californium.scandium.dtls.InMemoryReadWriteLockConnectionStore;
 import org.eclipse.californium.scandium.dtls.MaxFragmentLengthExtension;
+import org.eclipse.californium.scandium.dtls.MultiRecordDatagram;
+import org.eclipse.californium.scandium.dtls.JournalConnectionStore;
+import org.eclipse.californium.scandium.dtls.OffHeapConnectionStore;
 import org.eclipse.californium.scandium.dtls.ReadWriteLockConnectionStore;
 import org.eclipse.californium.scandium.dtls.ProtocolVersion;
 import org.eclipse.californium.scandium.dtls.Record;
@@ -231,6 +237,8 @@ import org.eclipse.californium.scandium.dtls.SessionId;
 import org.eclipse.californium.scandium.dtls.SessionListener;
 import org.eclipse.californium.scandium.dtls.cipher.CipherSuite;
 import org.eclipse.californium.scandium.dtls.cipher.InvalidMacException;
+import org.eclipse.californium.scandium.dtls.cipher.XECDHECryptography.SupportedGroup;
+import org.eclipse.californium.scandium.dtls.cipher.XECDHEKeyPairPool;
 import org.eclipse.californium.scandium.dtls.pskstore.AdvancedPskStore;
 import org.eclipse.californium.scandium.dtls.resumption.ConnectionStoreResumptionVerifier;
 import org.eclipse.californium.scandium.dtls.resumption.ExtendedResumptionVerifier;
@@ -426,6 +434,35 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 	 * epoch/sequence_number.
 	 */
 	private final boolean useCidUpdateAddressOnNewerRecordFilter;
+	/**
+	 * Send pending application records of a connection together in one
+	 * datagram.
+	 * 
+	 * @see DtlsConfig#DTLS_USE_MULTI_APPLICATION_DATA_RECORDS
+	 * @since 3.8
+	 */
+	private final boolean useMultiApplicationDataRecords;
+	/**
+	 * Decrypt application records of established connections in parallel.
+	 * 
+	 * @see DtlsConfig#DTLS_PARALLEL_RECORD_DECRYPTION
+	 * @since 3.8
+	 */
+	private final boolean useParallelRecordDecryption;
+	/**
+	 * Number of pre-generated ephemeral key pairs per supported group.
+	 * 
+	 * @see DtlsConfig#DTLS_ECDHE_KEY_PAIR_POOL_SIZE
+	 * @since 3.8
+	 */
+	private final int keyPairPoolSize;
+	/**
+	 * Pool of pre-generated ephemeral key pairs. {@code null}, if not used or
+	 * not started.
+	 * 
+	 * @since 3.8
+	 */
+	private volatile XECDHEKeyPairPool keyPairPool;
 
 	/**
 	 * Maximum pending jobs for outbound messages.
@@ -518,8 +555,24 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 
 	private final CookieGenerator cookieGenerator = new CookieGenerator();
 
+	/**
+	 * Cache for the encodings of the certificate related messages of this
+	 * connector's identities and trusted issuers.
+	 * 
+	 * @since 3.8
+	 */
+	private final CertificateEncodingCache certificateEncodingCache = new CertificateEncodingCache();
+
 	private volatile DatagramSocket socket;
 
+	/**
+	 * Additional sockets bound with {@code SO_REUSEPORT}.
+	 * 
+	 * @see DtlsConfig#DTLS_RECEIVER_REUSE_PORT
+	 * @since 3.8
+	 */
+	private final List<DatagramSocket> reusePortSockets = new ArrayList<>();
+
 	/** The timer daemon to schedule retransmissions. */
 	protected ScheduledExecutorService timer;
 
@@ -565,6 +618,26 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 	 */
 	protected static ResumptionSupportingConnectionStore createConnectionStore(DtlsConnectorConfig configuration) {
 		if (configuration.get(DtlsConfig.DTLS_READ_WRITE_LOCK_CONNECTION_STORE)) {
+			int hotSetSize = configuration.get(DtlsConfig.DTLS_OFF_HEAP_HOT_SET_SIZE);
+			if (hotSetSize > 0) {
+				return new OffHeapConnectionStore(
+						configuration.get(DtlsConfig.DTLS_MAX_CONNECTIONS),
+						configuration.get(DtlsConfig.DTLS_STALE_CONNECTION_THRESHOLD, TimeUnit.SECONDS),
+						hotSetSize,
+						configuration.getSessionStore(),
+						configuration.get(DtlsConfig.DTLS_REMOVE_STALE_DOUBLE_PRINCIPALS))
+								.setTag(configuration.getLoggingTag());
+			}
+			String journalDirectory = configuration.get(DtlsConfig.DTLS_CONNECTION_JOURNAL_DIRECTORY);
+			if (journalDirectory != null && !journalDirectory.isEmpty()) {
+				return new JournalConnectionStore(
+						configuration.get(DtlsConfig.DTLS_MAX_CONNECTIONS),
+						configuration.get(DtlsConfig.DTLS_STALE_CONNECTION_THRESHOLD, TimeUnit.SECONDS),
+						configuration.getSessionStore(),
+						configuration.get(DtlsConfig.DTLS_REMOVE_STALE_DOUBLE_PRINCIPALS),
+						new File(journalDirectory), JournalConnectionStore.DEFAULT_COMPACTION_SIZE)
+								.setTag(configuration.getLoggingTag());
+			}
 			return new InMemoryReadWriteLockConnectionStore(
 					configuration.get(DtlsConfig.DTLS_MAX_CONNECTIONS),
 					configuration.get(DtlsConfig.DTLS_STALE_CONNECTION_THRESHOLD, TimeUnit.SECONDS),
@@ -622,6 +695,9 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 			this.useExtendedWindowFilter = config.get(DtlsConfig.DTLS_USE_DISABLED_WINDOW_FOR_ANTI_REPLAY_FILTER);
 			this.useFilter = config.get(DtlsConfig.DTLS_USE_ANTI_REPLAY_FILTER);
 			this.useCidUpdateAddressOnNewerRecordFilter = config.get(DtlsConfig.DTLS_UPDATE_ADDRESS_USING_CID_ON_NEWER_RECORDS);
+			this.useMultiApplicationDataRecords = config.get(DtlsConfig.DTLS_USE_MULTI_APPLICATION_DATA_RECORDS);
+			this.useParallelRecordDecryption = config.get(DtlsConfig.DTLS_PARALLEL_RECORD_DECRYPTION);
+			this.keyPairPoolSize = config.get(DtlsConfig.DTLS_ECDHE_KEY_PAIR_POOL_SIZE);
 			this.maxConnections = config.get(DtlsConfig.DTLS_MAX_CONNECTIONS);
 			this.sniEnabled = config.get(DtlsConfig.DTLS_USE_SERVER_NAME_INDICATION);
 			this.extendedMasterSecretMode = config.get(DtlsConfig.DTLS_EXTENDED_MASTER_SECRET_MODE);
@@ -832,6 +908,7 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 	private final void initializeHandshaker(final Handshaker handshaker) {
 		handshaker.addSessionListener(sessionListener);
 		handshaker.addSessionListener(customSessionListener);
+		handshaker.setKeyPairPool(keyPairPool);
 		if (health != null) {
 			health.startHandshake();
 		}
@@ -1024,7 +1101,7 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 	 * @param peerAddress the address of the peer to close the connection to
 	 * @throws RejectedExecutionException is connector is stopping or stopped.
 	 */
-	public final void close(InetSocketAddress peerAddress) {
+	public final void close(final InetSocketAddress peerAddress) {
 		final Connection connection = getConnection(peerAddress, null, false);
 		if (connection != null && connection.hasEstablishedDtlsContext()) {
 			SerialExecutor serialExecutor = connection.getExecutor();
@@ -1032,7 +1109,15 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 
 				@Override
 				public void run() {
-					closeConnection(connection);
+					if (connection.isFrozen()) {
+						// state handed over, close the copy
+						Connection current = getConnection(peerAddress, null, false);
+						if (current != null && current != connection && !current.isFrozen()) {
+							close(peerAddress);
+						}
+					} else {
+						closeConnection(connection);
+					}
 				}
 			});
 		}
@@ -1077,7 +1162,13 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 		if (running.get()) {
 			return;
 		}
-		init(bindAddress, new DatagramSocket(null), null);
+		DatagramSocket socket;
+		if (config.get(DtlsConfig.DTLS_RECEIVER_REUSE_PORT) && ReusePortUtil.isSupported()) {
+			socket = ReusePortUtil.openSocket();
+		} else {
+			socket = new DatagramSocket(null);
+		}
+		init(bindAddress, socket, null);
 	}
 
 	/**
@@ -1131,6 +1222,29 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 			socket.bind(bindAddress);
 		}
 		InetSocketAddress actualBindAddress = new InetSocketAddress(socket.getLocalAddress(), socket.getLocalPort());
+		int receiverThreadCount = config.get(DtlsConfig.DTLS_RECEIVER_THREAD_COUNT);
+		if (receiverThreadCount > 1 && config.get(DtlsConfig.DTLS_RECEIVER_REUSE_PORT)) {
+			if (ReusePortUtil.isEnabled(socket)) {
+				try {
+					for (int i = 1; i < receiverThreadCount; i++) {
+						DatagramSocket shard = ReusePortUtil.openSocket();
+						reusePortSockets.add(shard);
+						shard.setReuseAddress(socket.getReuseAddress());
+						shard.setReceiveBufferSize(recvBuffer);
+						shard.bind(actualBindAddress);
+					}
+				} catch (IOException ex) {
+					for (DatagramSocket shard : reusePortSockets) {
+						shard.close();
+					}
+					reusePortSockets.clear();
+					throw ex;
+				}
+			} else {
+				LOGGER.warn("DTLSConnector SO_REUSEPORT not available, using one socket for {} receiver threads",
+						receiverThreadCount);
+			}
+		}
 		if (lastBindAddress != null && !actualBindAddress.equals(lastBindAddress)) {
 			connectionStore.markAllAsResumptionRequired();
 		}
@@ -1201,23 +1315,48 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 		if (executorService instanceof ScheduledExecutorService) {
 			timer = (ScheduledExecutorService) executorService;
 		} else {
-			timer = ExecutorsUtil.newSingleThreadScheduledExecutor(new DaemonThreadFactory(
-					"DTLS-Timer-" + lastBindAddress + "#", NamedThreadFactory.SCANDIUM_THREAD_GROUP)); //$NON-NLS-1$
+			ThreadFactory timerThreadFactory = new DaemonThreadFactory("DTLS-Timer-" + lastBindAddress + "#", //$NON-NLS-1$
+					NamedThreadFactory.SCANDIUM_THREAD_GROUP);
+			long tick = config.get(DtlsConfig.DTLS_TIMER_WHEEL_TICK, TimeUnit.MILLISECONDS);
+			if (tick > 0) {
+				timer = ExecutorsUtil.newHashedWheelTimer(null, timerThreadFactory, tick, TimeUnit.MILLISECONDS);
+			} else {
+				timer = ExecutorsUtil.newSingleThreadScheduledExecutor(timerThreadFactory);
+			}
 		}
 
 		if (executorService == null) {
 			int threadCount = config.get(DtlsConfig.DTLS_CONNECTOR_THREAD_COUNT);
-			if (threadCount > 1) {
-				executorService = ExecutorsUtil.newFixedThreadPool(threadCount - 1, new DaemonThreadFactory(
-						"DTLS-Worker-" + lastBindAddress + "#", NamedThreadFactory.SCANDIUM_THREAD_GROUP)); //$NON-NLS-1$
-			} else {
-				executorService = timer;
+			if (config.get(DtlsConfig.DTLS_USE_VIRTUAL_THREADS)) {
+				executorService = ExecutorsUtil.newVirtualThreadPerTaskExecutor();
+				if (executorService != null) {
+					LOGGER.info("Using virtual threads");
+				} else {
+					LOGGER.warn("Virtual threads are not supported, using {} connector threads instead", threadCount);
+				}
+			}
+			if (executorService == null) {
+				if (threadCount > 1) {
+					executorService = ExecutorsUtil.newFixedThreadPool(threadCount - 1, new DaemonThreadFactory(
+							"DTLS-Worker-" + lastBindAddress + "#", NamedThreadFactory.SCANDIUM_THREAD_GROUP)); //$NON-NLS-1$
+				} else {
+					executorService = timer;
+				}
 			}
 			if (connectionStore instanceof ReadWriteLockConnectionStore) {
 				((ReadWriteLockConnectionStore)connectionStore).setExecutor(executorService);
 			}
 			this.hasInternalExecutor = true;
 		}
+		if (keyPairPoolSize > 0) {
+			XECDHEKeyPairPool pool = new XECDHEKeyPairPool(keyPairPoolSize, executorService);
+			List<SupportedGroup> groups = config.getSupportedGroups();
+			if (!groups.isEmpty()) {
+				// prepare the preferred group, others on demand
+				pool.prepare(groups.get(0));
+			}
+			keyPairPool = pool;
+		}
 		// prepare restored connections.
 		long expires = calculateRecentHandshakeExpires();
 		List<Connection> recent = new ArrayList<>();
@@ -1266,8 +1405,8 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 		}
 		running.set(true);
 
-		int receiverThreadCount = config.get(DtlsConfig.DTLS_RECEIVER_THREAD_COUNT);
 		for (int i = 0; i < receiverThreadCount; i++) {
+			final DatagramSocket shard = i > 0 && i <= reusePortSockets.size() ? reusePortSockets.get(i - 1) : null;
 			Worker receiver = new Worker("DTLS-Receiver-" + i + "-" + lastBindAddress) {
 
 				private final byte[] receiverBuffer = new byte[inboundDatagramBufferSize];
@@ -1279,7 +1418,11 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 						MDC.clear();
 					}
 					packet.setData(receiverBuffer);
-					receiveNextDatagramFromNetwork(packet);
+					if (shard == null) {
+						receiveNextDatagramFromNetwork(packet);
+					} else {
+						receiveNextDatagramFromNetwork(shard, packet);
+					}
 				}
 			};
 			receiver.setDaemon(true);
@@ -1419,10 +1562,18 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 					socket.close();
 					socket = null;
 				}
+				for (DatagramSocket shard : reusePortSockets) {
+					shard.close();
+				}
+				reusePortSockets.clear();
 				maximumTransmissionUnit = null;
 				ipv4Mtu = DEFAULT_IPV4_MTU;
 				ipv6Mtu = DEFAULT_IPV6_MTU;
 				connectionStore.stop(pending);
+				if (keyPairPool != null) {
+					keyPairPool.clear();
+					keyPairPool = null;
+				}
 				if (executorService != timer) {
 					pending.addAll(timer.shutdownNow());
 					shutdownTimer = timer;
@@ -1517,7 +1668,17 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 	}
 
 	public boolean restoreConnection(Connection connection) {
-		return connectionStore.restore(connection);
+		if (connectionStore instanceof ReadWriteLockConnectionStore) {
+			return connectionStore.restore(connection);
+		}
+		synchronized (connectionStore) {
+			boolean restored = connectionStore.restore(connection);
+			if (restored && running.get() && !connection.isExecuting()) {
+				// restored into running connector, e.g. migrated connection
+				connection.setConnectorContext(getExecutorService(), connectionListener);
+			}
+			return restored;
+		}
 	}
 
 	/**
@@ -1767,7 +1928,23 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 			return;
 		}
 
-		currentSocket.receive(packet);
+		receiveNextDatagramFromNetwork(currentSocket, packet);
+	}
+
+	/**
+	 * Receive the next datagram from the provided socket.
+	 * 
+	 * Used for the additional sockets of
+	 * {@link DtlsConfig#DTLS_RECEIVER_REUSE_PORT}.
+	 * 
+	 * @param socket socket to receive the datagram from
+	 * @param packet datagram the be read from network
+	 * @throws IOException if an io- error occurred
+	 * @since 3.8
+	 */
+	private void receiveNextDatagramFromNetwork(DatagramSocket socket, DatagramPacket packet) throws IOException {
+
+		socket.receive(packet);
 
 		if (packet.getLength() == 0) {
 			// nothing to do
@@ -1916,10 +2093,54 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 			return;
 		}
 
+		for (Record record : records) {
+			record.setAddress(peerAddress, router);
+		}
+
+		if (useParallelRecordDecryption && isDecodableInParallel(records, connection)) {
+			executeInbound(getExecutorService(), peerAddress, new LimitedRunnable(pendingInboundJobsCountdown) {
+
+				@Override
+				public void run() {
+					try {
+						if (running.get() && connection.isExecuting()) {
+							DTLSContext context = connection.getEstablishedDtlsContext();
+							if (context != null && !connection.isFrozen()) {
+								List<Record> accepted = decodeRecords(records, connection, context);
+								executeRecords(accepted, connection, peerAddress, context);
+							} else {
+								executeRecords(records, connection, peerAddress, null);
+							}
+						}
+					} finally {
+						onDequeueing();
+					}
+				}
+			});
+		} else {
+			executeRecords(records, connection, peerAddress, null);
+		}
+	}
+
+	/**
+	 * Execute the processing of the records using the serial executor of the
+	 * connection.
+	 * 
+	 * @param records records from the processed datagram.
+	 * @param connection connection of the records
+	 * @param peerAddress datagram's source address.
+	 * @param decodedContext DTLS context used to decode the records in
+	 *            parallel. Decoded records are dropped, if the connection
+	 *            uses a different DTLS context for the epoch of the record
+	 *            when processing it. {@code null}, if the records are not
+	 *            decoded in parallel.
+	 * @since 3.8
+	 */
+	private void executeRecords(final List<Record> records, final Connection connection,
+			final InetSocketAddress peerAddress, final DTLSContext decodedContext) {
 		SerialExecutor serialExecutor = connection.getExecutor();
 
 		for (final Record record : records) {
-			record.setAddress(peerAddress, router);
 			try {
 				if (!executeInbound(serialExecutor, peerAddress, new LimitedRunnable(pendingInboundJobsCountdown) {
 
@@ -1927,6 +2148,18 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 					public void run() {
 						try {
 							if (running.get() && connection.isExecuting()) {
+								if (decodedContext != null && record.isDecoded()
+										&& connection.getDtlsContext(record.getEpoch()) != decodedContext) {
+									// decrypted in place, decoding again is not possible
+									DROP_LOGGER.debug(
+											"Discarding {} record [epoch {}, rseqn {}] received from peer [{}], dtls context changed!",
+											record.getType(), record.getEpoch(), record.getSequenceNumber(),
+											StringUtil.toLog(record.getPeerAddress()));
+									if (health != null) {
+										health.receivingRecord(true);
+									}
+									return;
+								}
 								processRecord(record, connection);
 							}
 						} finally {
@@ -1945,6 +2178,116 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 		}
 	}
 
+	/**
+	 * Check, if the records could be decoded in parallel.
+	 * 
+	 * Only application records (including TLS12_CID records) of the current
+	 * read epoch of an established connection without ongoing handshake and
+	 * without MAC errors are decoded in parallel.
+	 * 
+	 * @param records records from the processed datagram.
+	 * @param connection connection of the records
+	 * @return {@code true}, if the records could be decoded in parallel,
+	 *         {@code false}, if the records must be decoded by the serial
+	 *         executor of the connection.
+	 * @see DtlsConfig#DTLS_PARALLEL_RECORD_DECRYPTION
+	 * @since 3.8
+	 */
+	private boolean isDecodableInParallel(List<Record> records, Connection connection) {
+		DTLSContext context = connection.getEstablishedDtlsContext();
+		if (context == null || context.getMacErrors() > 0 || connection.getOngoingHandshake() != null) {
+			return false;
+		}
+		int epoch = context.getReadEpoch();
+		for (Record record : records) {
+			if (record.getEpoch() != epoch) {
+				return false;
+			}
+			ContentType type = record.getType();
+			if (type != ContentType.APPLICATION_DATA && type != ContentType.TLS12_CID) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Decode records.
+	 * 
+	 * Applies the replay filter and the {@link DatagramFilter} and decrypts
+	 * the records using the provided DTLS context. Records filtered out by the
+	 * {@link DatagramFilter} are dropped. Decoding failures are left to the
+	 * processing of the serial executor, which filters and decodes these
+	 * records again in order to apply the MAC error handling.
+	 * 
+	 * @param records records from the processed datagram.
+	 * @param connection connection of the records
+	 * @param context established DTLS context of the connection
+	 * @return records to be processed by the serial executor
+	 * @see #isDecodableInParallel(List, Connection)
+	 * @since 3.8
+	 */
+	private List<Record> decodeRecords(List<Record> records, Connection connection, DTLSContext context) {
+		List<Record> accepted = new ArrayList<>(records.size());
+		boolean decode = true;
+		for (Record record : records) {
+			int epoch = record.getEpoch();
+			if (epoch != context.getReadEpoch()) {
+				decode = false;
+			}
+			if (decode) {
+				if (useFilter
+						&& !context.isRecordProcessable(epoch, record.getSequenceNumber(), useExtendedWindowFilter)) {
+					// dropped by the serial processing
+					accepted.add(record);
+					continue;
+				}
+				if (!filterRecord(record, connection)) {
+					continue;
+				}
+				try {
+					record.setDeprecatedMac(context.useDeprecatedCid());
+					record.decodeFragment(context.getReadState());
+				} catch (GeneralSecurityException e) {
+					LOGGER.trace("Decoding record from peer [{}] failed, {}",
+							StringUtil.toLog(record.getPeerAddress()), e.getMessage());
+					decode = false;
+				} catch (HandshakeException e) {
+					LOGGER.trace("Decoding record from peer [{}] failed, {}",
+							StringUtil.toLog(record.getPeerAddress()), e.getMessage());
+					decode = false;
+				}
+			}
+			accepted.add(record);
+		}
+		return accepted;
+	}
+
+	/**
+	 * Apply the {@link DatagramFilter} to the record.
+	 * 
+	 * Called by the serial executor of the connection or, with
+	 * {@link DtlsConfig#DTLS_PARALLEL_RECORD_DECRYPTION}, by the threads
+	 * decoding the records in parallel.
+	 * 
+	 * @param record received record.
+	 * @param connection connection of the record
+	 * @return {@code true}, to continue processing the record, {@code false},
+	 *         if the record is filtered out and dropped.
+	 * @since 3.8
+	 */
+	private boolean filterRecord(Record record, Connection connection) {
+		if (datagramFilter != null && !datagramFilter.onReceiving(record, connection)) {
+			DROP_LOGGER.trace("Filter out record with {} bytes from [{}]", record.size(),
+					StringUtil.toLog(record.getPeerAddress()));
+			if (health != null) {
+				health.receivingRecord(true);
+			}
+			return false;
+		}
+		return true;
+	}
+
 	/**
 	 * Execute inbound job.
 	 * 
@@ -1984,6 +2327,11 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 	@Override
 	public void processRecord(Record record, Connection connection) {
 
+		if (connection.isFrozen()) {
+			processRecordOfFrozenConnection(record, connection);
+			return;
+		}
+
 		try {
 			// ensure, that connection is still related to record
 			// and not changed by processing an other record before
@@ -2082,15 +2430,8 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 			}
 
 			if (!record.isDecoded()) {
-				if (datagramFilter != null) {
-					if (!datagramFilter.onReceiving(record, connection)) {
-						DROP_LOGGER.trace("Filter out record with {} bytes from [{}]", record.size(),
-								StringUtil.toLog(record.getPeerAddress()));
-						if (health != null) {
-							health.receivingRecord(true);
-						}
-						return;
-					}
+				if (!filterRecord(record, connection)) {
+					return;
 				}
 
 				// application data may be deferred again until the session is
@@ -2169,6 +2510,37 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 		}
 	}
 
+	/**
+	 * Process received record of a frozen connection.
+	 * 
+	 * The state of a frozen connection is handed over to a copy, e.g. by the
+	 * {@link org.eclipse.californium.scandium.dtls.OffHeapConnectionStore}.
+	 * The connection is resolved again using the connection store and not
+	 * decoded records are processed by the resolved copy. Otherwise the record
+	 * is dropped.
+	 * 
+	 * @param record received record
+	 * @param connection frozen connection
+	 * @see Connection#freeze()
+	 * @since 3.8
+	 */
+	@NoPublicAPI
+	protected void processRecordOfFrozenConnection(Record record, Connection connection) {
+		if (!record.isDecoded()) {
+			Connection current = getConnection(record.getPeerAddress(), record.getConnectionId(), false);
+			if (current != null && current != connection && !current.isFrozen()) {
+				executeRecords(Collections.singletonList(record), current, record.getPeerAddress(), null);
+				return;
+			}
+		}
+		DROP_LOGGER.debug("Discarding {} record [epoch {}, rseqn {}] received from peer [{}], connection frozen!",
+				record.getType(), record.getEpoch(), record.getSequenceNumber(),
+				StringUtil.toLog(record.getPeerAddress()));
+		if (health != null) {
+			health.receivingRecord(true);
+		}
+	}
+
 	private void closeConnection(Connection connection) {
 		DTLSContext context = connection.getEstablishedDtlsContext();
 		if (context != null) {
@@ -2441,12 +2813,11 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 			}
 			final ClientHello clientHello = (ClientHello) message;
 
-			byte[] expectedCookie = cookieGenerator.generateCookie(peerAddress, clientHello);
-
 			// before starting a new handshake or resuming an established
 			// session we need to make sure that the peer is in possession of
-			// the IP address indicated in the client hello message
-			boolean addressVerified = isClientInControlOfSourceIpAddress(peerAddress, clientHello, expectedCookie);
+			// the IP address indicated in the client hello message.
+			// Verify that without any access to the connection store.
+			boolean addressVerified = isClientInControlOfSourceIpAddress(peerAddress, clientHello);
 			if (addressVerified) {
 				final Connection connection;
 				ExecutorService executor = getExecutorService();
@@ -2488,6 +2859,7 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 			}
 			// sender's address not verified =>
 			// send hello verify request for verification
+			byte[] expectedCookie = cookieGenerator.generateCookie(peerAddress, clientHello);
 			sendHelloVerify(clientHello, record, expectedCookie);
 		} catch (HandshakeException e) {
 			LOGGER.debug("Processing new CLIENT_HELLO from peer [{}] failed!",
@@ -2595,7 +2967,7 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 			if (resumptionVerifier != null && clientHello.hasSessionId()) {
 				// client wants to resume a session
 				handshaker = new ResumingServerHandshaker(record.getSequenceNumber(), clientHello.getMessageSeq(), this,
-						timer, connection, config);
+						timer, connection, config, certificateEncodingCache);
 				if (!clientHello.hasCookie()) {
 					// short resumption without verify request
 					pendingHandshakesWithoutVerifiedPeer.incrementAndGet();
@@ -2606,7 +2978,7 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 				// completing a cookie exchange. So start a new handshake
 				// (see section 4.2.8 of RFC 6347 (DTLS 1.2))
 				handshaker = new ServerHandshaker(record.getSequenceNumber(), clientHello.getMessageSeq(), this, timer,
-						connection, config);
+						connection, config, certificateEncodingCache);
 			}
 			initializeHandshaker(handshaker);
 			handshaker.processMessage(record);
@@ -2642,37 +3014,24 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 	 * @param peer the inet socket address to verify
 	 * @param clientHello the peer's client hello method including the cookie
 	 *            and/or session id to verify
-	 * @param expectedCookie expected cookie
 	 * @return {@code true}, if the cookie is matching, or, if absent, the
 	 *         session id is valid, {@code false}, if either the cookie is not
 	 *         matching, or, if absent, the session id is invalid.
-	 * @since 3.0 (adapted parameter list and return type)
+	 * @throws GeneralSecurityException if the cookie cannot be computed
+	 * @since 3.8 (adapted parameter list, verifies cookie without generating
+	 *        it)
 	 */
-	private boolean isClientInControlOfSourceIpAddress(InetSocketAddress peer, ClientHello clientHello,
-			byte[] expectedCookie) {
+	private boolean isClientInControlOfSourceIpAddress(InetSocketAddress peer, ClientHello clientHello)
+			throws GeneralSecurityException {
 		// verify client's ability to respond on given IP address by exchanging
 		// a cookie as described in section 4.2.1 of the DTLS 1.2 spec
 		// see http://tools.ietf.org/html/rfc6347#section-4.2.1
-		byte[] providedCookie = clientHello.getCookie();
-
-		if (providedCookie.length > 0) {
-			// check, if cookie of the current period matches
-			boolean cookie = MessageDigest.isEqual(expectedCookie, providedCookie);
-			if (!cookie) {
-				try {
-					// check, if cookie of the past period matches
-					byte[] pastCookie = cookieGenerator.generatePastCookie(peer, clientHello);
-					if (pastCookie != null && MessageDigest.isEqual(pastCookie, providedCookie)) {
-						cookie = true;
-					}
-				} catch (GeneralSecurityException ex) {
-					LOGGER.debug("failed to generate past cookie.", ex);
-				}
-			}
+		if (clientHello.hasCookie()) {
+			// check, if cookie of the current or past period matches
+			boolean cookie = cookieGenerator.verifyCookie(peer, clientHello);
 			if (!cookie && LOGGER.isDebugEnabled()) {
-				LOGGER.debug("provided cookie must {} match {}. Send verify request to {}",
-						StringUtil.byteArray2HexString(providedCookie, StringUtil.NO_SEPARATOR, 6),
-						StringUtil.byteArray2HexString(expectedCookie, StringUtil.NO_SEPARATOR, 6),
+				LOGGER.debug("provided cookie {} doesn't match. Send verify request to {}",
+						StringUtil.byteArray2HexString(clientHello.getCookie(), StringUtil.NO_SEPARATOR, 6),
 						StringUtil.toLog(peer));
 			}
 			return cookie;
@@ -2960,7 +3319,18 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 			throw error;
 		}
 
-		final long now = ClockUtil.nanoRealtime();
+		executeSend(ClockUtil.nanoRealtime(), message, connection);
+	}
+
+	/**
+	 * Execute sending the message using the serial executor of the connection.
+	 * 
+	 * @param nanos system nanoseconds of receiving the data
+	 * @param message the data to send to the peer
+	 * @param connection connection of the peer
+	 * @since 3.8
+	 */
+	private void executeSend(final long nanos, final RawData message, final Connection connection) {
 		SerialExecutor executor = connection.getExecutor();
 		if (!executeOutbound(executor, message.getInetSocketAddress(), new LimitedRunnable(pendingOutboundJobsCountdown) {
 
@@ -2968,7 +3338,11 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 			public void run() {
 				try {
 					if (running.get() && connection.isExecuting()) {
-						sendMessage(now, message, connection);
+						if (connection.isFrozen()) {
+							sendMessageOfFrozenConnection(nanos, message, connection);
+						} else {
+							sendMessage(nanos, message, connection);
+						}
 					} else {
 						DROP_LOGGER.trace("DTLSConnector drops {} outgoing bytes to {}, connector not running!",
 								message.getSize(), StringUtil.toLog(message.getInetSocketAddress()));
@@ -2996,6 +3370,34 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 		}
 	}
 
+	/**
+	 * Send message of a frozen connection.
+	 * 
+	 * The state of a frozen connection is handed over to a copy, e.g. by the
+	 * {@link org.eclipse.californium.scandium.dtls.OffHeapConnectionStore}.
+	 * The connection is resolved again using the connection store and the
+	 * message is sent by the resolved copy. Otherwise the message is dropped.
+	 * 
+	 * @param nanos system nanoseconds of receiving the data
+	 * @param message the data to send to the peer
+	 * @param connection frozen connection
+	 * @see Connection#freeze()
+	 * @since 3.8
+	 */
+	private void sendMessageOfFrozenConnection(long nanos, RawData message, Connection connection) {
+		Connection current = connectionStore.get(connection.getConnectionId());
+		if (current != null && current != connection && !current.isFrozen()) {
+			executeSend(nanos, message, current);
+		} else {
+			DROP_LOGGER.debug("DTLSConnector drops {} outgoing bytes to {}, connection frozen!", message.getSize(),
+					StringUtil.toLog(message.getInetSocketAddress()));
+			message.onError(new IOException("connection frozen!"));
+			if (health != null) {
+				health.sendingRecord(true);
+			}
+		}
+	}
+
 	/**
 	 * Execute outbound job.
 	 * 
@@ -3249,8 +3651,12 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 			Record record = new Record(ContentType.APPLICATION_DATA, dltsContext.getWriteEpoch(),
 					new ApplicationMessage(message.getBytes()), dltsContext, true, TLS12_CID_PADDING);
 			record.setAddress(connection.getPeerAddress(), connection.getRouter());
-			sendRecord(record);
-			message.onSent();
+			if (useMultiApplicationDataRecords && record.getRouter() == null) {
+				queueRecord(record, message, connection);
+			} else {
+				sendRecord(record);
+				message.onSent();
+			}
 			connectionStore.update(connection, null);
 			if (connectionListener != null) {
 				if (connectionListener.onConnectionUpdatesSequenceNumbers(connection, true)) {
@@ -3266,6 +3672,76 @@ public class DTLSConnector implements Connector, PersistentConnector, Persistent
 		}
 	}
 
+	/**
+	 * Queue application record for sending.
+	 * 
+	 * Adds the record to the pending datagram of the connection. If no
+	 * datagram is pending or the record doesn't fit into the pending one, a
+	 * new datagram is created and a job to send it is scheduled using the
+	 * serial executor of the connection. That job is executed after the
+	 * already pending jobs of that executor, which therefore may add their
+	 * records as well.
+	 * 
+	 * @param record application record to send
+	 * @param message application message of the record
+	 * @param connection connection of the peer
+	 * @see DtlsConfig#DTLS_USE_MULTI_APPLICATION_DATA_RECORDS
+	 * @since 3.8
+	 */
+	private void queueRecord(Record record, RawData message, final Connection connection) {
+		MultiRecordDatagram datagram = connection.getPendingDatagram();
+		if (datagram != null) {
+			if (datagram.add(record, message)) {
+				return;
+			}
+			sendPendingDatagram(connection, datagram);
+		}
+		InetSocketAddress peerAddress = record.getPeerAddress();
+		boolean ipv6 = peerAddress.getAddress() instanceof Inet6Address;
+		final MultiRecordDatagram next = new MultiRecordDatagram(getMaxDatagramSize(ipv6), peerAddress);
+		next.add(record, message);
+		connection.setPendingDatagram(next);
+		try {
+			connection.getExecutor().execute(new Runnable() {
+
+				@Override
+				public void run() {
+					sendPendingDatagram(connection, next);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			sendPendingDatagram(connection, next);
+		}
+	}
+
+	/**
+	 * Send pending datagram of connection.
+	 * 
+	 * @param connection connection of the peer
+	 * @param datagram pending datagram. Not sent, if that datagram is not
+	 *            longer pending for the connection.
+	 * @since 3.8
+	 */
+	private void sendPendingDatagram(Connection connection, MultiRecordDatagram datagram) {
+		if (connection.getPendingDatagram() != datagram) {
+			return;
+		}
+		connection.setPendingDatagram(null);
+		List<RawData> messages = datagram.getMessages();
+		try {
+			LOGGER.trace("Sending {} application records, {} bytes to [{}]", datagram.getNumberOfRecords(),
+					datagram.size(), StringUtil.toLog(datagram.getPeerAddress()));
+			sendNextDatagramOverNetwork(datagram.toDatagramPacket());
+			for (RawData message : messages) {
+				message.onSent();
+			}
+		} catch (IOException e) {
+			for (RawData message : messages) {
+				message.onError(e);
+			}
+		}
+	}
+
 	/**
 	 * Check, if the endpoint context match for outgoing messages using
 	 * {@link #endpointContextMatcher}.
@@ -39,6 +39,11 @@ public interface DatagramFilter {
 	/**
 	 * Check and filter incoming record using the {@link Connection}'s state.
 	 * 
+	 * Note: since 3.8 and with
+	 * {@link org.eclipse.californium.scandium.config.DtlsConfig#DTLS_PARALLEL_RECORD_DECRYPTION}
+	 * this may be called concurrently for records of the same connection
+	 * before they are decrypted.
+	 * 
 	 * @param record incoming record
 	 * @param connection connection for incoming record
 	 * @return {@code true}, continue to process record, {@code false} to drop
@@ -22,18 +22,30 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
+import org.eclipse.californium.elements.util.Bytes;
+import org.eclipse.californium.elements.util.ClockUtil;
 import org.eclipse.californium.elements.util.DatagramReader;
+import org.eclipse.californium.elements.util.DatagramWriter;
 import org.eclipse.californium.elements.util.FilteredLogger;
+import org.eclipse.californium.elements.util.LeastRecentlyUsedCache;
 import org.eclipse.californium.elements.util.StringUtil;
 import org.eclipse.californium.scandium.config.DtlsClusterConnectorConfig;
 import org.eclipse.californium.scandium.config.DtlsConfig;
 import org.eclipse.californium.scandium.config.DtlsConnectorConfig;
+import org.eclipse.californium.scandium.dtls.Connection;
 import org.eclipse.californium.scandium.dtls.ConnectionId;
+import org.eclipse.californium.scandium.dtls.ConsistentHashConnectionIdGenerator;
 import org.eclipse.californium.scandium.dtls.ContentType;
+import org.eclipse.californium.scandium.dtls.JournalConnectionStore;
 import org.eclipse.californium.scandium.dtls.NodeConnectionIdGenerator;
 import org.eclipse.californium.scandium.dtls.Record;
 import org.eclipse.californium.scandium.dtls.ResumptionSupportingConnectionStore;
@@ -63,6 +75,21 @@ import org.slf4j.LoggerFactory;
  * to send outgoing messages also from other endpoints,
  * {@link DtlsClusterConnectorConfig} can be used to configure that.
  * </p>
+ * <p>
+ * Since 3.8 forwarded records may be collected into batches, see
+ * {@link DtlsClusterConnectorConfig.Builder#setForwardBatchDelay(long, TimeUnit)}.
+ * A batch is sent as single cluster internal datagram of type
+ * {@link #RECORD_TYPE_INCOMING_BATCH}. Each record of the batch is prepended by
+ * the original source address and the length of the record. The buffers of the
+ * batches are reused.
+ * </p>
+ * <p>
+ * Since 3.8 also a {@link ConsistentHashConnectionIdGenerator} may be used.
+ * With that, the owner of a CID changes, if the nodes of the cluster changes.
+ * The established connections owned by other nodes after such a change are
+ * then migrated to their new owner, see
+ * {@link #startConnectionMigration(ConnectionMigrationHandler)}.
+ * </p>
  * 
  * @since 2.5
  */
@@ -127,6 +154,32 @@ public class DtlsClusterConnector extends DTLSConnector {
 	 * Message Format</a> (1. byte, version 0b01, others xx xxxx).
 	 */
 	public static final Byte RECORD_TYPE_OUTGOING = (byte) 62;
+	/**
+	 * Type of incoming forwarded batches of messages.
+	 * 
+	 * Unassigned according <a href=
+	 * "https://www.iana.org/assignments/tls-parameters/tls-parameters.xhtml#tls-parameters-5">IANA,
+	 * TLS ContentType</a>, and no collision with CoAP messages
+	 * <a href="https://tools.ietf.org/html/rfc7252#section-3" target="_blank">RFC 7252,
+	 * Message Format</a> (1. byte, version 0b01, others xx xxxx).
+	 * 
+	 * @since 3.8
+	 */
+	public static final Byte RECORD_TYPE_INCOMING_BATCH = (byte) 57;
+	/**
+	 * Offset of the first record of batches. Followed by the cluster MAC, if
+	 * used.
+	 * 
+	 * @since 3.8
+	 */
+	protected static final int CLUSTER_BATCH_OFFSET = 1;
+	/**
+	 * Length of the header of a record in batches. Port, address length,
+	 * address and record length.
+	 * 
+	 * @since 3.8
+	 */
+	protected static final int CLUSTER_BATCH_RECORD_HEADER_LENGTH = 5;
 	/**
 	 * Node CID generator to extract node-id from CID and retrieve own node-id.
 	 */
@@ -160,6 +213,60 @@ public class DtlsClusterConnector extends DTLSConnector {
 	 * Nodes provider for cluster.
 	 */
 	private volatile ClusterNodesProvider nodesProvider;
+	/**
+	 * Delay in nanoseconds to collect forwarded records into batches. {@code 0}
+	 * to forward each record with a separate datagram.
+	 * 
+	 * @since 3.8
+	 */
+	private final long forwardBatchDelayNanos;
+	/**
+	 * Batches of forwarded records by cluster node.
+	 * 
+	 * @since 3.8
+	 */
+	private final ConcurrentMap<InetSocketAddress, ForwardBatch> forwardBatches = new ConcurrentHashMap<>();
+	/**
+	 * Consistent hash CID generator. {@code null}, if the node-id is encoded
+	 * in the CID.
+	 * 
+	 * @since 3.8
+	 */
+	private final ConsistentHashConnectionIdGenerator consistentHashCidGenerator;
+	/**
+	 * Connection store to access and remove migrated connections.
+	 * 
+	 * @since 3.8
+	 */
+	private final ResumptionSupportingConnectionStore clusterConnectionStore;
+	/**
+	 * Connections passed to their new owners, waiting for the acknowledge.
+	 * 
+	 * @see #completeConnectionMigration(ConnectionId)
+	 * @since 3.8
+	 */
+	private final ConcurrentMap<ConnectionId, Connection> migratingConnections = new ConcurrentHashMap<>();
+
+	/**
+	 * Timeout in milliseconds for the acknowledge of a migrated connection.
+	 * 
+	 * If the acknowledge isn't received within that time, the migration is
+	 * aborted and the connection is used again on this node.
+	 * 
+	 * @since 3.8
+	 */
+	private static final long MIGRATION_TIMEOUT_MILLIS = 2000;
+	/**
+	 * Number of skipped sequence numbers for restored migrated connections.
+	 * 
+	 * If the migration is aborted, the old owner uses the connection again,
+	 * while the new owner may have restored it as well. The gap separates
+	 * the sequence numbers, and so the nonces of AEAD ciphers, used by both
+	 * nodes.
+	 * 
+	 * @since 3.8
+	 */
+	private static final long MIGRATION_SEQUENCE_NUMBER_GAP = JournalConnectionStore.SEQUENCE_NUMBER_GAP;
 
 	/**
 	 * Create dtls connector with cluster support.
@@ -201,8 +308,13 @@ public class DtlsClusterConnector extends DTLSConnector {
 		this.backwardMessages = clusterConfiguration.useBackwardMessages();
 		this.clusterHealth = (health instanceof DtlsClusterHealth) ? (DtlsClusterHealth) health : null;
 		this.startReceiver = startReceiver;
-		LOGGER.info("cluster-node {}: on internal {}, backwards {}", getNodeID(),
-				StringUtil.toLog(clusterInternalSocketAddress), backwardMessages);
+		this.forwardBatchDelayNanos = clusterConfiguration.getForwardBatchDelay(TimeUnit.NANOSECONDS);
+		this.consistentHashCidGenerator = (nodeCidGenerator instanceof ConsistentHashConnectionIdGenerator)
+				? (ConsistentHashConnectionIdGenerator) nodeCidGenerator
+				: null;
+		this.clusterConnectionStore = connectionStore;
+		LOGGER.info("cluster-node {}: on internal {}, backwards {}, batches {}", getNodeID(),
+				StringUtil.toLog(clusterInternalSocketAddress), backwardMessages, forwardBatchDelayNanos > 0);
 	}
 
 	/**
@@ -297,11 +409,17 @@ public class DtlsClusterConnector extends DTLSConnector {
 	/**
 	 * {@inheritDoc}
 	 * 
-	 * Stop also socket and threads for cluster internal communication.
+	 * Send pending batches of forwarded records and stop also socket and
+	 * threads for cluster internal communication.
 	 */
 	@Override
 	public void stop() {
 		super.stop();
+		// flush pending batches before closing the cluster internal socket
+		for (ForwardBatch batch : forwardBatches.values()) {
+			batch.run();
+		}
+		forwardBatches.clear();
 		synchronized (this) {
 			clusterInternalSocket.close();
 			for (Thread t : clusterReceiverThreads) {
@@ -313,6 +431,7 @@ public class DtlsClusterConnector extends DTLSConnector {
 			}
 			clusterReceiverThreads.clear();
 		}
+		migratingConnections.clear();
 	}
 
 	/**
@@ -342,6 +461,222 @@ public class DtlsClusterConnector extends DTLSConnector {
 		return nodeCidGenerator.getNodeId();
 	}
 
+	/**
+	 * Set node-ids of the cluster.
+	 * 
+	 * Only applies, if a {@link ConsistentHashConnectionIdGenerator} is used.
+	 * If the node-ids have changed, the owners of the CIDs may have changed as
+	 * well. Use {@link #startConnectionMigration(ConnectionMigrationHandler)}
+	 * to migrate the connections to their new owners.
+	 * 
+	 * @param nodeIds node-ids of the cluster
+	 * @return {@code true}, if the node-ids have changed, {@code false}, if
+	 *         not or no {@link ConsistentHashConnectionIdGenerator} is used.
+	 * @since 3.8
+	 */
+	public boolean setClusterNodeIds(Collection<Integer> nodeIds) {
+		if (consistentHashCidGenerator != null && consistentHashCidGenerator.setNodes(nodeIds)) {
+			LOGGER.info("cluster-node {}: nodes {}", getNodeID(), consistentHashCidGenerator.getNodes());
+			pruneForwardBatches();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Remove the batches of cluster nodes, which are not longer available.
+	 * 
+	 * Pending records of such batches are still sent.
+	 * 
+	 * @see ClusterNodesProvider#available(InetSocketAddress)
+	 * @since 3.8
+	 */
+	private void pruneForwardBatches() {
+		ClusterNodesProvider nodes = nodesProvider;
+		if (nodes != null) {
+			for (ForwardBatch batch : forwardBatches.values()) {
+				if (!nodes.available(batch.clusterNode)) {
+					// sends pending records and removes the batch
+					batch.run();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Start to migrate the established connections, which are owned by other
+	 * nodes.
+	 * 
+	 * The connections are frozen and serialized within their serial execution
+	 * and passed to the provided handler. If the handler accepts the
+	 * connection, the connection is kept frozen on this node until the new
+	 * owner acknowledges the migration, see
+	 * {@link #completeConnectionMigration(ConnectionId)}. A frozen connection
+	 * neither sends nor processes records, received records are forwarded to
+	 * the new owner. With the acknowledge the connection is removed from this
+	 * node, but the session is kept in the session store. If the acknowledge
+	 * isn't received in time, the migration is aborted and the connection is
+	 * unfrozen and used again on this node.
+	 * 
+	 * @param handler handler to pass the connections to their new owners.
+	 * @return future to cancel or wait for completion
+	 * @throws NullPointerException if handler is {@code null}
+	 * @see #restoreMigratedConnection(byte[])
+	 * @since 3.8
+	 */
+	public Future<Void> startConnectionMigration(final ConnectionMigrationHandler handler) {
+		if (handler == null) {
+			throw new NullPointerException("handler must not be null!");
+		}
+		LeastRecentlyUsedCache.Predicate<Connection> connectionHandler = new LeastRecentlyUsedCache.Predicate<Connection>() {
+
+			@Override
+			public boolean accept(Connection connection) {
+				ConnectionId cid = connection.getConnectionId();
+				if (cid != null && !cid.isEmpty() && connection.hasEstablishedDtlsContext() && !connection.isFrozen()) {
+					int nodeId = nodeCidGenerator.getNodeId(cid);
+					if (nodeId != getNodeID()) {
+						// freeze before serializing, the serialized sequence
+						// numbers must not be used on this node anymore
+						connection.freeze();
+						DatagramWriter writer = new DatagramWriter(true);
+						writer.writeLong(ClockUtil.nanoRealtime(), Long.SIZE);
+						if (connection.writeTo(writer)) {
+							byte[] data = writer.toByteArray();
+							// register before passing it, the acknowledge may
+							// be received before migrate returns
+							migratingConnections.put(cid, connection);
+							if (handler.migrate(nodeId, data)) {
+								LOGGER.debug("cluster-node {}: migrate {} to {}", getNodeID(), cid, nodeId);
+								scheduleMigrationTimeout(cid, connection);
+							} else {
+								migratingConnections.remove(cid, connection);
+								connection.unfreeze();
+								LOGGER.debug("cluster-node {}: keep {} owned by {}", getNodeID(), cid, nodeId);
+							}
+							Bytes.clear(data);
+						} else {
+							connection.unfreeze();
+						}
+						writer.close();
+					}
+				}
+				return false;
+			}
+		};
+		return startForEach(connectionHandler);
+	}
+
+	/**
+	 * Schedule the timeout for the acknowledge of a migrated connection.
+	 * 
+	 * Aborts the migration, if the connection or the acknowledge got lost,
+	 * and unfreezes the connection.
+	 * 
+	 * @param cid connection id of the migrated connection
+	 * @param connection migrated connection
+	 * @since 3.8
+	 */
+	private void scheduleMigrationTimeout(final ConnectionId cid, final Connection connection) {
+		try {
+			timer.schedule(new Runnable() {
+
+				@Override
+				public void run() {
+					if (migratingConnections.remove(cid, connection)) {
+						connection.unfreeze();
+						LOGGER.info("cluster-node {}: migration of {} timed out, keep it.", getNodeID(), cid);
+					}
+				}
+			}, MIGRATION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException ex) {
+			// stopped, migrating connections are cleared
+		}
+	}
+
+	/**
+	 * Complete the migration of a connection.
+	 * 
+	 * Called, when the new owner acknowledges the migration. Removes the
+	 * connection from this node, but keeps the session in the session store.
+	 * 
+	 * @param cid connection id of the migrated connection
+	 * @return {@code true}, if the connection is removed, {@code false}, if
+	 *         the connection is not migrating or already removed.
+	 * @see #startConnectionMigration(ConnectionMigrationHandler)
+	 * @see #restoreMigratedConnection(byte[])
+	 * @since 3.8
+	 */
+	public boolean completeConnectionMigration(ConnectionId cid) {
+		Connection connection = migratingConnections.remove(cid);
+		if (connection != null && clusterConnectionStore.remove(connection, false)) {
+			LOGGER.debug("cluster-node {}: migrated {}", getNodeID(), cid);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Restore connection migrated from an other node.
+	 * 
+	 * If restored, the other node is intended to be acknowledged with the
+	 * returned connection id, see
+	 * {@link #completeConnectionMigration(ConnectionId)}.
+	 * The sequence numbers of the restored connection are advanced by a gap,
+	 * because the other node uses the connection again, if the migration is
+	 * aborted, e.g. the acknowledge got lost.
+	 * 
+	 * @param data serialized connection, as passed to
+	 *            {@link ConnectionMigrationHandler#migrate(int, byte[])} of the
+	 *            other node.
+	 * @return connection id of the restored connection, or {@code null}, if
+	 *         the data is erroneous or the CID is already in use.
+	 * @see #startConnectionMigration(ConnectionMigrationHandler)
+	 * @since 3.8
+	 */
+	public ConnectionId restoreMigratedConnection(byte[] data) {
+		try {
+			DatagramReader reader = new DatagramReader(data);
+			// adjust to the realtime of this node
+			long nanoShift = ClockUtil.nanoRealtime() - reader.readLong(Long.SIZE);
+			Connection connection = Connection.fromReader(reader, nanoShift);
+			if (connection != null && connection.hasEstablishedDtlsContext()) {
+				// the old owner uses the connection again, if the
+				// migration is aborted
+				connection.getEstablishedDtlsContext().skipSequenceNumbers(MIGRATION_SEQUENCE_NUMBER_GAP);
+			}
+			if (connection != null && restoreConnection(connection)) {
+				LOGGER.debug("cluster-node {}: restored migrated {}", getNodeID(), connection.getConnectionId());
+				return connection.getConnectionId();
+			}
+		} catch (IllegalArgumentException ex) {
+			LOGGER.debug("cluster-node {}: migrated connection is erroneous!", getNodeID(), ex);
+		} catch (IllegalStateException ex) {
+			LOGGER.debug("cluster-node {}: migrated connection not restored!", getNodeID(), ex);
+		}
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Forwards the records of migrating connections to their new owners.
+	 * 
+	 * @since 3.8
+	 */
+	@Override
+	protected void processRecordOfFrozenConnection(Record record, Connection connection) {
+		ConnectionId cid = connection.getConnectionId();
+		if (cid != null && !record.isDecoded() && migratingConnections.get(cid) == connection) {
+			byte[] data = record.toByteArray();
+			DatagramPacket packet = new DatagramPacket(data, data.length, record.getPeerAddress());
+			// forwards the record, if the connection is still frozen
+			processDatagram(packet, record.getRouter());
+		} else {
+			super.processRecordOfFrozenConnection(record, connection);
+		}
+	}
+
 	/**
 	 * Gets the address the cluster internal connector is bound to.
 	 * 
@@ -365,7 +700,8 @@ public class DtlsClusterConnector extends DTLSConnector {
 	 * @param clusterPacket cluster internal message
 	 * @return {@link #RECORD_TYPE_INCOMING}, if message is forwarded,
 	 *         {@link #RECORD_TYPE_OUTGOING}, if message is backwarded,
-	 *         {@code null}, otherwise.
+	 *         {@link #RECORD_TYPE_INCOMING_BATCH}, if messages are forwarded
+	 *         as batch, {@code null}, otherwise.
 	 */
 	protected Byte getClusterRecordType(DatagramPacket clusterPacket) {
 		final byte type = clusterPacket.getData()[clusterPacket.getOffset() + CLUSTER_RECORD_TYPE_OFFSET];
@@ -373,6 +709,8 @@ public class DtlsClusterConnector extends DTLSConnector {
 			return RECORD_TYPE_INCOMING;
 		} else if (type == RECORD_TYPE_OUTGOING.byteValue()) {
 			return RECORD_TYPE_OUTGOING;
+		} else if (type == RECORD_TYPE_INCOMING_BATCH.byteValue()) {
+			return RECORD_TYPE_INCOMING_BATCH;
 		}
 		return null;
 	}
@@ -381,14 +719,19 @@ public class DtlsClusterConnector extends DTLSConnector {
 	 * Ensure, that the packet is large enough for a valid cluster internal
 	 * message.
 	 * 
-	 * @param type {@link #RECORD_TYPE_INCOMING} or
-	 *            {@link #RECORD_TYPE_OUTGOING}.
+	 * @param type {@link #RECORD_TYPE_INCOMING},
+	 *            {@link #RECORD_TYPE_OUTGOING}, or
+	 *            {@link #RECORD_TYPE_INCOMING_BATCH}.
 	 * @param clusterPacket the cluster internal message.
 	 * @return {@code true}, if the cluster internal message is large enough,
 	 *         {@code false}, if it is too short.
 	 */
 	protected boolean ensureLength(Byte type, DatagramPacket clusterPacket) {
 		int length = clusterPacket.getLength();
+		if (RECORD_TYPE_INCOMING_BATCH.equals(type)) {
+			return length > CLUSTER_BATCH_OFFSET + getClusterMacLength() + CLUSTER_BATCH_RECORD_HEADER_LENGTH
+					+ MIN_ADDRESS_LENGTH + Record.DTLS_HANDSHAKE_HEADER_LENGTH;
+		}
 		if (length < (CLUSTER_ADDRESS_OFFSET + MIN_ADDRESS_LENGTH + Record.DTLS_HANDSHAKE_HEADER_LENGTH)) {
 			return false;
 		}
@@ -403,13 +746,18 @@ public class DtlsClusterConnector extends DTLSConnector {
 	/**
 	 * Process received cluster internal message.
 	 * 
-	 * @param type cluster record type. {@link #RECORD_TYPE_INCOMING} or
-	 *            {@link #RECORD_TYPE_OUTGOING}.
+	 * @param type cluster record type. {@link #RECORD_TYPE_INCOMING},
+	 *            {@link #RECORD_TYPE_OUTGOING}, or
+	 *            {@link #RECORD_TYPE_INCOMING_BATCH}.
 	 * @param clusterPacket cluster internal message
 	 * @throws IOException if an io-error occurred.
 	 */
 	protected void processDatagramFromClusterNetwork(Byte type, DatagramPacket clusterPacket) throws IOException {
 		InetSocketAddress router = (InetSocketAddress) clusterPacket.getSocketAddress();
+		if (RECORD_TYPE_INCOMING_BATCH.equals(type)) {
+			processBatchFromClusterNetwork(router, clusterPacket);
+			return;
+		}
 		DatagramPacket packet = decode(clusterPacket);
 		if (packet == null) {
 			// nothing to do
@@ -433,6 +781,58 @@ public class DtlsClusterConnector extends DTLSConnector {
 		}
 	}
 
+	/**
+	 * Process received batch of forwarded records.
+	 * 
+	 * Passes the records to the DTLS processing without copying them.
+	 * 
+	 * @param router address of the cluster node, which forwarded the batch
+	 * @param clusterPacket cluster internal message with batch
+	 * @since 3.8
+	 */
+	private void processBatchFromClusterNetwork(InetSocketAddress router, DatagramPacket clusterPacket) {
+		byte[] data = clusterPacket.getData();
+		int offset = clusterPacket.getOffset();
+		int end = offset + clusterPacket.getLength();
+		int position = offset + CLUSTER_BATCH_OFFSET + getClusterMacLength();
+		DatagramPacket packet = new DatagramPacket(data, 0);
+		while (position + CLUSTER_BATCH_RECORD_HEADER_LENGTH < end) {
+			int port = (data[position] & 0xff) | ((data[position + 1] & 0xff) << 8);
+			int addressLength = data[position + 2] & 0xff;
+			position += 3;
+			if (addressLength < MIN_ADDRESS_LENGTH || addressLength > MAX_ADDRESS_LENGTH
+					|| position + addressLength + 2 > end) {
+				break;
+			}
+			byte[] address = Arrays.copyOfRange(data, position, position + addressLength);
+			position += addressLength;
+			int length = (data[position] & 0xff) | ((data[position + 1] & 0xff) << 8);
+			position += 2;
+			if (position + length > end) {
+				break;
+			}
+			try {
+				packet.setAddress(InetAddress.getByAddress(address));
+				packet.setPort(port);
+				packet.setData(data, position, length);
+			} catch (UnknownHostException e) {
+				break;
+			}
+			position += length;
+			LOGGER.trace("cluster-node {}: received forwarded message of batch", getNodeID());
+			super.processDatagram(packet, router);
+			if (clusterHealth != null) {
+				clusterHealth.processForwardedMessage();
+			}
+		}
+		if (position != end) {
+			FILTER.debug("cluster-node {}: received broken batch from {}", getNodeID(), StringUtil.toLog(router));
+			if (clusterHealth != null) {
+				clusterHealth.dropForwardMessage();
+			}
+		}
+	}
+
 	/**
 	 * Process cluster internal management message.
 	 * 
@@ -475,11 +875,26 @@ public class DtlsClusterConnector extends DTLSConnector {
 				ConnectionId cid = Record.readConnectionIdFromReader(reader, connectionIdGenerator);
 				if (cid != null) {
 					int incomingNodeId = nodeCidGenerator.getNodeId(cid);
-					if (getNodeID() != incomingNodeId) {
+					Connection connection = null;
+					if (getNodeID() != incomingNodeId && consistentHashCidGenerator != null) {
+						connection = clusterConnectionStore.get(cid);
+					}
+					if (connection != null && !connection.isFrozen()) {
+						// not migrated connection
+						LOGGER.trace("cluster-node {}: received message for not migrated connection from {}",
+								getNodeID(), StringUtil.toLog(source));
+					} else if (getNodeID() != incomingNodeId) {
 						LOGGER.trace("cluster-node {}: received foreign message for {} from {}", getNodeID(),
 								incomingNodeId, StringUtil.toLog(source));
 						InetSocketAddress clusterNode = nodesProvider.getClusterNode(incomingNodeId);
-						if (clusterNode != null) {
+						if (clusterNode != null && forwardBatchDelayNanos > 0 && forwardBatch(clusterNode, packet)) {
+							LOGGER.trace("cluster-node {}: forwards received message from {} to {} in batch, {} bytes",
+									getNodeID(), StringUtil.toLog(source), StringUtil.toLog(clusterNode), length);
+							if (clusterHealth != null) {
+								clusterHealth.forwardMessage();
+							}
+							return;
+						} else if (clusterNode != null) {
 							DatagramPacket clusterPacket = encode(RECORD_TYPE_INCOMING, packet, null);
 							clusterPacket.setSocketAddress(clusterNode);
 							try {
@@ -525,6 +940,28 @@ public class DtlsClusterConnector extends DTLSConnector {
 		super.processDatagram(packet, null);
 	}
 
+	/**
+	 * Add record to batch for cluster node.
+	 * 
+	 * @param clusterNode cluster internal address of node
+	 * @param packet received record
+	 * @return {@code true}, if the record is added to the batch,
+	 *         {@code false}, if the record must be forwarded with a separate
+	 *         datagram.
+	 * @since 3.8
+	 */
+	private boolean forwardBatch(InetSocketAddress clusterNode, DatagramPacket packet) {
+		ForwardBatch batch = forwardBatches.get(clusterNode);
+		if (batch == null) {
+			batch = new ForwardBatch(clusterNode);
+			ForwardBatch previous = forwardBatches.putIfAbsent(clusterNode, batch);
+			if (previous != null) {
+				batch = previous;
+			}
+		}
+		return batch.add(packet);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -640,6 +1077,133 @@ public class DtlsClusterConnector extends DTLSConnector {
 		}
 	}
 
+	/**
+	 * Batch of forwarded records for a cluster node.
+	 * 
+	 * The buffer is reused for all batches of the cluster node. The batch is
+	 * sent, if the buffer is full or the delay expires.
+	 * 
+	 * @since 3.8
+	 */
+	private class ForwardBatch implements Runnable {
+
+		/**
+		 * Cluster internal address of node.
+		 */
+		private final InetSocketAddress clusterNode;
+		/**
+		 * Buffer for batch.
+		 */
+		private final byte[] buffer;
+		/**
+		 * Packet to send the batch.
+		 */
+		private final DatagramPacket clusterPacket;
+		/**
+		 * Length of batch header. Type and cluster MAC.
+		 */
+		private final int headerLength;
+		/**
+		 * Current length of batch.
+		 */
+		private int length;
+		/**
+		 * Number of records in batch.
+		 */
+		private int records;
+		/**
+		 * Indicates, that sending the batch is scheduled.
+		 */
+		private boolean scheduled;
+
+		private ForwardBatch(InetSocketAddress clusterNode) {
+			this.clusterNode = clusterNode;
+			this.buffer = new byte[inboundDatagramBufferSize + MAX_DATAGRAM_OFFSET];
+			this.clusterPacket = new DatagramPacket(buffer, buffer.length);
+			this.headerLength = CLUSTER_BATCH_OFFSET + getClusterMacLength();
+			this.length = headerLength;
+		}
+
+		/**
+		 * Add record to batch.
+		 * 
+		 * Sends the current batch, if the record doesn't fit into it.
+		 * 
+		 * @param packet received record
+		 * @return {@code true}, if added, {@code false}, if the record doesn't
+		 *         fit into a batch.
+		 */
+		private synchronized boolean add(DatagramPacket packet) {
+			byte[] address = packet.getAddress().getAddress();
+			int recordLength = packet.getLength();
+			int entryLength = CLUSTER_BATCH_RECORD_HEADER_LENGTH + address.length + recordLength;
+			if (headerLength + entryLength > buffer.length) {
+				return false;
+			}
+			if (length + entryLength > buffer.length) {
+				send();
+			}
+			int port = packet.getPort();
+			buffer[length++] = (byte) port;
+			buffer[length++] = (byte) (port >> 8);
+			buffer[length++] = (byte) address.length;
+			System.arraycopy(address, 0, buffer, length, address.length);
+			length += address.length;
+			buffer[length++] = (byte) recordLength;
+			buffer[length++] = (byte) (recordLength >> 8);
+			System.arraycopy(packet.getData(), packet.getOffset(), buffer, length, recordLength);
+			length += recordLength;
+			++records;
+			if (!scheduled) {
+				try {
+					timer.schedule(this, forwardBatchDelayNanos, TimeUnit.NANOSECONDS);
+					scheduled = true;
+				} catch (RejectedExecutionException ex) {
+					send();
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public void run() {
+			synchronized (this) {
+				scheduled = false;
+				send();
+			}
+			ClusterNodesProvider nodes = nodesProvider;
+			if (nodes != null && !nodes.available(clusterNode) && forwardBatches.remove(clusterNode, this)) {
+				// node not longer provided, prune batch
+				LOGGER.debug("cluster-node {}: removed batch for {}", getNodeID(), StringUtil.toLog(clusterNode));
+			}
+		}
+
+		/**
+		 * Send current batch and reset it.
+		 */
+		private void send() {
+			if (records == 0) {
+				return;
+			}
+			buffer[0] = RECORD_TYPE_INCOMING_BATCH;
+			clusterPacket.setData(buffer, 0, length);
+			clusterPacket.setSocketAddress(clusterNode);
+			try {
+				sendDatagramToClusterNetwork(clusterPacket);
+			} catch (IOException e) {
+				LOGGER.info("cluster-node {}: error forwarding batch of {} records to {}:", getNodeID(), records,
+						StringUtil.toLog(clusterNode), e);
+				if (clusterHealth != null) {
+					for (int index = 0; index < records; ++index) {
+						clusterHealth.dropForwardMessage();
+					}
+				}
+			}
+			length = headerLength;
+			records = 0;
+		}
+	}
+
 	/**
 	 * Cluster nodes provider. Maintaining internal addresses of nodes.
 	 * 
@@ -664,4 +1228,30 @@ public class DtlsClusterConnector extends DTLSConnector {
 		 */
 		boolean available(InetSocketAddress destinationConnector);
 	}
+
+	/**
+	 * Handler to migrate connections to other cluster nodes.
+	 * 
+	 * @since 3.8
+	 */
+	public static interface ConnectionMigrationHandler {
+
+		/**
+		 * Migrate connection to other node.
+		 * 
+		 * Implementations are intended to return immediately, the migration
+		 * itself is asynchronous. The other node is intended to call
+		 * {@link DtlsClusterConnector#restoreMigratedConnection(byte[])} and
+		 * to acknowledge the restored connection, which is then passed to
+		 * {@link DtlsClusterConnector#completeConnectionMigration(ConnectionId)}
+		 * on this node.
+		 * 
+		 * @param nodeId node-id of the new owner of the connection
+		 * @param connection serialized connection. Contains the keys! Cleared
+		 *            after this method returns.
+		 * @return {@code true}, if the connection is passed to the other node,
+		 *         {@code false}, to keep it on this node.
+		 */
+		boolean migrate(int nodeId, byte[] connection);
+	}
 }
@@ -23,6 +23,7 @@ import org.eclipse.californium.elements.util.CounterStatisticManager;
 import org.eclipse.californium.elements.util.NoPublicAPI;
 import org.eclipse.californium.elements.util.SimpleCounterStatistic;
 import org.eclipse.californium.elements.util.StringUtil;
+import org.eclipse.californium.elements.util.ThreadLocalByteArrayPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -137,6 +138,7 @@ public class DtlsHealthLogger extends CounterStatisticManager
 					log.append(eol).append(head).append(pendingIncoming);
 					log.append(eol).append(head).append(pendingOutgoing);
 					log.append(eol).append(head).append(pendingHandshakeJobs);
+					log.append(eol).append(head).append(ThreadLocalByteArrayPool.getStatistic());
 					dump(head, log);
 					LOGGER.debug("{}", log);
 				}
@@ -181,6 +183,7 @@ public class DtlsHealthLogger extends CounterStatisticManager
 					log.append(eol).append(head).append(pendingIncoming);
 					log.append(eol).append(head).append(pendingOutgoing);
 					log.append(eol).append(head).append(pendingHandshakeJobs);
+					log.append(eol).append(head).append(ThreadLocalByteArrayPool.getStatistic());
 					dump(head, log);
 					LOGGER.debug("{}", log);
 				}
@@ -287,7 +287,16 @@ public class DtlsManagedClusterConnector extends DtlsClusterConnector {
 				if (mac == null) {
 					throw new IOException("Cluster MAC could not be validated! Missing keys.");
 				}
-				if (!validateClusterMac(mac, clusterPacket)) {
+				if (RECORD_TYPE_INCOMING_BATCH.equals(type)) {
+					if (!validateClusterBatchMac(mac, clusterPacket)) {
+						LOGGER.info("cluster-node {} ({}): drop internal batch, cluster MAC failure!", getNodeID(),
+								protocol);
+						if (clusterHealth != null) {
+							clusterHealth.badForwardMessage();
+						}
+						return;
+					}
+				} else if (!validateClusterMac(mac, clusterPacket)) {
 					if (LOGGER.isInfoEnabled()) {
 						byte[] mac2 = Arrays.copyOf(calculateClusterMac(mac, clusterPacket), CLUSTER_MAC_LENGTH);
 						byte[] data = clusterPacket.getData();
@@ -334,7 +343,12 @@ public class DtlsManagedClusterConnector extends DtlsClusterConnector {
 				if (mac == null) {
 					throw new IOException("Cluster MAC could not be generated! Missing keys.");
 				}
-				setClusterMac(mac, clusterPacket);
+				if (clusterPacket.getData()[clusterPacket.getOffset()
+						+ CLUSTER_RECORD_TYPE_OFFSET] == RECORD_TYPE_INCOMING_BATCH) {
+					setClusterBatchMac(mac, clusterPacket);
+				} else {
+					setClusterMac(mac, clusterPacket);
+				}
 			} catch (RuntimeException ex) {
 				LOGGER.debug("cluster-node {} ({}): sending failed!", getNodeID(), protocol, ex);
 				throw new IOException("Cluster MAC could not be generated!", ex);
@@ -412,6 +426,66 @@ public class DtlsManagedClusterConnector extends DtlsClusterConnector {
 		}
 	}
 
+	/**
+	 * Validate cluster MAC in batch of forwarded records.
+	 * 
+	 * @param mac initialized Mac
+	 * @param clusterPacket packet with batch
+	 * @return {@code true}, if MAC is valid, {@code false}, otherwise.
+	 * @since 3.8
+	 */
+	public static boolean validateClusterBatchMac(Mac mac, DatagramPacket clusterPacket) {
+		byte[] macBytes = calculateClusterBatchMac(mac, clusterPacket);
+		byte[] data = clusterPacket.getData();
+		int macOffset = clusterPacket.getOffset() + CLUSTER_BATCH_OFFSET;
+		int diffs = 0;
+		for (int index = 0; index < CLUSTER_MAC_LENGTH; ++index) {
+			if (macBytes[index] != data[macOffset + index]) {
+				++diffs;
+			}
+		}
+		return diffs == 0;
+	}
+
+	/**
+	 * Set cluster MAC in batch of forwarded records.
+	 * 
+	 * @param mac initialized Mac
+	 * @param clusterPacket packet with batch
+	 * @since 3.8
+	 */
+	public static void setClusterBatchMac(Mac mac, DatagramPacket clusterPacket) {
+		byte[] macBytes = calculateClusterBatchMac(mac, clusterPacket);
+		System.arraycopy(macBytes, 0, clusterPacket.getData(), clusterPacket.getOffset() + CLUSTER_BATCH_OFFSET,
+				CLUSTER_MAC_LENGTH);
+	}
+
+	/**
+	 * Calculates MAC for batch of forwarded records.
+	 * 
+	 * One MAC protects all records of the batch including their original
+	 * addresses.
+	 * 
+	 * @param mac initialized MAC.
+	 * @param clusterPacket batch of forwarded records
+	 * @return calculated MAC
+	 * @throws IllegalArgumentException if batch is too small
+	 * @since 3.8
+	 */
+	public static byte[] calculateClusterBatchMac(Mac mac, DatagramPacket clusterPacket) {
+		byte[] data = clusterPacket.getData();
+		int offset = clusterPacket.getOffset();
+		int length = clusterPacket.getLength();
+		int headerOffset = CLUSTER_BATCH_OFFSET + CLUSTER_MAC_LENGTH;
+		if (headerOffset < length) {
+			mac.update(data, offset, CLUSTER_BATCH_OFFSET);
+			mac.update(data, offset + headerOffset, length - headerOffset);
+			return mac.doFinal();
+		} else {
+			throw new IllegalArgumentException(length + " bytes is too small for cluster MAC batch!");
+		}
+	}
+
 	@Override
 	protected void processManagementDatagramFromClusterNetwork(DatagramPacket clusterPacket) throws IOException {
 		LOGGER.trace("cluster-node {} ({}): process datagram from {}, {} bytes", getNodeID(), protocol,
@@ -16,6 +16,7 @@
 package org.eclipse.californium.scandium.config;
 
 import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
 
 import javax.crypto.SecretKey;
 
@@ -54,6 +55,13 @@ public final class DtlsClusterConnectorConfig {
 	 * Send outgoing messages back via original receiving connector (router).
 	 */
 	private Boolean backwardMessages;
+	/**
+	 * Delay in nanoseconds to collect forwarded records into batches.
+	 * {@code 0} to forward each record with a separate datagram.
+	 * 
+	 * @since 3.8
+	 */
+	private long forwardBatchDelayNanos;
 
 	/**
 	 * Get local socket address for internal cluster connector.
@@ -105,6 +113,18 @@ public final class DtlsClusterConnectorConfig {
 		return backwardMessages;
 	}
 
+	/**
+	 * Get delay to collect forwarded records into batches.
+	 * 
+	 * @param unit time unit of the result
+	 * @return delay to collect forwarded records into batches. {@code 0}, if
+	 *         each record is forwarded with a separate datagram.
+	 * @since 3.8
+	 */
+	public long getForwardBatchDelay(TimeUnit unit) {
+		return unit.convert(forwardBatchDelayNanos, TimeUnit.NANOSECONDS);
+	}
+
 	/**
 	 * @return a copy of this configuration
 	 */
@@ -116,6 +136,7 @@ public final class DtlsClusterConnectorConfig {
 		cloned.secret = SecretUtil.create(secret);
 		cloned.clusterMac = clusterMac;
 		cloned.backwardMessages = backwardMessages;
+		cloned.forwardBatchDelayNanos = forwardBatchDelayNanos;
 		return cloned;
 	}
 
@@ -234,6 +255,29 @@ public final class DtlsClusterConnectorConfig {
 			return this;
 		}
 
+		/**
+		 * Set delay to collect forwarded records into batches.
+		 * 
+		 * Forwarding records in batches reduces the number of cluster
+		 * internal datagrams and the number of MAC calculations. The delay
+		 * adds latency to the forwarded records. All nodes of the cluster must
+		 * support batches, if used.
+		 * 
+		 * @param delay delay to collect forwarded records. {@code 0} to
+		 *            forward each record with a separate datagram.
+		 * @param unit time unit of the delay
+		 * @return this builder for command chaining
+		 * @throws IllegalArgumentException if delay is negative
+		 * @since 3.8
+		 */
+		public Builder setForwardBatchDelay(long delay, TimeUnit unit) {
+			if (delay < 0) {
+				throw new IllegalArgumentException("Delay " + delay + " must not be negative!");
+			}
+			config.forwardBatchDelayNanos = unit.toNanos(delay);
+			return this;
+		}
+
 		/**
 		 * Returns a potentially incomplete configuration. Only fields set by
 		 * users are affected, there is no default value, no consistency check.
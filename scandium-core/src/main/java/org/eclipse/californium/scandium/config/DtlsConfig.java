@@ -20,6 +20,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+
 import org.eclipse.californium.elements.DtlsEndpointContext;
 import org.eclipse.californium.elements.config.BasicListDefinition;
 import org.eclipse.californium.elements.config.BooleanDefinition;
@@ -30,10 +33,13 @@ import org.eclipse.californium.elements.config.EnumDefinition;
 import org.eclipse.californium.elements.config.EnumListDefinition;
 import org.eclipse.californium.elements.config.FloatDefinition;
 import org.eclipse.californium.elements.config.IntegerDefinition;
+import org.eclipse.californium.elements.config.StringDefinition;
 import org.eclipse.californium.elements.config.StringSetDefinition;
 import org.eclipse.californium.elements.config.SystemConfig;
 import org.eclipse.californium.elements.config.TimeDefinition;
 import org.eclipse.californium.elements.config.ValueException;
+import org.eclipse.californium.elements.util.ExecutorsUtil;
+import org.eclipse.californium.elements.util.ThreadLocalByteArrayPool;
 import org.eclipse.californium.scandium.DTLSConnector;
 import org.eclipse.californium.scandium.DtlsDatagramFilter;
 import org.eclipse.californium.scandium.config.DtlsConnectorConfig.Builder;
@@ -41,12 +47,15 @@ import org.eclipse.californium.scandium.dtls.CertificateMessage;
 import org.eclipse.californium.scandium.dtls.CertificateRequest;
 import org.eclipse.californium.scandium.dtls.ExtendedMasterSecretMode;
 import org.eclipse.californium.scandium.dtls.HelloVerifyRequest;
+import org.eclipse.californium.scandium.dtls.JournalConnectionStore;
 import org.eclipse.californium.scandium.dtls.MaxFragmentLengthExtension.Length;
+import org.eclipse.californium.scandium.dtls.OffHeapConnectionStore;
 import org.eclipse.californium.scandium.dtls.Record;
 import org.eclipse.californium.scandium.dtls.RecordLayer;
 import org.eclipse.californium.scandium.dtls.SignatureAndHashAlgorithm;
 import org.eclipse.californium.scandium.dtls.cipher.CipherSuite;
 import org.eclipse.californium.scandium.dtls.cipher.CipherSuite.CertificateKeyAlgorithm;
+import org.eclipse.californium.scandium.dtls.cipher.XECDHEKeyPairPool;
 import org.eclipse.californium.scandium.dtls.cipher.XECDHECryptography.SupportedGroup;
 import org.eclipse.californium.scandium.dtls.resumption.ResumptionVerifier;
 
@@ -416,6 +425,18 @@ public final class DtlsConfig {
 	 */
 	public static final BooleanDefinition DTLS_USE_MULTI_RECORD_MESSAGES = new BooleanDefinition(
 			MODULE + "USE_MULTI_RECORD_MESSAGES", "Use multiple DTLS records in UDP messages.");
+	/**
+	 * Enable to use multiple DTLS application data records in UDP messages.
+	 * 
+	 * Outgoing application records, which are pending for the same connection,
+	 * are sent together in one UDP message up to the maximum datagram size.
+	 * 
+	 * @since 3.8
+	 */
+	public static final BooleanDefinition DTLS_USE_MULTI_APPLICATION_DATA_RECORDS = new BooleanDefinition(
+			MODULE + "USE_MULTI_APPLICATION_DATA_RECORDS",
+			"Use multiple DTLS application data records in UDP messages.", false);
+
 	/**
 	 * Enable to use multiple DTLS records in UDP messages.
 	 */
@@ -603,6 +624,21 @@ public final class DtlsConfig {
 	 */
 	public static final IntegerDefinition DTLS_RECEIVER_THREAD_COUNT = new IntegerDefinition(
 			MODULE + "RECEIVER_THREAD_COUNT", "Number of DTLS receiver threads.", 1, 0);
+	/**
+	 * Use a separate socket bound with {@code SO_REUSEPORT} for each receiver
+	 * thread of a {@link DTLSConnector}.
+	 * 
+	 * The kernel distributes the received datagrams by the hash of the
+	 * addresses and ports over the sockets. That keeps the order of the
+	 * records of a peer. Requires java 9 or newer and a supporting platform,
+	 * otherwise a single socket is used.
+	 * 
+	 * @see #DTLS_RECEIVER_THREAD_COUNT
+	 * @since 3.8
+	 */
+	public static final BooleanDefinition DTLS_RECEIVER_REUSE_PORT = new BooleanDefinition(
+			MODULE + "RECEIVER_REUSE_PORT", "Use a separate SO_REUSEPORT socket for each DTLS receiver thread.",
+			false);
 	/**
 	 * Specify the number of connector threads used by a {@link DTLSConnector}.
 	 * The connector threads are responsible for the most cryptographic
@@ -610,6 +646,55 @@ public final class DtlsConfig {
 	 */
 	public static final IntegerDefinition DTLS_CONNECTOR_THREAD_COUNT = new IntegerDefinition(
 			MODULE + "CONNECTOR_THREAD_COUNT", "Number of DTLS connector threads.", 1, 0);
+	/**
+	 * Use virtual threads for the connector threads of a {@link DTLSConnector}.
+	 * 
+	 * Requires java 21 or newer. If virtual threads are not supported, the
+	 * {@link #DTLS_CONNECTOR_THREAD_COUNT} is used instead.
+	 * 
+	 * <b>Note:</b> a new virtual thread is used for each task. Thread local
+	 * caches are therefore not reused across tasks. The {@link Cipher}s and
+	 * {@link Mac}s used to encrypt and decrypt records are taken from small
+	 * shared pools instead. Other thread local caches of cryptographic
+	 * functions, e.g. used for handshakes, are initialized for each task
+	 * again. The {@link ThreadLocalByteArrayPool} is bypassed. Virtual threads
+	 * are intended for setups, where the connector threads are blocked, e.g.
+	 * by custom stores.
+	 * 
+	 * @see ExecutorsUtil#isVirtualThreadSupported()
+	 * @since 3.8
+	 */
+	public static final BooleanDefinition DTLS_USE_VIRTUAL_THREADS = new BooleanDefinition(
+			MODULE + "USE_VIRTUAL_THREADS",
+			"Use virtual threads for the DTLS connector threads. Requires java 21.", false);
+	/**
+	 * Specify the number of pre-generated ephemeral key pairs per supported
+	 * group for the ECDHE key exchange.
+	 * 
+	 * The key pairs are generated in advance by the connector's executor and
+	 * flatten the processing time of handshake bursts. Each key pair is used
+	 * only once. {@code 0} to generate the key pairs on demand.
+	 * 
+	 * @see XECDHEKeyPairPool
+	 * @since 3.8
+	 */
+	public static final IntegerDefinition DTLS_ECDHE_KEY_PAIR_POOL_SIZE = new IntegerDefinition(
+			MODULE + "ECDHE_KEY_PAIR_POOL_SIZE",
+			"Number of pre-generated ECDHE key pairs per supported group. 0 to generate them on demand.", 0, 0);
+
+	/**
+	 * Specify the tick of the hashed wheel timer used for the DTLS timers.
+	 * 
+	 * A hashed wheel timer schedules and cancels retransmissions in
+	 * {@code O(1)}, but executes them with the precision of the tick only.
+	 * {@code 0} to use a scheduled thread pool executor instead.
+	 * 
+	 * @see ExecutorsUtil#newHashedWheelTimer
+	 * @since 3.8
+	 */
+	public static final TimeDefinition DTLS_TIMER_WHEEL_TICK = new TimeDefinition(MODULE + "TIMER_WHEEL_TICK",
+			"DTLS hashed wheel timer tick. 0 to use a scheduled thread pool executor.", 0L,
+			TimeUnit.MILLISECONDS);
 	/**
 	 * Specify the DTLS receive buffer size used for
 	 * {@link DatagramSocket#setReceiveBufferSize(int)}. {@code null} or
@@ -893,6 +978,62 @@ public final class DtlsConfig {
 	public static final BooleanDefinition DTLS_READ_WRITE_LOCK_CONNECTION_STORE = new BooleanDefinition(
 			MODULE + "READ_WRITE_LOCK_CONNECTION_STORE", "Use read-write-lock connection store.", false);
 
+	/**
+	 * Decrypt application records of established connections in parallel.
+	 * 
+	 * The records are decrypted using the shared executor of the connector.
+	 * Only the stateful processing, e.g. the update of the receive window, is
+	 * executed by the serial executor of the connection. Records of the same
+	 * datagram are kept in order, records of different datagrams may be
+	 * reordered. The
+	 * {@link org.eclipse.californium.scandium.DatagramFilter#onReceiving(org.eclipse.californium.scandium.dtls.Record, org.eclipse.californium.scandium.dtls.Connection)}
+	 * is called by the decrypting threads before the records are decrypted.
+	 * Records, which are decrypted with a DTLS context, which is replaced
+	 * before the records are processed, are dropped.
+	 * 
+	 * @since 3.8
+	 */
+	public static final BooleanDefinition DTLS_PARALLEL_RECORD_DECRYPTION = new BooleanDefinition(
+			MODULE + "PARALLEL_RECORD_DECRYPTION",
+			"Decrypt application records of established connections in parallel.", false);
+
+	/**
+	 * Hot set size of the off-heap connection store.
+	 * 
+	 * If the number of connections exceeds this size, the least recently
+	 * updated connections are serialized and kept off-heap until they are used
+	 * again. {@code 0} to disable the off-heap connection store. Requires
+	 * enabled {@link #DTLS_READ_WRITE_LOCK_CONNECTION_STORE}.
+	 * 
+	 * @see OffHeapConnectionStore
+	 * @since 3.8
+	 */
+	public static final IntegerDefinition DTLS_OFF_HEAP_HOT_SET_SIZE = new IntegerDefinition(
+			MODULE + "OFF_HEAP_HOT_SET_SIZE",
+			"Hot set size of the off-heap connection store. 0 to disable the off-heap connection store.\n"
+					+ "Requires a read-write-lock connection store.",
+			0, 0);
+
+	/**
+	 * Directory of the connection journal.
+	 * 
+	 * If provided, the connections are persisted incrementally into a
+	 * memory-mapped journal within that directory and loaded on start.
+	 * {@code null} to disable the journal. Requires enabled
+	 * {@link #DTLS_READ_WRITE_LOCK_CONNECTION_STORE} and disabled
+	 * {@link #DTLS_OFF_HEAP_HOT_SET_SIZE}.
+	 * 
+	 * <b>Note:</b> the journal contains not encrypted critical credentials.
+	 * It is required to protect the directory.
+	 * 
+	 * @see JournalConnectionStore
+	 * @since 3.8
+	 */
+	public static final StringDefinition DTLS_CONNECTION_JOURNAL_DIRECTORY = new StringDefinition(
+			MODULE + "CONNECTION_JOURNAL_DIRECTORY",
+			"Directory of the connection journal. Empty to disable the connection journal.\n"
+					+ "Requires a read-write-lock connection store without off-heap hot set.");
+
 	/**
 	 * Quiet time for DTLS MAC error filter.
 	 * 
@@ -987,6 +1128,7 @@ public final class DtlsConfig {
 			config.set(DTLS_MAX_FRAGMENT_LENGTH, null);
 			config.set(DTLS_MAX_FRAGMENTED_HANDSHAKE_MESSAGE_LENGTH, DEFAULT_MAX_FRAGMENTED_HANDSHAKE_MESSAGE_LENGTH);
 			config.set(DTLS_USE_MULTI_RECORD_MESSAGES, null);
+			config.set(DTLS_USE_MULTI_APPLICATION_DATA_RECORDS, false);
 			config.set(DTLS_USE_MULTI_HANDSHAKE_MESSAGE_RECORDS, null);
 			config.set(DTLS_CLIENT_AUTHENTICATION_MODE, CertificateAuthenticationMode.NEEDED);
 			config.set(DTLS_VERIFY_SERVER_CERTIFICATES_SUBJECT, true);
@@ -1005,7 +1147,11 @@ public final class DtlsConfig {
 			config.set(DTLS_MAX_DEFERRED_INBOUND_RECORDS_SIZE, DEFAULT_MAX_DEFERRED_PROCESSED_INCOMING_RECORDS_SIZE);
 
 			config.set(DTLS_RECEIVER_THREAD_COUNT, CORES > 3 ? 2 : 1);
+			config.set(DTLS_RECEIVER_REUSE_PORT, false);
 			config.set(DTLS_CONNECTOR_THREAD_COUNT, CORES);
+			config.set(DTLS_USE_VIRTUAL_THREADS, false);
+			config.set(DTLS_TIMER_WHEEL_TICK, 0, TimeUnit.MILLISECONDS);
+			config.set(DTLS_ECDHE_KEY_PAIR_POOL_SIZE, 0);
 			config.set(DTLS_RECEIVE_BUFFER_SIZE, null);
 			config.set(DTLS_SEND_BUFFER_SIZE, null);
 			config.set(DTLS_USE_SERVER_NAME_INDICATION, false);
@@ -1032,6 +1178,9 @@ public final class DtlsConfig {
 			config.set(DTLS_USE_DEFAULT_RECORD_FILTER, true);
 			config.set(DTLS_REMOVE_STALE_DOUBLE_PRINCIPALS, false);
 			config.set(DTLS_READ_WRITE_LOCK_CONNECTION_STORE, false);
+			config.set(DTLS_OFF_HEAP_HOT_SET_SIZE, 0);
+			config.set(DTLS_CONNECTION_JOURNAL_DIRECTORY, null);
+			config.set(DTLS_PARALLEL_RECORD_DECRYPTION, false);
 			config.set(DTLS_MAC_ERROR_FILTER_QUIET_TIME, 0, TimeUnit.SECONDS);
 			config.set(DTLS_MAC_ERROR_FILTER_THRESHOLD, 0);
 		}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ ******************************************************************************/
+package org.eclipse.californium.scandium.dtls;
+
+import java.security.PublicKey;
+import java.security.cert.X509Certificate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.security.auth.x500.X500Principal;
+
+import org.eclipse.californium.elements.util.LeastRecentlyUpdatedCache;
+import org.eclipse.californium.elements.util.NoPublicAPI;
+import org.eclipse.californium.scandium.dtls.CertificateRequest.EncodedAuthorities;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache for the encodings of the server's certificate related handshake
+ * messages.
+ *
+ * Servers send the same identity and the same list of accepted issuers on
+ * every full handshake. This cache keeps the encodings of the
+ * {@link CertificateMessage} and of the certificate authorities of the
+ * {@link CertificateRequest} in order to reuse them. The cache is intended to
+ * be scoped to a connector and so to its configured identities and trusted
+ * issuers.
+ *
+ * @since 3.8
+ */
+@NoPublicAPI
+public final class CertificateEncodingCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CertificateEncodingCache.class);
+
+	/**
+	 * Maximum number of cached server identities.
+	 */
+	private static final int MAX_CACHED_IDENTITIES = 16;
+
+	/**
+	 * Cache of encoded certificate messages.
+	 *
+	 * The key is either the certificate chain or the public key of the
+	 * identity. A rotated certificate results in a new key and the entry of
+	 * the previous identity gets evicted, when it's stale.
+	 */
+	private final LeastRecentlyUpdatedCache<Object, CertificateMessage> certificateMessages = new LeastRecentlyUpdatedCache<>(
+			MAX_CACHED_IDENTITIES, MAX_CACHED_IDENTITIES, 1, TimeUnit.MINUTES);
+
+	/**
+	 * Encoded certificate authorities of the last request.
+	 *
+	 * A changed list of accepted issuers replaces this entry.
+	 */
+	private volatile EncodedAuthorities lastAuthorities;
+
+	/**
+	 * Creates a <em>CERTIFICATE</em> message containing a certificate chain.
+	 *
+	 * The encoding of the message is cached per certificate chain and reused
+	 * for all handshakes using the same identity.
+	 *
+	 * @param certificateChain the certificate chain with the (first
+	 *            certificate must be the server's)
+	 * @return the certificate message
+	 * @throws NullPointerException if the certificate chain is {@code null}
+	 * @see CertificateMessage#CertificateMessage(List)
+	 */
+	public CertificateMessage getCertificateMessage(List<X509Certificate> certificateChain) {
+		if (certificateChain == null) {
+			throw new NullPointerException("Certificate chain must not be null!");
+		}
+		CertificateMessage template = certificateMessages.get(certificateChain);
+		if (template == null) {
+			template = cache(certificateChain, new CertificateMessage(certificateChain));
+		}
+		return template.share();
+	}
+
+	/**
+	 * Creates a <em>CERTIFICATE</em> message containing a raw public key.
+	 *
+	 * The encoding of the message is cached per public key and reused for all
+	 * handshakes using the same identity.
+	 *
+	 * @param publicKey the public key, {@code null} for an empty
+	 *            <em>CERTIFICATE</em> message
+	 * @return the certificate message
+	 * @see CertificateMessage#CertificateMessage(PublicKey)
+	 */
+	public CertificateMessage getCertificateMessage(PublicKey publicKey) {
+		if (publicKey == null) {
+			return new CertificateMessage();
+		}
+		CertificateMessage template = certificateMessages.get(publicKey);
+		if (template == null) {
+			template = cache(publicKey, new CertificateMessage(publicKey));
+		}
+		return template.share();
+	}
+
+	/**
+	 * Adds the certificate authorities to the certificate request.
+	 *
+	 * The encoding of the last list of authorities is reused, if the provided
+	 * list matches that.
+	 *
+	 * @param request certificate request without certificate authorities
+	 * @param authorities authorities of the trusted certificates to add.
+	 * @return {@code false} if not all certificates could not be added
+	 *         because it would exceed the maximum encoded length allowed for
+	 *         the certificate request message's certificate authorities vector
+	 *         (2^16 - 1 bytes).
+	 * @throws IllegalStateException if the request contains already
+	 *             certificate authorities
+	 * @see CertificateRequest#addCerticiateAuthorities(List)
+	 */
+	public boolean addCertificateAuthorities(CertificateRequest request, List<X500Principal> authorities) {
+		EncodedAuthorities last = lastAuthorities;
+		if (last == null || !last.matches(authorities)) {
+			last = EncodedAuthorities.encode(authorities);
+			lastAuthorities = last;
+		}
+		return request.addCertificateAuthorities(last);
+	}
+
+	/**
+	 * Encode message and add it to the cache.
+	 *
+	 * If the cache is exhausted, the encoded message is used without caching
+	 * it.
+	 *
+	 * @param key key of the identity
+	 * @param message message to encode
+	 * @return encoded message
+	 */
+	private CertificateMessage cache(Object key, CertificateMessage message) {
+		CertificateMessage template = message.share();
+		if (!certificateMessages.put(key, template)) {
+			LOGGER.debug("certificate message cache exhausted!");
+		}
+		return template;
+	}
+}
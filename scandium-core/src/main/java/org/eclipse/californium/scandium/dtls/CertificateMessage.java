@@ -173,6 +173,13 @@ public final class CertificateMessage extends HandshakeMessage {
 	// bytes
 	private final int length;
 
+	/**
+	 * Encoded fragment of cached messages. {@code null}, if not cached.
+	 * 
+	 * @since 3.8
+	 */
+	private final byte[] fragment;
+
 	/**
 	 * Creates a empty <em>CERTIFICATE</em> message containing a empty
 	 * certificate chain.
@@ -235,6 +242,7 @@ public final class CertificateMessage extends HandshakeMessage {
 		}
 		this.rawPublicKeyBytes = null;
 		this.certPath = peerCertChain;
+		this.fragment = null;
 
 		List<? extends Certificate> certificates = peerCertChain.getCertificates();
 		int size = certificates.size();
@@ -274,6 +282,7 @@ public final class CertificateMessage extends HandshakeMessage {
 	 */
 	public CertificateMessage(PublicKey publicKey) {
 		this.publicKey = publicKey;
+		this.fragment = null;
 		if (publicKey == null) {
 			this.rawPublicKeyBytes = null;
 			this.certPath = EMPTY_CERT_PATH;
@@ -298,6 +307,38 @@ public final class CertificateMessage extends HandshakeMessage {
 		this(generateRawPublicKey(rawPublicKeyBytes));
 	}
 
+	/**
+	 * Creates a <em>CERTIFICATE</em> message sharing the content and the
+	 * encoding of the provided message.
+	 * 
+	 * @param template message to share content and encoding
+	 * @param fragment encoded fragment
+	 * @since 3.8
+	 */
+	private CertificateMessage(CertificateMessage template, byte[] fragment) {
+		this.certPath = template.certPath;
+		this.encodedChain = template.encodedChain;
+		this.rawPublicKeyBytes = template.rawPublicKeyBytes;
+		this.publicKey = template.publicKey;
+		this.length = template.length;
+		this.fragment = fragment;
+	}
+
+	/**
+	 * Creates a <em>CERTIFICATE</em> message sharing the content and the
+	 * encoding of this message.
+	 * 
+	 * Intended to reuse the encoding of the server's identity for all
+	 * handshakes. The message sequence number is not shared.
+	 * 
+	 * @return message sharing the encoded fragment with this message
+	 * @see CertificateEncodingCache
+	 * @since 3.8
+	 */
+	CertificateMessage share() {
+		return new CertificateMessage(this, fragmentToByteArray());
+	}
+
 	@Override
 	public HandshakeType getMessageType() {
 		return HandshakeType.CERTIFICATE;
@@ -391,6 +432,9 @@ public final class CertificateMessage extends HandshakeMessage {
 
 	@Override
 	public byte[] fragmentToByteArray() {
+		if (fragment != null) {
+			return fragment;
+		}
 		DatagramWriter writer = new DatagramWriter(getMessageLength());
 
 		if (rawPublicKeyBytes == null) {
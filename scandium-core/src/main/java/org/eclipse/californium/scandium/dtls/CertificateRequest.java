@@ -73,6 +73,12 @@ public final class CertificateRequest extends HandshakeMessage {
 	private final List<ClientCertificateType> certificateTypes = new ArrayList<>();
 	private final List<SignatureAndHashAlgorithm> supportedSignatureAlgorithms = new ArrayList<>();
 	private final List<X500Principal> certificateAuthorities = new ArrayList<>();
+	/**
+	 * Encoded certificate authorities.
+	 * 
+	 * @since 3.8
+	 */
+	private final List<byte[]> encodedCertificateAuthorities = new ArrayList<>();
 	private int certificateAuthoritiesEncodedLength = 0;
 
 	/**
@@ -167,9 +173,8 @@ public final class CertificateRequest extends HandshakeMessage {
 		}
 
 		writer.write(certificateAuthoritiesEncodedLength, CERTIFICATE_AUTHORITIES_LENGTH_BITS);
-		for (X500Principal distinguishedName : certificateAuthorities) {
+		for (byte[] encoded : encodedCertificateAuthorities) {
 			// since a distinguished name has variable length, we need to write length field for each name as well, has influence on total length!
-			byte[] encoded = distinguishedName.getEncoded();
 			writer.writeVarBytes(encoded, CERTIFICATE_AUTHORITY_LENGTH_BITS);
 		}
 
@@ -356,10 +361,12 @@ public final class CertificateRequest extends HandshakeMessage {
 		if (authority == null) {
 			throw new NullPointerException("authority must not be null");
 		}
+		byte[] encoded = authority.getEncoded();
 		int encodedAuthorityLength = (CERTIFICATE_AUTHORITY_LENGTH_BITS / Byte.SIZE) + // length field
-				authority.getEncoded().length;
+				encoded.length;
 		if (certificateAuthoritiesEncodedLength + encodedAuthorityLength <= MAX_LENGTH_CERTIFICATE_AUTHORITIES) {
 			certificateAuthorities.add(authority);
+			encodedCertificateAuthorities.add(encoded);
 			certificateAuthoritiesEncodedLength += encodedAuthorityLength;
 			return true;
 		} else {
@@ -391,6 +398,29 @@ public final class CertificateRequest extends HandshakeMessage {
 		return true;
 	}
 
+	/**
+	 * Adds already encoded certificate authorities.
+	 * 
+	 * @param authorities encoded authorities to add
+	 * @return {@code false} if not all certificates of the source list could
+	 *         be added because it would exceed the maximum encoded length
+	 *         allowed for the certificate request message's certificate
+	 *         authorities vector (2^16 - 1 bytes).
+	 * @throws IllegalStateException if certificate authorities are already
+	 *             added
+	 * @see EncodedAuthorities#encode(List)
+	 * @since 3.8
+	 */
+	boolean addCertificateAuthorities(EncodedAuthorities authorities) {
+		if (!certificateAuthorities.isEmpty()) {
+			throw new IllegalStateException("certificate authorities already added!");
+		}
+		certificateAuthorities.addAll(authorities.authorities);
+		encodedCertificateAuthorities.addAll(authorities.encoded);
+		certificateAuthoritiesEncodedLength = authorities.encodedLength;
+		return authorities.complete;
+	}
+
 	/**
 	 * Gets the certificate types that the client may offer.
 	 *
@@ -543,4 +573,70 @@ public final class CertificateRequest extends HandshakeMessage {
 	public List<X500Principal> getCertificateAuthorities() {
 		return Collections.unmodifiableList(certificateAuthorities);
 	}
+
+	/**
+	 * Encoded certificate authorities.
+	 * 
+	 * Servers usually use the same list of accepted issuers for all
+	 * certificate requests. Keeping the encoding saves the encoding of the
+	 * distinguished names for every full handshake.
+	 * 
+	 * @see CertificateEncodingCache
+	 * @since 3.8
+	 */
+	static class EncodedAuthorities {
+
+		/**
+		 * Copy of the encoded list of authorities.
+		 */
+		private final List<X500Principal> source;
+		/**
+		 * Added authorities.
+		 */
+		private final List<X500Principal> authorities;
+		/**
+		 * Encoded added authorities.
+		 */
+		private final List<byte[]> encoded;
+		/**
+		 * Encoded length of the added authorities including the length
+		 * fields.
+		 */
+		private final int encodedLength;
+		/**
+		 * {@code true}, if all authorities of the source are added,
+		 * {@code false}, if the maximum length is exceeded.
+		 */
+		private final boolean complete;
+
+		private EncodedAuthorities(List<X500Principal> source, CertificateRequest request, boolean complete) {
+			this.source = new ArrayList<>(source);
+			this.authorities = new ArrayList<>(request.certificateAuthorities);
+			this.encoded = new ArrayList<>(request.encodedCertificateAuthorities);
+			this.encodedLength = request.certificateAuthoritiesEncodedLength;
+			this.complete = complete;
+		}
+
+		/**
+		 * Encode list of certificate authorities.
+		 * 
+		 * @param authorities list of authorities
+		 * @return encoded authorities
+		 */
+		static EncodedAuthorities encode(List<X500Principal> authorities) {
+			CertificateRequest request = new CertificateRequest();
+			boolean complete = request.addCerticiateAuthorities(authorities);
+			return new EncodedAuthorities(authorities, request, complete);
+		}
+
+		/**
+		 * Check, if the provided list of authorities matches the source.
+		 * 
+		 * @param authorities list of authorities
+		 * @return {@code true}, if the list matches, {@code false}, otherwise.
+		 */
+		boolean matches(List<X500Principal> authorities) {
+			return source.equals(authorities);
+		}
+	}
 }
@@ -647,7 +647,7 @@ public class ClientHandshaker extends Handshaker {
 			try {
 				SupportedGroup ecGroup = serverKeyExchange.getSupportedGroup();
 				if (supportedGroups.contains(ecGroup)) {
-					ecdhe = new XECDHECryptography(ecGroup);
+					ecdhe = createXECDHECryptography(ecGroup);
 					ecdheSecret = ecdhe.generateSecret(serverKeyExchange.getEncodedPoint());
 					encodedPoint = ecdhe.getEncodedPoint();
 					session.setEcGroup(ecGroup);
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.scandium.dtls;
+
+import java.util.Iterator;
+
+import org.eclipse.californium.elements.util.Bytes;
+import org.eclipse.californium.elements.util.DatagramReader;
+import org.eclipse.californium.elements.util.DatagramWriter;
+import org.eclipse.californium.scandium.util.SecretUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Session store for dtls cluster nodes.
+ * <p>
+ * Keeps the sessions in a local {@link InMemorySessionStore} and replicates
+ * added and removed sessions to the other nodes of the cluster using a
+ * {@link SessionReplicator}. Sessions received from other nodes are added
+ * with {@link #putReplica(byte[])} and removed with
+ * {@link #removeReplica(SessionId)} without replicating them again. That
+ * enables a node to resume a session, which was established with an other
+ * node, using an abbreviated handshake.
+ * </p>
+ * <p>
+ * <b>Note:</b> the replicated data contains the master secrets of the
+ * sessions! Replicate them only using a protected channel, e.g. the DTLS
+ * cluster management connector. The serialized data is cleared after
+ * replicating it.
+ * </p>
+ * 
+ * @since 3.8
+ */
+public class ClusterSessionStore implements SessionStore {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ClusterSessionStore.class);
+
+	/**
+	 * Local session store.
+	 */
+	private final InMemorySessionStore store;
+	/**
+	 * Replicator to other cluster nodes. {@code null}, if not available.
+	 */
+	private volatile SessionReplicator replicator;
+
+	/**
+	 * Create session store for cluster nodes.
+	 * 
+	 * @param capacity the maximum number of session the store can manage
+	 * @param threshold the period of time of inactivity (in seconds) after
+	 *            which a session is considered stale and can be evicted from
+	 *            the store if a new session is to be added to the store
+	 */
+	public ClusterSessionStore(int capacity, long threshold) {
+		this.store = new InMemorySessionStore(capacity, threshold);
+	}
+
+	/**
+	 * Set replicator to other cluster nodes.
+	 * 
+	 * @param replicator replicator. {@code null} to stop replicating sessions.
+	 */
+	public void setSessionReplicator(SessionReplicator replicator) {
+		this.replicator = replicator;
+	}
+
+	@Override
+	public void put(DTLSSession session) {
+		if (session != null && !session.getSessionIdentifier().isEmpty()) {
+			store.put(session);
+			SessionReplicator replicator = this.replicator;
+			if (replicator != null) {
+				replicate(replicator, session);
+			}
+		}
+	}
+
+	/**
+	 * Replicate all sessions.
+	 * 
+	 * Used for the initial synchronization of a discovered, joined, or
+	 * restarted cluster node.
+	 * 
+	 * @param replicator replicator to the other cluster node
+	 * @return number of replicated sessions
+	 */
+	public int replicateAll(SessionReplicator replicator) {
+		int count = 0;
+		Iterator<DTLSSession> iterator = store.valuesIterator();
+		while (iterator.hasNext()) {
+			replicate(replicator, iterator.next());
+			++count;
+		}
+		return count;
+	}
+
+	/**
+	 * Replicate session.
+	 * 
+	 * Clears the serialized session after replicating it.
+	 * 
+	 * @param replicator replicator to the other cluster nodes
+	 * @param session session to replicate
+	 */
+	private void replicate(SessionReplicator replicator, DTLSSession session) {
+		DatagramWriter writer = new DatagramWriter(true);
+		session.writeTo(writer);
+		byte[] data = writer.toByteArray();
+		writer.close();
+		try {
+			replicator.replicate(session.getSessionIdentifier(), data);
+		} finally {
+			Bytes.clear(data);
+		}
+	}
+
+	@Override
+	public DTLSSession get(SessionId id) {
+		return store.get(id);
+	}
+
+	@Override
+	public void remove(SessionId id) {
+		store.remove(id);
+		SessionReplicator replicator = this.replicator;
+		if (replicator != null) {
+			replicator.replicateRemoval(id);
+		}
+	}
+
+	/**
+	 * Add session received from other cluster node.
+	 * 
+	 * @param session serialized session. See
+	 *            {@link DTLSSession#writeTo(DatagramWriter)}.
+	 * @return {@code true}, if the session is added, {@code false}, if the
+	 *         data is erroneous.
+	 */
+	public boolean putReplica(byte[] session) {
+		try {
+			DTLSSession replica = DTLSSession.fromReader(new DatagramReader(session, false));
+			if (replica != null) {
+				store.put(replica);
+				SecretUtil.destroy(replica);
+				return true;
+			}
+		} catch (IllegalArgumentException ex) {
+			LOGGER.debug("Replicated session is erroneous!", ex);
+		}
+		return false;
+	}
+
+	/**
+	 * Remove session, which is removed by an other cluster node.
+	 * 
+	 * @param id session id of removed session
+	 */
+	public void removeReplica(SessionId id) {
+		store.remove(id);
+	}
+
+	/**
+	 * Replicator for sessions.
+	 * 
+	 * Implementations are intended to return immediately, the replication
+	 * itself is asynchronous.
+	 */
+	public interface SessionReplicator {
+
+		/**
+		 * Replicate added session to the other cluster nodes.
+		 * 
+		 * @param id session id
+		 * @param session serialized session. Contains the master secret! The
+		 *            data is cleared, when this call returns. Implementations
+		 *            must copy the data for asynchronous replication.
+		 */
+		void replicate(SessionId id, byte[] session);
+
+		/**
+		 * Replicate the removal of a session to the other cluster nodes.
+		 * 
+		 * @param id session id of removed session
+		 */
+		void replicateRemoval(SessionId id);
+	}
+}
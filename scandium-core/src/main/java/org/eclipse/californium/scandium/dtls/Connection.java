@@ -116,6 +116,13 @@ public final class Connection {
 	 */
 	private volatile boolean doublePrincipal;
 
+	/**
+	 * Mark connection as frozen, while its state is handed over to a copy.
+	 * 
+	 * @since 3.8
+	 */
+	private volatile boolean frozen;
+
 	/**
 	 * Expired real time nanoseconds of the last message send or received.
 	 */
@@ -143,6 +150,15 @@ public final class Connection {
 	 */
 	private AlertMessage rootCause;
 
+	/**
+	 * Pending datagram with outgoing application records.
+	 * 
+	 * Only accessed by the {@link #serialExecutor}.
+	 * 
+	 * @since 3.8
+	 */
+	private MultiRecordDatagram pendingDatagram;
+
 	/**
 	 * Creates a new connection to a given peer.
 	 * 
@@ -405,6 +421,30 @@ public final class Connection {
 		return this.peerAddress.equals(peerAddress);
 	}
 
+	/**
+	 * Get pending datagram with outgoing application records.
+	 * 
+	 * Must only be called by the serial executor of this connection.
+	 * 
+	 * @return pending datagram, or {@code null}, if not available.
+	 * @since 3.8
+	 */
+	public MultiRecordDatagram getPendingDatagram() {
+		return pendingDatagram;
+	}
+
+	/**
+	 * Set pending datagram with outgoing application records.
+	 * 
+	 * Must only be called by the serial executor of this connection.
+	 * 
+	 * @param datagram pending datagram, or {@code null}, to reset it.
+	 * @since 3.8
+	 */
+	public void setPendingDatagram(MultiRecordDatagram datagram) {
+		this.pendingDatagram = datagram;
+	}
+
 	/**
 	 * Gets the address of this connection's router.
 	 * 
@@ -591,6 +631,48 @@ public final class Connection {
 		doublePrincipal = true;
 	}
 
+	/**
+	 * Check, if this connection is frozen.
+	 * 
+	 * @return {@code true}, if the connection is frozen, {@code false}, if
+	 *         not.
+	 * @see #freeze()
+	 * @since 3.8
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Freeze connection.
+	 * 
+	 * Used, when the state of the connection is handed over to a copy, e.g.
+	 * by offloading or migrating the connection. A frozen connection neither
+	 * processes records nor sends messages. Jobs, which are already queued for
+	 * a frozen connection, resolve the connection again using the
+	 * {@link ConnectionStore} and continue with the copy, if available.
+	 * 
+	 * Must be called within the serial executor of the connection. The serial
+	 * executor is kept alive.
+	 * 
+	 * @since 3.8
+	 */
+	public void freeze() {
+		frozen = true;
+	}
+
+	/**
+	 * Unfreeze connection.
+	 * 
+	 * Used, when handing over the state of the connection is aborted.
+	 * 
+	 * @see #freeze()
+	 * @since 3.8
+	 */
+	public void unfreeze() {
+		frozen = false;
+	}
+
 	/**
 	 * Get system nanos of starting client hello.
 	 * 
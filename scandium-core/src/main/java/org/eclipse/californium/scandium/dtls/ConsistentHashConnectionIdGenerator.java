@@ -0,0 +1,302 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.scandium.dtls;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.californium.elements.util.DatagramReader;
+import org.eclipse.californium.scandium.dtls.cipher.RandomManager;
+
+/**
+ * Connection id generator for multiple nodes systems (cluster) using
+ * consistent hashing.
+ * <p>
+ * In difference to the {@link MultiNodeConnectionIdGenerator}, the node id is
+ * not encoded into the connection id. The first 4 bytes of the connection id
+ * are used as point on a hash ring. Each node of the cluster is placed with a
+ * number of virtual nodes on that ring and owns the points up to its virtual
+ * nodes. If the nodes of the cluster changes, only the connection ids of the
+ * ring segments of the added or removed nodes changes their owner. Therefore
+ * the connections owned by an other node after such a change may be migrated
+ * to that node, see
+ * {@link org.eclipse.californium.scandium.DtlsClusterConnector#startConnectionMigration}.
+ * </p>
+ * <p>
+ * All nodes of the cluster must use the same number of virtual nodes and
+ * should be updated with the same node ids using {@link #setNodes(Collection)}.
+ * </p>
+ * 
+ * @since 3.8
+ */
+public class ConsistentHashConnectionIdGenerator implements NodeConnectionIdGenerator {
+
+	/**
+	 * Default number of virtual nodes per node.
+	 */
+	public static final int DEFAULT_VIRTUAL_NODES = 64;
+
+	/**
+	 * Number of points on the hash ring.
+	 */
+	private static final long RING_SIZE = 1L << 32;
+
+	/**
+	 * Node id. Must be unique in cluster.
+	 */
+	private final int nodeId;
+	/**
+	 * Length of connection id.
+	 */
+	private final int connectionIdLength;
+	/**
+	 * Number of virtual nodes per node.
+	 */
+	private final int virtualNodes;
+	/**
+	 * Current hash ring.
+	 */
+	private volatile Ring ring;
+
+	/**
+	 * Create new connection id generator using consistent hashing with
+	 * {@link #DEFAULT_VIRTUAL_NODES}.
+	 * 
+	 * @param nodeId node id of this node. Must be unique in the cluster.
+	 * @param connectionIdLength length of connection id
+	 * @throws IllegalArgumentException if length is less than 4 bytes
+	 */
+	public ConsistentHashConnectionIdGenerator(int nodeId, int connectionIdLength) {
+		this(nodeId, connectionIdLength, DEFAULT_VIRTUAL_NODES);
+	}
+
+	/**
+	 * Create new connection id generator using consistent hashing.
+	 * 
+	 * @param nodeId node id of this node. Must be unique in the cluster.
+	 * @param connectionIdLength length of connection id
+	 * @param virtualNodes number of virtual nodes per node. Must be the same
+	 *            for all nodes of the cluster.
+	 * @throws IllegalArgumentException if length is less than 4 bytes, or the
+	 *             number of virtual nodes is less than 1
+	 */
+	public ConsistentHashConnectionIdGenerator(int nodeId, int connectionIdLength, int virtualNodes) {
+		if (connectionIdLength < 4) {
+			throw new IllegalArgumentException("cid length must be at least 4 bytes!");
+		}
+		if (virtualNodes < 1) {
+			throw new IllegalArgumentException("virtual nodes " + virtualNodes + " must be at least 1!");
+		}
+		this.nodeId = nodeId;
+		this.connectionIdLength = connectionIdLength;
+		this.virtualNodes = virtualNodes;
+		this.ring = new Ring(Collections.singleton(nodeId));
+	}
+
+	/**
+	 * Set node ids of the cluster.
+	 * 
+	 * The own node id is always included.
+	 * 
+	 * @param nodeIds node ids of the cluster
+	 * @return {@code true}, if the nodes have changed, {@code false}, if not.
+	 */
+	public synchronized boolean setNodes(Collection<Integer> nodeIds) {
+		Set<Integer> nodes = new TreeSet<>(nodeIds);
+		nodes.add(nodeId);
+		if (nodes.equals(ring.nodes)) {
+			return false;
+		}
+		ring = new Ring(nodes);
+		return true;
+	}
+
+	/**
+	 * Get node ids of the cluster.
+	 * 
+	 * @return unmodifiable set of node ids, including the own node id.
+	 */
+	public Set<Integer> getNodes() {
+		return ring.nodes;
+	}
+
+	@Override
+	public boolean useConnectionId() {
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Creates a connection id, which is owned by this node.
+	 */
+	@Override
+	public ConnectionId createConnectionId() {
+		byte[] cidBytes = new byte[connectionIdLength];
+		RandomManager.currentRandom().nextBytes(cidBytes);
+		long point = ring.createPoint(cidBytes);
+		cidBytes[0] = (byte) (point >> 24);
+		cidBytes[1] = (byte) (point >> 16);
+		cidBytes[2] = (byte) (point >> 8);
+		cidBytes[3] = (byte) point;
+		return new ConnectionId(cidBytes);
+	}
+
+	@Override
+	public ConnectionId read(DatagramReader reader) {
+		byte[] cidBytes = reader.readBytes(connectionIdLength);
+		return new ConnectionId(cidBytes);
+	}
+
+	@Override
+	public int getNodeId() {
+		return nodeId;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns the current owner of the connection id on the hash ring.
+	 */
+	@Override
+	public int getNodeId(ConnectionId cid) {
+		byte[] cidBytes = cid.getBytes();
+		long point = (cidBytes[0] & 0xffL) << 24 | (cidBytes[1] & 0xffL) << 16 | (cidBytes[2] & 0xffL) << 8
+				| (cidBytes[3] & 0xffL);
+		return ring.getOwner(point);
+	}
+
+	/**
+	 * Calculate point of virtual node on the hash ring.
+	 * 
+	 * Uses the finalizer of murmur3 in order to get a stable distribution on
+	 * all nodes.
+	 * 
+	 * @param nodeId node id
+	 * @param index index of virtual node
+	 * @return point on hash ring
+	 */
+	private static long point(int nodeId, int index) {
+		int hash = nodeId * 0x9e3779b9 + index * 0x85ebca6b;
+		hash ^= hash >>> 16;
+		hash *= 0x85ebca6b;
+		hash ^= hash >>> 13;
+		hash *= 0xc2b2ae35;
+		hash ^= hash >>> 16;
+		return hash & 0xffffffffL;
+	}
+
+	/**
+	 * Immutable hash ring.
+	 */
+	private class Ring {
+
+		/**
+		 * Node ids of the ring.
+		 */
+		private final Set<Integer> nodes;
+		/**
+		 * Sorted points of the virtual nodes.
+		 */
+		private final long[] points;
+		/**
+		 * Owner of the virtual nodes.
+		 */
+		private final int[] owners;
+		/**
+		 * Indexes of the own virtual nodes with not empty segments.
+		 */
+		private final int[] own;
+
+		private Ring(Set<Integer> nodes) {
+			this.nodes = Collections.unmodifiableSet(nodes);
+			int size = nodes.size() * virtualNodes;
+			long[] entries = new long[size];
+			int index = 0;
+			int position = 0;
+			for (Integer node : nodes) {
+				for (int virtual = 0; virtual < virtualNodes; ++virtual) {
+					// point in upper 32 bits, position of node in lower 32 bits,
+					// flipped sign for unsigned sorting
+					entries[index++] = (point(node, virtual) << 32 | position) ^ Long.MIN_VALUE;
+				}
+				++position;
+			}
+			Arrays.sort(entries);
+			Integer[] ids = nodes.toArray(new Integer[nodes.size()]);
+			this.points = new long[size];
+			this.owners = new int[size];
+			int[] own = new int[size];
+			int ownSize = 0;
+			for (index = 0; index < size; ++index) {
+				long entry = entries[index] ^ Long.MIN_VALUE;
+				points[index] = entry >>> 32;
+				owners[index] = ids[(int) (entry & 0xffffffffL)];
+				if (owners[index] == nodeId && (index == 0 || points[index] != points[index - 1])) {
+					own[ownSize++] = index;
+				}
+			}
+			this.own = Arrays.copyOf(own, ownSize);
+		}
+
+		/**
+		 * Get owner of point.
+		 * 
+		 * @param point point on the ring
+		 * @return node id of the owner
+		 */
+		private int getOwner(long point) {
+			int index = Arrays.binarySearch(points, point);
+			if (index < 0) {
+				index = -index - 1;
+				if (index == points.length) {
+					index = 0;
+				}
+			} else {
+				// first virtual node of equal points owns the point
+				while (index > 0 && points[index - 1] == point) {
+					--index;
+				}
+			}
+			return owners[index];
+		}
+
+		/**
+		 * Create point owned by this node.
+		 * 
+		 * @param random random bytes
+		 * @return point within a segment of a own virtual node.
+		 */
+		private long createPoint(byte[] random) {
+			long value = (random[0] & 0xffL) << 24 | (random[1] & 0xffL) << 16 | (random[2] & 0xffL) << 8
+					| (random[3] & 0xffL);
+			if (own.length == 0) {
+				// all own virtual nodes collides with others, very unlikely
+				return value;
+			}
+			int index = own[(int) (value % own.length)];
+			long end = points[index];
+			long start = index == 0 ? points[points.length - 1] : points[index - 1];
+			long segment = (end - start + RING_SIZE) % RING_SIZE;
+			if (segment == 0) {
+				// single virtual node owns the whole ring
+				return value;
+			}
+			return (end - ((value / own.length) % segment) + RING_SIZE) % RING_SIZE;
+		}
+	}
+}
@@ -200,6 +200,64 @@ public abstract class DTLSConnectionState implements Destroyable {
 	 */
 	public abstract byte[] decrypt(Record record, byte[] ciphertextFragment) throws GeneralSecurityException;
 
+	/**
+	 * Checks, if in-place encryption and decryption is supported.
+	 * 
+	 * @return {@code true}, if
+	 *         {@link #encryptInPlace(Record, byte[], int, int)} and
+	 *         {@link #decryptInPlace(Record, byte[], int, int)} are supported,
+	 *         {@code false}, otherwise.
+	 * @since 3.8
+	 */
+	public boolean isInPlaceSupported() {
+		return false;
+	}
+
+	/**
+	 * Encrypt fragment for provided record in place.
+	 * 
+	 * The plaintext is located in the buffer after the offset and the
+	 * {@link CipherSuite#getRecordIvLength()} bytes of the explicit nonce. The
+	 * explicit nonce is written to the offset and the authentication tag is
+	 * appended to the plaintext. Therefore the buffer must have
+	 * {@link CipherSuite#getMacLength()} bytes left after the plaintext.
+	 * 
+	 * @param record record to encrypt fragment for
+	 * @param buffer buffer with plaintext
+	 * @param offset offset of the encrypted fragment within the buffer
+	 * @param length length of the plaintext
+	 * @return length of the encrypted fragment
+	 * @throws GeneralSecurityException if an error occurred during encryption
+	 * @throws UnsupportedOperationException if in-place encryption is not
+	 *             supported
+	 * @see #isInPlaceSupported()
+	 * @since 3.8
+	 */
+	public int encryptInPlace(Record record, byte[] buffer, int offset, int length) throws GeneralSecurityException {
+		throw new UnsupportedOperationException("In-place encryption is not supported by " + cipherSuite.name());
+	}
+
+	/**
+	 * Decrypt fragment for provided record in place.
+	 * 
+	 * The plaintext is written to the buffer after the offset and the
+	 * {@link CipherSuite#getRecordIvLength()} bytes of the explicit nonce.
+	 * 
+	 * @param record record to decrypt fragment for
+	 * @param buffer buffer with encrypted fragment
+	 * @param offset offset of the encrypted fragment within the buffer
+	 * @param length length of the encrypted fragment
+	 * @return length of the plaintext
+	 * @throws GeneralSecurityException if an error occurred during decryption
+	 * @throws UnsupportedOperationException if in-place decryption is not
+	 *             supported
+	 * @see #isInPlaceSupported()
+	 * @since 3.8
+	 */
+	public int decryptInPlace(Record record, byte[] buffer, int offset, int length) throws GeneralSecurityException {
+		throw new UnsupportedOperationException("In-place decryption is not supported by " + cipherSuite.name());
+	}
+
 	/**
 	 * Write cipher suite specific connection state to writer.
 	 * 
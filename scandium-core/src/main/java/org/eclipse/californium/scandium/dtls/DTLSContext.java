@@ -98,6 +98,27 @@ public final class DTLSContext implements Destroyable {
 	 */
 	// We only need 2 values as we do not support DTLS re-negotiation.
 	private long[] sequenceNumbers = new long[2];
+	/**
+	 * Sequence number of the current write epoch to call the
+	 * {@link #sequenceNumberCallback}.
+	 * 
+	 * @since 3.8
+	 */
+	private long sequenceNumberThreshold = Long.MAX_VALUE;
+	/**
+	 * Sequence number of the current write epoch, when the
+	 * {@link #sequenceNumberCallback} was set.
+	 * 
+	 * @since 3.8
+	 */
+	private long sequenceNumberCallbackStart;
+	/**
+	 * Callback, when the sequence number of the current write epoch reaches
+	 * the {@link #sequenceNumberThreshold}.
+	 * 
+	 * @since 3.8
+	 */
+	private Runnable sequenceNumberCallback;
 
 	/**
 	 * Save close_notify
@@ -408,6 +429,14 @@ public final class DTLSContext implements Destroyable {
 		long sequenceNumber = this.sequenceNumbers[epoch];
 		if (sequenceNumber <= Record.MAX_SEQUENCE_NO) {
 			this.sequenceNumbers[epoch] = sequenceNumber + 1;
+			if (epoch == writeEpoch && sequenceNumber >= sequenceNumberThreshold) {
+				Runnable callback = sequenceNumberCallback;
+				sequenceNumberThreshold = Long.MAX_VALUE;
+				sequenceNumberCallback = null;
+				if (callback != null) {
+					callback.run();
+				}
+			}
 			return sequenceNumber;
 		} else {
 			// maximum sequence number has been reached
@@ -417,6 +446,53 @@ public final class DTLSContext implements Destroyable {
 		}
 	}
 
+	/**
+	 * Skips sequence numbers for outbound records of the current epoch.
+	 * 
+	 * Used for connections restored from a state, which may not contain the
+	 * latest sequence number.
+	 * 
+	 * @param gap number of sequence numbers to skip
+	 * @since 3.8
+	 */
+	public void skipSequenceNumbers(long gap) {
+		long sequenceNumber = this.sequenceNumbers[writeEpoch] + gap;
+		this.sequenceNumbers[writeEpoch] = Math.min(sequenceNumber, Record.MAX_SEQUENCE_NO + 1);
+	}
+
+	/**
+	 * Sets callback for the sequence numbers of outbound records of the
+	 * current epoch.
+	 * 
+	 * The callback is called once within {@link #getNextSequenceNumber(int)},
+	 * when the given number of sequence numbers are used. Used to persist the
+	 * sequence number before more than a given number of sequence numbers are
+	 * used.
+	 * 
+	 * @param interval number of sequence numbers until the callback is called
+	 * @param callback callback. {@code null} to clear the callback.
+	 * @since 3.8
+	 */
+	void setSequenceNumberCallback(long interval, Runnable callback) {
+		this.sequenceNumberCallback = callback;
+		this.sequenceNumberCallbackStart = this.sequenceNumbers[writeEpoch];
+		this.sequenceNumberThreshold = callback == null ? Long.MAX_VALUE
+				: this.sequenceNumberCallbackStart + interval;
+	}
+
+	/**
+	 * Checks, if sequence numbers of the current epoch are used since the
+	 * sequence number callback was set.
+	 * 
+	 * @return {@code true}, if sequence numbers are used or no callback is
+	 *         pending, {@code false}, otherwise.
+	 * @see #setSequenceNumberCallback(long, Runnable)
+	 * @since 3.8
+	 */
+	boolean isSequenceNumberUsedSinceCallback() {
+		return sequenceNumberCallback == null || sequenceNumbers[writeEpoch] != sequenceNumberCallbackStart;
+	}
+
 	/**
 	 * Gets the current read state of the connection.
 	 * <p>
@@ -502,7 +502,6 @@ public class DTLSFlight {
 			Boolean useMultiHandshakeMessageRecords, Boolean useMultiRecordMessages, boolean backOff)
 			throws HandshakeException {
 
-		DatagramWriter writer = new DatagramWriter(maxDatagramSize);
 		List<DatagramPacket> datagrams = new ArrayList<DatagramPacket>();
 
 		boolean multiHandshakeMessages = Boolean.TRUE.equals(useMultiHandshakeMessageRecords);
@@ -519,45 +518,50 @@ public class DTLSFlight {
 
 		LOGGER.trace("Effective max. datagram size {}, max. message size {}", effectiveMaxDatagramSize, effectiveMaxMessageSize);
 
-		for (int index = 0; index < records.size(); ++index) {
-			Record record = records.get(index);
-			byte[] recordBytes = record.toByteArray();
-			if (recordBytes.length > effectiveMaxDatagramSize) {
-				LOGGER.error("{} record of {} bytes for peer [{}] exceeds max. datagram size [{}], discarding...",
-						record.getType(), recordBytes.length, peerToLog, effectiveMaxDatagramSize);
-				LOGGER.debug("{}", record);
-				// TODO: inform application layer, e.g. using error handler
-				continue;
-			}
-			LOGGER.trace("Sending record of {} bytes to peer [{}]:\n{}", recordBytes.length, peerToLog, record);
-			if (multiRecords && record.getType() == ContentType.CHANGE_CIPHER_SPEC) {
-				++index;
-				if (index < records.size()) {
-					Record finish = records.get(index);
-					recordBytes = Bytes.concatenate(recordBytes, finish.toByteArray());
+		DatagramWriter writer = new DatagramWriter(maxDatagramSize, false, true);
+		try {
+			for (int index = 0; index < records.size(); ++index) {
+				Record record = records.get(index);
+				byte[] recordBytes = record.toByteArray();
+				if (recordBytes.length > effectiveMaxDatagramSize) {
+					LOGGER.error("{} record of {} bytes for peer [{}] exceeds max. datagram size [{}], discarding...",
+							record.getType(), recordBytes.length, peerToLog, effectiveMaxDatagramSize);
+					LOGGER.debug("{}", record);
+					// TODO: inform application layer, e.g. using error handler
+					continue;
 				}
-			}
-			int left = multiRecords && !(backOff && useMultiRecordMessages == null)
-					? effectiveMaxDatagramSize - recordBytes.length
-					: 0;
-			if (writer.size() > left) {
-				// current record does not fit into datagram anymore
-				// thus, send out current datagram and put record into new one
-				byte[] payload = writer.toByteArray();
-				DatagramPacket datagram = new DatagramPacket(payload, payload.length, peer.getAddress(),
-						peer.getPort());
-				datagrams.add(datagram);
-				LOGGER.debug("Sending datagram of {} bytes to peer [{}]", payload.length, peerToLog);
+				LOGGER.trace("Sending record of {} bytes to peer [{}]:\n{}", recordBytes.length, peerToLog, record);
+				if (multiRecords && record.getType() == ContentType.CHANGE_CIPHER_SPEC) {
+					++index;
+					if (index < records.size()) {
+						Record finish = records.get(index);
+						recordBytes = Bytes.concatenate(recordBytes, finish.toByteArray());
+					}
+				}
+				int left = multiRecords && !(backOff && useMultiRecordMessages == null)
+						? effectiveMaxDatagramSize - recordBytes.length
+						: 0;
+				if (writer.size() > left) {
+					// current record does not fit into datagram anymore
+					// thus, send out current datagram and put record into new one
+					byte[] payload = writer.toByteArray();
+					DatagramPacket datagram = new DatagramPacket(payload, payload.length, peer.getAddress(),
+							peer.getPort());
+					datagrams.add(datagram);
+					LOGGER.debug("Sending datagram of {} bytes to peer [{}]", payload.length, peerToLog);
+				}
+
+				writer.writeBytes(recordBytes);
 			}
 
-			writer.writeBytes(recordBytes);
+			byte[] payload = writer.toByteArray();
+			DatagramPacket datagram = new DatagramPacket(payload, payload.length, peer.getAddress(), peer.getPort());
+			datagrams.add(datagram);
+			LOGGER.debug("Sending datagram of {} bytes to peer [{}]", payload.length, peerToLog);
+		} finally {
+			// return the pooled buffer
+			writer.close();
 		}
-
-		byte[] payload = writer.toByteArray();
-		DatagramPacket datagram = new DatagramPacket(payload, payload.length, peer.getAddress(), peer.getPort());
-		datagrams.add(datagram);
-		LOGGER.debug("Sending datagram of {} bytes to peer [{}]", payload.length, peerToLog);
-		writer = null;
 		return datagrams;
 	}
 
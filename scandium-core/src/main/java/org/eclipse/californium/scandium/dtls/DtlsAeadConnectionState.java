@@ -101,10 +101,7 @@ public class DtlsAeadConnectionState extends DTLSConnectionState {
 		 * 
 		 * @return the 12 bytes nonce.
 		 */
-		DatagramWriter writer = new DatagramWriter(12, true);
-		iv.writeTo(writer);
-		record.writeExplicitNonce(writer);
-		byte[] nonce = writer.toByteArray();
+		byte[] nonce = createNonce(record);
 		byte[] additionalData = record.generateAdditionalData(fragment.length);
 
 		if (LOGGER.isTraceEnabled()) {
@@ -179,6 +176,73 @@ public class DtlsAeadConnectionState extends DTLSConnectionState {
 		return payload;
 	}
 
+	@Override
+	public boolean isInPlaceSupported() {
+		return true;
+	}
+
+	@Override
+	public int encryptInPlace(Record record, byte[] buffer, int offset, int length) throws GeneralSecurityException {
+		int recordIvLength = cipherSuite.getRecordIvLength();
+		byte[] nonce = createNonce(record);
+		byte[] additionalData = record.generateAdditionalData(length);
+
+		if (LOGGER.isTraceEnabled()) {
+			LOGGER.trace("encrypt in place: {} bytes", length);
+			LOGGER.trace("nonce: {}", StringUtil.byteArray2HexString(nonce));
+			LOGGER.trace("adata: {}", StringUtil.byteArray2HexString(additionalData));
+		}
+		int encryptedLength = AeadBlockCipher.encryptInPlace(cipherSuite, encryptionKey, nonce, additionalData,
+				buffer, offset + recordIvLength, length);
+		// prepend the explicit nonce, see encrypt
+		System.arraycopy(nonce, cipherSuite.getFixedIvLength(), buffer, offset, recordIvLength);
+		Bytes.clear(nonce);
+		LOGGER.trace("==> {} bytes", recordIvLength + encryptedLength);
+
+		return recordIvLength + encryptedLength;
+	}
+
+	@Override
+	public int decryptInPlace(Record record, byte[] buffer, int offset, int length) throws GeneralSecurityException {
+		int recordIvLength = cipherSuite.getRecordIvLength();
+		int applicationDataLength = length - recordIvLength - cipherSuite.getMacLength();
+		if (applicationDataLength <= 0) {
+			throw new GeneralSecurityException("Ciphertext too short!");
+		}
+		byte[] additionalData = record.generateAdditionalData(applicationDataLength);
+
+		DatagramWriter writer = new DatagramWriter(12, true);
+		iv.writeTo(writer);
+		writer.writeBytes(buffer, offset, recordIvLength);
+		byte[] nonce = writer.toByteArray();
+
+		if (LOGGER.isTraceEnabled()) {
+			LOGGER.trace("decrypt in place: {} bytes", applicationDataLength);
+			LOGGER.trace("nonce: {}", StringUtil.byteArray2HexString(nonce));
+			LOGGER.trace("adata: {}", StringUtil.byteArray2HexString(additionalData));
+		}
+		try {
+			return AeadBlockCipher.decryptInPlace(cipherSuite, encryptionKey, nonce, additionalData, buffer,
+					offset + recordIvLength, length - recordIvLength);
+		} finally {
+			Bytes.clear(nonce);
+		}
+	}
+
+	/**
+	 * Create nonce for encryption.
+	 * 
+	 * @param record record to create the nonce for
+	 * @return nonce, implicit iv followed by the explicit nonce of the record.
+	 * @since 3.8
+	 */
+	private byte[] createNonce(Record record) {
+		DatagramWriter writer = new DatagramWriter(12, true);
+		iv.writeTo(writer);
+		record.writeExplicitNonce(writer);
+		return writer.toByteArray();
+	}
+
 	@Override
 	public final String toString() {
 		StringBuilder b = new StringBuilder("DtlsAeadConnectionState:").append(StringUtil.lineSeparator());
@@ -62,6 +62,7 @@ import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.Inet6Address;
 import java.net.InetSocketAddress;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.Principal;
 import java.security.PrivateKey;
@@ -110,7 +111,9 @@ import org.eclipse.californium.scandium.dtls.cipher.CipherSuite.CertificateKeyAl
 import org.eclipse.californium.scandium.dtls.cipher.PseudoRandomFunction;
 import org.eclipse.californium.scandium.dtls.cipher.PseudoRandomFunction.Label;
 import org.eclipse.californium.scandium.dtls.cipher.RandomManager;
+import org.eclipse.californium.scandium.dtls.cipher.XECDHECryptography;
 import org.eclipse.californium.scandium.dtls.cipher.XECDHECryptography.SupportedGroup;
+import org.eclipse.californium.scandium.dtls.cipher.XECDHEKeyPairPool;
 import org.eclipse.californium.scandium.dtls.pskstore.AdvancedPskStore;
 import org.eclipse.californium.scandium.dtls.x509.CertificateProvider;
 import org.eclipse.californium.scandium.dtls.x509.NewAdvancedCertificateVerifier;
@@ -154,6 +157,13 @@ public abstract class Handshaker implements Destroyable {
 
 	private volatile boolean generateClusterMacKeys;
 
+	/**
+	 * Pool of pre-generated ephemeral key pairs. May be {@code null}.
+	 * 
+	 * @since 3.8
+	 */
+	private volatile XECDHEKeyPairPool keyPairPool;
+
 	private boolean destroyed;
 
 	private final ReentrantLock recursionProtection = new ReentrantLock();
@@ -2392,6 +2402,35 @@ public abstract class Handshaker implements Destroyable {
 		generateClusterMacKeys = enable;
 	}
 
+	/**
+	 * Set pool of pre-generated ephemeral key pairs for the ECDHE key
+	 * exchange.
+	 * 
+	 * @param pool pool of key pairs. May be {@code null}, to generate the key
+	 *            pairs on demand.
+	 * @since 3.8
+	 */
+	public void setKeyPairPool(XECDHEKeyPairPool pool) {
+		keyPairPool = pool;
+	}
+
+	/**
+	 * Create ECDHE key exchange.
+	 * 
+	 * Takes the ephemeral key pair from the {@link #keyPairPool}, if
+	 * available.
+	 * 
+	 * @param supportedGroup supported group (curve) of the key exchange
+	 * @return ECDHE key exchange
+	 * @throws GeneralSecurityException if the key pair cannot be created for
+	 *             the given supported group
+	 * @since 3.8
+	 */
+	protected XECDHECryptography createXECDHECryptography(SupportedGroup supportedGroup)
+			throws GeneralSecurityException {
+		return new XECDHECryptography(supportedGroup, keyPairPool);
+	}
+
 	/**
 	 * Notifies all registered session listeners about a handshake
 	 * retransmit of a flight.
@@ -77,7 +77,11 @@ import org.slf4j.LoggerFactory;
  * Insertion, lookup and removal of connections is done in <em>O(log n)</em>.
  * </p>
  * <p>
- * Storing and reading to/from the store is thread safe.
+ * Storing and reading to/from the store is thread safe. Since 3.8, reading
+ * and updating the usage of a connection doesn't acquire a lock. Only
+ * structural changes, e.g. adding or removing a connection or changing its
+ * address, acquire the write-lock. The doubly-linked list is therefore only
+ * approximately in update-time order and reordered lazily on eviction.
  * </p>
  * <p>
  * Supports also a {@link SessionStore} implementation to keep sessions for
@@ -201,13 +205,25 @@ public class InMemoryReadWriteLockConnectionStore implements ReadWriteLockConnec
 	private ConnectionId newConnectionId() {
 		for (int i = 0; i < 10; ++i) {
 			ConnectionId cid = connectionIdGenerator.createConnectionId();
-			if (connections.get(cid) == null) {
+			if (!isConnectionIdInUse(cid)) {
 				return cid;
 			}
 		}
 		return null;
 	}
 
+	/**
+	 * Checks, if the connection id is in use.
+	 * 
+	 * @param cid connection id
+	 * @return {@code true}, if the connection id is in use, {@code false},
+	 *         otherwise.
+	 * @since 3.8
+	 */
+	protected boolean isConnectionIdInUse(ConnectionId cid) {
+		return connections.get(cid) != null;
+	}
+
 	@Override
 	public ReadLock readLock() {
 		return connections.readLock();
@@ -275,7 +291,7 @@ public class InMemoryReadWriteLockConnectionStore implements ReadWriteLockConnec
 				connection.setConnectionId(connectionId);
 			} else if (connectionId.isEmpty()) {
 				throw new IllegalStateException("Connection must have a none empty connection id!");
-			} else if (connections.get(connectionId) != null) {
+			} else if (isConnectionIdInUse(connectionId)) {
 				throw new IllegalStateException("Connection id already used! " + connectionId);
 			}
 			DTLSSession session = connection.getEstablishedSession();
@@ -312,11 +328,30 @@ public class InMemoryReadWriteLockConnectionStore implements ReadWriteLockConnec
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If the peer's address is not changed, the usage is updated without
+	 * acquiring the write-lock using {@link LeastRecentlyUpdatedCache#touch}.
+	 * Only changes of the address acquire the write-lock.
+	 * </p>
+	 */
 	@Override
 	public boolean update(final Connection connection, InetSocketAddress newPeerAddress) {
 		if (connection == null) {
 			return false;
 		}
+		if (newPeerAddress == null || connection.equalsPeerAddress(newPeerAddress)) {
+			if (connections.touch(connection.getConnectionId()) != null) {
+				connection.refreshAutoResumptionTime();
+				LOGGER.debug("{}connection: {} updated usage!", tag, connection.getConnectionId());
+				return true;
+			} else {
+				LOGGER.debug("{}connection: {} - {} update failed!", tag, connection.getConnectionId(),
+						StringUtil.toLog(newPeerAddress));
+				return false;
+			}
+		}
 		connections.writeLock().lock();
 		try {
 			if (connections.update(connection.getConnectionId()) != null) {
@@ -442,7 +477,7 @@ public class InMemoryReadWriteLockConnectionStore implements ReadWriteLockConnec
 			} else {
 				LOGGER.warn("{}connection {} lost session {}!", tag, connection.getConnectionId(), id);
 			}
-			connections.update(connection.getConnectionId());
+			connections.touch(connection.getConnectionId());
 		}
 		return connection;
 	}
@@ -718,7 +753,7 @@ public class InMemoryReadWriteLockConnectionStore implements ReadWriteLockConnec
 	}
 
 	@Override
-	public final void clear() {
+	public void clear() {
 		for (Connection connection : connections.values()) {
 			SerialExecutor executor = connection.getExecutor();
 			if (executor != null) {
@@ -848,7 +883,7 @@ public class InMemoryReadWriteLockConnectionStore implements ReadWriteLockConnec
 			throw new IllegalStateException("Connection must have a connection id!");
 		} else if (connectionId.isEmpty()) {
 			throw new IllegalStateException("Connection must have a none empty connection id!");
-		} else if (connections.get(connectionId) != null) {
+		} else if (isConnectionIdInUse(connectionId)) {
 			throw new IllegalStateException("Connection id already used! " + connectionId);
 		}
 		boolean restored = false;
@@ -15,15 +15,20 @@
  ******************************************************************************/
 package org.eclipse.californium.scandium.dtls;
 
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
 import org.eclipse.californium.elements.util.LeastRecentlyUsedCache;
+import org.eclipse.californium.elements.util.StripedLeastRecentlyUsedCache;
 import org.eclipse.californium.scandium.util.SecretUtil;
 
 /**
- * A simple session store that stores {@code DTLSSession} in a LRU cache.
+ * A simple session store that stores {@code DTLSSession} in a lock-striped LRU
+ * cache.
  * 
- * If capacity get exceeded, the least recently used session gets evicted. The
- * usage is based on {@link #put(DTLSSession)}, a {@link #get(SessionId)} is not
- * considered as usage.
+ * If capacity get exceeded, the least recently used session of the segment gets
+ * evicted. The usage is based on {@link #put(DTLSSession)}, a
+ * {@link #get(SessionId)} is not considered as usage.
  * 
  * Note: this store is not well tested! If used and causing trouble, don't
  * hesitate to create an issue.
@@ -32,7 +37,7 @@ import org.eclipse.californium.scandium.util.SecretUtil;
  */
 public class InMemorySessionStore implements SessionStore {
 
-	private final LeastRecentlyUsedCache<SessionId, DTLSSession> store;
+	private final StripedLeastRecentlyUsedCache<SessionId, DTLSSession> store;
 
 	/**
 	 * Create in memory session store.
@@ -43,7 +48,9 @@ public class InMemorySessionStore implements SessionStore {
 	 *            the store if a new session is to be added to the store
 	 */
 	public InMemorySessionStore(int capacity, long threshold) {
-		this.store = new LeastRecentlyUsedCache<>(capacity, threshold);
+		this.store = new StripedLeastRecentlyUsedCache<>(
+				Math.min(capacity, LeastRecentlyUsedCache.DEFAULT_INITIAL_CAPACITY), capacity, threshold,
+				TimeUnit.SECONDS);
 		this.store.setEvictingOnReadAccess(false);
 		this.store.setUpdatingOnReadAccess(false);
 	}
@@ -69,4 +76,17 @@ public class InMemorySessionStore implements SessionStore {
 		DTLSSession session = store.remove(id);
 		SecretUtil.destroy(session);
 	}
+
+	/**
+	 * Gets an iterator over the stored sessions.
+	 * 
+	 * The sessions are not copied. Callers must neither modify nor destroy
+	 * them.
+	 * 
+	 * @return iterator over the stored sessions
+	 * @since 3.8
+	 */
+	Iterator<DTLSSession> valuesIterator() {
+		return store.valuesIterator(false);
+	}
 }
@@ -0,0 +1,1016 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.scandium.dtls;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.InetSocketAddress;
+import java.nio.Buffer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.californium.elements.util.Bytes;
+import org.eclipse.californium.elements.util.ClockUtil;
+import org.eclipse.californium.elements.util.DaemonThreadFactory;
+import org.eclipse.californium.elements.util.DatagramReader;
+import org.eclipse.californium.elements.util.DatagramWriter;
+import org.eclipse.californium.elements.util.ExecutorsUtil;
+import org.eclipse.californium.elements.util.LeastRecentlyUpdatedCache;
+import org.eclipse.californium.elements.util.NamedThreadFactory;
+import org.eclipse.californium.elements.util.SerializationUtil;
+import org.eclipse.californium.scandium.util.SecretUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link InMemoryReadWriteLockConnectionStore}, which persists the
+ * connections continuously into a journal.
+ * <p>
+ * Connections, which are updated, are marked as changed. On
+ * {@link #shrink(int, AtomicBoolean)}, which is called periodically by the
+ * {@link org.eclipse.californium.scandium.DTLSConnector}, the changed
+ * connections are serialized within their serial executors and appended to a
+ * memory-mapped journal file. Removed connections are appended as removal. If
+ * the journal exceeds the compaction size, it's merged with the snapshot file
+ * into a new snapshot.
+ * </p>
+ * <p>
+ * The journal is loaded, when the connector is started the first time. The
+ * snapshot and journal files are mapped and indexed, and the connections are
+ * then read and restored in parallel. The final
+ * {@link #saveConnections(OutputStream, long)} appends the connections, which
+ * are changed or have used sequence numbers since their last journal entry,
+ * to the journal and doesn't write connections to the provided stream. If the journal is loaded without such a final save,
+ * e.g. after a crash, the journal may not contain the latest sequence numbers.
+ * Therefore the sequence numbers of those connections are advanced by
+ * {@link #SEQUENCE_NUMBER_GAP} and appended to the journal before the
+ * connector sends records. To ensure, that this gap covers all records sent
+ * since the last journal entry, a connection is appended again after using
+ * {@link #SEQUENCE_NUMBER_INTERVAL} sequence numbers and the journal is forced
+ * to the storage device. That covers crashes of the process as well as of
+ * the operating system.
+ * </p>
+ * <p>
+ * <b>Note:</b> the files contains not encrypted critical credentials. It is
+ * required to protect the directory.
+ * </p>
+ * 
+ * @since 3.8
+ */
+public class JournalConnectionStore extends InMemoryReadWriteLockConnectionStore {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(JournalConnectionStore.class);
+
+	/**
+	 * Number of skipped sequence numbers for connections loaded from a journal
+	 * without final save.
+	 */
+	public static final long SEQUENCE_NUMBER_GAP = 1L << 20;
+
+	/**
+	 * Number of sequence numbers used by a connection, before it's appended
+	 * again to the journal. Must be less than {@link #SEQUENCE_NUMBER_GAP} in
+	 * order to ensure, that the gap covers all records sent since the last
+	 * journal entry of a connection.
+	 */
+	public static final long SEQUENCE_NUMBER_INTERVAL = SEQUENCE_NUMBER_GAP / 4;
+
+	/**
+	 * Default size of the journal in bytes to start a compaction.
+	 */
+	public static final long DEFAULT_COMPACTION_SIZE = 64L * 1024 * 1024;
+
+	/**
+	 * Name of snapshot file.
+	 */
+	private static final String SNAPSHOT = "connections.snapshot";
+	/**
+	 * Name of temporary snapshot file during compaction.
+	 */
+	private static final String SNAPSHOT_TMP = "connections.snapshot.tmp";
+	/**
+	 * Name of journal file.
+	 */
+	private static final String JOURNAL = "connections.journal";
+	/**
+	 * Name of journal file during compaction.
+	 */
+	private static final String JOURNAL_COMPACTING = "connections.journal.old";
+
+	/**
+	 * Version of the file format.
+	 */
+	private static final byte VERSION = 1;
+	/**
+	 * End of entries. Mapped files are filled up with {@code 0}.
+	 */
+	private static final byte ENTRY_END = 0;
+	/**
+	 * Nanotime synchronization of the following entries.
+	 */
+	private static final byte ENTRY_SEGMENT = 1;
+	/**
+	 * Added or changed connection.
+	 */
+	private static final byte ENTRY_PUT = 2;
+	/**
+	 * Removed connection.
+	 */
+	private static final byte ENTRY_REMOVE = 3;
+	/**
+	 * Final save.
+	 */
+	private static final byte ENTRY_CLOSE = 4;
+
+	/**
+	 * Initial size of the writer to serialize a connection.
+	 */
+	private static final int DEFAULT_WRITER_SIZE = 512;
+	/**
+	 * Initial size of the mapped journal.
+	 */
+	private static final int INITIAL_JOURNAL_SIZE = 1024 * 1024;
+
+	/**
+	 * Directory for snapshot and journal.
+	 */
+	private final File directory;
+	/**
+	 * Size of the journal in bytes to start a compaction.
+	 */
+	private final long compactionSize;
+	/**
+	 * Changed connections.
+	 */
+	private final Set<Connection> changed = Collections
+			.newSetFromMap(new ConcurrentHashMap<Connection, Boolean>());
+	/**
+	 * Indicates, that flushing the changed connections is in progress.
+	 */
+	private final AtomicBoolean flushing = new AtomicBoolean();
+	/**
+	 * Current journal. {@code null}, if not loaded or already closed.
+	 * 
+	 * Guarded by {@link #changed}.
+	 */
+	private Journal journal;
+	/**
+	 * Indicates, that the journal is loaded.
+	 */
+	private volatile boolean loaded;
+
+	/**
+	 * Creates a store based on given configuration parameters.
+	 * 
+	 * @param capacity the maximum number of connections the store can manage
+	 * @param threshold the period of time of inactivity (in seconds) after
+	 *            which a connection is considered stale and can be evicted from
+	 *            the store if a new connection is to be added to the store
+	 * @param sessionStore a second level store to use for <em>current</em>
+	 *            connection state of established DTLS sessions.
+	 * @param uniquePrincipals {@code true}, to limit stale connections by
+	 *            unique principals, {@code false}, if not.
+	 * @param directory directory for snapshot and journal
+	 * @param compactionSize size of the journal in bytes to start a compaction
+	 * @throws NullPointerException if directory is {@code null}
+	 * @throws IllegalArgumentException if the compaction size is less than
+	 *             {@code 1}
+	 */
+	public JournalConnectionStore(int capacity, long threshold, SessionStore sessionStore, boolean uniquePrincipals,
+			File directory, long compactionSize) {
+		super(capacity, threshold, sessionStore, uniquePrincipals);
+		if (directory == null) {
+			throw new NullPointerException("Directory must not be null!");
+		}
+		if (compactionSize < 1) {
+			throw new IllegalArgumentException("Compaction size " + compactionSize + " must be at least 1!");
+		}
+		this.directory = directory;
+		this.compactionSize = compactionSize;
+		connections.addEvictionListener(new LeastRecentlyUpdatedCache.EvictionListener<Connection>() {
+
+			@Override
+			public void onEviction(Connection staleConnection) {
+				changed.remove(staleConnection);
+				appendRemove(staleConnection.getConnectionId());
+			}
+		});
+		LOGGER.info("Created new JournalConnectionStore [capacity: {}, directory: {}]", capacity, directory);
+	}
+
+	/**
+	 * Gets the directory of the snapshot and journal.
+	 * 
+	 * @return directory
+	 */
+	public File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Loads the journal on the first call.
+	 * </p>
+	 */
+	@Override
+	public void setExecutor(ExecutorService executor) {
+		super.setExecutor(executor);
+		if (executor != null && !loaded) {
+			try {
+				loadJournal();
+			} catch (IOException ex) {
+				LOGGER.warn("{}loading journal from {} failed!", tag, directory, ex);
+			}
+		}
+	}
+
+	@Override
+	public boolean update(Connection connection, InetSocketAddress newPeerAddress) {
+		boolean updated = super.update(connection, newPeerAddress);
+		if (updated && loaded && connection.hasEstablishedDtlsContext()) {
+			changed.add(connection);
+		}
+		return updated;
+	}
+
+	@Override
+	public void putEstablishedSession(Connection connection) {
+		super.putEstablishedSession(connection);
+		if (loaded) {
+			changed.add(connection);
+		}
+	}
+
+	@Override
+	public boolean remove(Connection connection, boolean removeFromSessionCache) {
+		ConnectionId cid = connection.getConnectionId();
+		boolean removed = super.remove(connection, removeFromSessionCache);
+		if (removed) {
+			changed.remove(connection);
+			appendRemove(cid);
+		}
+		return removed;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Appends the changed connections to the journal.
+	 * </p>
+	 */
+	@Override
+	public void shrink(int calls, AtomicBoolean running) {
+		super.shrink(calls, running);
+		flush(running);
+	}
+
+	/**
+	 * Appends the changed connections to the journal.
+	 * 
+	 * The connections are serialized within their serial executors. Starts a
+	 * compaction, if the journal exceeds the compaction size.
+	 * 
+	 * @param running running flag. Flushing stops, when the flag gets
+	 *            {@code false}.
+	 * @return number of connections scheduled for flushing
+	 */
+	public int flush(AtomicBoolean running) {
+		if (!loaded || !flushing.compareAndSet(false, true)) {
+			return 0;
+		}
+		int count = 0;
+		try {
+			Iterator<Connection> iterator = changed.iterator();
+			while (running.get() && iterator.hasNext()) {
+				final Connection connection = iterator.next();
+				iterator.remove();
+				if (connection.isExecuting()) {
+					try {
+						connection.getExecutor().execute(new Runnable() {
+
+							@Override
+							public void run() {
+								append(connection);
+							}
+						});
+						++count;
+					} catch (RejectedExecutionException ex) {
+						LOGGER.debug("{}journal: flush rejected!", tag, ex);
+					}
+				}
+			}
+			File compacting = null;
+			synchronized (changed) {
+				if (journal != null) {
+					journal.force();
+					if (journal.size() > compactionSize) {
+						compacting = rotate();
+					}
+				}
+			}
+			if (compacting != null && running.get()) {
+				compact(compacting);
+			}
+			LOGGER.debug("{}journal: flush {}", tag, count);
+		} catch (IOException ex) {
+			LOGGER.warn("{}journal: flush failed!", tag, ex);
+		} finally {
+			flushing.set(false);
+		}
+		return count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Appends the connections, which are changed or have used sequence numbers
+	 * since their last journal entry, to the journal and closes the journal.
+	 * The connections are not written to the provided stream and the quiet
+	 * period is not applied. The next start of the connector loads the
+	 * journal again.
+	 * </p>
+	 */
+	@Override
+	public int saveConnections(OutputStream out, long maxQuietPeriodInSeconds) throws IOException {
+		int count = 0;
+		if (loaded) {
+			int size = 0;
+			// append the connections, which are not up-to-date in the journal
+			Iterator<Connection> iterator = connections.valuesIterator();
+			while (iterator.hasNext()) {
+				// connector is stopped, no concurrent execution
+				Connection connection = iterator.next();
+				DTLSContext context = connection.getEstablishedDtlsContext();
+				++size;
+				if (changed.remove(connection)
+						|| (context != null && context.isSequenceNumberUsedSinceCallback())) {
+					if (append(connection)) {
+						++count;
+					}
+				}
+			}
+			changed.clear();
+			synchronized (changed) {
+				if (journal != null) {
+					journal.append(new byte[] { ENTRY_CLOSE });
+					journal.close();
+					journal = null;
+				}
+				loaded = false;
+			}
+			LOGGER.info("{}journal: saved {} of {} connections", tag, count, size);
+		}
+		SerializationUtil.writeNoItem(out);
+		out.flush();
+		clear();
+		return count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The connections loaded from the stream are appended to the journal on
+	 * the next flush.
+	 * </p>
+	 */
+	@Override
+	public int loadConnections(InputStream in, long delta) throws IOException {
+		int count = super.loadConnections(in, delta);
+		if (count > 0 && loaded) {
+			Iterator<Connection> iterator = connections.valuesIterator();
+			while (iterator.hasNext()) {
+				changed.add(iterator.next());
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Loads the connections from the snapshot and journal.
+	 * 
+	 * The files are indexed and the connections are read and restored in
+	 * parallel. Afterwards the files are compacted into a new snapshot and a
+	 * new journal is started.
+	 * 
+	 * @return number of loaded connections
+	 * @throws IOException if an i/o-error occurred
+	 */
+	public int loadJournal() throws IOException {
+		synchronized (changed) {
+			if (loaded) {
+				return 0;
+			}
+			if (!directory.isDirectory() && !directory.mkdirs()) {
+				throw new IOException("Directory " + directory + " not available!");
+			}
+			long startNanos = ClockUtil.nanoRealtime();
+			Index index = new Index();
+			index.read(new File(directory, SNAPSHOT));
+			index.read(new File(directory, JOURNAL_COMPACTING));
+			index.read(new File(directory, JOURNAL));
+			int count = restore(index);
+			writeSnapshot(index);
+			delete(new File(directory, JOURNAL_COMPACTING));
+			journal = new Journal(new File(directory, JOURNAL));
+			if (!index.closed) {
+				// persist advanced sequence numbers before the connector
+				// starts to send records.
+				Iterator<Connection> iterator = changed.iterator();
+				while (iterator.hasNext()) {
+					append(iterator.next());
+					iterator.remove();
+				}
+				journal.force();
+			}
+			loaded = true;
+			LOGGER.info("{}journal: loaded {} of {} connections in {}ms{}", tag, count, index.entries.size(),
+					TimeUnit.NANOSECONDS.toMillis(ClockUtil.nanoRealtime() - startNanos),
+					index.closed ? "" : ", sequence numbers advanced");
+			return count;
+		}
+	}
+
+	/**
+	 * Restores the connections of the index in parallel.
+	 * 
+	 * @param index index of connections
+	 * @return number of restored connections
+	 */
+	private int restore(final Index index) {
+		final List<Entry> entries = new ArrayList<>(index.entries.values());
+		if (entries.isEmpty()) {
+			return 0;
+		}
+		int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), entries.size() / 1024));
+		final AtomicInteger count = new AtomicInteger();
+		final CountDownLatch ready = new CountDownLatch(threads);
+		final int chunk = (entries.size() + threads - 1) / threads;
+		ExecutorService executor = ExecutorsUtil.newFixedThreadPool(threads,
+				new DaemonThreadFactory("Journal#", NamedThreadFactory.SCANDIUM_THREAD_GROUP)); // $NON-NLS-1$
+		try {
+			for (int thread = 0; thread < threads; ++thread) {
+				final int start = thread * chunk;
+				executor.execute(new Runnable() {
+
+					@Override
+					public void run() {
+						try {
+							int end = Math.min(start + chunk, entries.size());
+							for (int position = start; position < end; ++position) {
+								if (restore(entries.get(position), !index.closed)) {
+									count.incrementAndGet();
+								}
+							}
+						} finally {
+							ready.countDown();
+						}
+					}
+				});
+			}
+			ready.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdown();
+		}
+		return count.get();
+	}
+
+	/**
+	 * Restores connection of index entry.
+	 * 
+	 * @param entry index entry
+	 * @param advance {@code true}, to advance the sequence numbers,
+	 *            {@code false}, if not.
+	 * @return {@code true}, if restored, {@code false}, otherwise.
+	 */
+	private boolean restore(Entry entry, boolean advance) {
+		byte[] data = entry.getConnection();
+		try {
+			Connection connection = Connection.fromReader(new DatagramReader(data), entry.segment.delta);
+			if (connection != null) {
+				if (advance) {
+					connection.getEstablishedDtlsContext().skipSequenceNumbers(SEQUENCE_NUMBER_GAP);
+				}
+				if (restore(connection)) {
+					if (advance) {
+						// append advanced sequence numbers
+						changed.add(connection);
+					} else {
+						watchSequenceNumbers(connection);
+					}
+					return true;
+				}
+				SecretUtil.destroy(connection.getDtlsContext());
+			}
+		} catch (IllegalArgumentException ex) {
+			LOGGER.warn("{}journal: reading {} failed!", tag, entry.cid, ex);
+		} catch (IllegalStateException ex) {
+			LOGGER.warn("{}journal: restoring {} failed!", tag, entry.cid, ex);
+		} finally {
+			Bytes.clear(data);
+		}
+		return false;
+	}
+
+	/**
+	 * Appends connection to the journal.
+	 * 
+	 * Must be executed within the serial executor of the connection, or when
+	 * the connector is stopped.
+	 * 
+	 * @param connection connection to append
+	 * @return {@code true}, if appended, {@code false}, if the connection has
+	 *         no established DTLS context.
+	 */
+	private boolean append(Connection connection) {
+		ConnectionId cid = connection.getConnectionId();
+		if (cid == null || cid.isEmpty()) {
+			return false;
+		}
+		DatagramWriter writer = new DatagramWriter(DEFAULT_WRITER_SIZE, true);
+		try {
+			writer.writeByte(ENTRY_PUT);
+			writer.writeVarBytes(cid, Byte.SIZE);
+			int position = writer.space(Integer.SIZE);
+			if (!connection.writeTo(writer)) {
+				return false;
+			}
+			writer.writeSize(position, Integer.SIZE);
+			byte[] data = writer.toByteArray();
+			append(data);
+			Bytes.clear(data);
+			watchSequenceNumbers(connection);
+			return true;
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Appends the connection again to the journal, when it has used
+	 * {@link #SEQUENCE_NUMBER_INTERVAL} sequence numbers.
+	 * 
+	 * The connection is appended within the serial executor of the
+	 * connection, when sending the record with that sequence number.
+	 * Therefore the sequence numbers used by a connection since its last
+	 * journal entry are always less than {@link #SEQUENCE_NUMBER_GAP}.
+	 * The journal is forced to the storage device afterwards, so that also
+	 * crashes of the operating system don't lose that entry.
+	 * 
+	 * @param connection connection to watch
+	 */
+	private void watchSequenceNumbers(final Connection connection) {
+		DTLSContext context = connection.getEstablishedDtlsContext();
+		if (context != null) {
+			context.setSequenceNumberCallback(SEQUENCE_NUMBER_INTERVAL, new Runnable() {
+
+				@Override
+				public void run() {
+					changed.remove(connection);
+					if (append(connection)) {
+						force();
+					} else {
+						LOGGER.warn("{}journal: append {} failed!", tag, connection.getConnectionId());
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * Appends removal of connection to the journal.
+	 * 
+	 * @param cid connection id of removed connection
+	 */
+	private void appendRemove(ConnectionId cid) {
+		if (loaded && cid != null && !cid.isEmpty()) {
+			DatagramWriter writer = new DatagramWriter(cid.length() + 2);
+			writer.writeByte(ENTRY_REMOVE);
+			writer.writeVarBytes(cid, Byte.SIZE);
+			append(writer.toByteArray());
+		}
+	}
+
+	/**
+	 * Appends entry to the journal.
+	 * 
+	 * @param entry entry to append
+	 */
+	private void append(byte[] entry) {
+		synchronized (changed) {
+			if (journal != null) {
+				try {
+					journal.append(entry);
+				} catch (IOException ex) {
+					LOGGER.warn("{}journal: append failed!", tag, ex);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Forces the journal to be written to the storage device.
+	 */
+	private void force() {
+		synchronized (changed) {
+			if (journal != null) {
+				journal.force();
+			}
+		}
+	}
+
+	/**
+	 * Rotates the journal for compaction.
+	 * 
+	 * Must be called synchronized on {@link #changed}.
+	 * 
+	 * @return journal to compact
+	 * @throws IOException if an i/o-error occurred
+	 */
+	private File rotate() throws IOException {
+		File current = new File(directory, JOURNAL);
+		File compacting = new File(directory, JOURNAL_COMPACTING);
+		if (compacting.exists()) {
+			// retry failed compaction
+			return compacting;
+		}
+		journal.close();
+		journal = null;
+		if (!current.renameTo(compacting)) {
+			throw new IOException("Rotating journal " + current + " failed!");
+		}
+		journal = new Journal(current);
+		return compacting;
+	}
+
+	/**
+	 * Compacts the snapshot and the rotated journal into a new snapshot.
+	 * 
+	 * @param compacting rotated journal
+	 * @throws IOException if an i/o-error occurred
+	 */
+	private void compact(File compacting) throws IOException {
+		long startNanos = ClockUtil.nanoRealtime();
+		Index index = new Index();
+		index.read(new File(directory, SNAPSHOT));
+		index.read(compacting);
+		writeSnapshot(index);
+		delete(compacting);
+		LOGGER.info("{}journal: compacted {} connections in {}ms", tag, index.entries.size(),
+				TimeUnit.NANOSECONDS.toMillis(ClockUtil.nanoRealtime() - startNanos));
+	}
+
+	/**
+	 * Writes the entries of the index into a new snapshot.
+	 * 
+	 * @param index index with entries
+	 * @throws IOException if an i/o-error occurred
+	 */
+	private void writeSnapshot(Index index) throws IOException {
+		File tmp = new File(directory, SNAPSHOT_TMP);
+		FileOutputStream file = new FileOutputStream(tmp);
+		try {
+			OutputStream out = new BufferedOutputStream(file, 64 * 1024);
+			out.write(VERSION);
+			Segment segment = null;
+			for (Entry entry : index.entries.values()) {
+				if (entry.segment != segment) {
+					segment = entry.segment;
+					out.write(segment.encode());
+				}
+				entry.writeTo(out);
+			}
+			// never closed, the sequence numbers may be used after loading
+			out.flush();
+			file.getFD().sync();
+		} finally {
+			file.close();
+		}
+		if (!tmp.renameTo(new File(directory, SNAPSHOT))) {
+			throw new IOException("Replacing snapshot with " + tmp + " failed!");
+		}
+	}
+
+	/**
+	 * Deletes file.
+	 * 
+	 * @param file file to delete
+	 * @throws IOException if the file exists and could not be deleted
+	 */
+	private static void delete(File file) throws IOException {
+		if (file.exists() && !file.delete()) {
+			throw new IOException("Deleting " + file + " failed!");
+		}
+	}
+
+	/**
+	 * Memory-mapped journal.
+	 */
+	private static class Journal {
+
+		private final RandomAccessFile file;
+		private final FileChannel channel;
+		private MappedByteBuffer buffer;
+
+		/**
+		 * Creates new journal.
+		 * 
+		 * Removes the content of an existing file.
+		 * 
+		 * @param file journal file
+		 * @throws IOException if an i/o-error occurred
+		 */
+		private Journal(File file) throws IOException {
+			this.file = new RandomAccessFile(file, "rw");
+			this.file.setLength(0);
+			this.channel = this.file.getChannel();
+			this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, INITIAL_JOURNAL_SIZE);
+			this.buffer.put(VERSION);
+			this.buffer.put(new Segment().encode());
+		}
+
+		/**
+		 * Appends entry.
+		 * 
+		 * Keeps at least one {@link JournalConnectionStore#ENTRY_END}. Remaps
+		 * the file with double size, if required.
+		 * 
+		 * @param entry entry to append
+		 * @throws IOException if an i/o-error occurred
+		 */
+		private void append(byte[] entry) throws IOException {
+			if (buffer.remaining() <= entry.length) {
+				int position = buffer.position();
+				long size = Math.max(buffer.capacity() * 2L, position + entry.length + 1L);
+				buffer.force();
+				buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+				((Buffer) buffer).position(position);
+			}
+			buffer.put(entry);
+		}
+
+		/**
+		 * Gets the size of the journal.
+		 * 
+		 * @return size in bytes
+		 */
+		private int size() {
+			return buffer.position();
+		}
+
+		/**
+		 * Forces the journal to be written to the storage device.
+		 */
+		private void force() {
+			buffer.force();
+		}
+
+		/**
+		 * Closes the journal.
+		 * 
+		 * @throws IOException if an i/o-error occurred
+		 */
+		private void close() throws IOException {
+			buffer.force();
+			channel.close();
+			file.close();
+		}
+	}
+
+	/**
+	 * Nanotime synchronization of entries.
+	 * 
+	 * @see SerializationUtil#readNanotimeSynchronizationMark
+	 */
+	private static class Segment {
+
+		/**
+		 * System time in milliseconds.
+		 */
+		private final long millis;
+		/**
+		 * Realtime in nanoseconds.
+		 */
+		private final long nanos;
+		/**
+		 * Delta to adjust the realtime of the entries to the current realtime.
+		 */
+		private final long delta;
+
+		/**
+		 * Creates segment for the current time.
+		 */
+		private Segment() {
+			this.millis = System.currentTimeMillis();
+			this.nanos = ClockUtil.nanoRealtime();
+			this.delta = 0;
+		}
+
+		/**
+		 * Reads segment.
+		 * 
+		 * @param buffer buffer to read
+		 */
+		private Segment(ByteBuffer buffer) {
+			this.millis = buffer.getLong();
+			this.nanos = buffer.getLong();
+			long deltaSystemtime = Math.max(TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - millis), 0L);
+			long deltaUptime = ClockUtil.nanoRealtime() - nanos;
+			this.delta = deltaUptime - deltaSystemtime;
+		}
+
+		/**
+		 * Encodes segment.
+		 * 
+		 * @return encoded segment
+		 */
+		private byte[] encode() {
+			return ByteBuffer.allocate(1 + 2 * Long.SIZE / Byte.SIZE).put(ENTRY_SEGMENT).putLong(millis)
+					.putLong(nanos).array();
+		}
+	}
+
+	/**
+	 * Index entry of a connection.
+	 */
+	private static class Entry {
+
+		private final ConnectionId cid;
+		private final Segment segment;
+		private final ByteBuffer buffer;
+		/**
+		 * Offset of the entry.
+		 */
+		private final int offset;
+		/**
+		 * Offset of the serialized connection.
+		 */
+		private final int connectionOffset;
+		/**
+		 * End of the entry.
+		 */
+		private final int end;
+
+		private Entry(ConnectionId cid, Segment segment, ByteBuffer buffer, int offset, int connectionOffset,
+				int end) {
+			this.cid = cid;
+			this.segment = segment;
+			this.buffer = buffer;
+			this.offset = offset;
+			this.connectionOffset = connectionOffset;
+			this.end = end;
+		}
+
+		/**
+		 * Gets the serialized connection.
+		 * 
+		 * @return serialized connection
+		 */
+		private byte[] getConnection() {
+			ByteBuffer data = buffer.duplicate();
+			((Buffer) data).position(connectionOffset);
+			byte[] connection = new byte[end - connectionOffset];
+			data.get(connection);
+			return connection;
+		}
+
+		/**
+		 * Writes the entry.
+		 * 
+		 * @param out output stream
+		 * @throws IOException if an i/o-error occurred
+		 */
+		private void writeTo(OutputStream out) throws IOException {
+			ByteBuffer data = buffer.duplicate();
+			((Buffer) data).position(offset);
+			byte[] entry = new byte[end - offset];
+			data.get(entry);
+			out.write(entry);
+			Bytes.clear(entry);
+		}
+	}
+
+	/**
+	 * Index of the connections of snapshot and journal files.
+	 */
+	private class Index {
+
+		/**
+		 * Entries by connection id, in order of their last change.
+		 */
+		private final Map<ConnectionId, Entry> entries = new LinkedHashMap<>();
+		/**
+		 * Indicates, that the last entry is a final save.
+		 */
+		private boolean closed;
+
+		/**
+		 * Reads entries of a file into the index.
+		 * 
+		 * @param file file to read. Missing or empty files are ignored.
+		 * @throws IOException if an i/o-error occurred
+		 */
+		private void read(File file) throws IOException {
+			if (!file.exists() || file.length() == 0) {
+				return;
+			}
+			RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+			try {
+				FileChannel channel = randomAccessFile.getChannel();
+				ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				if (buffer.get() != VERSION) {
+					LOGGER.warn("{}journal: {} has unsupported version!", tag, file);
+					return;
+				}
+				int count = read(buffer);
+				LOGGER.debug("{}journal: {} entries in {}", tag, count, file);
+			} catch (BufferUnderflowException ex) {
+				LOGGER.warn("{}journal: {} is truncated!", tag, file);
+			} finally {
+				randomAccessFile.close();
+			}
+		}
+
+		/**
+		 * Reads entries of a buffer into the index.
+		 * 
+		 * @param buffer buffer to read
+		 * @return number of read entries
+		 * @throws BufferUnderflowException if the buffer is truncated
+		 */
+		private int read(ByteBuffer buffer) {
+			int count = 0;
+			Segment segment = null;
+			while (buffer.hasRemaining()) {
+				int offset = buffer.position();
+				byte type = buffer.get();
+				if (type == ENTRY_END) {
+					break;
+				} else if (type == ENTRY_SEGMENT) {
+					segment = new Segment(buffer);
+					continue;
+				} else if (type == ENTRY_CLOSE) {
+					closed = true;
+					continue;
+				} else if (type != ENTRY_PUT && type != ENTRY_REMOVE) {
+					LOGGER.warn("{}journal: unknown entry {}!", tag, type);
+					break;
+				}
+				byte[] cidBytes = new byte[buffer.get() & 0xff];
+				buffer.get(cidBytes);
+				ConnectionId cid = new ConnectionId(cidBytes);
+				entries.remove(cid);
+				closed = false;
+				++count;
+				if (type == ENTRY_PUT) {
+					int length = buffer.getInt();
+					int connectionOffset = buffer.position();
+					if (length < 0 || length > buffer.remaining()) {
+						throw new BufferUnderflowException();
+					}
+					((Buffer) buffer).position(connectionOffset + length);
+					if (segment == null) {
+						LOGGER.warn("{}journal: missing segment!", tag);
+						break;
+					}
+					entries.put(cid, new Entry(cid, segment, buffer, offset, connectionOffset, buffer.position()));
+				}
+			}
+			return count;
+		}
+	}
+}
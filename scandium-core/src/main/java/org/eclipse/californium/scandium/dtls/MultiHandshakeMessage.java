@@ -86,13 +86,17 @@ public class MultiHandshakeMessage extends HandshakeMessage {
 
 	@Override
 	public byte[] toByteArray() {
-		DatagramWriter writer = new DatagramWriter(RecordLayer.DEFAULT_ETH_MTU);
-		HandshakeMessage message = getNextHandshakeMessage();
-		while (message != null) {
-			message.writeTo(writer);
-			message = message.getNextHandshakeMessage();
+		DatagramWriter writer = new DatagramWriter(RecordLayer.DEFAULT_ETH_MTU, false, true);
+		try {
+			HandshakeMessage message = getNextHandshakeMessage();
+			while (message != null) {
+				message.writeTo(writer);
+				message = message.getNextHandshakeMessage();
+			}
+			return writer.toByteArray();
+		} finally {
+			writer.close();
 		}
-		return writer.toByteArray();
 	}
 
 	@Override
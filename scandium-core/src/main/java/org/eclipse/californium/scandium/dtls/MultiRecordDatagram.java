@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.scandium.dtls;
+
+import java.net.DatagramPacket;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.californium.elements.RawData;
+
+/**
+ * Datagram with multiple application data records.
+ * <p>
+ * Collects the already encrypted outgoing application records of a connection
+ * up to the maximum datagram size, in order to send them within a single UDP
+ * message. See <a href="https://tools.ietf.org/html/rfc6347#section-4.1" target
+ * ="_blank">RFC 6347, 4.1. Record Layer</a>.
+ * </p>
+ * <p>
+ * Not thread-safe, intended to be used by the serial executor of the
+ * connection.
+ * </p>
+ * 
+ * @since 3.8
+ */
+public class MultiRecordDatagram {
+
+	/**
+	 * Maximum size of the datagram.
+	 */
+	private final int maxDatagramSize;
+	/**
+	 * Destination of the datagram.
+	 */
+	private final InetSocketAddress peerAddress;
+	/**
+	 * Encoded records.
+	 */
+	private final List<byte[]> records = new ArrayList<>();
+	/**
+	 * Application messages of the records.
+	 */
+	private final List<RawData> messages = new ArrayList<>();
+	/**
+	 * Current size of the datagram.
+	 */
+	private int size;
+
+	/**
+	 * Create datagram for multiple records.
+	 * 
+	 * @param maxDatagramSize maximum size of the datagram
+	 * @param peerAddress destination of the datagram
+	 * @throws NullPointerException if peer address is {@code null}
+	 */
+	public MultiRecordDatagram(int maxDatagramSize, InetSocketAddress peerAddress) {
+		if (peerAddress == null) {
+			throw new NullPointerException("Peer address must not be null!");
+		}
+		this.maxDatagramSize = maxDatagramSize;
+		this.peerAddress = peerAddress;
+	}
+
+	/**
+	 * Add record to this datagram.
+	 * 
+	 * The first record is always added, even if it exceeds the maximum
+	 * datagram size.
+	 * 
+	 * @param record record to add
+	 * @param message application message of the record. May be {@code null}.
+	 * @return {@code true}, if the record is added, {@code false}, if the
+	 *         record doesn't fit into the datagram or is intended for a
+	 *         different destination.
+	 */
+	public boolean add(Record record, RawData message) {
+		if (!peerAddress.equals(record.getPeerAddress())) {
+			return false;
+		}
+		byte[] recordBytes = record.toByteArray();
+		if (!records.isEmpty() && size + recordBytes.length > maxDatagramSize) {
+			return false;
+		}
+		records.add(recordBytes);
+		if (message != null) {
+			messages.add(message);
+		}
+		size += recordBytes.length;
+		return true;
+	}
+
+	/**
+	 * Check, if datagram is empty.
+	 * 
+	 * @return {@code true}, if no record has been added, {@code false},
+	 *         otherwise.
+	 */
+	public boolean isEmpty() {
+		return records.isEmpty();
+	}
+
+	/**
+	 * Get number of records.
+	 * 
+	 * @return number of records
+	 */
+	public int getNumberOfRecords() {
+		return records.size();
+	}
+
+	/**
+	 * Get current size of the datagram.
+	 * 
+	 * @return size of the datagram in bytes
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Get destination of the datagram.
+	 * 
+	 * @return destination of the datagram
+	 */
+	public InetSocketAddress getPeerAddress() {
+		return peerAddress;
+	}
+
+	/**
+	 * Get application messages of the added records.
+	 * 
+	 * @return list of application messages
+	 */
+	public List<RawData> getMessages() {
+		return messages;
+	}
+
+	/**
+	 * Create datagram packet with all added records.
+	 * 
+	 * @return datagram packet
+	 */
+	public DatagramPacket toDatagramPacket() {
+		byte[] payload;
+		if (records.size() == 1) {
+			payload = records.get(0);
+		} else {
+			payload = new byte[size];
+			int offset = 0;
+			for (byte[] recordBytes : records) {
+				System.arraycopy(recordBytes, 0, payload, offset, recordBytes.length);
+				offset += recordBytes.length;
+			}
+		}
+		return new DatagramPacket(payload, payload.length, peerAddress);
+	}
+}
@@ -0,0 +1,677 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.scandium.dtls;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.security.Principal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.californium.elements.util.Bytes;
+import org.eclipse.californium.elements.util.ClockUtil;
+import org.eclipse.californium.elements.util.DatagramReader;
+import org.eclipse.californium.elements.util.DatagramWriter;
+import org.eclipse.californium.elements.util.LeastRecentlyUpdatedCache.Timestamped;
+import org.eclipse.californium.elements.util.LeastRecentlyUsedCache;
+import org.eclipse.californium.scandium.ConnectionListener;
+import org.eclipse.californium.scandium.util.SecretUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link InMemoryReadWriteLockConnectionStore}, which keeps only a hot set
+ * of connections on the heap.
+ * <p>
+ * If the number of connections on the heap exceeds the hot set size, the least
+ * recently updated connections with an established DTLS context are
+ * serialized using {@link Connection#writeTo(DatagramWriter)} into slices of
+ * shared direct (off-heap) byte buffers and removed from the heap. On the next
+ * access by connection id or peer address, such an offloaded connection is
+ * read back using {@link Connection#fromReader} and added again to the hot
+ * set.
+ * </p>
+ * <p>
+ * Offloading is executed by {@link #shrink(int, AtomicBoolean)}, which is
+ * called periodically by the {@link org.eclipse.californium.scandium.DTLSConnector}.
+ * Each connection is serialized within its serial executor and then
+ * {@link Connection#freeze() frozen}. Jobs, which still refer to the frozen
+ * connection, resolve the connection again and so continue with the reloaded
+ * copy. Offloading and reloading doesn't notify the {@link ConnectionListener}
+ * and keeps the session in the {@link SessionStore}.
+ * </p>
+ * <p>
+ * The capacity is shared by the connections on the heap and the offloaded
+ * connections. If the capacity is exhausted, stale offloaded connections are
+ * evicted first.
+ * </p>
+ * <p>
+ * <b>Note:</b> offloaded connections are not included in {@link #iterator()}
+ * and, without {@link SessionStore}, are not found by {@link #find(SessionId)}
+ * before they are reloaded.
+ * </p>
+ * 
+ * @since 3.8
+ */
+public class OffHeapConnectionStore extends InMemoryReadWriteLockConnectionStore {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(OffHeapConnectionStore.class);
+
+	/**
+	 * Initial size of the writer to serialize a connection.
+	 */
+	private static final int DEFAULT_WRITER_SIZE = 512;
+
+	/**
+	 * Maximum number of connections on the heap.
+	 */
+	private final int hotSetSize;
+	/**
+	 * Offloaded connections by connection id.
+	 * 
+	 * Guarded by itself.
+	 */
+	private final LeastRecentlyUsedCache<ConnectionId, OffloadedConnection> offloaded;
+	/**
+	 * Connection ids of offloaded connections by peer address.
+	 */
+	private final ConcurrentMap<InetSocketAddress, ConnectionId> offloadedByAddress = new ConcurrentHashMap<>();
+	/**
+	 * Indicates, that offloading is in progress.
+	 */
+	private final AtomicBoolean offloading = new AtomicBoolean();
+	/**
+	 * Shared direct buffers for the serialized connections.
+	 */
+	private final DirectBufferSlabs slabs = new DirectBufferSlabs();
+
+	private volatile ExecutorService executor;
+	private volatile ConnectionListener connectionListener;
+
+	/**
+	 * Creates a store based on given configuration parameters.
+	 * 
+	 * @param capacity the maximum number of connections the store can manage,
+	 *            including the offloaded connections
+	 * @param threshold the period of time of inactivity (in seconds) after
+	 *            which a connection is considered stale and can be evicted from
+	 *            the store if a new connection is to be added to the store
+	 * @param hotSetSize the maximum number of connections kept on the heap.
+	 *            Exceeding connections are offloaded on
+	 *            {@link #shrink(int, AtomicBoolean)}.
+	 * @param sessionStore a second level store to use for <em>current</em>
+	 *            connection state of established DTLS sessions.
+	 * @param uniquePrincipals {@code true}, to limit stale connections by
+	 *            unique principals, {@code false}, if not.
+	 * @throws IllegalArgumentException if hot set size is less than {@code 1}
+	 */
+	public OffHeapConnectionStore(int capacity, long threshold, int hotSetSize, SessionStore sessionStore,
+			boolean uniquePrincipals) {
+		super(capacity, threshold, sessionStore, uniquePrincipals);
+		if (hotSetSize < 1) {
+			throw new IllegalArgumentException("Hot set size " + hotSetSize + " must be at least 1!");
+		}
+		this.hotSetSize = hotSetSize;
+		this.offloaded = new LeastRecentlyUsedCache<>(
+				Math.min(LeastRecentlyUsedCache.DEFAULT_INITIAL_CAPACITY, capacity), capacity,
+				threshold, TimeUnit.SECONDS);
+		this.offloaded.setEvictingOnReadAccess(false);
+		this.offloaded.setUpdatingOnReadAccess(false);
+		this.offloaded.addEvictionListener(new LeastRecentlyUsedCache.EvictionListener<OffloadedConnection>() {
+
+			@Override
+			public void onEviction(OffloadedConnection staleConnection) {
+				LOGGER.debug("{}connection: evict offloaded {}", tag, staleConnection.cid);
+				if (staleConnection.address != null) {
+					offloadedByAddress.remove(staleConnection.address, staleConnection.cid);
+				}
+				staleConnection.destroy();
+			}
+		});
+		LOGGER.info("Created new OffHeapConnectionStore [capacity: {}, hot set: {}]", capacity, hotSetSize);
+	}
+
+	/**
+	 * Gets the maximum number of connections on the heap.
+	 * 
+	 * @return hot set size
+	 */
+	public int getHotSetSize() {
+		return hotSetSize;
+	}
+
+	/**
+	 * Gets the number of offloaded connections.
+	 * 
+	 * @return number of offloaded connections
+	 */
+	public int getOffloadedSize() {
+		synchronized (offloaded) {
+			return offloaded.size();
+		}
+	}
+
+	@Override
+	public void setConnectionListener(ConnectionListener listener) {
+		super.setConnectionListener(listener);
+		this.connectionListener = listener;
+	}
+
+	@Override
+	public void setExecutor(ExecutorService executor) {
+		super.setExecutor(executor);
+		this.executor = executor;
+	}
+
+	@Override
+	protected boolean isConnectionIdInUse(ConnectionId cid) {
+		if (super.isConnectionIdInUse(cid)) {
+			return true;
+		}
+		synchronized (offloaded) {
+			return offloaded.get(cid) != null;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If the capacity is exhausted, a stale offloaded connection is evicted.
+	 * If there is no stale offloaded connection, the connection is not added.
+	 * </p>
+	 */
+	@Override
+	public boolean put(Connection connection) {
+		if (connection != null) {
+			int offloadedSize = getOffloadedSize();
+			if (offloadedSize > 0 && connections.size() + offloadedSize >= connections.getCapacity()) {
+				int evicted;
+				synchronized (offloaded) {
+					evicted = offloaded.removeExpiredEntries(1);
+				}
+				if (evicted == 0) {
+					LOGGER.debug("{}connection store is full! {} max. entries, {} offloaded.", tag,
+							connections.getCapacity(), offloadedSize);
+					return false;
+				}
+			}
+		}
+		return super.put(connection);
+	}
+
+	@Override
+	public int remainingCapacity() {
+		return Math.max(0, super.remainingCapacity() - getOffloadedSize());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Offloads the least recently updated connections exceeding the hot set
+	 * size.
+	 * </p>
+	 */
+	@Override
+	public void shrink(int calls, AtomicBoolean running) {
+		super.shrink(calls, running);
+		offload(running);
+	}
+
+	/**
+	 * Offloads the least recently updated connections exceeding the hot set
+	 * size.
+	 * 
+	 * The connections are serialized, removed from the heap and frozen within
+	 * their serial executors. Connections with ongoing handshakes are kept on
+	 * the heap.
+	 * 
+	 * @param running running flag. Offloading stops, when the flag gets
+	 *            {@code false}.
+	 * @return number of connections scheduled for offloading
+	 */
+	public int offload(AtomicBoolean running) {
+		int exceeding = connections.size() - hotSetSize;
+		if (exceeding <= 0 || !offloading.compareAndSet(false, true)) {
+			return 0;
+		}
+		try {
+			List<Connection> candidates = new ArrayList<>(exceeding);
+			Iterator<Connection> iterator = connections.ascendingIterator();
+			while (running.get() && iterator.hasNext() && candidates.size() < exceeding) {
+				Connection connection = iterator.next();
+				if (connection.hasEstablishedDtlsContext() && connection.getOngoingHandshake() == null) {
+					candidates.add(connection);
+				}
+			}
+			for (final Connection connection : candidates) {
+				if (!running.get()) {
+					break;
+				}
+				if (connection.isExecuting()) {
+					connection.getExecutor().execute(new Runnable() {
+
+						@Override
+						public void run() {
+							offload(connection);
+						}
+					});
+				}
+			}
+			LOGGER.debug("{}connection: offload {} of {}", tag, candidates.size(), exceeding);
+			return candidates.size();
+		} finally {
+			offloading.set(false);
+		}
+	}
+
+	/**
+	 * Offloads a connection.
+	 * 
+	 * Must be executed within the serial executor of the connection.
+	 * 
+	 * @param connection connection to offload
+	 */
+	private void offload(Connection connection) {
+		if (connection.isFrozen() || connection.getOngoingHandshake() != null) {
+			return;
+		}
+		ConnectionId cid = connection.getConnectionId();
+		ByteBuffer data;
+		DatagramWriter writer = new DatagramWriter(DEFAULT_WRITER_SIZE, true);
+		try {
+			if (!connection.writeTo(writer)) {
+				return;
+			}
+			byte[] bytes = writer.toByteArray();
+			data = slabs.allocate(bytes.length);
+			data.put(bytes);
+			((Buffer) data).flip();
+			Bytes.clear(bytes);
+		} finally {
+			writer.close();
+		}
+		InetSocketAddress address = connection.getPeerAddress();
+		DTLSSession session = connection.getEstablishedSession();
+		SessionId sessionId = session == null ? null : session.getSessionIdentifier();
+		Principal principal = session == null ? null : session.getPeerIdentity();
+		OffloadedConnection entry = new OffloadedConnection(cid, address, data, slabs);
+		connections.writeLock().lock();
+		try {
+			Timestamped<Connection> timestamped = connections.getTimestamped(cid);
+			if (timestamped == null || timestamped.getValue() != connection) {
+				entry.destroy();
+				return;
+			}
+			long lastUpdate = timestamped.getLastUpdate();
+			// add offloaded entry first, lookups without lock find either
+			// the connection or the offloaded entry
+			synchronized (offloaded) {
+				offloaded.put(cid, entry, lastUpdate);
+			}
+			if (address != null) {
+				offloadedByAddress.put(address, cid);
+			}
+			connections.remove(cid, connection);
+			if (address != null) {
+				connectionsByAddress.remove(address, connection);
+			}
+			if (connectionsByEstablishedSession != null && sessionId != null && !sessionId.isEmpty()) {
+				connectionsByEstablishedSession.remove(sessionId, connection);
+			}
+			if (connectionsByPrincipal != null && principal != null) {
+				connectionsByPrincipal.remove(principal, connection);
+			}
+			// pending and concurrent jobs resolve the connection again
+			// and continue with the reloaded copy. The keys are not
+			// destroyed, the frozen connection may still be in use to
+			// decrypt records in parallel.
+			connection.freeze();
+		} finally {
+			connections.writeLock().unlock();
+		}
+		LOGGER.trace("{}connection: offloaded {}, {} bytes", tag, cid, data.remaining());
+	}
+
+	/**
+	 * Reloads an offloaded connection.
+	 * 
+	 * @param cid connection id of the connection
+	 * @return reloaded connection, or {@code null}, if not available.
+	 */
+	private Connection reload(ConnectionId cid) {
+		synchronized (offloaded) {
+			if (offloaded.get(cid) == null) {
+				// not offloaded, don't lock unknown connection ids
+				return null;
+			}
+		}
+		connections.writeLock().lock();
+		try {
+			Connection connection = connections.get(cid);
+			if (connection != null) {
+				// reloaded by other thread
+				return connection;
+			}
+			OffloadedConnection entry;
+			long lastUpdate;
+			synchronized (offloaded) {
+				LeastRecentlyUsedCache.Timestamped<OffloadedConnection> timestamped = offloaded.getTimestamped(cid);
+				if (timestamped == null) {
+					return null;
+				}
+				entry = timestamped.getValue();
+				lastUpdate = timestamped.getLastUpdate();
+				offloaded.remove(cid, entry);
+			}
+			if (entry.address != null) {
+				offloadedByAddress.remove(entry.address, cid);
+			}
+			try {
+				connection = entry.read();
+			} catch (IllegalArgumentException ex) {
+				LOGGER.warn("{}connection: reloading {} failed!", tag, cid, ex);
+				return null;
+			} finally {
+				entry.destroy();
+			}
+			if (!connections.put(cid, connection, lastUpdate)) {
+				LOGGER.warn("{}connection store is full! {} max. entries.", tag, connections.getCapacity());
+				SecretUtil.destroy(connection.getDtlsContext());
+				return null;
+			}
+			InetSocketAddress address = connection.getPeerAddress();
+			if (address != null && connectionsByAddress.putIfAbsent(address, connection) != null) {
+				// address is used by a newer connection
+				connection.updatePeerAddress(null);
+			}
+			DTLSSession session = connection.getEstablishedSession();
+			SessionId sessionId = session.getSessionIdentifier();
+			if (connectionsByEstablishedSession != null && !sessionId.isEmpty()) {
+				connectionsByEstablishedSession.putIfAbsent(sessionId, connection);
+			}
+			Principal principal = session.getPeerIdentity();
+			if (connectionsByPrincipal != null && principal != null
+					&& connectionsByPrincipal.putIfAbsent(principal, connection) != null) {
+				// principal is used by a newer connection
+				connection.setDouble();
+			}
+			connection.setConnectorContext(executor, connectionListener);
+			LOGGER.trace("{}connection: reloaded {}", tag, cid);
+			return connection;
+		} finally {
+			connections.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public Connection get(InetSocketAddress peerAddress) {
+		Connection connection = super.get(peerAddress);
+		if (connection == null) {
+			ConnectionId cid = offloadedByAddress.get(peerAddress);
+			if (cid != null) {
+				connection = reload(cid);
+			}
+		}
+		return connection;
+	}
+
+	@Override
+	public Connection get(ConnectionId cid) {
+		Connection connection = super.get(cid);
+		if (connection == null && cid != null) {
+			connection = reload(cid);
+		}
+		return connection;
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		synchronized (offloaded) {
+			Iterator<OffloadedConnection> iterator = offloaded.valuesIterator(false);
+			while (iterator.hasNext()) {
+				iterator.next().destroy();
+			}
+			offloaded.clear();
+		}
+		offloadedByAddress.clear();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Writes the already serialized offloaded connections first.
+	 * </p>
+	 */
+	@Override
+	public int saveConnections(OutputStream out, long maxQuietPeriodInSeconds) throws IOException {
+		int count = 0;
+		long startNanos = ClockUtil.nanoRealtime();
+		synchronized (offloaded) {
+			Iterator<LeastRecentlyUsedCache.Timestamped<OffloadedConnection>> iterator = offloaded
+					.timestampedIterator();
+			while (iterator.hasNext()) {
+				LeastRecentlyUsedCache.Timestamped<OffloadedConnection> entry = iterator.next();
+				long quiet = TimeUnit.NANOSECONDS.toSeconds(startNanos - entry.getLastUpdate());
+				if (quiet <= maxQuietPeriodInSeconds) {
+					entry.getValue().writeTo(out);
+					++count;
+				}
+			}
+		}
+		return count + super.saveConnections(out, maxQuietPeriodInSeconds);
+	}
+
+	/**
+	 * Offloaded connection.
+	 */
+	private static class OffloadedConnection {
+
+		/**
+		 * Connection id of the connection.
+		 */
+		private final ConnectionId cid;
+		/**
+		 * Peer address of the connection. May be {@code null}.
+		 */
+		private final InetSocketAddress address;
+		/**
+		 * Serialized connection in a slice of a direct buffer.
+		 */
+		private final ByteBuffer data;
+		/**
+		 * Slabs to release the slice on {@link #destroy()}.
+		 */
+		private final DirectBufferSlabs slabs;
+		/**
+		 * Indicates, that the slice is already released.
+		 * 
+		 * Guarded by this.
+		 */
+		private boolean destroyed;
+
+		private OffloadedConnection(ConnectionId cid, InetSocketAddress address, ByteBuffer data,
+				DirectBufferSlabs slabs) {
+			this.cid = cid;
+			this.address = address;
+			this.data = data;
+			this.slabs = slabs;
+		}
+
+		/**
+		 * Read connection.
+		 * 
+		 * @return read connection
+		 * @throws IllegalArgumentException if the data is erroneous
+		 */
+		private Connection read() {
+			byte[] bytes = new byte[data.remaining()];
+			data.duplicate().get(bytes);
+			try {
+				Connection connection = Connection.fromReader(new DatagramReader(bytes, false), 0);
+				if (connection == null) {
+					throw new IllegalArgumentException("Connection missing!");
+				}
+				return connection;
+			} finally {
+				Bytes.clear(bytes);
+			}
+		}
+
+		/**
+		 * Write serialized connection.
+		 * 
+		 * @param out output stream to write to
+		 * @throws IOException if an i/o-error occurred
+		 */
+		private void writeTo(OutputStream out) throws IOException {
+			byte[] bytes = new byte[data.remaining()];
+			data.duplicate().get(bytes);
+			try {
+				out.write(bytes);
+			} finally {
+				Bytes.clear(bytes);
+			}
+		}
+
+		/**
+		 * Destroy serialized connection.
+		 * 
+		 * Clears the slice, which contains the keys, and releases it for
+		 * reuse.
+		 */
+		private synchronized void destroy() {
+			if (!destroyed) {
+				destroyed = true;
+				ByteBuffer clear = data.duplicate();
+				((Buffer) clear).clear();
+				while (clear.hasRemaining()) {
+					clear.put((byte) 0);
+				}
+				slabs.release(data);
+			}
+		}
+	}
+
+	/**
+	 * Shared direct buffers.
+	 * 
+	 * Allocates the slices for the serialized connections from large direct
+	 * buffers, the slabs, instead of using a direct buffer per connection. The
+	 * slices are allocated in size classes of powers of two. Released slices
+	 * are kept in free lists of their size class and reused. The slabs themselves
+	 * are not released. Larger sizes are allocated as separate direct buffers.
+	 */
+	private static class DirectBufferSlabs {
+
+		/**
+		 * Size of the smallest size class.
+		 */
+		private static final int MIN_SLICE_SIZE = 128;
+		/**
+		 * Number of size classes.
+		 */
+		private static final int SIZE_CLASSES = 8;
+		/**
+		 * Size of the slabs.
+		 */
+		private static final int SLAB_SIZE = 256 * 1024;
+
+		/**
+		 * Free lists of released slices by size class.
+		 * 
+		 * Guarded by this.
+		 */
+		private final List<ArrayDeque<ByteBuffer>> free = new ArrayList<>(SIZE_CLASSES);
+		/**
+		 * Current slab. Slices are allocated from the remaining bytes.
+		 * 
+		 * Guarded by this.
+		 */
+		private ByteBuffer slab;
+
+		private DirectBufferSlabs() {
+			for (int index = 0; index < SIZE_CLASSES; ++index) {
+				free.add(new ArrayDeque<ByteBuffer>());
+			}
+		}
+
+		/**
+		 * Gets the size class.
+		 * 
+		 * @param size size in bytes
+		 * @return index of the size class, or {@code -1}, if the size exceeds
+		 *         the largest size class.
+		 */
+		private static int getSizeClass(int size) {
+			int sliceSize = MIN_SLICE_SIZE;
+			for (int index = 0; index < SIZE_CLASSES; ++index) {
+				if (size <= sliceSize) {
+					return index;
+				}
+				sliceSize <<= 1;
+			}
+			return -1;
+		}
+
+		/**
+		 * Allocates a slice.
+		 * 
+		 * @param size size in bytes
+		 * @return direct buffer with the provided size as limit
+		 */
+		private synchronized ByteBuffer allocate(int size) {
+			int sizeClass = getSizeClass(size);
+			if (sizeClass < 0) {
+				return ByteBuffer.allocateDirect(size);
+			}
+			ByteBuffer slice = free.get(sizeClass).poll();
+			if (slice == null) {
+				int sliceSize = MIN_SLICE_SIZE << sizeClass;
+				if (slab == null || slab.remaining() < sliceSize) {
+					slab = ByteBuffer.allocateDirect(SLAB_SIZE);
+				}
+				slice = slab.slice();
+				((Buffer) slice).limit(sliceSize);
+				slice = slice.slice();
+				((Buffer) slab).position(slab.position() + sliceSize);
+			}
+			((Buffer) slice).clear();
+			((Buffer) slice).limit(size);
+			return slice;
+		}
+
+		/**
+		 * Releases a slice.
+		 * 
+		 * @param slice slice allocated by {@link #allocate(int)}
+		 */
+		private synchronized void release(ByteBuffer slice) {
+			int sizeClass = getSizeClass(slice.capacity());
+			if (sizeClass >= 0 && slice.capacity() == MIN_SLICE_SIZE << sizeClass) {
+				free.get(sizeClass).add(slice);
+			}
+		}
+	}
+}
@@ -36,6 +36,7 @@ import org.eclipse.californium.elements.util.ClockUtil;
 import org.eclipse.californium.elements.util.DatagramReader;
 import org.eclipse.californium.elements.util.DatagramWriter;
 import org.eclipse.californium.elements.util.StringUtil;
+import org.eclipse.californium.scandium.dtls.cipher.CipherSuite;
 import org.eclipse.californium.scandium.dtls.cipher.InvalidMacException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -143,6 +144,15 @@ public class Record {
 	/** The raw byte representation of the fragment. */
 	private byte[] fragmentBytes;
 
+	/**
+	 * The raw byte representation of the record, if the fragment is encrypted
+	 * in place.
+	 * 
+	 * @see DTLSConnectionState#encryptInPlace(Record, byte[], int, int)
+	 * @since 3.8
+	 */
+	private byte[] recordBytes;
+
 	/** The connection id. */
 	private ConnectionId connectionId;
 	/**
@@ -245,7 +255,7 @@ public class Record {
 			this.padding = pad;
 		}
 		setEncodedFragment(context.getWriteState(epoch), fragment);
-		if (fragmentBytes == null) {
+		if (fragmentBytes == null && recordBytes == null) {
 			throw new IllegalArgumentException("Fragment missing encoded bytes!");
 		}
 	}
@@ -321,16 +331,41 @@ public class Record {
 	/**
 	 * Encodes this record into its corresponding <em>DTLSCiphertext</em> structure.
 	 * 
+	 * Since 3.8, records with a fragment encrypted in place return the byte
+	 * array, the fragment was encrypted in. That array must not be modified.
+	 * 
 	 * @return a byte array containing the <em>DTLSCiphertext</em> structure
 	 */
 	public byte[] toByteArray() {
-		final boolean useCid = useConnectionId();
-		int length = fragmentBytes.length + RECORD_HEADER_BYTES;
-		if (useCid) {
-			length += connectionId.length();
+		if (recordBytes != null) {
+			return recordBytes;
 		}
-		DatagramWriter writer = new DatagramWriter(length);
+		DatagramWriter writer = new DatagramWriter(getHeaderLength() + fragmentBytes.length);
+		writeHeader(writer, fragmentBytes.length);
+		writer.writeBytes(fragmentBytes);
+
+		return writer.toByteArray();
+	}
+
+	/**
+	 * Gets the length of the record header.
+	 * 
+	 * @return length of the record header including the connection id.
+	 * @since 3.8
+	 */
+	private int getHeaderLength() {
+		return useConnectionId() ? RECORD_HEADER_BYTES + connectionId.length() : RECORD_HEADER_BYTES;
+	}
 
+	/**
+	 * Writes the record header.
+	 * 
+	 * @param writer writer to write the header to
+	 * @param fragmentLength length of the fragment
+	 * @since 3.8
+	 */
+	private void writeHeader(DatagramWriter writer, int fragmentLength) {
+		final boolean useCid = useConnectionId();
 		if (useCid) {
 			writer.write(ContentType.TLS12_CID.getCode(), CONTENT_TYPE_BITS);
 		} else {
@@ -345,15 +380,11 @@ public class Record {
 		if (useCid) {
 			writer.writeBytes(connectionId.getBytes());
 		}
-		writer.write(fragmentBytes.length, LENGTH_BITS);
-		writer.writeBytes(fragmentBytes);
-
-		return writer.toByteArray();
+		writer.write(fragmentLength, LENGTH_BITS);
 	}
 
 	public int size() {
-		int cid = useConnectionId() ? connectionId.length() : 0;
-		return RECORD_HEADER_BYTES + cid + getFragmentLength();
+		return getHeaderLength() + getFragmentLength();
 	}
 
 	/**
@@ -673,6 +704,9 @@ public class Record {
 	 * @return the fragment length excluding record headers
 	 */
 	public int getFragmentLength() {
+		if (recordBytes != null) {
+			return recordBytes.length - getHeaderLength();
+		}
 		return fragmentBytes.length;
 	}
 
@@ -718,6 +752,9 @@ public class Record {
 	 * @return fragments byte array.
 	 */
 	public byte[] getFragmentBytes() {
+		if (fragmentBytes == null && recordBytes != null) {
+			fragmentBytes = Arrays.copyOfRange(recordBytes, getHeaderLength(), recordBytes.length);
+		}
 		return fragmentBytes;
 	}
 
@@ -777,14 +814,25 @@ public class Record {
 
 		ContentType actualType = type;
 		// decide, which type of fragment need de-cryption
-		byte[] decryptedMessage = readState.decrypt(this, fragmentBytes);
+		byte[] decryptedMessage;
+		int offset = 0;
+		int length;
+		if (readState.isInPlaceSupported()) {
+			// the plaintext is written after the explicit nonce
+			offset = readState.getCipherSuite().getRecordIvLength();
+			length = readState.decryptInPlace(this, fragmentBytes, 0, fragmentBytes.length);
+			decryptedMessage = fragmentBytes;
+		} else {
+			decryptedMessage = readState.decrypt(this, fragmentBytes);
+			length = decryptedMessage.length;
+		}
 
 		if (ContentType.TLS12_CID == type) {
-			int index = decryptedMessage.length - 1;
-			while (index >= 0 && decryptedMessage[index] == 0) {
+			int index = offset + length - 1;
+			while (index >= offset && decryptedMessage[index] == 0) {
 				--index;
 			}
-			if (index < 0) {
+			if (index < offset) {
 				throw new GeneralSecurityException("no inner type!");
 			}
 			int typeCode = decryptedMessage[index];
@@ -792,7 +840,14 @@ public class Record {
 			if (actualType == null) {
 				throw new GeneralSecurityException("unknown inner type! " + typeCode);
 			}
-			decryptedMessage = Arrays.copyOf(decryptedMessage, index);
+			length = index - offset;
+		}
+		if (decryptedMessage == fragmentBytes) {
+			decryptedMessage = Arrays.copyOfRange(fragmentBytes, offset, offset + length);
+			// don't keep the plaintext in the fragment bytes
+			Arrays.fill(fragmentBytes, offset, fragmentBytes.length, (byte) 0);
+		} else if (length < decryptedMessage.length) {
+			decryptedMessage = Arrays.copyOf(decryptedMessage, length);
 		}
 
 		switch (actualType) {
@@ -851,6 +906,28 @@ public class Record {
 		if (byteArray == null) {
 			throw new NullPointerException("fragment must not return null");
 		}
+		if (outgoingWriteState.isInPlaceSupported()) {
+			// encrypt the fragment within the buffer of the record
+			CipherSuite cipherSuite = outgoingWriteState.getCipherSuite();
+			int headerLength = getHeaderLength();
+			int offset = headerLength + cipherSuite.getRecordIvLength();
+			int length = byteArray.length;
+			if (useConnectionId()) {
+				length += 1 + padding;
+			}
+			byte[] buffer = new byte[offset + length + cipherSuite.getMacLength()];
+			System.arraycopy(byteArray, 0, buffer, offset, byteArray.length);
+			if (useConnectionId()) {
+				buffer[offset + byteArray.length] = (byte) type.getCode();
+			}
+			int fragmentLength = outgoingWriteState.encryptInPlace(this, buffer, headerLength, length);
+			DatagramWriter writer = new DatagramWriter(headerLength);
+			writeHeader(writer, fragmentLength);
+			System.arraycopy(writer.toByteArray(), 0, buffer, 0, headerLength);
+			this.recordBytes = buffer;
+			this.fragment = fragment;
+			return;
+		}
 		if (useConnectionId()) {
 			int index = byteArray.length;
 			byteArray = Arrays.copyOf(byteArray, index + 1 + padding);
@@ -905,7 +982,7 @@ public class Record {
 		if (connectionId != null) {
 			sb.append("connection id: ").append(connectionId.getAsString()).append(StringUtil.lineSeparator());
 		}
-		sb.append("Length: ").append(fragmentBytes.length).append(" bytes").append(StringUtil.lineSeparator());
+		sb.append("Length: ").append(getFragmentLength()).append(" bytes").append(StringUtil.lineSeparator());
 		sb.append("Fragment:").append(StringUtil.lineSeparator());
 		if (fragment != null) {
 			sb.append(fragment.toString(1));
@@ -129,7 +129,36 @@ public class ResumingServerHandshaker extends ServerHandshaker {
 	 */
 	public ResumingServerHandshaker(long initialRecordSequenceNo, int sequenceNumber, RecordLayer recordLayer,
 			ScheduledExecutorService timer, Connection connection, DtlsConnectorConfig config) {
-		super(initialRecordSequenceNo, sequenceNumber, recordLayer, timer, connection, config);
+		this(initialRecordSequenceNo, sequenceNumber, recordLayer, timer, connection, config, null);
+	}
+
+	/**
+	 * Creates a new handshaker for resuming an session with a client.
+	 * 
+	 * @param initialRecordSequenceNo the initial record sequence number.
+	 * @param sequenceNumber the initial message sequence number to expect from
+	 *            the peer (this parameter can be used to initialize the
+	 *            <em>receive_next_seq</em> counter to another value than 0,
+	 *            e.g. if one or more cookie exchange round-trips have been
+	 *            performed with the peer before the handshake starts).
+	 * @param recordLayer the object to use for sending flights to the peer.
+	 * @param timer scheduled executor for flight retransmission.
+	 * @param connection the connection related with the session.
+	 * @param config the DTLS configuration parameters to use for the handshake.
+	 * @param certificateEncodingCache cache for the encodings of the
+	 *            certificate related messages of the connector, used, if the
+	 *            resumption falls back to a full handshake. May be
+	 *            {@code null}, if the messages are encoded for each handshake.
+	 * @throws IllegalArgumentException if no resumption verifier is configured.
+	 * @throws NullPointerException if any of the provided parameter, except
+	 *             the certificate encoding cache, is {@code null}
+	 * @since 3.8
+	 */
+	public ResumingServerHandshaker(long initialRecordSequenceNo, int sequenceNumber, RecordLayer recordLayer,
+			ScheduledExecutorService timer, Connection connection, DtlsConnectorConfig config,
+			CertificateEncodingCache certificateEncodingCache) {
+		super(initialRecordSequenceNo, sequenceNumber, recordLayer, timer, connection, config,
+				certificateEncodingCache);
 		this.resumptionHandler = config.getResumptionVerifier();
 		if (resumptionHandler == null) {
 			throw new IllegalArgumentException("Resumption verifier missing!");
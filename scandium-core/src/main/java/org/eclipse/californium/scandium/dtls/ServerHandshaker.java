@@ -64,6 +64,7 @@ import java.util.concurrent.ScheduledExecutorService;
 
 import javax.crypto.SecretKey;
 import javax.security.auth.DestroyFailedException;
+import javax.security.auth.x500.X500Principal;
 
 import org.eclipse.californium.elements.auth.RawPublicKeyIdentity;
 import org.eclipse.californium.elements.auth.X509CertPath;
@@ -222,6 +223,14 @@ public class ServerHandshaker extends Handshaker {
 	 */
 	private XECDHECryptography ecdhe;
 
+	/**
+	 * Cache for the encodings of the certificate related messages.
+	 * {@code null}, if the messages are encoded for each handshake.
+	 * 
+	 * @since 3.8
+	 */
+	private final CertificateEncodingCache certificateEncodingCache;
+
 	/**
 	 * Creates a handshaker for negotiating a DTLS session with a client
 	 * following the full DTLS handshake protocol.
@@ -244,6 +253,35 @@ public class ServerHandshaker extends Handshaker {
 	 */
 	public ServerHandshaker(long initialRecordSequenceNo, int initialMessageSequenceNo, RecordLayer recordLayer,
 			ScheduledExecutorService timer, Connection connection, DtlsConnectorConfig config) {
+		this(initialRecordSequenceNo, initialMessageSequenceNo, recordLayer, timer, connection, config, null);
+	}
+
+	/**
+	 * Creates a handshaker for negotiating a DTLS session with a client
+	 * following the full DTLS handshake protocol.
+	 * 
+	 * @param initialRecordSequenceNo the initial record sequence number.
+	 * @param initialMessageSequenceNo the initial message sequence number to
+	 *            expect from the peer (this parameter can be used to initialize
+	 *            the <em>receive_next_seq</em> counter to another value than 0,
+	 *            e.g. if one or more cookie exchange round-trips have been
+	 *            performed with the peer before the handshake starts).
+	 * @param recordLayer the object to use for sending flights to the peer.
+	 * @param timer scheduled executor for flight retransmission.
+	 * @param connection the connection related with the session.
+	 * @param config the DTLS configuration.
+	 * @param certificateEncodingCache cache for the encodings of the
+	 *            certificate related messages of the connector. May be
+	 *            {@code null}, if the messages are encoded for each handshake.
+	 * @throws IllegalArgumentException if the initial record or message
+	 *             sequence number is negative
+	 * @throws NullPointerException if any of the provided parameter, except
+	 *             the certificate encoding cache, is {@code null}
+	 * @since 3.8
+	 */
+	public ServerHandshaker(long initialRecordSequenceNo, int initialMessageSequenceNo, RecordLayer recordLayer,
+			ScheduledExecutorService timer, Connection connection, DtlsConnectorConfig config,
+			CertificateEncodingCache certificateEncodingCache) {
 		super(initialRecordSequenceNo, initialMessageSequenceNo, recordLayer, timer, connection, config);
 
 		this.cipherSuiteSelector = config.getCipherSuiteSelector();
@@ -261,6 +299,7 @@ public class ServerHandshaker extends Handshaker {
 		this.supportedSignatureAndHashAlgorithms = config.getSupportedSignatureAlgorithms();
 		this.supportedCertificateKeyAlgorithms = config.getSupportedCertificateKeyAlgorithm();
 		this.supportDeprecatedCid = config.get(DtlsConfig.DTLS_SUPPORT_DEPRECATED_CID);
+		this.certificateEncodingCache = certificateEncodingCache;
 		setExpectedStates(CLIENT_HELLO);
 	}
 
@@ -624,9 +663,19 @@ public class ServerHandshaker extends Handshaker {
 		if (session.getCipherSuite().requiresServerCertificateMessage()) {
 			CertificateType certificateType = session.sendCertificateType();
 			if (CertificateType.RAW_PUBLIC_KEY == certificateType) {
-				certificateMessage = new CertificateMessage(cipherSuiteParameters.getPublicKey());
+				if (certificateEncodingCache != null) {
+					certificateMessage = certificateEncodingCache
+							.getCertificateMessage(cipherSuiteParameters.getPublicKey());
+				} else {
+					certificateMessage = new CertificateMessage(cipherSuiteParameters.getPublicKey());
+				}
 			} else if (CertificateType.X_509 == certificateType) {
-				certificateMessage = new CertificateMessage(cipherSuiteParameters.getCertificateChain());
+				if (certificateEncodingCache != null) {
+					certificateMessage = certificateEncodingCache
+							.getCertificateMessage(cipherSuiteParameters.getCertificateChain());
+				} else {
+					certificateMessage = new CertificateMessage(cipherSuiteParameters.getCertificateChain());
+				}
 			} else {
 				throw new IllegalArgumentException("Certificate type " + certificateType + " not supported!");
 			}
@@ -646,7 +695,7 @@ public class ServerHandshaker extends Handshaker {
 				|| KeyExchangeAlgorithm.EC_DIFFIE_HELLMAN == keyExchangeAlgorithm) {
 			try {
 				SupportedGroup ecGroup = cipherSuiteParameters.getSelectedSupportedGroup();
-				ecdhe = new XECDHECryptography(ecGroup);
+				ecdhe = createXECDHECryptography(ecGroup);
 				session.setEcGroup(ecGroup);
 			} catch (GeneralSecurityException ex) {
 				AlertMessage alert = new AlertMessage(AlertLevel.FATAL, AlertDescription.ILLEGAL_PARAMETER);
@@ -698,7 +747,12 @@ public class ServerHandshaker extends Handshaker {
 			if (CertificateType.X_509 == certificateType) {
 				certificateRequest.addSignatureAlgorithms(signatures);
 				if (certificateVerifier != null) {
-					certificateRequest.addCerticiateAuthorities(certificateVerifier.getAcceptedIssuers());
+					List<X500Principal> authorities = certificateVerifier.getAcceptedIssuers();
+					if (certificateEncodingCache != null) {
+						certificateEncodingCache.addCertificateAuthorities(certificateRequest, authorities);
+					} else {
+						certificateRequest.addCerticiateAuthorities(authorities);
+					}
 				}
 			} else if (CertificateType.RAW_PUBLIC_KEY == certificateType) {
 				CertificateKeyAlgorithm algorithm = CertificateKeyAlgorithm.getAlgorithm(publicKey);
@@ -15,6 +15,7 @@
  ******************************************************************************/
 package org.eclipse.californium.scandium.dtls.cipher;
 
+import java.nio.ByteBuffer;
 import java.security.GeneralSecurityException;
 import java.security.NoSuchAlgorithmException;
 
@@ -132,6 +133,87 @@ public final class AeadBlockCipher {
 		}
 	}
 
+	/**
+	 * Decrypt with AEAD cipher in place.
+	 * 
+	 * The decrypted message is written to the offset of the encrypted message.
+	 * 
+	 * @param cipherSuite the cipher suite
+	 * @param key the encryption key K.
+	 * @param nonce the nonce N.
+	 * @param additionalData the additional authenticated data a.
+	 * @param buffer buffer with the encrypted and authenticated message c.
+	 * @param offset the offset of the encrypted message within the buffer.
+	 * @param length the length of the encrypted message including the
+	 *            authentication tag.
+	 * @return the length of the decrypted message
+	 * 
+	 * @throws GeneralSecurityException if the message could not be de-crypted,
+	 *             e.g. because the ciphertext's block size is not correct
+	 * @throws InvalidMacException if the message could not be authenticated
+	 * @since 3.8
+	 */
+	public final static int decryptInPlace(CipherSuite cipherSuite, SecretKey key, byte[] nonce,
+			byte[] additionalData, byte[] buffer, int offset, int length) throws GeneralSecurityException {
+		if (isAesCcm(cipherSuite.getTransformation())) {
+			return CCMBlockCipher.decryptInPlace(key, nonce, additionalData, buffer, offset, length,
+					cipherSuite.getMacLength());
+		} else {
+			Cipher cipher = cipherSuite.acquireCipher();
+			try {
+				GCMParameterSpec parameterSpec = new GCMParameterSpec(cipherSuite.getMacLength() * 8, nonce);
+				cipher.init(Cipher.DECRYPT_MODE, key, parameterSpec);
+				cipher.updateAAD(additionalData);
+				return cipher.doFinal(ByteBuffer.wrap(buffer, offset, length),
+						ByteBuffer.wrap(buffer, offset, length));
+			} catch (AEADBadTagException ex) {
+				throw new InvalidMacException(ex.getMessage());
+			} finally {
+				cipherSuite.releaseCipher(cipher);
+			}
+		}
+	}
+
+	/**
+	 * Encrypt with AEAD cipher in place.
+	 * 
+	 * The encrypted message is written to the offset of the message and the
+	 * authentication tag is appended.
+	 * 
+	 * @param cipherSuite the cipher suite
+	 * @param key the encryption key K.
+	 * @param nonce the nonce N.
+	 * @param additionalData the additional authenticated data a.
+	 * @param buffer buffer with the message to authenticate and encrypt. Must
+	 *            have {@link CipherSuite#getMacLength()} bytes left after the
+	 *            message.
+	 * @param offset the offset of the message within the buffer.
+	 * @param length the length of the message.
+	 * @return the length of the encrypted message including the
+	 *         authentication tag.
+	 * @throws GeneralSecurityException if the data could not be encrypted, e.g.
+	 *             because the JVM does not support the AES cipher algorithm
+	 * @since 3.8
+	 */
+	public final static int encryptInPlace(CipherSuite cipherSuite, SecretKey key, byte[] nonce,
+			byte[] additionalData, byte[] buffer, int offset, int length) throws GeneralSecurityException {
+		if (isAesCcm(cipherSuite.getTransformation())) {
+			return CCMBlockCipher.encryptInPlace(key, nonce, additionalData, buffer, offset, length,
+					cipherSuite.getMacLength());
+		} else {
+			Cipher cipher = cipherSuite.acquireCipher();
+			try {
+				GCMParameterSpec parameterSpec = new GCMParameterSpec(cipherSuite.getMacLength() * 8, nonce);
+				cipher.init(Cipher.ENCRYPT_MODE, key, parameterSpec);
+				cipher.updateAAD(additionalData);
+				return cipher.doFinal(ByteBuffer.wrap(buffer, offset, length),
+						ByteBuffer.wrap(buffer, offset, length + cipherSuite.getMacLength()));
+			} finally {
+				cipherSuite.releaseCipher(cipher);
+			}
+		}
+	}
+
 	/**
 	 * Decrypt with jre AEAD cipher.
 	 * 
@@ -151,14 +233,16 @@ public final class AeadBlockCipher {
 	private final static byte[] jreDecrypt(CipherSuite suite, SecretKey key, byte[] nonce, byte[] additionalData,
 			byte[] crypted, int cryptedOffset, int cryptedLength) throws GeneralSecurityException {
 
-		Cipher cipher = suite.getThreadLocalCipher();
-		GCMParameterSpec parameterSpec = new GCMParameterSpec(suite.getMacLength() * 8, nonce);
-		cipher.init(Cipher.DECRYPT_MODE, key, parameterSpec);
-		cipher.updateAAD(additionalData);
+		Cipher cipher = suite.acquireCipher();
 		try {
+			GCMParameterSpec parameterSpec = new GCMParameterSpec(suite.getMacLength() * 8, nonce);
+			cipher.init(Cipher.DECRYPT_MODE, key, parameterSpec);
+			cipher.updateAAD(additionalData);
 			return cipher.doFinal(crypted, cryptedOffset, cryptedLength);
 		} catch (AEADBadTagException ex) {
 			throw new InvalidMacException(ex.getMessage());
+		} finally {
+			suite.releaseCipher(cipher);
 		}
 	}
 
@@ -178,13 +262,17 @@ public final class AeadBlockCipher {
 	 */
 	private final static byte[] jreEncrypt(int outputOffset, CipherSuite suite, SecretKey key, byte[] nonce,
 			byte[] additionalData, byte[] message) throws GeneralSecurityException {
-		Cipher cipher = suite.getThreadLocalCipher();
-		GCMParameterSpec parameterSpec = new GCMParameterSpec(suite.getMacLength() * 8, nonce);
-		cipher.init(Cipher.ENCRYPT_MODE, key, parameterSpec);
-		cipher.updateAAD(additionalData);
-		int length = cipher.getOutputSize(message.length);
-		byte[] result = new byte[length + outputOffset];
-		cipher.doFinal(message, 0, message.length, result, outputOffset);
-		return result;
+		Cipher cipher = suite.acquireCipher();
+		try {
+			GCMParameterSpec parameterSpec = new GCMParameterSpec(suite.getMacLength() * 8, nonce);
+			cipher.init(Cipher.ENCRYPT_MODE, key, parameterSpec);
+			cipher.updateAAD(additionalData);
+			int length = cipher.getOutputSize(message.length);
+			byte[] result = new byte[length + outputOffset];
+			cipher.doFinal(message, 0, message.length, result, outputOffset);
+			return result;
+		} finally {
+			suite.releaseCipher(cipher);
+		}
 	}
 }
@@ -144,6 +144,33 @@ public class CCMBlockCipher {
 			cipher.update(block, 0, blockSize, xblock);
 			return xblock;
 		}
+
+		/**
+		 * Applies the key stream of the counter blocks starting with
+		 * {@code 1} to the data.
+		 * 
+		 * Used for both, encryption and decryption.
+		 * 
+		 * @param data data to encrypt or decrypt in place
+		 * @param offset offset of the data
+		 * @param length length of the data
+		 * @throws ShortBufferException if cipher can not be realized.
+		 * @since 3.8
+		 */
+		private void xorKeyStream(byte[] data, int offset, int length) throws ShortBufferException {
+			int blockNo = 1;
+			int end = offset + length;
+			for (int i = offset; i < end;) {
+				byte[] block = updateBlock(blockNo++);
+				int blockEnd = i + blockSize;
+				if (blockEnd > end) {
+					blockEnd = end;
+				}
+				for (int j = 0; i < blockEnd; ++i, ++j) {
+					data[i] ^= block[j];
+				}
+			}
+		}
 	}
 
 	private static class MacCipher extends Block {
@@ -160,15 +187,16 @@ public class CCMBlockCipher {
 		 * @param nonce the nonce.
 		 * @param a the additional authenticated data.
 		 * @param m the message to authenticate and encrypt.
+		 * @param offsetM the offset of the message.
+		 * @param lengthM the length of the message.
 		 * @param numAuthenticationBytes Number of octets in authentication
 		 *            field.
 		 * @throws ShortBufferException if cipher can not be realized.
 		 */
-		private MacCipher(Cipher cipher, byte[] nonce, byte[] a, byte[] m, int numAuthenticationBytes)
-				throws ShortBufferException {
+		private MacCipher(Cipher cipher, byte[] nonce, byte[] a, byte[] m, int offsetM, int lengthM,
+				int numAuthenticationBytes) throws ShortBufferException {
 			super(cipher.getBlockSize());
 			this.cipher = cipher;
-			int lengthM = m.length;
 			int lengthA = a.length;
 			int nonceL = nonce.length;
 			int L = blockSize - 1 - nonceL;
@@ -252,18 +280,19 @@ public class CCMBlockCipher {
 					offset = 6;
 				}
 
-				update(a, offset);
+				update(a, 0, lengthA, offset);
 			}
-			update(m, 0);
+			update(m, offsetM, lengthM, 0);
 			mac = Arrays.copyOf(block, numAuthenticationBytes);
 		}
 
-		private void update(byte[] data, int initialBlockOffset) throws ShortBufferException {
-			int length = data.length;
-			for (int i = 0; i < length;) {
+		private void update(byte[] data, int offset, int length, int initialBlockOffset)
+				throws ShortBufferException {
+			int end = offset + length;
+			for (int i = offset; i < end;) {
 				int blockEnd = i + blockSize - initialBlockOffset;
-				if (blockEnd > length) {
-					blockEnd = length;
+				if (blockEnd > end) {
+					blockEnd = end;
 				}
 				for (int j = initialBlockOffset; i < blockEnd; ++i, ++j) {
 					block[j] ^= data[i];
@@ -356,54 +385,59 @@ public class CCMBlockCipher {
 			int cryptedOffset, int cryptedLength, int numAuthenticationBytes) throws GeneralSecurityException {
 
 		// instantiate the underlying block cipher
-		Cipher cipher = CIPHER.current();
-		cipher.init(Cipher.ENCRYPT_MODE, key);
-
-		int lengthM = cryptedLength - numAuthenticationBytes;
-		int blockSize = cipher.getBlockSize();
-
-		// decrypted data without MAC
-		byte[] decrypted = new byte[lengthM];
-		// separate MAC
-		byte[] T = new byte[numAuthenticationBytes];
-
-		BlockCipher blockCiper = new BlockCipher(cipher, nonce);
-		// block 0 for MAC
-		int blockNo = 0;
-		byte[] block = blockCiper.updateBlock(blockNo++);
-		int tOffset = cryptedOffset + lengthM;
-		for (int i = 0; i < numAuthenticationBytes; ++i) {
-			T[i] = (byte) (crypted[tOffset + i] ^ block[i]);
-		}
-
-		for (int i = 0; i < lengthM;) {
-			block = blockCiper.updateBlock(blockNo++);
-			int blockEnd = i + blockSize;
-			if (blockEnd > lengthM) {
-				blockEnd = lengthM;
+		Cipher cipher = CIPHER.acquire();
+		try {
+			cipher.init(Cipher.ENCRYPT_MODE, key);
+
+			int lengthM = cryptedLength - numAuthenticationBytes;
+			int blockSize = cipher.getBlockSize();
+
+			// decrypted data without MAC
+			byte[] decrypted = new byte[lengthM];
+			// separate MAC
+			byte[] T = new byte[numAuthenticationBytes];
+
+			BlockCipher blockCiper = new BlockCipher(cipher, nonce);
+			// block 0 for MAC
+			int blockNo = 0;
+			byte[] block = blockCiper.updateBlock(blockNo++);
+			int tOffset = cryptedOffset + lengthM;
+			for (int i = 0; i < numAuthenticationBytes; ++i) {
+				T[i] = (byte) (crypted[tOffset + i] ^ block[i]);
 			}
-			for (int j = 0; i < blockEnd; ++i, ++j) {
-				decrypted[i] = (byte) (crypted[cryptedOffset + i] ^ block[j]);
+
+			for (int i = 0; i < lengthM;) {
+				block = blockCiper.updateBlock(blockNo++);
+				int blockEnd = i + blockSize;
+				if (blockEnd > lengthM) {
+					blockEnd = lengthM;
+				}
+				for (int j = 0; i < blockEnd; ++i, ++j) {
+					decrypted[i] = (byte) (crypted[cryptedOffset + i] ^ block[j]);
+				}
 			}
-		}
 
-		/*
-		 * The message and additional authentication data is then used to
-		 * recompute the CBC-MAC value and check T.
-		 */
-		MacCipher macCipher = new MacCipher(cipher, nonce, additionalData, decrypted, numAuthenticationBytes);
-		byte[] mac = macCipher.getMac();
-
-		/*
-		 * If the T value is not correct, the receiver MUST NOT reveal any
-		 * information except for the fact that T is incorrect. The receiver
-		 * MUST NOT reveal the decrypted message, the value T, or any other
-		 * information.
-		 */
-		if (MessageDigest.isEqual(T, mac)) {
-			return decrypted;
-		} else {
-			throw new InvalidMacException(mac, T);
+			/*
+			 * The message and additional authentication data is then used to
+			 * recompute the CBC-MAC value and check T.
+			 */
+			MacCipher macCipher = new MacCipher(cipher, nonce, additionalData, decrypted, 0, lengthM,
+					numAuthenticationBytes);
+			byte[] mac = macCipher.getMac();
+
+			/*
+			 * If the T value is not correct, the receiver MUST NOT reveal any
+			 * information except for the fact that T is incorrect. The receiver
+			 * MUST NOT reveal the decrypted message, the value T, or any other
+			 * information.
+			 */
+			if (MessageDigest.isEqual(T, mac)) {
+				return decrypted;
+			} else {
+				throw new InvalidMacException(mac, T);
+			}
+		} finally {
+			CIPHER.release(cipher);
 		}
 	}
 
@@ -444,42 +478,171 @@ public class CCMBlockCipher {
 			int numAuthenticationBytes) throws GeneralSecurityException {
 
 		// instantiate the cipher
-		Cipher cipher = CIPHER.current();
-		cipher.init(Cipher.ENCRYPT_MODE, key);
-		int blockSize = cipher.getBlockSize();
-		int lengthM = message.length;
-
-		/*
-		 * First, authentication: http://tools.ietf.org/html/rfc3610#section-2.2
-		 */
-		// compute the authentication field T
-		MacCipher macCipher = new MacCipher(cipher, nonce, additionalData, message, numAuthenticationBytes);
-		byte[] mac = macCipher.getMac();
+		Cipher cipher = CIPHER.acquire();
+		try {
+			cipher.init(Cipher.ENCRYPT_MODE, key);
+			int blockSize = cipher.getBlockSize();
+			int lengthM = message.length;
+
+			/*
+			 * First, authentication: http://tools.ietf.org/html/rfc3610#section-2.2
+			 */
+			// compute the authentication field T
+			MacCipher macCipher = new MacCipher(cipher, nonce, additionalData, message, 0, lengthM,
+					numAuthenticationBytes);
+			byte[] mac = macCipher.getMac();
+
+			/*
+			 * Second, encryption http://tools.ietf.org/html/rfc3610#section-2.3
+			 */
+			// encrypted data with MAC
+			byte[] encrypted = new byte[outputOffset + lengthM + numAuthenticationBytes];
+			BlockCipher blockCiper = new BlockCipher(cipher, nonce);
+			// block 0 for MAC
+			int blockNo = 0;
+			byte[] block = blockCiper.updateBlock(blockNo++);
+			int tOffset = outputOffset + lengthM;
+			for (int i = 0; i < numAuthenticationBytes; ++i) {
+				encrypted[i + tOffset] = (byte) (mac[i] ^ block[i]);
+			}
+			for (int i = 0; i < lengthM;) {
+				block = blockCiper.updateBlock(blockNo++);
+				int blockEnd = i + blockSize;
+				if (blockEnd > lengthM) {
+					blockEnd = lengthM;
+				}
+				for (int j = 0; i < blockEnd; ++i, ++j) {
+					encrypted[i + outputOffset] = (byte) (message[i] ^ block[j]);
+				}
+			}
 
-		/*
-		 * Second, encryption http://tools.ietf.org/html/rfc3610#section-2.3
-		 */
-		// encrypted data with MAC
-		byte[] encrypted = new byte[outputOffset + lengthM + numAuthenticationBytes];
-		BlockCipher blockCiper = new BlockCipher(cipher, nonce);
-		// block 0 for MAC
-		int blockNo = 0;
-		byte[] block = blockCiper.updateBlock(blockNo++);
-		int tOffset = outputOffset + lengthM;
-		for (int i = 0; i < numAuthenticationBytes; ++i) {
-			encrypted[i + tOffset] = (byte) (mac[i] ^ block[i]);
+			return encrypted;
+		} finally {
+			CIPHER.release(cipher);
 		}
-		for (int i = 0; i < lengthM;) {
-			block = blockCiper.updateBlock(blockNo++);
-			int blockEnd = i + blockSize;
-			if (blockEnd > lengthM) {
-				blockEnd = lengthM;
+	}
+
+	/**
+	 * Decrypts in place. See
+	 * <a href="https://tools.ietf.org/html/rfc3610#section-2.5" target=
+	 * "_blank">RFC 3610</a> for details.
+	 * 
+	 * The decrypted message is written to the offset of the encrypted
+	 * message. If the message could not be authenticated, the buffer is left
+	 * unchanged.
+	 * 
+	 * @param key the encryption key K.
+	 * @param nonce the nonce N.
+	 * @param additionalData the additional authenticated data a.
+	 * @param buffer buffer with the encrypted and authenticated message c.
+	 * @param offset offset of the encrypted message within the buffer
+	 * @param length length of the encrypted message including the
+	 *            authentication field.
+	 * @param numAuthenticationBytes Number of octets in authentication field.
+	 * @return length of the decrypted message
+	 * 
+	 * @throws GeneralSecurityException if the message could not be de-crypted,
+	 *             e.g. because the ciphertext's block size is not correct
+	 * @throws InvalidMacException if the message could not be authenticated
+	 * @since 3.8
+	 */
+	public static int decryptInPlace(SecretKey key, byte[] nonce, byte[] additionalData, byte[] buffer,
+			int offset, int length, int numAuthenticationBytes) throws GeneralSecurityException {
+
+		// instantiate the underlying block cipher
+		Cipher cipher = CIPHER.acquire();
+		try {
+			cipher.init(Cipher.ENCRYPT_MODE, key);
+
+			int lengthM = length - numAuthenticationBytes;
+			if (lengthM < 0) {
+				throw new GeneralSecurityException("Ciphertext too short!");
 			}
-			for (int j = 0; i < blockEnd; ++i, ++j) {
-				encrypted[i + outputOffset] = (byte) (message[i] ^ block[j]);
+			// separate MAC
+			byte[] T = new byte[numAuthenticationBytes];
+
+			BlockCipher blockCiper = new BlockCipher(cipher, nonce);
+			// block 0 for MAC
+			byte[] block = blockCiper.updateBlock(0);
+			int tOffset = offset + lengthM;
+			for (int i = 0; i < numAuthenticationBytes; ++i) {
+				T[i] = (byte) (buffer[tOffset + i] ^ block[i]);
 			}
+			blockCiper.xorKeyStream(buffer, offset, lengthM);
+
+			/*
+			 * The message and additional authentication data is then used to
+			 * recompute the CBC-MAC value and check T.
+			 */
+			MacCipher macCipher = new MacCipher(cipher, nonce, additionalData, buffer, offset, lengthM,
+					numAuthenticationBytes);
+			byte[] mac = macCipher.getMac();
+
+			if (MessageDigest.isEqual(T, mac)) {
+				return lengthM;
+			} else {
+				// don't reveal the decrypted message, restore the ciphertext
+				blockCiper.xorKeyStream(buffer, offset, lengthM);
+				throw new InvalidMacException(mac, T);
+			}
+		} finally {
+			CIPHER.release(cipher);
 		}
+	}
 
-		return encrypted;
+	/**
+	 * Encrypts in place. See
+	 * <a href="https://tools.ietf.org/html/rfc3610#section-2.2" target=
+	 * "_blank">RFC 3610</a> for details.
+	 * 
+	 * The encrypted message is written to the offset of the message and the
+	 * authentication field is appended.
+	 * 
+	 * @param key the encryption key K.
+	 * @param nonce the nonce N.
+	 * @param additionalData the additional authenticated data a.
+	 * @param buffer buffer with the message to authenticate and encrypt. Must
+	 *            have {@code numAuthenticationBytes} left after the message.
+	 * @param offset offset of the message within the buffer
+	 * @param length length of the message
+	 * @param numAuthenticationBytes Number of octets in authentication field.
+	 * @return length of the encrypted message including the authentication
+	 *         field.
+	 * @throws GeneralSecurityException if the data could not be encrypted, e.g.
+	 *             because the JVM does not support the AES cipher algorithm
+	 * @since 3.8
+	 */
+	public static int encryptInPlace(SecretKey key, byte[] nonce, byte[] additionalData, byte[] buffer,
+			int offset, int length, int numAuthenticationBytes) throws GeneralSecurityException {
+
+		// instantiate the cipher
+		Cipher cipher = CIPHER.acquire();
+		try {
+			cipher.init(Cipher.ENCRYPT_MODE, key);
+
+			/*
+			 * First, authentication: http://tools.ietf.org/html/rfc3610#section-2.2
+			 */
+			// compute the authentication field T
+			MacCipher macCipher = new MacCipher(cipher, nonce, additionalData, buffer, offset, length,
+					numAuthenticationBytes);
+			byte[] mac = macCipher.getMac();
+
+			/*
+			 * Second, encryption http://tools.ietf.org/html/rfc3610#section-2.3
+			 */
+			BlockCipher blockCiper = new BlockCipher(cipher, nonce);
+			// block 0 for MAC
+			byte[] block = blockCiper.updateBlock(0);
+			int tOffset = offset + length;
+			for (int i = 0; i < numAuthenticationBytes; ++i) {
+				buffer[i + tOffset] = (byte) (mac[i] ^ block[i]);
+			}
+			blockCiper.xorKeyStream(buffer, offset, length);
+
+			return length + numAuthenticationBytes;
+		} finally {
+			CIPHER.release(cipher);
+		}
 	}
 }
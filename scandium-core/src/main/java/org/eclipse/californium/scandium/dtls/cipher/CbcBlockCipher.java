@@ -82,10 +82,15 @@ public class CbcBlockCipher {
 		// extend/oversize the plaintext for MAC compensation and 256 padding checks 
 		byte[] plaintextOversized = new byte[ciphertext.length + Math.max(suite.getMacMessageBlockLength(), 256)];
 		int ivlength = suite.getRecordIvLength();
-		Cipher blockCipher = suite.getThreadLocalCipher();
-		blockCipher.init(Cipher.DECRYPT_MODE, key, new IvParameterSpec(ciphertext, 0, ivlength));
-		int plaintextLength = blockCipher.doFinal(ciphertext, ivlength, ciphertext.length - ivlength,
-				plaintextOversized);
+		Cipher blockCipher = suite.acquireCipher();
+		int plaintextLength;
+		try {
+			blockCipher.init(Cipher.DECRYPT_MODE, key, new IvParameterSpec(ciphertext, 0, ivlength));
+			plaintextLength = blockCipher.doFinal(ciphertext, ivlength, ciphertext.length - ivlength,
+					plaintextOversized);
+		} finally {
+			suite.releaseCipher(blockCipher);
+		}
 		// fill up plaintext for MAC compensation
 		System.arraycopy(FILLUP, 0, plaintextOversized, plaintextLength, suite.getMacMessageBlockLength());
 		int macLength = suite.getMacLength();
@@ -113,8 +118,13 @@ public class CbcBlockCipher {
 
 		MessageDigest md = suite.getThreadLocalMacMessageDigest();
 		md.reset();
-		byte[] mac = getBlockCipherMac(suite.getThreadLocalMac(), macKey, additionalData, plaintextOversized,
-				fragmentLength);
+		Mac hmac = suite.acquireMac();
+		byte[] mac;
+		try {
+			mac = getBlockCipherMac(hmac, macKey, additionalData, plaintextOversized, fragmentLength);
+		} finally {
+			suite.releaseMac(hmac);
+		}
 
 		// estimate additional MAC Hash compressions to decouple calculation
 		// times from padding. The MAC Hash compressions are done in blocks,
@@ -187,7 +197,13 @@ public class CbcBlockCipher {
 		plainMessage.writeBytes(payload);
 
 		// add MAC
-		byte[] mac = getBlockCipherMac(suite.getThreadLocalMac(), macKey, additionalData, payload, payload.length);
+		Mac hmac = suite.acquireMac();
+		byte[] mac;
+		try {
+			mac = getBlockCipherMac(hmac, macKey, additionalData, payload, payload.length);
+		} finally {
+			suite.releaseMac(hmac);
+		}
 		plainMessage.writeBytes(mac);
 		Bytes.clear(mac);
 
@@ -203,15 +219,19 @@ public class CbcBlockCipher {
 		plainMessage.writeBytes(padding);
 		Bytes.clear(padding);
 
-		Cipher blockCipher = suite.getThreadLocalCipher();
-		blockCipher.init(Cipher.ENCRYPT_MODE, key);
-		byte[] iv = blockCipher.getIV();
 		byte[] plaintext = plainMessage.toByteArray();
 		plainMessage.close();
 
-		byte[] message = Arrays.copyOf(iv, iv.length + plaintext.length);
-		blockCipher.doFinal(plaintext, 0, plaintext.length, message, iv.length);
-		return message;
+		Cipher blockCipher = suite.acquireCipher();
+		try {
+			blockCipher.init(Cipher.ENCRYPT_MODE, key);
+			byte[] iv = blockCipher.getIV();
+			byte[] message = Arrays.copyOf(iv, iv.length + plaintext.length);
+			blockCipher.doFinal(plaintext, 0, plaintext.length, message, iv.length);
+			return message;
+		} finally {
+			suite.releaseCipher(blockCipher);
+		}
 	}
 
 	/**
@@ -290,6 +290,31 @@ public enum CipherSuite {
 		return cipher.getCipher();
 	}
 
+	/**
+	 * Acquires the cipher used by this cipher suite.
+	 * 
+	 * Must be released using {@link #releaseCipher(Cipher)} after usage.
+	 * 
+	 * @return the cipher, or {@code null}, if the cipher is not supported by
+	 *         the java-vm.
+	 * @see ThreadLocalCrypto#acquire()
+	 * @since 3.8
+	 */
+	public Cipher acquireCipher() {
+		return cipher.acquireCipher();
+	}
+
+	/**
+	 * Releases the cipher acquired by {@link #acquireCipher()}.
+	 * 
+	 * @param cipher the cipher. May be {@code null}.
+	 * @see ThreadLocalCrypto#release(Object)
+	 * @since 3.8
+	 */
+	public void releaseCipher(Cipher cipher) {
+		this.cipher.releaseCipher(cipher);
+	}
+
 	/**
 	 * Gets the 16-bit IANA assigned identification code of the cipher suite.
 	 * 
@@ -430,6 +455,30 @@ public enum CipherSuite {
 		return macAlgorithm.getMac();
 	}
 
+	/**
+	 * Acquires the MAC used by this cipher suite.
+	 * 
+	 * Must be released using {@link #releaseMac(Mac)} after usage.
+	 * 
+	 * @return mac, or {@code null}, if not supported by vm.
+	 * @see ThreadLocalCrypto#acquire()
+	 * @since 3.8
+	 */
+	public Mac acquireMac() {
+		return macAlgorithm.acquireMac();
+	}
+
+	/**
+	 * Releases the MAC acquired by {@link #acquireMac()}.
+	 * 
+	 * @param mac the mac. May be {@code null}.
+	 * @see ThreadLocalCrypto#release(Object)
+	 * @since 3.8
+	 */
+	public void releaseMac(Mac mac) {
+		macAlgorithm.releaseMac(mac);
+	}
+
 	/**
 	 * Gets the thread local message digest used by this cipher suite.
 	 * 
@@ -1115,6 +1164,30 @@ public enum CipherSuite {
 			}
 		}
 
+		/**
+		 * Acquires the MAC used by this MAC algorithm.
+		 * 
+		 * @return mac, or {@code null}, if not supported by vm.
+		 * @see ThreadLocalCrypto#acquire()
+		 * @since 3.8
+		 */
+		private Mac acquireMac() {
+			return mac == null ? null : mac.acquire();
+		}
+
+		/**
+		 * Releases the MAC acquired by {@link #acquireMac()}.
+		 * 
+		 * @param mac the mac. May be {@code null}.
+		 * @see ThreadLocalCrypto#release(Object)
+		 * @since 3.8
+		 */
+		private void releaseMac(Mac mac) {
+			if (this.mac != null) {
+				this.mac.release(mac);
+			}
+		}
+
 		/**
 		 * Gets the thread local message digest used by this MAC algorithm.
 		 * 
@@ -1242,6 +1315,31 @@ public enum CipherSuite {
 		private Cipher getCipher() {
 			return cipher == null ? null : cipher.current();
 		}
+
+		/**
+		 * Acquires the cipher used by this cipher specification.
+		 * 
+		 * @return the cipher, or {@code null}, if the cipher is not supported
+		 *         by the java-vm.
+		 * @see ThreadLocalCrypto#acquire()
+		 * @since 3.8
+		 */
+		private Cipher acquireCipher() {
+			return cipher == null ? null : cipher.acquire();
+		}
+
+		/**
+		 * Releases the cipher acquired by {@link #acquireCipher()}.
+		 * 
+		 * @param cipher the cipher. May be {@code null}.
+		 * @see ThreadLocalCrypto#release(Object)
+		 * @since 3.8
+		 */
+		private void releaseCipher(Cipher cipher) {
+			if (this.cipher != null) {
+				this.cipher.release(cipher);
+			}
+		}
 	}
 
 	/**
@@ -16,13 +16,22 @@
 package org.eclipse.californium.scandium.dtls.cipher;
 
 import java.security.GeneralSecurityException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.eclipse.californium.elements.util.ExecutorsUtil;
 import org.eclipse.californium.elements.util.JceProviderUtil;
 
 /**
  * Thread local crypto function.
  * 
  * Uses {@link ThreadLocal} to cache calls to {@link Factory#getInstance()}.
+ * 
+ * Virtual threads are usually created for each task and don't reuse their
+ * thread local instances. Since 3.8 {@link #acquire()} and
+ * {@link #release(Object)} therefore use a small shared pool of instances on
+ * virtual threads.
  */
 public class ThreadLocalCrypto<CryptoFunction> {
 
@@ -30,9 +39,28 @@ public class ThreadLocalCrypto<CryptoFunction> {
 		JceProviderUtil.init();
 	}
 
+	/**
+	 * Maximum number of idle instances shared by virtual threads.
+	 * 
+	 * @since 3.8
+	 */
+	private static final int MAX_IDLE_FUNCTIONS = Runtime.getRuntime().availableProcessors() * 2;
+
 	private final Factory<CryptoFunction> factory;
 	private final GeneralSecurityException exception;
 	private final ThreadLocal<CryptoFunction> threadLocalFunction;
+	/**
+	 * Idle instances shared by virtual threads.
+	 * 
+	 * @since 3.8
+	 */
+	private final Queue<CryptoFunction> idleFunctions = new ConcurrentLinkedQueue<>();
+	/**
+	 * Number of idle instances shared by virtual threads.
+	 * 
+	 * @since 3.8
+	 */
+	private final AtomicInteger idleFunctionsCount = new AtomicInteger();
 
 	/**
 	 * Create thread local crypto function.
@@ -88,6 +116,58 @@ public class ThreadLocalCrypto<CryptoFunction> {
 		return function;
 	}
 
+	/**
+	 * Acquire instance of crypto function.
+	 * 
+	 * On platform threads the "thread local" instance is returned. On virtual
+	 * threads an idle instance of the shared pool is returned, or a new
+	 * instance is created, if the pool is empty. The instance must be
+	 * released using {@link #release(Object)} after usage by the same thread.
+	 * 
+	 * @return crypto function, or {@code null}, if crypto function is not
+	 *         supported by the java-vm.
+	 * @since 3.8
+	 */
+	public CryptoFunction acquire() {
+		if (!isSupported()) {
+			return null;
+		}
+		if (!ExecutorsUtil.isVirtualThread()) {
+			return current();
+		}
+		CryptoFunction function = idleFunctions.poll();
+		if (function != null) {
+			idleFunctionsCount.decrementAndGet();
+			return function;
+		}
+		try {
+			return factory.getInstance();
+		} catch (GeneralSecurityException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Release instance of crypto function.
+	 * 
+	 * On virtual threads the instance is returned to the shared pool, if the
+	 * pool is not full. On platform threads the "thread local" instance is
+	 * kept.
+	 * 
+	 * @param function crypto function acquired by {@link #acquire()}. May be
+	 *            {@code null}.
+	 * @since 3.8
+	 */
+	public void release(CryptoFunction function) {
+		if (function != null && ExecutorsUtil.isVirtualThread()) {
+			if (idleFunctionsCount.incrementAndGet() <= MAX_IDLE_FUNCTIONS) {
+				idleFunctions.offer(function);
+			} else {
+				idleFunctionsCount.decrementAndGet();
+			}
+		}
+	}
+
 	/**
 	 * Get "thread local" instance of crypto function.
 	 * 
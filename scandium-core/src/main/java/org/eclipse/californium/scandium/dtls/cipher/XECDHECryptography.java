@@ -219,19 +219,28 @@ public final class XECDHECryptography implements Destroyable {
 	 *             provider doesn't support the group
 	 */
 	public XECDHECryptography(SupportedGroup supportedGroup) throws GeneralSecurityException {
-		KeyPair keyPair;
-		if (supportedGroup.getAlgorithmName().equals(EC_KEYPAIR_GENERATOR_ALGORITHM)) {
-			KeyPairGenerator keyPairGenerator = EC_KEYPAIR_GENERATOR.currentWithCause();
-			ECGenParameterSpec params = new ECGenParameterSpec(supportedGroup.name());
-			keyPairGenerator.initialize(params, RandomManager.currentSecureRandom());
-			keyPair = keyPairGenerator.generateKeyPair();
-		} else if (supportedGroup.getAlgorithmName().equals(XDH_KEYPAIR_GENERATOR_ALGORITHM)) {
-			KeyPairGenerator keyPairGenerator = XDH_KEYPAIR_GENERATOR.currentWithCause();
-			ECGenParameterSpec params = new ECGenParameterSpec(supportedGroup.name());
-			keyPairGenerator.initialize(params, RandomManager.currentSecureRandom());
-			keyPair = keyPairGenerator.generateKeyPair();
-		} else {
-			throw new GeneralSecurityException(supportedGroup.name() + " not supported by KeyPairGenerator!");
+		this(supportedGroup, (XECDHEKeyPairPool) null);
+	}
+
+	/**
+	 * Creates an ephemeral ECDH key pair for a given supported group.
+	 * 
+	 * Takes the key pair from the provided pool. If the pool is empty, or no
+	 * pool is provided, the key pair is generated.
+	 * 
+	 * @param supportedGroup a curve as defined in the <a href=
+	 *            "http://www.iana.org/assignments/tls-parameters/tls-parameters.xhtml#tls-parameters-8">
+	 *            IANA Supported Groups Registry</a>
+	 * @param pool pool of pre-generated key pairs. May be {@code null}.
+	 * @throws GeneralSecurityException if the key pair cannot be created from
+	 *             the given supported group, e.g. because the JRE's crypto
+	 *             provider doesn't support the group
+	 * @since 3.8
+	 */
+	public XECDHECryptography(SupportedGroup supportedGroup, XECDHEKeyPairPool pool) throws GeneralSecurityException {
+		KeyPair keyPair = pool == null ? null : pool.take(supportedGroup);
+		if (keyPair == null) {
+			keyPair = generateKeyPair(supportedGroup);
 		}
 		this.privateKey = keyPair.getPrivate();
 		this.publicKey = keyPair.getPublic();
@@ -240,6 +249,30 @@ public final class XECDHECryptography implements Destroyable {
 		check("OUT: ", publicKey, encodedPoint);
 	}
 
+	/**
+	 * Generate an ephemeral key pair for a given supported group.
+	 * 
+	 * @param supportedGroup supported group (curve)
+	 * @return generated key pair
+	 * @throws GeneralSecurityException if the key pair cannot be created from
+	 *             the given supported group, e.g. because the JRE's crypto
+	 *             provider doesn't support the group
+	 * @since 3.8
+	 */
+	static KeyPair generateKeyPair(SupportedGroup supportedGroup) throws GeneralSecurityException {
+		KeyPairGenerator keyPairGenerator;
+		if (supportedGroup.getAlgorithmName().equals(EC_KEYPAIR_GENERATOR_ALGORITHM)) {
+			keyPairGenerator = EC_KEYPAIR_GENERATOR.currentWithCause();
+		} else if (supportedGroup.getAlgorithmName().equals(XDH_KEYPAIR_GENERATOR_ALGORITHM)) {
+			keyPairGenerator = XDH_KEYPAIR_GENERATOR.currentWithCause();
+		} else {
+			throw new GeneralSecurityException(supportedGroup.name() + " not supported by KeyPairGenerator!");
+		}
+		ECGenParameterSpec params = new ECGenParameterSpec(supportedGroup.name());
+		keyPairGenerator.initialize(params, RandomManager.currentSecureRandom());
+		return keyPairGenerator.generateKeyPair();
+	}
+
 	/**
 	 * Get public key.
 	 * 
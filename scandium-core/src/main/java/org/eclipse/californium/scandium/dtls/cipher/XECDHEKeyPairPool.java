@@ -0,0 +1,225 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.scandium.dtls.cipher;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.californium.scandium.dtls.cipher.XECDHECryptography.SupportedGroup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of pre-generated ephemeral key pairs for the ECDHE key exchange.
+ * <p>
+ * The generation of the ephemeral key pair is one of the most expensive parts
+ * of a full handshake. If many peers start a handshake at the same time, that
+ * generation slows down the handshake processing. This pool generates the key
+ * pairs in advance using the provided executor. The key pairs are generated
+ * one by one, each by a separate job, in order to not block the executor for
+ * other jobs.
+ * </p>
+ * <p>
+ * A key pair is taken from the pool and never returned nor reused. If the pool
+ * of a supported group is empty, the key pair is generated on demand, as
+ * without pool. The pool of a supported group is filled with the first demand
+ * for that group, or by {@link #prepare(SupportedGroup)}.
+ * </p>
+ * 
+ * @since 3.8
+ */
+public class XECDHEKeyPairPool {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(XECDHEKeyPairPool.class);
+
+	/**
+	 * Number of pre-generated key pairs per supported group.
+	 */
+	private final int size;
+	/**
+	 * Executor to generate the key pairs.
+	 */
+	private final Executor executor;
+	/**
+	 * Pools per supported group.
+	 */
+	private final ConcurrentMap<SupportedGroup, GroupPool> pools = new ConcurrentHashMap<>();
+
+	/**
+	 * Create pool of key pairs.
+	 * 
+	 * @param size number of pre-generated key pairs per supported group
+	 * @param executor executor to generate the key pairs
+	 * @throws NullPointerException if executor is {@code null}
+	 * @throws IllegalArgumentException if size is less than {@code 1}
+	 */
+	public XECDHEKeyPairPool(int size, Executor executor) {
+		if (executor == null) {
+			throw new NullPointerException("Executor must not be null!");
+		}
+		if (size < 1) {
+			throw new IllegalArgumentException("Size " + size + " must be at least 1!");
+		}
+		this.size = size;
+		this.executor = executor;
+	}
+
+	/**
+	 * Get number of pre-generated key pairs per supported group.
+	 * 
+	 * @return number of pre-generated key pairs
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Get number of available key pairs for the supported group.
+	 * 
+	 * @param supportedGroup supported group
+	 * @return number of available key pairs
+	 */
+	public int available(SupportedGroup supportedGroup) {
+		GroupPool pool = pools.get(supportedGroup);
+		return pool == null ? 0 : pool.available.get();
+	}
+
+	/**
+	 * Take a key pair from the pool.
+	 * 
+	 * Triggers the generation of a new key pair.
+	 * 
+	 * @param supportedGroup supported group of the key pair
+	 * @return key pair, or {@code null}, if the pool of the supported group is
+	 *         empty.
+	 */
+	public KeyPair take(SupportedGroup supportedGroup) {
+		GroupPool pool = getPool(supportedGroup);
+		KeyPair keyPair = pool.keyPairs.poll();
+		if (keyPair != null) {
+			pool.available.decrementAndGet();
+		}
+		pool.refill();
+		return keyPair;
+	}
+
+	/**
+	 * Prepare the pool for the supported group.
+	 * 
+	 * Starts to generate the key pairs without demand.
+	 * 
+	 * @param supportedGroup supported group
+	 */
+	public void prepare(SupportedGroup supportedGroup) {
+		getPool(supportedGroup).refill();
+	}
+
+	/**
+	 * Get pool of the supported group.
+	 * 
+	 * Creates the pool, if not available.
+	 * 
+	 * @param supportedGroup supported group
+	 * @return pool of the supported group
+	 */
+	private GroupPool getPool(SupportedGroup supportedGroup) {
+		GroupPool pool = pools.get(supportedGroup);
+		if (pool == null) {
+			pool = new GroupPool(supportedGroup);
+			GroupPool previous = pools.putIfAbsent(supportedGroup, pool);
+			if (previous != null) {
+				pool = previous;
+			}
+		}
+		return pool;
+	}
+
+	/**
+	 * Clear the pool.
+	 * 
+	 * Drops all pre-generated key pairs.
+	 */
+	public void clear() {
+		for (GroupPool pool : pools.values()) {
+			while (pool.keyPairs.poll() != null) {
+				pool.available.decrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Pool of a supported group.
+	 */
+	private class GroupPool implements Runnable {
+
+		/**
+		 * Supported group of the key pairs.
+		 */
+		private final SupportedGroup supportedGroup;
+		/**
+		 * Pre-generated key pairs.
+		 */
+		private final Queue<KeyPair> keyPairs = new ConcurrentLinkedQueue<>();
+		/**
+		 * Number of available key pairs.
+		 */
+		private final AtomicInteger available = new AtomicInteger();
+		/**
+		 * Indicates, that a generation job is scheduled.
+		 */
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		private GroupPool(SupportedGroup supportedGroup) {
+			this.supportedGroup = supportedGroup;
+		}
+
+		/**
+		 * Schedule generation of a key pair, if the pool is not full and no
+		 * generation is already scheduled.
+		 */
+		private void refill() {
+			if (available.get() < size && scheduled.compareAndSet(false, true)) {
+				try {
+					executor.execute(this);
+				} catch (RejectedExecutionException ex) {
+					LOGGER.debug("{} key pair generation rejected!", supportedGroup, ex);
+					scheduled.set(false);
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				KeyPair keyPair = XECDHECryptography.generateKeyPair(supportedGroup);
+				keyPairs.offer(keyPair);
+				available.incrementAndGet();
+			} catch (GeneralSecurityException ex) {
+				LOGGER.warn("{} key pair generation failed!", supportedGroup, ex);
+				scheduled.set(false);
+				return;
+			}
+			scheduled.set(false);
+			refill();
+		}
+	}
+}
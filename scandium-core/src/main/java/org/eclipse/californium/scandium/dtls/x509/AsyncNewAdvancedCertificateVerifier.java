@@ -20,8 +20,13 @@ import java.security.PublicKey;
 import java.security.cert.CertPath;
 import java.security.cert.X509Certificate;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.californium.elements.auth.RawPublicKeyIdentity;
 import org.eclipse.californium.elements.util.DaemonThreadFactory;
@@ -42,6 +47,11 @@ import org.eclipse.californium.scandium.util.ServerNames;
  * behaviour. And positive delays for test with asynchronous none-blocking
  * behaviour.
  * 
+ * Since 3.8 the verifier may also be created with a dedicated pool of
+ * verification threads. Without delay, the verifications are then queued and
+ * processed in batches by that pool, relieving the threads of the connector
+ * from the expensive certificate path validation.
+ * 
  * @since 2.5
  */
 public class AsyncNewAdvancedCertificateVerifier extends StaticNewAdvancedCertificateVerifier {
@@ -66,11 +76,85 @@ public class AsyncNewAdvancedCertificateVerifier extends StaticNewAdvancedCertif
 	 * @see #setResultHandler(HandshakeResultHandler)
 	 */
 	private HandshakeResultHandler resultHandler;
+	/**
+	 * Dedicated pool for verifications. {@code null}, if not used.
+	 * 
+	 * @since 3.8
+	 */
+	private final ExecutorService verificationPool;
+	/**
+	 * Number of threads of the {@link #verificationPool}.
+	 * 
+	 * @since 3.8
+	 */
+	private final int verificationThreads;
+	/**
+	 * Pending verifications for the {@link #verificationPool}.
+	 * 
+	 * @since 3.8
+	 */
+	private final Queue<Runnable> pendingVerifications = new ConcurrentLinkedQueue<>();
+	/**
+	 * Number of active batch jobs of the {@link #verificationPool}.
+	 * 
+	 * @since 3.8
+	 */
+	private final AtomicInteger activeBatches = new AtomicInteger();
 
 	public AsyncNewAdvancedCertificateVerifier(X509Certificate[] trustedCertificates,
 			RawPublicKeyIdentity[] trustedRPKs, List<CertificateType> supportedCertificateTypes) {
 		super(trustedCertificates, trustedRPKs, supportedCertificateTypes);
 		executorService = ExecutorsUtil.newSingleThreadScheduledExecutor(THREAD_FACTORY); // $NON-NLS-1$
+		verificationPool = null;
+		verificationThreads = 0;
+	}
+
+	/**
+	 * Create asynchronous certificate verifier with dedicated pool of
+	 * verification threads and cache for verified certificate paths.
+	 * 
+	 * @param trustedCertificates trusted x509 certificates. {@code null} not
+	 *            support x.509, empty, to trust all.
+	 * @param trustedRPKs trusted RPK identities. {@code null} not support RPK,
+	 *            empty, to trust all.
+	 * @param supportedCertificateTypes list of supported certificate type in
+	 *            order of preference. {@code null} to create a list based on
+	 *            the provided trusts with Raw Public key before x509.
+	 * @param useEmptyAcceptedIssuers {@code true} to enable to use a empty list
+	 *            of accepted issuers instead of a list based on the provided
+	 *            certificates.
+	 * @param verificationCacheSize maximum number of cached verified
+	 *            certificate paths. {@code 0} to disable the cache.
+	 * @param verificationCacheExpiration expiration of cached verification
+	 *            results
+	 * @param unit time unit of the expiration
+	 * @param verificationThreads number of threads for the dedicated
+	 *            verification pool. {@code 0} to not use a pool.
+	 * @throws IllegalArgumentException if both, trustedCertificates and
+	 *             trustedRPKs, are {@code null}, the supportedCertificateTypes
+	 *             is empty, the trusts for an provided certificate type are
+	 *             {@code null}, or the cache size or number of threads is
+	 *             negative.
+	 * @since 3.8
+	 */
+	public AsyncNewAdvancedCertificateVerifier(X509Certificate[] trustedCertificates,
+			RawPublicKeyIdentity[] trustedRPKs, List<CertificateType> supportedCertificateTypes,
+			boolean useEmptyAcceptedIssuers, int verificationCacheSize, long verificationCacheExpiration,
+			TimeUnit unit, int verificationThreads) {
+		super(trustedCertificates, trustedRPKs, supportedCertificateTypes, useEmptyAcceptedIssuers,
+				verificationCacheSize, verificationCacheExpiration, unit);
+		if (verificationThreads < 0) {
+			throw new IllegalArgumentException("number of verification threads must not be negative!");
+		}
+		executorService = ExecutorsUtil.newSingleThreadScheduledExecutor(THREAD_FACTORY); // $NON-NLS-1$
+		if (verificationThreads > 0) {
+			this.verificationPool = ExecutorsUtil.newFixedThreadPool(verificationThreads,
+					new DaemonThreadFactory("CertVerifier#", NamedThreadFactory.SCANDIUM_THREAD_GROUP)); // $NON-NLS-1$
+			this.delayMillis = 0;
+		} else {
+			this.verificationPool = null;
+		}
+		this.verificationThreads = verificationThreads;
 	}
 
 	/**
@@ -109,13 +193,27 @@ public class AsyncNewAdvancedCertificateVerifier extends StaticNewAdvancedCertif
 	 */
 	public void shutdown() {
 		executorService.shutdown();
+		if (verificationPool != null) {
+			verificationPool.shutdown();
+		}
 	}
 
 	@Override
 	public CertificateVerificationResult verifyCertificate(final ConnectionId cid, final ServerNames serverName,
 			final InetSocketAddress remotePeer, final boolean clientUsage, final boolean verifySubject,
 			final boolean truncateCertificatePath, final CertificateMessage message) {
-		if (delayMillis <= 0) {
+		if (verificationPool != null && delayMillis == 0) {
+			pendingVerifications.offer(new Runnable() {
+
+				@Override
+				public void run() {
+					verifyCertificateAsynchronous(cid, serverName, remotePeer, clientUsage, verifySubject,
+							truncateCertificatePath, message);
+				}
+			});
+			startBatch();
+			return null;
+		} else if (delayMillis <= 0) {
 			if (delayMillis < 0) {
 				try {
 					Thread.sleep(-delayMillis);
@@ -137,6 +235,62 @@ public class AsyncNewAdvancedCertificateVerifier extends StaticNewAdvancedCertif
 		}
 	}
 
+	/**
+	 * Start batch job to process the pending verifications, if not all
+	 * threads of the verification pool are already busy.
+	 * 
+	 * @since 3.8
+	 */
+	private void startBatch() {
+		while (!pendingVerifications.isEmpty()) {
+			int active = activeBatches.get();
+			if (active >= verificationThreads) {
+				// the active batches will process the verification
+				return;
+			}
+			if (activeBatches.compareAndSet(active, active + 1)) {
+				try {
+					verificationPool.execute(new Runnable() {
+
+						@Override
+						public void run() {
+							processBatch();
+						}
+					});
+				} catch (RejectedExecutionException ex) {
+					activeBatches.decrementAndGet();
+					LOGGER.debug("verification rejected, shutdown?", ex);
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Process pending verifications.
+	 * 
+	 * Processes all pending verifications and checks for new ones after
+	 * decrementing the number of active batches to prevent pending
+	 * verifications from getting stuck.
+	 * 
+	 * @since 3.8
+	 */
+	private void processBatch() {
+		try {
+			Runnable verification;
+			while ((verification = pendingVerifications.poll()) != null) {
+				try {
+					verification.run();
+				} catch (RuntimeException ex) {
+					LOGGER.warn("verification failed!", ex);
+				}
+			}
+		} finally {
+			activeBatches.decrementAndGet();
+		}
+		startBatch();
+	}
+
 	private void verifyCertificateAsynchronous(ConnectionId cid, ServerNames serverName, InetSocketAddress remotePeer,
 			boolean clientUsage, boolean verifySubject, boolean truncateCertificatePath,
 			CertificateMessage message) {
@@ -168,8 +322,38 @@ public class AsyncNewAdvancedCertificateVerifier extends StaticNewAdvancedCertif
 
 	public static class Builder extends StaticNewAdvancedCertificateVerifier.Builder {
 
+		/**
+		 * Number of threads for the dedicated verification pool.
+		 * 
+		 * @since 3.8
+		 */
+		protected int verificationThreads;
+
+		/**
+		 * Set number of threads for the dedicated verification pool.
+		 * 
+		 * @param verificationThreads number of threads. {@code 0} to not use
+		 *            a pool.
+		 * @return this builder for chaining
+		 * @throws IllegalArgumentException if number of threads is negative
+		 * @since 3.8
+		 */
+		public Builder setVerificationThreads(int verificationThreads) {
+			if (verificationThreads < 0) {
+				throw new IllegalArgumentException("number of verification threads must not be negative!");
+			}
+			this.verificationThreads = verificationThreads;
+			return this;
+		}
+
 		public AsyncNewAdvancedCertificateVerifier build() {
-			return new AsyncNewAdvancedCertificateVerifier(trustedCertificates, trustedRPKs, supportedCertificateTypes);
+			if (verificationThreads == 0 && verificationCacheSize == 0) {
+				return new AsyncNewAdvancedCertificateVerifier(trustedCertificates, trustedRPKs,
+						supportedCertificateTypes);
+			}
+			return new AsyncNewAdvancedCertificateVerifier(trustedCertificates, trustedRPKs, supportedCertificateTypes,
+					useEmptyAcceptedIssuers, verificationCacheSize, verificationCacheExpirationSeconds,
+					TimeUnit.SECONDS, verificationThreads);
 		}
 	}
 }
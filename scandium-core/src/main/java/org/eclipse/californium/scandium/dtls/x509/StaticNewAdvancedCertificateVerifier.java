@@ -28,11 +28,14 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import javax.security.auth.x500.X500Principal;
 
 import org.eclipse.californium.elements.auth.RawPublicKeyIdentity;
 import org.eclipse.californium.elements.util.CertPathUtil;
+import org.eclipse.californium.elements.util.ClockUtil;
+import org.eclipse.californium.elements.util.LeastRecentlyUpdatedCache;
 import org.eclipse.californium.elements.util.SslContextUtil;
 import org.eclipse.californium.elements.util.StringUtil;
 import org.eclipse.californium.scandium.dtls.AlertMessage;
@@ -61,6 +64,13 @@ public class StaticNewAdvancedCertificateVerifier implements NewAdvancedCertific
 	private static final X509Certificate[] X509_TRUST_ALL = new X509Certificate[0];
 	private static final RawPublicKeyIdentity[] RPK_TRUST_ALL = new RawPublicKeyIdentity[0];
 
+	/**
+	 * Default expiration of cached verification results in seconds.
+	 * 
+	 * @since 3.8
+	 */
+	public static final long DEFAULT_VERIFICATION_CACHE_EXPIRATION_SECONDS = TimeUnit.HOURS.toSeconds(1);
+
 	protected final Logger LOGGER = LoggerFactory.getLogger(getClass());
 
 	/**
@@ -79,12 +89,31 @@ public class StaticNewAdvancedCertificateVerifier implements NewAdvancedCertific
 	private final List<CertificateType> supportedCertificateTypes;
 
 	/**
-	 * Use empty list of accepted issuers instead of a list based on the
-	 * {@link #trustedCertificates}.
+	 * Accepted issuers.
 	 * 
-	 * @since 3.3
+	 * Based on the {@link #trustedCertificates}, or empty, if the empty list of
+	 * accepted issuers is used. Prepared on creation in order to report the
+	 * same list for all certificate requests.
+	 * 
+	 * @since 3.8
+	 */
+	private final List<X500Principal> acceptedIssuers;
+
+	/**
+	 * Cache of validated certificate paths. {@code null}, if not used.
+	 * 
+	 * The trusted certificates are fixed for this verifier, therefore the key
+	 * contains only the provided certificate path and the truncate mode.
+	 * 
+	 * @since 3.8
+	 */
+	private final LeastRecentlyUpdatedCache<VerificationKey, VerifiedPath> verificationCache;
+	/**
+	 * Expiration of cached verification results in nanoseconds.
+	 * 
+	 * @since 3.8
 	 */
-	private final boolean useEmptyAcceptedIssuers;
+	private final long verificationCacheExpirationNanos;
 
 	/**
 	 * Create delegating certificate verifier for x509 and RPK.
@@ -128,6 +157,52 @@ public class StaticNewAdvancedCertificateVerifier implements NewAdvancedCertific
 	public StaticNewAdvancedCertificateVerifier(X509Certificate[] trustedCertificates,
 			RawPublicKeyIdentity[] trustedRPKs, List<CertificateType> supportedCertificateTypes,
 			boolean useEmptyAcceptedIssuers) {
+		this(trustedCertificates, trustedRPKs, supportedCertificateTypes, useEmptyAcceptedIssuers, 0,
+				DEFAULT_VERIFICATION_CACHE_EXPIRATION_SECONDS, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Create delegating certificate verifier for x509 and RPK with cache for
+	 * verified certificate paths.
+	 * 
+	 * Peers, which reconnect frequently, present the same certificate path
+	 * again and again. The cache keeps the successfully validated certificate
+	 * paths and skips the expensive path validation for them. The
+	 * verification of the key usage and the subject is still executed for
+	 * each handshake. A cached result expires either with the
+	 * {@link X509Certificate#getNotAfter()} of one of the validated
+	 * certificates, or after the provided expiration, what ever comes first.
+	 * If the trust in a certificate gets revoked, use
+	 * {@link #clearVerificationCache()}.
+	 * 
+	 * @param trustedCertificates trusted x509 certificates. {@code null} not
+	 *            support x.509, empty, to trust all.
+	 * @param trustedRPKs trusted RPK identities. {@code null} not support RPK,
+	 *            empty, to trust all.
+	 * @param supportedCertificateTypes list of supported certificate type in
+	 *            order of preference. {@code null} to create a list based on
+	 *            the provided trusts with Raw Public key before x509.
+	 * @param useEmptyAcceptedIssuers {@code true} to enable to use a empty list
+	 *            of accepted issuers instead of a list based on the provided
+	 *            certificates.
+	 * @param verificationCacheSize maximum number of cached verified
+	 *            certificate paths. {@code 0} to disable the cache.
+	 * @param verificationCacheExpiration expiration of cached verification
+	 *            results
+	 * @param unit time unit of the expiration
+	 * @throws IllegalArgumentException if both, trustedCertificates and
+	 *             trustedRPKs, are {@code null}, the supportedCertificateTypes
+	 *             is empty, the trusts for an provided certificate type are
+	 *             {@code null}, or the cache size is negative.
+	 * @since 3.8
+	 */
+	public StaticNewAdvancedCertificateVerifier(X509Certificate[] trustedCertificates,
+			RawPublicKeyIdentity[] trustedRPKs, List<CertificateType> supportedCertificateTypes,
+			boolean useEmptyAcceptedIssuers, int verificationCacheSize, long verificationCacheExpiration,
+			TimeUnit unit) {
+		if (verificationCacheSize < 0) {
+			throw new IllegalArgumentException("verification cache size must not be negative!");
+		}
 		if (trustedCertificates == null && trustedRPKs == null) {
 			throw new IllegalArgumentException("no trusts provided!");
 		}
@@ -153,7 +228,19 @@ public class StaticNewAdvancedCertificateVerifier implements NewAdvancedCertific
 				: Arrays.copyOf(trustedCertificates, trustedCertificates.length);
 		this.trustedRPKs = trustedRPKs == null ? null : new HashSet<>(Arrays.asList(trustedRPKs));
 		this.supportedCertificateTypes = Collections.unmodifiableList(supportedCertificateTypes);
-		this.useEmptyAcceptedIssuers = useEmptyAcceptedIssuers;
+		if (!useEmptyAcceptedIssuers && trustedCertificates != null) {
+			this.acceptedIssuers = Collections
+					.unmodifiableList(CertPathUtil.toSubjects(Arrays.asList(this.trustedCertificates)));
+		} else {
+			this.acceptedIssuers = CertPathUtil.toSubjects(null);
+		}
+		this.verificationCacheExpirationNanos = unit.toNanos(verificationCacheExpiration);
+		if (verificationCacheSize > 0 && trustedCertificates != null) {
+			this.verificationCache = new LeastRecentlyUpdatedCache<>(verificationCacheSize, verificationCacheSize,
+					verificationCacheExpiration, unit);
+		} else {
+			this.verificationCache = null;
+		}
 	}
 
 	@Override
@@ -213,8 +300,7 @@ public class StaticNewAdvancedCertificateVerifier implements NewAdvancedCertific
 								verifyCertificatesSubject(serverNames, remotePeer, x509Certificate);
 							}
 						}
-						certChain = CertPathUtil.validateCertificatePathWithIssuer(truncateCertificatePath, certChain,
-								trustedCertificates);
+						certChain = validateCertificatePath(truncateCertificatePath, certChain);
 					}
 					return new CertificateVerificationResult(cid, certChain, null);
 				} catch (GeneralSecurityException e) {
@@ -233,6 +319,56 @@ public class StaticNewAdvancedCertificateVerifier implements NewAdvancedCertific
 		}
 	}
 
+	/**
+	 * Validate certificate path.
+	 * 
+	 * Uses the cached result of a previous validation of the same certificate
+	 * path, if available and not expired.
+	 * 
+	 * @param truncateCertificatePath truncate certificate path at trusted
+	 *            certificate
+	 * @param certPath certificate path to validate
+	 * @return validated certificate path
+	 * @throws GeneralSecurityException if the validation fails
+	 * @see CertPathUtil#validateCertificatePathWithIssuer(boolean, CertPath,
+	 *      X509Certificate[])
+	 * @since 3.8
+	 */
+	private CertPath validateCertificatePath(boolean truncateCertificatePath, CertPath certPath)
+			throws GeneralSecurityException {
+		if (verificationCache == null) {
+			return CertPathUtil.validateCertificatePathWithIssuer(truncateCertificatePath, certPath,
+					trustedCertificates);
+		}
+		VerificationKey key = new VerificationKey(truncateCertificatePath, certPath);
+		VerifiedPath verified = verificationCache.get(key);
+		if (verified != null) {
+			if (verified.isValid()) {
+				LOGGER.trace("Certificate path validation cached");
+				return verified.path;
+			}
+			verificationCache.remove(key, verified);
+		}
+		CertPath path = CertPathUtil.validateCertificatePathWithIssuer(truncateCertificatePath, certPath,
+				trustedCertificates);
+		verificationCache.put(key, new VerifiedPath(path, ClockUtil.nanoRealtime() + verificationCacheExpirationNanos));
+		return path;
+	}
+
+	/**
+	 * Clear the cache of verified certificate paths.
+	 * 
+	 * Intended to be called, when the trust in certificates changes, e.g. by
+	 * an updated certificate revocation list.
+	 * 
+	 * @since 3.8
+	 */
+	public void clearVerificationCache() {
+		if (verificationCache != null) {
+			verificationCache.clear();
+		}
+	}
+
 	/**
 	 * Verify the certificate's subject.
 	 * 
@@ -296,11 +432,7 @@ public class StaticNewAdvancedCertificateVerifier implements NewAdvancedCertific
 
 	@Override
 	public List<X500Principal> getAcceptedIssuers() {
-		if (!useEmptyAcceptedIssuers && trustedCertificates != null) {
-			return CertPathUtil.toSubjects(Arrays.asList(trustedCertificates));
-		} else {
-			return CertPathUtil.toSubjects(null);
-		}
+		return acceptedIssuers;
 	}
 
 	@Override
@@ -340,6 +472,21 @@ public class StaticNewAdvancedCertificateVerifier implements NewAdvancedCertific
 		 */
 		protected boolean useEmptyAcceptedIssuers;
 
+		/**
+		 * Maximum number of cached verified certificate paths. {@code 0} to
+		 * disable the cache.
+		 * 
+		 * @since 3.8
+		 */
+		protected int verificationCacheSize;
+
+		/**
+		 * Expiration of cached verification results in seconds.
+		 * 
+		 * @since 3.8
+		 */
+		protected long verificationCacheExpirationSeconds = DEFAULT_VERIFICATION_CACHE_EXPIRATION_SECONDS;
+
 		/**
 		 * Set trusted x509 certificates
 		 * 
@@ -442,6 +589,33 @@ public class StaticNewAdvancedCertificateVerifier implements NewAdvancedCertific
 			return this;
 		}
 
+		/**
+		 * Set cache for verified certificate paths.
+		 * 
+		 * @param size maximum number of cached verified certificate paths.
+		 *            {@code 0} to disable the cache.
+		 * @param expiration expiration of cached verification results
+		 * @param unit time unit of expiration
+		 * @return this builder for chaining
+		 * @throws IllegalArgumentException if size is negative or expiration
+		 *             is less than 1 second.
+		 * @see StaticNewAdvancedCertificateVerifier#StaticNewAdvancedCertificateVerifier(X509Certificate[],
+		 *      RawPublicKeyIdentity[], List, boolean, int, long, TimeUnit)
+		 * @since 3.8
+		 */
+		public Builder setVerificationCache(int size, long expiration, TimeUnit unit) {
+			if (size < 0) {
+				throw new IllegalArgumentException("cache size must not be negative!");
+			}
+			long seconds = unit.toSeconds(expiration);
+			if (seconds < 1) {
+				throw new IllegalArgumentException("cache expiration must be at least 1s!");
+			}
+			this.verificationCacheSize = size;
+			this.verificationCacheExpirationSeconds = seconds;
+			return this;
+		}
+
 		/**
 		 * Check, if any trust is available.
 		 * 
@@ -458,7 +632,85 @@ public class StaticNewAdvancedCertificateVerifier implements NewAdvancedCertific
 		 */
 		public NewAdvancedCertificateVerifier build() {
 			return new StaticNewAdvancedCertificateVerifier(trustedCertificates, trustedRPKs, supportedCertificateTypes,
-					useEmptyAcceptedIssuers);
+					useEmptyAcceptedIssuers, verificationCacheSize, verificationCacheExpirationSeconds,
+					TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * Key of verification cache.
+	 * 
+	 * @since 3.8
+	 */
+	private static class VerificationKey {
+
+		private final boolean truncateCertificatePath;
+		private final CertPath certPath;
+		private final int hash;
+
+		private VerificationKey(boolean truncateCertificatePath, CertPath certPath) {
+			this.truncateCertificatePath = truncateCertificatePath;
+			this.certPath = certPath;
+			this.hash = certPath.hashCode() * 31 + (truncateCertificatePath ? 1 : 0);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			} else if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			VerificationKey other = (VerificationKey) obj;
+			return truncateCertificatePath == other.truncateCertificatePath && certPath.equals(other.certPath);
+		}
+	}
+
+	/**
+	 * Verified certificate path.
+	 * 
+	 * @since 3.8
+	 */
+	private static class VerifiedPath {
+
+		/**
+		 * Validated certificate path.
+		 */
+		private final CertPath path;
+		/**
+		 * Earliest {@link X509Certificate#getNotAfter()} of the validated
+		 * certificates in milliseconds since epoch.
+		 */
+		private final long notAfterMillis;
+		/**
+		 * Expiration of the cached result in nano-realtime.
+		 */
+		private final long expiresNanos;
+
+		private VerifiedPath(CertPath path, long expiresNanos) {
+			long notAfter = Long.MAX_VALUE;
+			for (Certificate certificate : path.getCertificates()) {
+				if (certificate instanceof X509Certificate) {
+					notAfter = Math.min(notAfter, ((X509Certificate) certificate).getNotAfter().getTime());
+				}
+			}
+			this.path = path;
+			this.notAfterMillis = notAfter;
+			this.expiresNanos = expiresNanos;
+		}
+
+		/**
+		 * Check, if the cached result is still valid.
+		 * 
+		 * @return {@code true}, if valid, {@code false}, if expired.
+		 */
+		private boolean isValid() {
+			return System.currentTimeMillis() < notAfterMillis && ClockUtil.nanoRealtime() - expiresNanos < 0;
 		}
 	}
 }
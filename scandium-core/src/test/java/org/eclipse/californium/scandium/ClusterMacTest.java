@@ -151,4 +151,21 @@ public class ClusterMacTest {
 		assertFalse(DtlsManagedClusterConnector.validateClusterMac(mac, largeRecord));
 
 	}
+
+	@Test
+	public void testBatchClusterMac() throws Exception {
+		Mac mac = CipherSuite.TLS_PSK_WITH_AES_128_CCM_8.getThreadLocalPseudoRandomFunctionMac();
+		mac.init(key);
+
+		byte[] data = largeRecord.getData();
+		data[DtlsClusterConnector.CLUSTER_RECORD_TYPE_OFFSET] = DtlsClusterConnector.RECORD_TYPE_INCOMING_BATCH;
+		DtlsManagedClusterConnector.setClusterBatchMac(mac, largeRecord);
+
+		assertTrue(DtlsManagedClusterConnector.validateClusterBatchMac(mac, largeRecord));
+
+		// modify last record of batch
+		data[data.length - 1] += 1;
+
+		assertFalse(DtlsManagedClusterConnector.validateClusterBatchMac(mac, largeRecord));
+	}
 }
@@ -65,12 +65,16 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.net.DatagramPacket;
 import java.net.InetSocketAddress;
 import java.security.GeneralSecurityException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.californium.elements.AddressEndpointContext;
 import org.eclipse.californium.elements.RawData;
@@ -1234,6 +1238,153 @@ public class DTLSConnectorTest {
 		assertThat(callback.isConnecting(), is(false));
 	}
 
+	/**
+	 * Test, that pending application records are sent in one datagram, if
+	 * {@link DtlsConfig#DTLS_USE_MULTI_APPLICATION_DATA_RECORDS} is enabled.
+	 */
+	@Test
+	public void testSendingPendingApplicationRecordsInOneDatagram() throws Exception {
+		final int messages = 5;
+		final AtomicInteger datagrams = new AtomicInteger();
+		client.destroy();
+		clientConfig = newClientConfigBuilder().setAddress(LOCAL)
+				.set(DtlsConfig.DTLS_USE_MULTI_APPLICATION_DATA_RECORDS, true).build();
+		clientConnectionStore = ConnectorHelper.createDebugConnectionStore(clientConfig);
+		client = new DTLSConnector(clientConfig, clientConnectionStore) {
+
+			@Override
+			protected void sendNextDatagramOverNetwork(DatagramPacket datagramPacket) throws IOException {
+				datagrams.incrementAndGet();
+				super.sendNextDatagramOverNetwork(datagramPacket);
+			}
+		};
+		client.setExecutor(executor);
+		givenAnEstablishedSession(false);
+
+		// GIVEN a blocked serial executor of the connection
+		final CountDownLatch block = new CountDownLatch(1);
+		Connection connection = clientConnectionStore.get(serverHelper.serverEndpoint);
+		connection.getExecutor().execute(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					block.await(MAX_TIME_TO_WAIT_SECS, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+				}
+			}
+		});
+		SimpleMessageCallback callback = new SimpleMessageCallback(messages, false);
+		datagrams.set(0);
+
+		// WHEN sending messages, while the serial executor is blocked
+		for (int index = 0; index < messages; ++index) {
+			client.send(RawData.outbound(("Hello " + index).getBytes(),
+					new AddressEndpointContext(serverHelper.serverEndpoint), callback, false));
+		}
+		block.countDown();
+
+		// THEN assert, that all messages are sent in one datagram
+		assertThat(callback.await(TimeUnit.SECONDS.toMillis(MAX_TIME_TO_WAIT_SECS)), is(true));
+		assertThat(datagrams.get(), is(1));
+	}
+
+	/**
+	 * Test, that application records are received, if
+	 * {@link DtlsConfig#DTLS_PARALLEL_RECORD_DECRYPTION} is enabled.
+	 */
+	@Test
+	public void testReceivingWithParallelRecordDecryption() throws Exception {
+		final int messages = 10;
+		client.destroy();
+		clientConfig = newClientConfigBuilder().setAddress(LOCAL)
+				.set(DtlsConfig.DTLS_PARALLEL_RECORD_DECRYPTION, true).build();
+		clientConnectionStore = ConnectorHelper.createDebugConnectionStore(clientConfig);
+		client = serverHelper.createClient(clientConfig, clientConnectionStore);
+		client.setExecutor(executor);
+		LatchDecrementingRawDataChannel clientChannel = new LatchDecrementingRawDataChannel(1);
+		client.setRawDataReceiver(clientChannel);
+		client.start();
+
+		// GIVEN an established session
+		client.send(RawData.outbound("Hello".getBytes(), new AddressEndpointContext(serverHelper.serverEndpoint),
+				null, false));
+		assertThat(clientChannel.await(MAX_TIME_TO_WAIT_SECS, TimeUnit.SECONDS), is(true));
+
+		// WHEN sending messages, which are responded by the server
+		clientChannel.setLatchCount(messages);
+		for (int index = 0; index < messages; ++index) {
+			client.send(RawData.outbound(("Hello " + index).getBytes(),
+					new AddressEndpointContext(serverHelper.serverEndpoint), null, false));
+		}
+
+		// THEN assert, that all responses are received
+		assertThat(clientChannel.await(MAX_TIME_TO_WAIT_SECS, TimeUnit.SECONDS), is(true));
+	}
+
+	/**
+	 * Test, that the {@link DatagramFilter} is applied to application
+	 * records before decrypting them, if
+	 * {@link DtlsConfig#DTLS_PARALLEL_RECORD_DECRYPTION} is enabled.
+	 */
+	@Test
+	public void testDatagramFilterWithParallelRecordDecryption() throws Exception {
+		final int messages = 10;
+		final AtomicBoolean reject = new AtomicBoolean();
+		final AtomicInteger filtered = new AtomicInteger();
+		final AtomicInteger decoded = new AtomicInteger();
+		client.destroy();
+		clientConfig = newClientConfigBuilder().setAddress(LOCAL)
+				.set(DtlsConfig.DTLS_PARALLEL_RECORD_DECRYPTION, true).setDatagramFilter(new DatagramFilter() {
+
+					@Override
+					public boolean onReceiving(DatagramPacket packet) {
+						return true;
+					}
+
+					@Override
+					public boolean onReceiving(Record record, Connection connection) {
+						if (record.isDecoded()) {
+							decoded.incrementAndGet();
+						}
+						if (reject.get()) {
+							filtered.incrementAndGet();
+							return false;
+						}
+						return true;
+					}
+
+					@Override
+					public boolean onMacError(Record record, Connection connection) {
+						return false;
+					}
+				}).build();
+		clientConnectionStore = ConnectorHelper.createDebugConnectionStore(clientConfig);
+		client = serverHelper.createClient(clientConfig, clientConnectionStore);
+		client.setExecutor(executor);
+		LatchDecrementingRawDataChannel clientChannel = new LatchDecrementingRawDataChannel(1);
+		client.setRawDataReceiver(clientChannel);
+		client.start();
+
+		// GIVEN an established session
+		client.send(RawData.outbound("Hello".getBytes(), new AddressEndpointContext(serverHelper.serverEndpoint),
+				null, false));
+		assertThat(clientChannel.await(MAX_TIME_TO_WAIT_SECS, TimeUnit.SECONDS), is(true));
+
+		// WHEN the filter rejects the records of the responses
+		reject.set(true);
+		clientChannel.setLatchCount(messages);
+		for (int index = 0; index < messages; ++index) {
+			client.send(RawData.outbound(("Hello " + index).getBytes(),
+					new AddressEndpointContext(serverHelper.serverEndpoint), null, false));
+		}
+
+		// THEN assert, that no response is received
+		assertThat(clientChannel.await(1, TimeUnit.SECONDS), is(false));
+		assertThat(filtered.get(), is(messages));
+		assertThat(decoded.get(), is(0));
+	}
+
 	private ClientHello createClientHello(CipherSuite... cipherSuites) {
 		return createClientHello(ProtocolVersion.VERSION_DTLS_1_2, cipherSuites);
 	}
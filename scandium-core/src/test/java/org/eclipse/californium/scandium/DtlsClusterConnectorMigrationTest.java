@@ -0,0 +1,277 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ ******************************************************************************/
+package org.eclipse.californium.scandium;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.californium.elements.category.Small;
+import org.eclipse.californium.elements.config.Configuration;
+import org.eclipse.californium.elements.rule.TestNameLoggerRule;
+import org.eclipse.californium.elements.rule.ThreadsRule;
+import org.eclipse.californium.elements.util.DatagramReader;
+import org.eclipse.californium.elements.util.DatagramWriter;
+import org.eclipse.californium.scandium.DtlsClusterConnector.ConnectionMigrationHandler;
+import org.eclipse.californium.scandium.config.DtlsClusterConnectorConfig;
+import org.eclipse.californium.scandium.config.DtlsConfig;
+import org.eclipse.californium.scandium.config.DtlsConnectorConfig;
+import org.eclipse.californium.scandium.dtls.CertificateType;
+import org.eclipse.californium.scandium.dtls.Connection;
+import org.eclipse.californium.scandium.dtls.ConnectionId;
+import org.eclipse.californium.scandium.dtls.ConsistentHashConnectionIdGenerator;
+import org.eclipse.californium.scandium.dtls.DTLSContext;
+import org.eclipse.californium.scandium.dtls.DTLSContextTest;
+import org.eclipse.californium.scandium.dtls.DebugConnectionStore;
+import org.eclipse.californium.scandium.dtls.JournalConnectionStore;
+import org.eclipse.californium.scandium.dtls.cipher.CipherSuite;
+import org.eclipse.californium.scandium.dtls.pskstore.AdvancedSinglePskStore;
+import org.eclipse.californium.scandium.rule.DtlsNetworkRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Test for migrating connections between cluster nodes.
+ */
+@Category(Small.class)
+public class DtlsClusterConnectorMigrationTest {
+
+	@ClassRule
+	public static DtlsNetworkRule network = new DtlsNetworkRule(DtlsNetworkRule.Mode.DIRECT,
+			DtlsNetworkRule.Mode.NATIVE);
+
+	@ClassRule
+	public static ThreadsRule cleanup = new ThreadsRule();
+
+	@Rule
+	public TestNameLoggerRule names = new TestNameLoggerRule();
+
+	private static final long DEFAULT_TIMEOUT_MILLIS = 2000;
+	private static final long REALTIME_SHIFT_NANOS = TimeUnit.SECONDS.toNanos(5);
+	private static final int CID_LENGTH = 6;
+	private static final int NODE_ID_1 = 1;
+	private static final int NODE_ID_2 = 2;
+
+	private static InetAddress loopback = InetAddress.getLoopbackAddress();
+	private static InetSocketAddress dtlsAddress1 = new InetSocketAddress(loopback, 15686);
+	private static InetSocketAddress dtlsAddress2 = new InetSocketAddress(loopback, 25686);
+	private static InetSocketAddress mgmtAddress1 = new InetSocketAddress(loopback, 15786);
+	private static InetSocketAddress mgmtAddress2 = new InetSocketAddress(loopback, 25786);
+	private static InetSocketAddress clientAddress = new InetSocketAddress(loopback, 35686);
+
+	private ConsistentHashConnectionIdGenerator cidGenerator2;
+	private DebugConnectionStore store1;
+	private DebugConnectionStore store2;
+	private DtlsClusterConnector connector1;
+	private DtlsClusterConnector connector2;
+
+	@Before
+	public void init() throws IOException {
+		Configuration configuration = network.createTestConfig().set(DtlsConfig.DTLS_MAX_CONNECTIONS, 10)
+				.set(DtlsConfig.DTLS_RECEIVER_THREAD_COUNT, 2).set(DtlsConfig.DTLS_CONNECTOR_THREAD_COUNT, 2);
+		DtlsClusterConnector.ClusterNodesProvider nodesProvider = new DtlsClusterConnector.ClusterNodesProvider() {
+
+			@Override
+			public InetSocketAddress getClusterNode(int nodeId) {
+				switch (nodeId) {
+				case NODE_ID_1:
+					return mgmtAddress1;
+				case NODE_ID_2:
+					return mgmtAddress2;
+				}
+				return null;
+			}
+
+			@Override
+			public boolean available(InetSocketAddress destinationConnector) {
+				return true;
+			}
+
+		};
+
+		DtlsConnectorConfig config1 = DtlsConnectorConfig.builder(configuration).setAddress(dtlsAddress1)
+				.setAdvancedPskStore(new AdvancedSinglePskStore(ConnectorHelper.CLIENT_IDENTITY,
+						ConnectorHelper.CLIENT_IDENTITY_SECRET.getBytes()))
+				.setConnectionIdGenerator(new ConsistentHashConnectionIdGenerator(NODE_ID_1, CID_LENGTH)).build();
+		store1 = ConnectorHelper.createDebugConnectionStore(config1);
+		connector1 = new DtlsClusterConnector(config1,
+				DtlsClusterConnectorConfig.builder().setAddress(mgmtAddress1).build(), store1, true);
+		connector1.setClusterNodesProvider(nodesProvider);
+
+		cidGenerator2 = new ConsistentHashConnectionIdGenerator(NODE_ID_2, CID_LENGTH);
+		DtlsConnectorConfig config2 = DtlsConnectorConfig.builder(configuration).setAddress(dtlsAddress2)
+				.setAdvancedPskStore(new AdvancedSinglePskStore(ConnectorHelper.CLIENT_IDENTITY,
+						ConnectorHelper.CLIENT_IDENTITY_SECRET.getBytes()))
+				.setConnectionIdGenerator(cidGenerator2).build();
+		store2 = ConnectorHelper.createDebugConnectionStore(config2);
+		connector2 = new DtlsClusterConnector(config2,
+				DtlsClusterConnectorConfig.builder().setAddress(mgmtAddress2).build(), store2, true);
+		connector2.setClusterNodesProvider(nodesProvider);
+
+		connector1.start();
+		connector2.start();
+		connector1.setClusterNodeIds(Arrays.asList(NODE_ID_1, NODE_ID_2));
+		connector2.setClusterNodeIds(Arrays.asList(NODE_ID_1, NODE_ID_2));
+	}
+
+	@After
+	public void shutdown() {
+		if (connector1 != null) {
+			connector1.destroy();
+			connector1 = null;
+		}
+		if (connector2 != null) {
+			connector2.destroy();
+			connector2 = null;
+		}
+	}
+
+	@Test
+	public void testConnectionMigration() throws Exception {
+		// GIVEN a connection on node 1 owned by node 2
+		Connection connection = newConnection(cidGenerator2.createConnectionId());
+		ConnectionId cid = connection.getConnectionId();
+		assertThat(connector1.restoreConnection(connection), is(true));
+
+		// WHEN migrating the connection
+		final AtomicInteger nodeId = new AtomicInteger();
+		final AtomicReference<byte[]> migrated = new AtomicReference<>();
+		connector1.startConnectionMigration(new ConnectionMigrationHandler() {
+
+			@Override
+			public boolean migrate(int node, byte[] data) {
+				nodeId.set(node);
+				migrated.set(data.clone());
+				return true;
+			}
+		}).get(DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+		// THEN the connection is passed to node 2, but kept frozen until
+		// acknowledged
+		assertThat(nodeId.get(), is(NODE_ID_2));
+		assertThat(migrated.get(), is(notNullValue()));
+		assertThat(store1.get(cid), is(sameInstance(connection)));
+		assertThat(connection.isFrozen(), is(true));
+
+		// WHEN restoring the connection on node 2 with a realtime behind node 1
+		byte[] data = shiftRealtime(migrated.get(), -REALTIME_SHIFT_NANOS);
+		assertThat(connector2.restoreMigratedConnection(data), is(cid));
+
+		// THEN the restored connection is adjusted to the realtime of node 2
+		Connection restored = store2.get(cid);
+		assertThat(restored, is(notNullValue()));
+		assertThat(restored.getPeerAddress(), is(connection.getPeerAddress()));
+		assertThat(restored.getEstablishedSessionIdentifier(), is(connection.getEstablishedSessionIdentifier()));
+		assertThat(restored.getLastMessageNanos() - connection.getLastMessageNanos(),
+				is(greaterThanOrEqualTo(REALTIME_SHIFT_NANOS)));
+		// AND the sequence numbers are advanced by a gap
+		assertThat(restored.getEstablishedDtlsContext().getNextSequenceNumber(),
+				is(greaterThanOrEqualTo(connection.getEstablishedDtlsContext().getNextSequenceNumber()
+						+ JournalConnectionStore.SEQUENCE_NUMBER_GAP)));
+		assertThat(store1.get(cid), is(sameInstance(connection)));
+
+		// WHEN acknowledged
+		assertThat(connector1.completeConnectionMigration(cid), is(true));
+
+		// THEN the connection is removed from node 1
+		assertThat(store1.get(cid), is(nullValue()));
+		assertThat(connector1.completeConnectionMigration(cid), is(false));
+
+		// AND restoring it again is rejected, the CID is already in use
+		assertThat(connector2.restoreMigratedConnection(data), is(nullValue()));
+		assertThat(store2.get(cid), is(sameInstance(restored)));
+	}
+
+	@Test
+	public void testRejectedConnectionMigration() throws Exception {
+		// GIVEN a connection on node 1 owned by node 2
+		Connection connection = newConnection(cidGenerator2.createConnectionId());
+		ConnectionId cid = connection.getConnectionId();
+		assertThat(connector1.restoreConnection(connection), is(true));
+
+		// WHEN the migration is rejected
+		connector1.startConnectionMigration(new ConnectionMigrationHandler() {
+
+			@Override
+			public boolean migrate(int node, byte[] data) {
+				return false;
+			}
+		}).get(DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+		// THEN the connection is kept on node 1
+		assertThat(connector1.completeConnectionMigration(cid), is(false));
+		assertThat(store1.get(cid), is(sameInstance(connection)));
+		assertThat(connection.isFrozen(), is(false));
+	}
+
+	@Test
+	public void testConnectionMigrationTimeout() throws Exception {
+		// GIVEN a connection on node 1 owned by node 2
+		Connection connection = newConnection(cidGenerator2.createConnectionId());
+		ConnectionId cid = connection.getConnectionId();
+		assertThat(connector1.restoreConnection(connection), is(true));
+
+		// WHEN the migrated connection or the acknowledge gets lost
+		connector1.startConnectionMigration(new ConnectionMigrationHandler() {
+
+			@Override
+			public boolean migrate(int node, byte[] data) {
+				return true;
+			}
+		}).get(DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+		assertThat(connection.isFrozen(), is(true));
+
+		// THEN the migration is aborted and the connection is used again on
+		// node 1
+		long timeout = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DEFAULT_TIMEOUT_MILLIS * 2);
+		while (connection.isFrozen() && System.nanoTime() - timeout < 0) {
+			Thread.sleep(100);
+		}
+		assertThat(connection.isFrozen(), is(false));
+		assertThat(connector1.completeConnectionMigration(cid), is(false));
+		assertThat(store1.get(cid), is(sameInstance(connection)));
+	}
+
+	private static Connection newConnection(ConnectionId cid) throws Exception {
+		Connection connection = new Connection(clientAddress);
+		connection.setConnectionId(cid);
+		DTLSContext context = DTLSContextTest.newEstablishedServerDtlsContext(
+				CipherSuite.TLS_ECDHE_ECDSA_WITH_AES_128_CCM_8, CertificateType.RAW_PUBLIC_KEY);
+		connection.getSessionListener().contextEstablished(null, context);
+		return connection;
+	}
+
+	private static byte[] shiftRealtime(byte[] data, long shiftNanos) {
+		DatagramReader reader = new DatagramReader(data);
+		DatagramWriter writer = new DatagramWriter(data.length);
+		writer.writeLong(reader.readLong(Long.SIZE) + shiftNanos, Long.SIZE);
+		writer.writeBytes(reader.readBytesLeft());
+		return writer.toByteArray();
+	}
+}
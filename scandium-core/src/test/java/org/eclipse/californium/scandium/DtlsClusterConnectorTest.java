@@ -20,8 +20,10 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.net.DatagramPacket;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.util.Arrays;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
@@ -33,6 +35,7 @@ import org.eclipse.californium.elements.category.Small;
 import org.eclipse.californium.elements.config.Configuration;
 import org.eclipse.californium.elements.rule.TestNameLoggerRule;
 import org.eclipse.californium.elements.rule.ThreadsRule;
+import org.eclipse.californium.elements.util.DatagramWriter;
 import org.eclipse.californium.elements.util.LeastRecentlyUsedCache.Predicate;
 import org.eclipse.californium.elements.util.SimpleMessageCallback;
 import org.eclipse.californium.scandium.ConnectorHelper.LatchDecrementingRawDataChannel;
@@ -42,6 +45,7 @@ import org.eclipse.californium.scandium.config.DtlsClusterConnectorConfig;
 import org.eclipse.californium.scandium.config.DtlsConfig;
 import org.eclipse.californium.scandium.config.DtlsConnectorConfig;
 import org.eclipse.californium.scandium.dtls.Connection;
+import org.eclipse.californium.scandium.dtls.ContentType;
 import org.eclipse.californium.scandium.dtls.MultiNodeConnectionIdGenerator;
 import org.eclipse.californium.scandium.dtls.ResumptionSupportingConnectionStore;
 import org.eclipse.californium.scandium.dtls.SingleNodeConnectionIdGenerator;
@@ -82,6 +86,7 @@ public class DtlsClusterConnectorTest {
 
 	private static DtlsClusterConnector connector1;
 	private static DtlsClusterConnector connector2;
+	private static DtlsClusterHealthLogger health1;
 	private static MessageCapturingProcessor messages1;
 	private static MessageCapturingProcessor messages2;
 	private static Configuration configuration;
@@ -103,9 +108,11 @@ public class DtlsClusterConnectorTest {
 				.set(DtlsConfig.DTLS_RECEIVER_THREAD_COUNT, 2)
 				.set(DtlsConfig.DTLS_CONNECTOR_THREAD_COUNT, 2);
 
+		health1 = new DtlsClusterHealthLogger("server1");
 		DtlsConnectorConfig config1 = DtlsConnectorConfig.builder(configuration)
 				.setAddress(dtlsAddress1)
 				.setAdvancedPskStore(testPskStore1)
+				.setHealthHandler(health1)
 				.setConnectionIdGenerator(new MultiNodeConnectionIdGenerator(NODE_ID_1, CID_LENGTH)).build();
 
 		DtlsClusterConnectorConfig clusterConfig1 = DtlsClusterConnectorConfig.builder()
@@ -256,4 +263,61 @@ public class DtlsClusterConnectorTest {
 
 		assertEquals(9, clientConnections.remainingCapacity());
 	}
+
+	/**
+	 * Process valid, truncated, and malformed batches of forwarded records.
+	 * 
+	 * @throws Exception if an error occurred
+	 */
+	@Test
+	public void testProcessBatchFromClusterNetwork() throws Exception {
+		byte[] record = new byte[] { (byte) ContentType.HANDSHAKE.getCode(), 1, 2, 3, 4, 5, 6, 7, 8 };
+		byte[] address = loopback.getAddress();
+
+		// valid batch with two records
+		DatagramWriter writer = new DatagramWriter();
+		writer.writeByte(DtlsClusterConnector.RECORD_TYPE_INCOMING_BATCH);
+		writeBatchRecord(writer, address, record);
+		writeBatchRecord(writer, address, record);
+		assertBatch(writer.toByteArray(), 2, 0);
+
+		// truncated second record
+		writer.writeByte(DtlsClusterConnector.RECORD_TYPE_INCOMING_BATCH);
+		writeBatchRecord(writer, address, record);
+		writeBatchRecord(writer, address, record);
+		byte[] batch = writer.toByteArray();
+		assertBatch(Arrays.copyOf(batch, batch.length - 3), 1, 1);
+
+		// malformed address length
+		writer.writeByte(DtlsClusterConnector.RECORD_TYPE_INCOMING_BATCH);
+		writeBatchRecord(writer, new byte[7], record);
+		assertBatch(writer.toByteArray(), 0, 1);
+
+		// truncated record header
+		writer.writeByte(DtlsClusterConnector.RECORD_TYPE_INCOMING_BATCH);
+		writeBatchRecord(writer, address, record);
+		writer.writeByte((byte) 1);
+		writer.writeByte((byte) 2);
+		assertBatch(writer.toByteArray(), 1, 1);
+	}
+
+	private static void writeBatchRecord(DatagramWriter writer, byte[] address, byte[] record) {
+		int port = 5684;
+		writer.writeByte((byte) port);
+		writer.writeByte((byte) (port >> 8));
+		writer.writeByte((byte) address.length);
+		writer.writeBytes(address);
+		writer.writeByte((byte) record.length);
+		writer.writeByte((byte) (record.length >> 8));
+		writer.writeBytes(record);
+	}
+
+	private static void assertBatch(byte[] batch, int processed, int dropped) throws IOException {
+		long processedBefore = health1.getCounterByKey("process forwarded");
+		long droppedBefore = health1.getCounterByKey("drop forward");
+		DatagramPacket packet = new DatagramPacket(batch, batch.length, mgmtAddress2);
+		connector1.processDatagramFromClusterNetwork(DtlsClusterConnector.RECORD_TYPE_INCOMING_BATCH, packet);
+		assertEquals(processed, health1.getCounterByKey("process forwarded") - processedBefore);
+		assertEquals(dropped, health1.getCounterByKey("drop forward") - droppedBefore);
+	}
 }
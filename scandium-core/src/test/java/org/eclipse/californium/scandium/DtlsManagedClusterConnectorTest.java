@@ -103,7 +103,11 @@ public class DtlsManagedClusterConnectorTest {
 				DtlsClusterConnectorConfig.builder().getIncompleteConfig(),
 				DtlsClusterConnectorConfig.builder().setBackwardMessage(false).getIncompleteConfig(),
 				DtlsClusterConnectorConfig.builder().setSecure("test", key).setClusterMac(false).getIncompleteConfig(),
-				DtlsClusterConnectorConfig.builder().setSecure("test", key).getIncompleteConfig());
+				DtlsClusterConnectorConfig.builder().setSecure("test", key).getIncompleteConfig(),
+				DtlsClusterConnectorConfig.builder().setForwardBatchDelay(1, TimeUnit.MILLISECONDS)
+						.getIncompleteConfig(),
+				DtlsClusterConnectorConfig.builder().setSecure("test", key)
+						.setForwardBatchDelay(1, TimeUnit.MILLISECONDS).getIncompleteConfig());
 		SecretUtil.destroy(key);
 		return parameters;
 	}
@@ -24,6 +24,7 @@ package org.eclipse.californium.scandium.dtls;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.number.OrderingComparison.greaterThan;
 import static org.junit.Assert.assertNotNull;
@@ -161,6 +162,34 @@ public class CertificateMessageTest {
 		assertThat(msg.getPublicKey(), is(pk));
 	}
 
+	@Test
+	public void testCachedCertificateMessageSharesEncoding() throws Exception {
+		CertificateEncodingCache cache = new CertificateEncodingCache();
+		List<X509Certificate> chain = Arrays.asList(DtlsTestTools.getServerCertificateChain());
+		CertificateMessage cached1 = cache.getCertificateMessage(chain);
+		CertificateMessage cached2 = cache
+				.getCertificateMessage(Arrays.asList(DtlsTestTools.getServerCertificateChain()));
+		assertThat(cached1, is(not(sameInstance(cached2))));
+		assertThat(cached1.fragmentToByteArray(), is(sameInstance(cached2.fragmentToByteArray())));
+		message = new CertificateMessage(chain);
+		assertThat(cached1.fragmentToByteArray(), is(message.fragmentToByteArray()));
+		assertThat(cached1.getMessageLength(), is(message.getMessageLength()));
+		cached1.setMessageSeq(1);
+		cached2.setMessageSeq(2);
+		assertThat(cached1.toByteArray(), is(not(cached2.toByteArray())));
+	}
+
+	@Test
+	public void testCachedRawPublicKeyCertificateMessage() throws Exception {
+		CertificateEncodingCache cache = new CertificateEncodingCache();
+		CertificateMessage cached1 = cache.getCertificateMessage(serverPublicKey);
+		CertificateMessage cached2 = cache.getCertificateMessage(serverPublicKey);
+		assertThat(cached1.fragmentToByteArray(), is(sameInstance(cached2.fragmentToByteArray())));
+		message = cached1;
+		serializedMessage = message.fragmentToByteArray();
+		assertThatSerializedRawPublicKeyMessageCompliesWithRfc7250();
+	}
+
 	private void assertSerializedMessageLength(int length) {
 		assertThat(message.getMessageLength(), is(length));
 		byte[] serializedMsg = message.fragmentToByteArray();
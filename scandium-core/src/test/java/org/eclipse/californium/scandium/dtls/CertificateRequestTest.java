@@ -24,12 +24,16 @@ import static org.junit.Assert.assertTrue;
 
 import java.security.PublicKey;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import javax.security.auth.x500.X500Principal;
 
 import org.eclipse.californium.elements.category.Small;
 import org.eclipse.californium.elements.rule.LoggingRule;
 import org.eclipse.californium.elements.rule.TestNameLoggerRule;
+import org.eclipse.californium.elements.util.DatagramReader;
 import org.eclipse.californium.scandium.dtls.CertificateRequest.ClientCertificateType;
 import org.eclipse.californium.scandium.dtls.SignatureAndHashAlgorithm.HashAlgorithm;
 import org.eclipse.californium.scandium.dtls.SignatureAndHashAlgorithm.SignatureAlgorithm;
@@ -172,4 +176,33 @@ public class CertificateRequestTest {
 		// next one should exceed max length
 		assertFalse(req.addCertificateAuthority(authority));
 	}
+
+	/**
+	 * Verifies that a cached list of certificate authorities is encoded the
+	 * same way as a fresh list.
+	 */
+	@Test
+	public void testAddCertificateAuthoritiesUsesCachedEncoding() throws Exception {
+
+		CertificateEncodingCache cache = new CertificateEncodingCache();
+		List<X500Principal> authorities = Arrays.asList(new X500Principal("O=Eclipse, OU=Hono Project, CN=test"),
+				new X500Principal("O=Eclipse, OU=Californium, CN=test"));
+		CertificateRequest req1 = new CertificateRequest();
+		assertTrue(req1.addCerticiateAuthorities(authorities));
+		CertificateRequest req2 = new CertificateRequest();
+		assertTrue(cache.addCertificateAuthorities(req2, new ArrayList<>(authorities)));
+		CertificateRequest req3 = new CertificateRequest();
+		assertTrue(cache.addCertificateAuthorities(req3, authorities));
+		assertThat(req3.getCertificateAuthorities(), is(authorities));
+		assertThat(req3.getMessageLength(), is(req1.getMessageLength()));
+		assertThat(req3.fragmentToByteArray(), is(req1.fragmentToByteArray()));
+
+		List<X500Principal> changed = Arrays.asList(new X500Principal("O=Eclipse, OU=Scandium, CN=test"));
+		CertificateRequest req4 = new CertificateRequest();
+		assertTrue(cache.addCertificateAuthorities(req4, changed));
+		assertThat(req4.getCertificateAuthorities(), is(changed));
+		CertificateRequest parsed = (CertificateRequest) CertificateRequest
+				.fromReader(new DatagramReader(req4.fragmentToByteArray()));
+		assertThat(parsed.getCertificateAuthorities(), is(changed));
+	}
 }
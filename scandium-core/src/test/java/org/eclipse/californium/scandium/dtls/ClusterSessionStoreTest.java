@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.scandium.dtls;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.californium.elements.category.Small;
+import org.eclipse.californium.scandium.dtls.ClusterSessionStore.SessionReplicator;
+import org.eclipse.californium.scandium.dtls.cipher.CipherSuite;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(Small.class)
+public class ClusterSessionStoreTest {
+
+	private ClusterSessionStore node1;
+	private ClusterSessionStore node2;
+	private ClusterSessionStore node3;
+
+	@Before
+	public void setUp() {
+		node1 = new ClusterSessionStore(10, 60);
+		node2 = new ClusterSessionStore(10, 60);
+		node3 = new ClusterSessionStore(10, 60);
+		LocalSessionReplicator.connect(node1, node2, node3);
+	}
+
+	@Test
+	public void testSessionIsReplicated() {
+		DTLSSession session = DTLSSessionTest.newEstablishedServerSession(
+				CipherSuite.TLS_ECDHE_ECDSA_WITH_AES_128_CCM_8, CertificateType.RAW_PUBLIC_KEY);
+		SessionId id = session.getSessionIdentifier();
+		node1.put(session);
+		assertThat(node1.get(id), is(notNullValue()));
+		DTLSSession replica = node2.get(id);
+		assertThat(replica, is(notNullValue()));
+		assertThat(replica.getCipherSuite(), is(session.getCipherSuite()));
+		assertThat(replica.getMasterSecret(), is(session.getMasterSecret()));
+		assertThat(node3.get(id), is(notNullValue()));
+	}
+
+	@Test
+	public void testSessionRemovalIsReplicated() {
+		DTLSSession session = DTLSSessionTest.newEstablishedServerSession(
+				CipherSuite.TLS_ECDHE_ECDSA_WITH_AES_128_CCM_8, CertificateType.RAW_PUBLIC_KEY);
+		SessionId id = session.getSessionIdentifier();
+		node1.put(session);
+		node3.remove(id);
+		assertThat(node1.get(id), is(nullValue()));
+		assertThat(node2.get(id), is(nullValue()));
+		assertThat(node3.get(id), is(nullValue()));
+	}
+
+	@Test
+	public void testAllSessionsAreReplicatedToNewNode() {
+		DTLSSession session1 = DTLSSessionTest.newEstablishedServerSession(
+				CipherSuite.TLS_ECDHE_ECDSA_WITH_AES_128_CCM_8, CertificateType.RAW_PUBLIC_KEY);
+		DTLSSession session2 = DTLSSessionTest.newEstablishedServerSession(
+				CipherSuite.TLS_ECDHE_ECDSA_WITH_AES_128_CCM_8, CertificateType.RAW_PUBLIC_KEY);
+		node1.put(session1);
+		node1.put(session2);
+
+		ClusterSessionStore node4 = new ClusterSessionStore(10, 60);
+		LocalSessionReplicator replicator = new LocalSessionReplicator();
+		replicator.others.add(node4);
+		assertThat(node1.replicateAll(replicator), is(2));
+		assertThat(node4.get(session1.getSessionIdentifier()), is(notNullValue()));
+		assertThat(node4.get(session2.getSessionIdentifier()), is(notNullValue()));
+	}
+
+	@Test
+	public void testReplicatedDataIsCleared() {
+		final List<byte[]> replicated = new ArrayList<>();
+		node1.setSessionReplicator(new SessionReplicator() {
+
+			@Override
+			public void replicate(SessionId id, byte[] session) {
+				replicated.add(session);
+			}
+
+			@Override
+			public void replicateRemoval(SessionId id) {
+			}
+		});
+		DTLSSession session = DTLSSessionTest.newEstablishedServerSession(
+				CipherSuite.TLS_ECDHE_ECDSA_WITH_AES_128_CCM_8, CertificateType.RAW_PUBLIC_KEY);
+		node1.put(session);
+		assertThat(replicated.size(), is(1));
+		assertThat(replicated.get(0), is(new byte[replicated.get(0).length]));
+	}
+
+	@Test
+	public void testBrokenReplicaIsIgnored() {
+		assertThat(node1.putReplica(new byte[] { 1, 2, 3 }), is(false));
+	}
+
+	/**
+	 * Local stand-in for the replication over the cluster management channel.
+	 */
+	private static class LocalSessionReplicator implements SessionReplicator {
+
+		private final List<ClusterSessionStore> others = new ArrayList<>();
+
+		@Override
+		public void replicate(SessionId id, byte[] session) {
+			for (ClusterSessionStore store : others) {
+				store.putReplica(session);
+			}
+		}
+
+		@Override
+		public void replicateRemoval(SessionId id) {
+			for (ClusterSessionStore store : others) {
+				store.removeReplica(id);
+			}
+		}
+
+		private static void connect(ClusterSessionStore... stores) {
+			for (ClusterSessionStore store : stores) {
+				LocalSessionReplicator replicator = new LocalSessionReplicator();
+				for (ClusterSessionStore other : stores) {
+					if (other != store) {
+						replicator.others.add(other);
+					}
+				}
+				store.setSessionReplicator(replicator);
+			}
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ ******************************************************************************/
+package org.eclipse.californium.scandium.dtls;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.californium.elements.category.Small;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(Small.class)
+public class ConsistentHashConnectionIdGeneratorTest {
+
+	private static final int CID_LENGTH = 6;
+	private static final int CIDS = 10000;
+
+	@Test
+	public void testSetNodesIncludesOwnNode() {
+		ConsistentHashConnectionIdGenerator generator = new ConsistentHashConnectionIdGenerator(1, CID_LENGTH);
+		assertThat(generator.getNodes().contains(1), is(true));
+		assertThat(generator.setNodes(Arrays.asList(2, 3)), is(true));
+		assertThat(generator.getNodes().size(), is(3));
+		assertThat(generator.getNodes().contains(1), is(true));
+		assertThat(generator.setNodes(Arrays.asList(3, 2, 1)), is(false));
+	}
+
+	@Test
+	public void testCreatedConnectionIdsAreOwned() {
+		List<Integer> nodes = Arrays.asList(1, 2, 3, 4, 5);
+		for (Integer node : nodes) {
+			ConsistentHashConnectionIdGenerator generator = new ConsistentHashConnectionIdGenerator(node, CID_LENGTH);
+			generator.setNodes(nodes);
+			for (int index = 0; index < CIDS / nodes.size(); ++index) {
+				assertThat(generator.getNodeId(generator.createConnectionId()), is(node));
+			}
+		}
+	}
+
+	@Test
+	public void testNodesAgreeOnOwner() {
+		List<Integer> nodes = Arrays.asList(1, 2, 3);
+		ConsistentHashConnectionIdGenerator generator1 = new ConsistentHashConnectionIdGenerator(1, CID_LENGTH);
+		ConsistentHashConnectionIdGenerator generator2 = new ConsistentHashConnectionIdGenerator(2, CID_LENGTH);
+		ConsistentHashConnectionIdGenerator generator3 = new ConsistentHashConnectionIdGenerator(3, CID_LENGTH);
+		generator1.setNodes(nodes);
+		generator2.setNodes(nodes);
+		generator3.setNodes(nodes);
+		for (int index = 0; index < CIDS; ++index) {
+			ConnectionId cid = generator1.createConnectionId();
+			assertThat(generator2.getNodeId(cid), is(1));
+			assertThat(generator3.getNodeId(cid), is(1));
+		}
+	}
+
+	@Test
+	public void testAddedNodeTakesOverOnlySomeConnectionIds() {
+		SingleNodeConnectionIdGenerator random = new SingleNodeConnectionIdGenerator(CID_LENGTH);
+		ConsistentHashConnectionIdGenerator generator = new ConsistentHashConnectionIdGenerator(1, CID_LENGTH);
+		generator.setNodes(Arrays.asList(1, 2));
+		ConnectionId[] cids = new ConnectionId[CIDS];
+		int[] owners = new int[CIDS];
+		for (int index = 0; index < CIDS; ++index) {
+			cids[index] = random.createConnectionId();
+			owners[index] = generator.getNodeId(cids[index]);
+		}
+		generator.setNodes(Arrays.asList(1, 2, 3));
+		int moved = 0;
+		for (int index = 0; index < CIDS; ++index) {
+			int owner = generator.getNodeId(cids[index]);
+			if (owner != owners[index]) {
+				// only moved to the added node
+				assertThat(owner, is(3));
+				++moved;
+			}
+		}
+		// about a third of the cids is moved
+		assertThat(moved, is(greaterThan(CIDS / 5)));
+		assertThat(moved, is(lessThan(CIDS / 2)));
+		generator.setNodes(Collections.<Integer> emptyList());
+		for (int index = 0; index < CIDS; ++index) {
+			assertThat(generator.getNodeId(cids[index]), is(1));
+		}
+	}
+}
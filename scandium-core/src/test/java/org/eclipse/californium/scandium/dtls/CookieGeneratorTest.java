@@ -21,6 +21,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.net.InetSocketAddress;
 import java.security.GeneralSecurityException;
@@ -127,6 +128,27 @@ public class CookieGeneratorTest {
 		assertArrayEquals(cookie1, cookie3);
 	}
 
+	@Test
+	public void testVerifyCookie() throws GeneralSecurityException {
+		ClientHello clientHello = ClientHelloTest.createClientHello(
+				Collections.singletonList(CipherSuite.TLS_PSK_WITH_AES_128_CBC_SHA256),
+				SignatureAndHashAlgorithm.DEFAULT, Collections.<CertificateType> emptyList(),
+				Collections.<CertificateType> emptyList(), Collections.singletonList(SupportedGroup.secp256r1));
+		assertFalse("missing cookie verified!", generator.verifyCookie(peerAddress, clientHello));
+		byte[] cookie = generator.generateCookie(peerAddress, clientHello);
+		clientHello.setCookie(cookie);
+		assertTrue("cookie not verified!", generator.verifyCookie(peerAddress, clientHello));
+		assertFalse("cookie of other peer verified!", generator.verifyCookie(peerAddress2, clientHello));
+
+		// past period
+		time.addTestTimeShift(CookieGenerator.COOKIE_LIFETIME_NANOS + 1000, TimeUnit.NANOSECONDS);
+		assertTrue("past cookie not verified!", generator.verifyCookie(peerAddress, clientHello));
+
+		// expired
+		time.addTestTimeShift(CookieGenerator.COOKIE_LIFETIME_NANOS + 1000, TimeUnit.NANOSECONDS);
+		assertFalse("expired cookie verified!", generator.verifyCookie(peerAddress, clientHello));
+	}
+
 	@Test
 	public void testCookieGeneratorGeneratesSameCookieMultiThreaded() throws GeneralSecurityException {
 		final int LOOPS = TestScope.enableIntensiveTests() ? 20000 : 2000;
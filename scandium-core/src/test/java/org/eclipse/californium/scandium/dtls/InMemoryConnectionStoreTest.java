@@ -32,6 +32,7 @@ import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
 import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.californium.elements.category.Medium;
@@ -243,6 +244,41 @@ public class InMemoryConnectionStoreTest {
 		assertThat(store.get(addr2), is(con1));
 	}
 
+	@Test
+	public void testUpdateUsageDoesNotAcquireWriteLock() throws Exception {
+		final InMemoryReadWriteLockConnectionStore store = new InMemoryReadWriteLockConnectionStore(INITIAL_CAPACITY,
+				1000, null, false);
+		store.attach(null);
+		assertTrue(store.put(con));
+		final CountDownLatch locked = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		Thread writer = new Thread() {
+
+			@Override
+			public void run() {
+				store.writeLock().lock();
+				try {
+					locked.countDown();
+					release.await();
+				} catch (InterruptedException e) {
+				} finally {
+					store.writeLock().unlock();
+				}
+			}
+		};
+		writer.start();
+		try {
+			assertTrue(locked.await(1000, TimeUnit.MILLISECONDS));
+			// write-lock is hold by other thread, usage update must not block
+			assertTrue(store.update(con, null));
+			assertTrue(store.update(con, con.getPeerAddress()));
+			assertThat(store.get(con.getPeerAddress()), is(con));
+		} finally {
+			release.countDown();
+			writer.join(1000);
+		}
+	}
+
 	@Test
 	public void testPutEstablishedSessionStalesOldConnection() throws Exception {
 		// given an empty connection store
@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.scandium.dtls;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.californium.elements.category.Medium;
+import org.eclipse.californium.elements.util.TestScheduledExecutorService;
+import org.eclipse.californium.elements.util.TestSynchroneExecutor;
+import org.eclipse.californium.scandium.dtls.cipher.CipherSuite;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+@Category(Medium.class)
+public class JournalConnectionStoreTest {
+
+	private static final int CAPACITY = 10;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	File directory;
+	JournalConnectionStore store;
+	List<Connection> connections = new ArrayList<>();
+	AtomicBoolean running = new AtomicBoolean(true);
+
+	@Before
+	public void setUp() throws Exception {
+		directory = folder.newFolder("journal");
+		store = createStore(JournalConnectionStore.DEFAULT_COMPACTION_SIZE);
+		for (int index = 1; index <= 4; ++index) {
+			Connection connection = newConnection(index);
+			assertThat(store.put(connection), is(true));
+			store.putEstablishedSession(connection);
+			connections.add(connection);
+		}
+	}
+
+	@Test
+	public void testFlushedConnectionsAreLoaded() throws Exception {
+		assertThat(store.flush(running), is(4));
+		assertThat(store.flush(running), is(0));
+
+		store = createStore(JournalConnectionStore.DEFAULT_COMPACTION_SIZE);
+		for (Connection connection : connections) {
+			Connection loaded = store.get(connection.getConnectionId());
+			assertThat(loaded, is(notNullValue()));
+			assertThat(loaded.getPeerAddress(), is(connection.getPeerAddress()));
+			assertThat(loaded.getEstablishedSession().getSessionIdentifier(),
+					is(connection.getEstablishedSession().getSessionIdentifier()));
+		}
+	}
+
+	@Test
+	public void testSequenceNumbersAreAdvancedWithoutSave() throws Exception {
+		store.flush(running);
+		Connection connection = connections.get(0);
+		long sequenceNumber = connection.getEstablishedDtlsContext().getNextSequenceNumber();
+
+		store = createStore(JournalConnectionStore.DEFAULT_COMPACTION_SIZE);
+		Connection loaded = store.get(connection.getConnectionId());
+		assertThat(loaded.getEstablishedDtlsContext().getNextSequenceNumber(),
+				is(sequenceNumber + JournalConnectionStore.SEQUENCE_NUMBER_GAP));
+	}
+
+	@Test
+	public void testSavedConnectionsKeepSequenceNumbers() throws Exception {
+		store.flush(running);
+		Connection connection = connections.get(0);
+		long sequenceNumber = connection.getEstablishedDtlsContext().getNextSequenceNumber();
+		store.putEstablishedSession(connection);
+		// only the changed connection is appended
+		assertThat(store.saveConnections(new ByteArrayOutputStream(), 0), is(1));
+
+		store = createStore(JournalConnectionStore.DEFAULT_COMPACTION_SIZE);
+		Connection loaded = store.get(connection.getConnectionId());
+		assertThat(loaded.getEstablishedDtlsContext().getNextSequenceNumber(), is(sequenceNumber + 1));
+		assertThat(store.get(connections.get(3).getConnectionId()), is(notNullValue()));
+	}
+
+	@Test
+	public void testSaveAppendsConnectionsWithUsedSequenceNumbers() throws Exception {
+		store.flush(running);
+		Connection connection = connections.get(1);
+		long sequenceNumber = 0;
+		for (int index = 0; index < 10; ++index) {
+			sequenceNumber = connection.getEstablishedDtlsContext().getNextSequenceNumber();
+		}
+		assertThat(store.saveConnections(new ByteArrayOutputStream(), 0), is(1));
+
+		store = createStore(JournalConnectionStore.DEFAULT_COMPACTION_SIZE);
+		Connection loaded = store.get(connection.getConnectionId());
+		assertThat(loaded.getEstablishedDtlsContext().getNextSequenceNumber(), is(sequenceNumber + 1));
+		Connection unchanged = connections.get(2);
+		loaded = store.get(unchanged.getConnectionId());
+		assertThat(loaded.getEstablishedDtlsContext().getNextSequenceNumber(),
+				is(unchanged.getEstablishedDtlsContext().getNextSequenceNumber()));
+	}
+
+	@Test
+	public void testSequenceNumbersAreAdvancedAfterCrashFollowingSave() throws Exception {
+		Connection connection = connections.get(0);
+		store.saveConnections(new ByteArrayOutputStream(), 0);
+
+		store = createStore(JournalConnectionStore.DEFAULT_COMPACTION_SIZE);
+		DTLSContext context = store.get(connection.getConnectionId()).getEstablishedDtlsContext();
+		long sequenceNumber = 0;
+		for (int index = 0; index < 1000; ++index) {
+			sequenceNumber = context.getNextSequenceNumber();
+		}
+
+		// crash, no save
+		store = createStore(JournalConnectionStore.DEFAULT_COMPACTION_SIZE);
+		context = store.get(connection.getConnectionId()).getEstablishedDtlsContext();
+		assertThat(context.getNextSequenceNumber(), is(greaterThan(sequenceNumber)));
+	}
+
+	@Test
+	public void testAdvancedSequenceNumbersArePersisted() throws Exception {
+		store.flush(running);
+		Connection connection = connections.get(0);
+		long sequenceNumber = connection.getEstablishedDtlsContext().getNextSequenceNumber();
+
+		// crash, no save
+		store = createStore(JournalConnectionStore.DEFAULT_COMPACTION_SIZE);
+		DTLSContext context = store.get(connection.getConnectionId()).getEstablishedDtlsContext();
+		long advancedSequenceNumber = context.getNextSequenceNumber();
+		assertThat(advancedSequenceNumber, is(greaterThan(sequenceNumber)));
+
+		// crash again before flush
+		store = createStore(JournalConnectionStore.DEFAULT_COMPACTION_SIZE);
+		context = store.get(connection.getConnectionId()).getEstablishedDtlsContext();
+		assertThat(context.getNextSequenceNumber(), is(greaterThan(advancedSequenceNumber)));
+	}
+
+	@Test
+	public void testConnectionIsAppendedAfterSequenceNumberInterval() throws Exception {
+		store.flush(running);
+		Connection connection = connections.get(0);
+		DTLSContext context = connection.getEstablishedDtlsContext();
+		long sequenceNumber = 0;
+		for (long index = 0; index < JournalConnectionStore.SEQUENCE_NUMBER_GAP * 2; ++index) {
+			sequenceNumber = context.getNextSequenceNumber();
+		}
+
+		// crash, no save
+		store = createStore(JournalConnectionStore.DEFAULT_COMPACTION_SIZE);
+		context = store.get(connection.getConnectionId()).getEstablishedDtlsContext();
+		assertThat(context.getNextSequenceNumber(), is(greaterThan(sequenceNumber)));
+	}
+
+	@Test
+	public void testRemovedConnectionIsNotLoaded() throws Exception {
+		store.flush(running);
+		Connection connection = connections.get(1);
+		assertThat(store.remove(connection, false), is(true));
+		store.flush(running);
+
+		store = createStore(JournalConnectionStore.DEFAULT_COMPACTION_SIZE);
+		assertThat(store.get(connection.getConnectionId()), is(nullValue()));
+		assertThat(store.get(connections.get(0).getConnectionId()), is(notNullValue()));
+		assertThat(store.remainingCapacity(), is(CAPACITY - 3));
+	}
+
+	@Test
+	public void testCompactedConnectionsAreLoaded() throws Exception {
+		store = createStore(1);
+		for (Connection connection : connections) {
+			assertThat(store.get(connection.getConnectionId()), is(nullValue()));
+		}
+		for (Connection connection : connections) {
+			store.put(connection);
+			store.putEstablishedSession(connection);
+		}
+		store.flush(running);
+		// compacts the journal of the first flush
+		store.putEstablishedSession(connections.get(2));
+		store.flush(running);
+
+		store = createStore(JournalConnectionStore.DEFAULT_COMPACTION_SIZE);
+		for (Connection connection : connections) {
+			assertThat(store.get(connection.getConnectionId()), is(notNullValue()));
+		}
+	}
+
+	private JournalConnectionStore createStore(long compactionSize) {
+		JournalConnectionStore store = new JournalConnectionStore(CAPACITY, 1000, null, false, directory,
+				compactionSize);
+		store.attach(null);
+		store.setExecutor(new TestScheduledExecutorService());
+		return store;
+	}
+
+	private Connection newConnection(long ip) throws HandshakeException, UnknownHostException {
+		InetAddress addr = InetAddress.getByAddress(new byte[] { 10, 0, 0, (byte) ip });
+		InetSocketAddress peerAddress = new InetSocketAddress(addr, 0);
+		Connection con = new Connection(peerAddress).setConnectorContext(TestSynchroneExecutor.TEST_EXECUTOR, null);
+		DTLSContext dtlsContext = DTLSContextTest.newEstablishedServerDtlsContext(
+				CipherSuite.TLS_ECDHE_ECDSA_WITH_AES_128_CCM_8, CertificateType.RAW_PUBLIC_KEY);
+		con.getSessionListener().contextEstablished(null, dtlsContext);
+		return con;
+	}
+}
@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.scandium.dtls;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.californium.elements.category.Medium;
+import org.eclipse.californium.elements.util.TestScheduledExecutorService;
+import org.eclipse.californium.elements.util.TestSynchroneExecutor;
+import org.eclipse.californium.scandium.dtls.cipher.CipherSuite;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(Medium.class)
+public class OffHeapConnectionStoreTest {
+
+	private static final int CAPACITY = 10;
+	private static final int HOT_SET_SIZE = 2;
+
+	OffHeapConnectionStore store;
+	List<Connection> connections = new ArrayList<>();
+	AtomicBoolean running = new AtomicBoolean(true);
+
+	@Before
+	public void setUp() throws Exception {
+		store = createStore();
+		for (int index = 1; index <= 4; ++index) {
+			Connection connection = newConnection(index);
+			assertThat(store.put(connection), is(true));
+			connections.add(connection);
+		}
+	}
+
+	@Test
+	public void testOffloadExceedingConnections() {
+		assertThat(store.offload(running), is(2));
+		assertThat(store.getOffloadedSize(), is(2));
+		assertThat(store.remainingCapacity(), is(CAPACITY - 4));
+		assertThat(connections.get(0).isFrozen(), is(true));
+		assertThat(connections.get(1).isFrozen(), is(true));
+		assertThat(connections.get(0).isExecuting(), is(true));
+		assertThat(connections.get(1).isExecuting(), is(true));
+		assertThat(connections.get(3).isFrozen(), is(false));
+		assertThat(store.get(connections.get(3).getConnectionId()), is(sameInstance(connections.get(3))));
+		assertThat(store.offload(running), is(0));
+	}
+
+	@Test
+	public void testGetConnectionIdReloadsConnection() {
+		Connection connection = connections.get(0);
+		ConnectionId cid = connection.getConnectionId();
+		store.offload(running);
+
+		Connection reloaded = store.get(cid);
+		assertThat(reloaded, is(notNullValue()));
+		assertThat(reloaded, is(not(sameInstance(connection))));
+		assertThat(reloaded.isExecuting(), is(true));
+		assertThat(reloaded.isFrozen(), is(false));
+		assertThat(reloaded.getPeerAddress(), is(connection.getPeerAddress()));
+		assertThat(reloaded.getEstablishedSession().getSessionIdentifier(),
+				is(connection.getEstablishedSession().getSessionIdentifier()));
+		assertThat(store.getOffloadedSize(), is(1));
+		assertThat(store.get(cid), is(sameInstance(reloaded)));
+		assertThat(store.remainingCapacity(), is(CAPACITY - 4));
+	}
+
+	@Test
+	public void testGetAddressReloadsConnection() {
+		Connection connection = connections.get(1);
+		store.offload(running);
+
+		Connection reloaded = store.get(connection.getPeerAddress());
+		assertThat(reloaded, is(notNullValue()));
+		assertThat(reloaded.getConnectionId(), is(connection.getConnectionId()));
+		assertThat(store.getOffloadedSize(), is(1));
+	}
+
+	@Test
+	public void testRemovedConnectionIsNotReloaded() {
+		Connection connection = connections.get(0);
+		ConnectionId cid = connection.getConnectionId();
+		store.offload(running);
+
+		Connection reloaded = store.get(cid);
+		assertThat(store.remove(reloaded, false), is(true));
+		assertThat(store.get(cid), is(nullValue()));
+		assertThat(store.get(connection.getPeerAddress()), is(nullValue()));
+	}
+
+	@Test
+	public void testClearRemovesOffloadedConnections() {
+		store.offload(running);
+		store.clear();
+		assertThat(store.getOffloadedSize(), is(0));
+		assertThat(store.get(connections.get(0).getConnectionId()), is(nullValue()));
+		assertThat(store.remainingCapacity(), is(CAPACITY));
+	}
+
+	@Test
+	public void testSaveAndLoadOffloadedConnections() throws Exception {
+		store.offload(running);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertThat(store.saveConnections(out, 1000), is(4));
+		assertThat(store.getOffloadedSize(), is(0));
+
+		store = createStore();
+		ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+		assertThat(store.loadConnections(in, 0), is(4));
+		for (Connection connection : connections) {
+			assertThat(store.get(connection.getConnectionId()), is(notNullValue()));
+		}
+	}
+
+	@Test
+	public void testConnectionWithPendingJobsIsFrozen() throws Exception {
+		final List<Runnable> jobs = new ArrayList<>();
+		Executor executor = new Executor() {
+
+			@Override
+			public void execute(Runnable command) {
+				jobs.add(command);
+			}
+		};
+		ExecutorService storeExecutor = Executors.newSingleThreadExecutor();
+		try {
+			store = createStore();
+			store.setExecutor(storeExecutor);
+			Connection connection = newConnection(5, executor);
+			assertThat(store.put(connection), is(true));
+			assertThat(store.put(newConnection(6)), is(true));
+			assertThat(store.put(newConnection(7)), is(true));
+
+			assertThat(store.offload(running), is(1));
+			final CountDownLatch executed = new CountDownLatch(1);
+			connection.getExecutor().execute(new Runnable() {
+
+				@Override
+				public void run() {
+					executed.countDown();
+				}
+			});
+			// runs the offload job, the other job is still queued
+			assertThat(jobs.size(), is(1));
+			jobs.remove(0).run();
+			// the executor is kept alive and runs the other job
+			assertThat(jobs.size(), is(1));
+			jobs.remove(0).run();
+			assertThat(executed.await(2, TimeUnit.SECONDS), is(true));
+			assertThat(store.getOffloadedSize(), is(1));
+			assertThat(connection.isExecuting(), is(true));
+			assertThat(connection.isFrozen(), is(true));
+			Connection reloaded = store.get(connection.getConnectionId());
+			assertThat(reloaded, is(notNullValue()));
+			assertThat(reloaded, is(not(sameInstance(connection))));
+			assertThat(reloaded.isFrozen(), is(false));
+			assertThat(store.get(connection.getPeerAddress()), is(sameInstance(reloaded)));
+		} finally {
+			storeExecutor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testUnknownConnectionIdDoesNotWaitForLock() throws Exception {
+		final CountDownLatch locked = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		Thread locker = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				store.connections.writeLock().lock();
+				try {
+					locked.countDown();
+					release.await(2, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+				} finally {
+					store.connections.writeLock().unlock();
+				}
+			}
+		});
+		locker.start();
+		try {
+			assertThat(locked.await(2, TimeUnit.SECONDS), is(true));
+			assertThat(release.getCount(), is(1L));
+			assertThat(store.get(new ConnectionId(new byte[] { 1, 2, 3, 4, 5, 6 })), is(nullValue()));
+			// not blocked by the write lock
+			assertThat(release.getCount(), is(1L));
+		} finally {
+			release.countDown();
+			locker.join();
+		}
+	}
+
+	private OffHeapConnectionStore createStore() {
+		OffHeapConnectionStore store = new OffHeapConnectionStore(CAPACITY, 1000, HOT_SET_SIZE, null, false);
+		store.attach(null);
+		store.setExecutor(new TestScheduledExecutorService());
+		return store;
+	}
+
+	private Connection newConnection(long ip) throws HandshakeException, UnknownHostException {
+		return newConnection(ip, TestSynchroneExecutor.TEST_EXECUTOR);
+	}
+
+	private Connection newConnection(long ip, Executor executor) throws HandshakeException, UnknownHostException {
+		InetAddress addr = InetAddress.getByAddress(new byte[] { 10, 0, 0, (byte) ip });
+		InetSocketAddress peerAddress = new InetSocketAddress(addr, 0);
+		Connection con = new Connection(peerAddress).setConnectorContext(executor, null);
+		DTLSContext dtlsContext = DTLSContextTest.newEstablishedServerDtlsContext(
+				CipherSuite.TLS_ECDHE_ECDSA_WITH_AES_128_CCM_8, CertificateType.RAW_PUBLIC_KEY);
+		con.getSessionListener().contextEstablished(null, dtlsContext);
+		return con;
+	}
+}
@@ -15,7 +15,10 @@
  ******************************************************************************/
 package org.eclipse.californium.scandium.dtls.cipher;
 
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeTrue;
 
 import java.util.ArrayList;
@@ -129,6 +132,35 @@ public class CCMBlockCipherTest {
 		assertTrue(Arrays.equals(decryptedData, payloadData));
 	}
 
+	@Test
+	public void testAES128CCMInPlaceCryption() throws Exception {
+		int offset = 3;
+		byte[] buffer = new byte[offset + payloadLength + 16];
+		System.arraycopy(payloadData, 0, buffer, offset, payloadLength);
+
+		int length = CCMBlockCipher.encryptInPlace(aesKey, nonce, additionalData, buffer, offset, payloadLength, 16);
+		byte[] encryptedData = CCMBlockCipher.encrypt(aesKey, nonce, additionalData, payloadData, 16);
+		assertThat(length, is(encryptedData.length));
+		assertThat(Arrays.copyOfRange(buffer, offset, offset + length), is(encryptedData));
+
+		length = CCMBlockCipher.decryptInPlace(aesKey, nonce, additionalData, buffer, offset, length, 16);
+		assertThat(length, is(payloadLength));
+		assertThat(Arrays.copyOfRange(buffer, offset, offset + length), is(payloadData));
+	}
+
+	@Test
+	public void testAES128CCMInPlaceDecryptionFailureKeepsCiphertext() throws Exception {
+		byte[] encryptedData = CCMBlockCipher.encrypt(aesKey, nonce, additionalData, payloadData, 16);
+		encryptedData[encryptedData.length - 1] ^= 0x55;
+		byte[] buffer = encryptedData.clone();
+		try {
+			CCMBlockCipher.decryptInPlace(aesKey, nonce, additionalData, buffer, 0, buffer.length, 16);
+			fail("MAC failure expected!");
+		} catch (InvalidMacException ex) {
+			assertThat(buffer, is(encryptedData));
+		}
+	}
+
 	/**
 	 * Test, if using a 256 key fore encryption and 128 key for decryption fails with invalid MAC.
 	 * Check AES 256 with 1.8.0_144 requires strong encryption enabled
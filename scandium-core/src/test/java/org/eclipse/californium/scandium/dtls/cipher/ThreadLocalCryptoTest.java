@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ *
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ *
+ ******************************************************************************/
+package org.eclipse.californium.scandium.dtls.cipher;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Mac;
+
+import org.eclipse.californium.elements.category.Small;
+import org.eclipse.californium.elements.util.ExecutorsUtil;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(Small.class)
+public class ThreadLocalCryptoTest {
+
+	private static final ThreadLocalMac MAC = new ThreadLocalMac("HmacSHA256");
+
+	@Test
+	public void testAcquireReturnsThreadLocalInstanceOnPlatformThreads() {
+		Mac mac = MAC.acquire();
+		assertThat(mac, is(notNullValue()));
+		assertThat(mac, is(sameInstance(MAC.current())));
+		MAC.release(mac);
+		assertThat(MAC.acquire(), is(sameInstance(mac)));
+	}
+
+	@Test
+	public void testAcquireReusesReleasedInstanceOnVirtualThreads() throws Exception {
+		assumeTrue("requires virtual threads", ExecutorsUtil.isVirtualThreadSupported());
+		ExecutorService executor = ExecutorsUtil.newVirtualThreadPerTaskExecutor();
+		try {
+			final Mac mac = executor.submit(new Callable<Mac>() {
+
+				@Override
+				public Mac call() throws Exception {
+					Mac mac = MAC.acquire();
+					MAC.release(mac);
+					return mac;
+				}
+			}).get(2, TimeUnit.SECONDS);
+			Mac reused = executor.submit(new Callable<Mac>() {
+
+				@Override
+				public Mac call() throws Exception {
+					Mac mac = MAC.acquire();
+					MAC.release(mac);
+					return mac;
+				}
+			}).get(2, TimeUnit.SECONDS);
+			assertThat(reused, is(sameInstance(mac)));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
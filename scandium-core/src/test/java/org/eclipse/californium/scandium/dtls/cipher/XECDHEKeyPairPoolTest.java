@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2022 Contributors to the Eclipse Foundation.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * and Eclipse Distribution License v1.0 which accompany this distribution.
+ * 
+ * The Eclipse Public License is available at
+ *    http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *    http://www.eclipse.org/org/documents/edl-v10.html.
+ * 
+ ******************************************************************************/
+package org.eclipse.californium.scandium.dtls.cipher;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.security.KeyPair;
+import java.util.concurrent.ExecutorService;
+
+import javax.crypto.SecretKey;
+
+import org.eclipse.californium.elements.category.Medium;
+import org.eclipse.californium.elements.util.ExecutorsUtil;
+import org.eclipse.californium.elements.util.JceProviderUtil;
+import org.eclipse.californium.elements.util.TestSynchroneExecutor;
+import org.eclipse.californium.elements.util.TestThreadFactory;
+import org.eclipse.californium.scandium.dtls.cipher.XECDHECryptography.SupportedGroup;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(Medium.class)
+public class XECDHEKeyPairPoolTest {
+
+	private static final SupportedGroup GROUP = SupportedGroup.secp256r1;
+
+	@BeforeClass
+	public static void init() {
+		JceProviderUtil.init();
+	}
+
+	@Test
+	public void testPreparedPoolIsFilled() {
+		XECDHEKeyPairPool pool = new XECDHEKeyPairPool(3, TestSynchroneExecutor.TEST_EXECUTOR);
+		assertThat(pool.available(GROUP), is(0));
+		pool.prepare(GROUP);
+		assertThat(pool.available(GROUP), is(3));
+	}
+
+	@Test
+	public void testKeyPairsAreNotReused() {
+		XECDHEKeyPairPool pool = new XECDHEKeyPairPool(2, TestSynchroneExecutor.TEST_EXECUTOR);
+		pool.prepare(GROUP);
+		KeyPair keyPair1 = pool.take(GROUP);
+		KeyPair keyPair2 = pool.take(GROUP);
+		assertThat(keyPair1, is(notNullValue()));
+		assertThat(keyPair2, is(notNullValue()));
+		assertThat(keyPair1.getPublic(), is(not(keyPair2.getPublic())));
+		// refilled
+		assertThat(pool.available(GROUP), is(2));
+		pool.clear();
+		assertThat(pool.available(GROUP), is(0));
+	}
+
+	@Test
+	public void testEmptyPoolReturnsNull() throws Exception {
+		ExecutorService executor = ExecutorsUtil.newFixedThreadPool(1, new TestThreadFactory("keys-"));
+		executor.shutdown();
+		XECDHEKeyPairPool pool = new XECDHEKeyPairPool(2, executor);
+		assertThat(pool.take(GROUP), is(nullValue()));
+		// generate on demand
+		XECDHECryptography ecdhe = new XECDHECryptography(GROUP, pool);
+		assertThat(ecdhe.getEncodedPoint(), is(notNullValue()));
+	}
+
+	@Test
+	public void testKeyExchangeWithPooledKeyPairs() throws Exception {
+		XECDHEKeyPairPool pool = new XECDHEKeyPairPool(1, TestSynchroneExecutor.TEST_EXECUTOR);
+		for (SupportedGroup group : SupportedGroup.getPreferredGroups()) {
+			pool.prepare(group);
+			XECDHECryptography ecdhe1 = new XECDHECryptography(group, pool);
+			XECDHECryptography ecdhe2 = new XECDHECryptography(group, pool);
+			SecretKey secret1 = ecdhe1.generateSecret(ecdhe2.getEncodedPoint());
+			SecretKey secret2 = ecdhe2.generateSecret(ecdhe1.getEncodedPoint());
+			assertThat(secret1, is(secret2));
+		}
+	}
+}
@@ -16,17 +16,30 @@
 package org.eclipse.californium.scandium.dtls.x509;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assume.assumeThat;
 
+import java.net.InetSocketAddress;
+import java.security.PublicKey;
 import java.security.cert.X509Certificate;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.security.auth.x500.X500Principal;
 
 import org.eclipse.californium.elements.category.Small;
+import org.eclipse.californium.elements.util.TestCertificatesTools;
+import org.eclipse.californium.scandium.dtls.CertificateMessage;
+import org.eclipse.californium.scandium.dtls.CertificateVerificationResult;
+import org.eclipse.californium.scandium.dtls.ConnectionId;
 import org.eclipse.californium.scandium.dtls.DtlsTestTools;
+import org.eclipse.californium.scandium.dtls.HandshakeResult;
+import org.eclipse.californium.scandium.dtls.HandshakeResultHandler;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -61,4 +74,39 @@ public class NewAdvancedCertificateVerifierTest {
 		assertThat(certificateVerifier.getAcceptedIssuers().size(), is(issuers.size()));
 	}
 
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeVerificationCacheSizeFails() {
+		StaticNewAdvancedCertificateVerifier.builder().setTrustedCertificates(trusts).setVerificationCache(-1, 1,
+				TimeUnit.MINUTES);
+	}
+
+	@Test
+	public void testVerificationPoolReportsResult() throws Exception {
+		AsyncNewAdvancedCertificateVerifier certificateVerifier = (AsyncNewAdvancedCertificateVerifier) AsyncNewAdvancedCertificateVerifier
+				.builder().setVerificationThreads(2).setTrustAllRPKs().build();
+		try {
+			final CountDownLatch latch = new CountDownLatch(1);
+			final AtomicReference<HandshakeResult> result = new AtomicReference<>();
+			certificateVerifier.setResultHandler(new HandshakeResultHandler() {
+
+				@Override
+				public void apply(HandshakeResult handshakeResult) {
+					result.set(handshakeResult);
+					latch.countDown();
+				}
+			});
+			ConnectionId cid = new ConnectionId(new byte[] { 1, 2, 3 });
+			PublicKey publicKey = TestCertificatesTools.getClientPublicKey();
+			CertificateMessage message = new CertificateMessage(publicKey);
+			CertificateVerificationResult verificationResult = certificateVerifier.verifyCertificate(cid, null,
+					new InetSocketAddress(5684), false, true, false, message);
+			assertThat(verificationResult, is(nullValue()));
+			assertThat(latch.await(2, TimeUnit.SECONDS), is(true));
+			CertificateVerificationResult asyncResult = (CertificateVerificationResult) result.get();
+			assertThat(asyncResult.getException(), is(nullValue()));
+			assertThat(asyncResult.getPublicKey(), is(notNullValue()));
+		} finally {
+			certificateVerifier.shutdown();
+		}
+	}
 }